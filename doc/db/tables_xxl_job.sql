@@ -32,6 +32,7 @@ CREATE TABLE `xxl_job_info` (
   `trigger_status` tinyint(4) NOT NULL DEFAULT '0' COMMENT '调度状态：0-停止，1-运行',
   `trigger_last_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '上次调度时间',
   `trigger_next_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '下次调度时间',
+  `version` bigint(20) NOT NULL DEFAULT '0' COMMENT '版本，任务变更时递增，用于调度中心缓存失效',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -84,8 +85,9 @@ CREATE TABLE `xxl_job_registry` (
   `registry_key` varchar(255) NOT NULL,
   `registry_value` varchar(255) NOT NULL,
   `update_time` datetime DEFAULT NULL,
+  `executor_load` varchar(100) DEFAULT NULL COMMENT '执行器负载：排队数,运行数,CPU负载,执行耗时',
   PRIMARY KEY (`id`),
-  KEY `i_g_k_v` (`registry_group`,`registry_key`,`registry_value`)
+  UNIQUE KEY `i_g_k_v` (`registry_group`,`registry_key`,`registry_value`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 CREATE TABLE `xxl_job_group` (
@@ -95,6 +97,7 @@ CREATE TABLE `xxl_job_group` (
   `address_type` tinyint(4) NOT NULL DEFAULT '0' COMMENT '执行器地址类型：0=自动注册、1=手动录入',
   `address_list` text COMMENT '执行器地址列表，多地址逗号分隔',
   `update_time` datetime DEFAULT NULL,
+  `version` bigint(20) NOT NULL DEFAULT '0' COMMENT '版本，执行器变更时递增，用于调度中心缓存失效',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -110,6 +113,8 @@ CREATE TABLE `xxl_job_user` (
 
 CREATE TABLE `xxl_job_lock` (
   `lock_name` varchar(50) NOT NULL COMMENT '锁名称',
+  `lease_owner` varchar(255) DEFAULT NULL COMMENT '调度分片租约持有者，调度中心地址',
+  `lease_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '调度分片租约到期时间',
   PRIMARY KEY (`lock_name`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
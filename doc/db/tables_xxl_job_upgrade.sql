@@ -0,0 +1,36 @@
+#
+# XXL-JOB v2.4.0-SNAPSHOT
+# Copyright (c) 2015-present, xuxueli.
+#
+# upgrade from old version, for database created by old "tables_xxl_job.sql"
+
+use `xxl_job`;
+
+SET NAMES utf8mb4;
+
+# schedule shard lease
+ALTER TABLE `xxl_job_lock`
+    ADD COLUMN `lease_owner` varchar(255) DEFAULT NULL COMMENT '调度分片租约持有者，调度中心地址',
+    ADD COLUMN `lease_time` bigint(13) NOT NULL DEFAULT '0' COMMENT '调度分片租约到期时间';
+
+# job info and job group cache version
+ALTER TABLE `xxl_job_info`
+    ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0' COMMENT '版本，任务变更时递增，用于调度中心缓存失效';
+ALTER TABLE `xxl_job_group`
+    ADD COLUMN `version` bigint(20) NOT NULL DEFAULT '0' COMMENT '版本，执行器变更时递增，用于调度中心缓存失效';
+
+# executor load, for route strategy LEAST_LOAD
+ALTER TABLE `xxl_job_registry`
+    ADD COLUMN `executor_load` varchar(100) DEFAULT NULL COMMENT '执行器负载：排队数,运行数,CPU负载,执行耗时';
+
+# registry unique, duplicate row (concurrent save) removed first, latest kept
+DELETE t1 FROM `xxl_job_registry` t1, `xxl_job_registry` t2
+WHERE t1.`registry_group` = t2.`registry_group`
+    AND t1.`registry_key` = t2.`registry_key`
+    AND t1.`registry_value` = t2.`registry_value`
+    AND t1.`id` < t2.`id`;
+ALTER TABLE `xxl_job_registry`
+    DROP INDEX `i_g_k_v`,
+    ADD UNIQUE KEY `i_g_k_v` (`registry_group`,`registry_key`,`registry_value`);
+
+commit;
@@ -6,8 +6,15 @@ import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.serializer.SerializerEnum;
 import com.xxl.job.core.util.GsonTool;
+import com.xxl.job.core.util.ThrowableUtil;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -16,6 +23,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Type;
 import java.util.List;
 
 /**
@@ -24,6 +32,9 @@ import java.util.List;
 @Controller
 @RequestMapping("/api")
 public class JobApiController {
+    private static Logger logger = LoggerFactory.getLogger(JobApiController.class);
+
+    private static final Type CALLBACK_PARAM_LIST_TYPE = new GsonTool.ParameterizedType4ReturnT(List.class, new Type[]{HandleCallbackParam.class});
 
     @Resource
     private AdminBiz adminBiz;
@@ -33,12 +44,32 @@ public class JobApiController {
      *
      * @param uri
      * @param data
-     * @return
+     * @return  serialized by serializer of request (header "XXL-JOB-SERIALIZER")
      */
     @RequestMapping("/{uri}")
     @ResponseBody
     @PermissionLimit(limit=false)
-    public ReturnT<String> api(HttpServletRequest request, @PathVariable("uri") String uri, @RequestBody(required = false) String data) {
+    public ResponseEntity<byte[]> api(HttpServletRequest request, @PathVariable("uri") String uri, @RequestBody(required = false) byte[] data) {
+        SerializerEnum serializer = SerializerEnum.match(request.getHeader(XxlJobRemotingUtil.XXL_JOB_SERIALIZER), SerializerEnum.JSON);
+
+        ReturnT<String> result;
+        try {
+            result = process(request, uri, data!=null?data:new byte[0], serializer);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            result = new ReturnT<String>(ReturnT.FAIL_CODE, "request error:" + ThrowableUtil.toString(e));
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, serializer.getSerializer().getContentType());
+        if (serializer != SerializerEnum.JSON) {
+            headers.set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER, serializer.name());
+        }
+        headers.set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT, SerializerEnum.ACCEPT);
+        return new ResponseEntity<byte[]>(serializer.getSerializer().serialize(result), headers, HttpStatus.OK);
+    }
+
+    private ReturnT<String> process(HttpServletRequest request, String uri, byte[] data, SerializerEnum serializer) {
 
         // valid
         if (!"POST".equalsIgnoreCase(request.getMethod())) {
@@ -55,13 +86,13 @@ public class JobApiController {
 
         // services mapping
         if ("callback".equals(uri)) {
-            List<HandleCallbackParam> callbackParamList = GsonTool.fromJson(data, List.class, HandleCallbackParam.class);
+            List<HandleCallbackParam> callbackParamList = serializer.getSerializer().deserialize(data, CALLBACK_PARAM_LIST_TYPE);
             return adminBiz.callback(callbackParamList);
         } else if ("registry".equals(uri)) {
-            RegistryParam registryParam = GsonTool.fromJson(data, RegistryParam.class);
+            RegistryParam registryParam = serializer.getSerializer().deserialize(data, RegistryParam.class);
             return adminBiz.registry(registryParam);
         } else if ("registryRemove".equals(uri)) {
-            RegistryParam registryParam = GsonTool.fromJson(data, RegistryParam.class);
+            RegistryParam registryParam = serializer.getSerializer().deserialize(data, RegistryParam.class);
             return adminBiz.registryRemove(registryParam);
         } else {
             return new ReturnT<String>(ReturnT.FAIL_CODE, "invalid request, uri-mapping("+ uri +") not found.");
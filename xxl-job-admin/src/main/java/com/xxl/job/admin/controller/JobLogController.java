@@ -11,6 +11,7 @@ import com.xxl.job.admin.dao.XxlJobGroupDao;
 import com.xxl.job.admin.dao.XxlJobInfoDao;
 import com.xxl.job.admin.dao.XxlJobLogDao;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
 import com.xxl.job.core.biz.model.KillParam;
 import com.xxl.job.core.biz.model.LogParam;
 import com.xxl.job.core.biz.model.LogResult;
@@ -26,6 +27,9 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -137,13 +141,15 @@ public class JobLogController {
 
 	@RequestMapping("/logDetailCat")
 	@ResponseBody
-	public ReturnT<LogResult> logDetailCat(String executorAddress, long triggerTime, long logId, int fromLineNum){
+	public ReturnT<LogResult> logDetailCat(String executorAddress, long triggerTime, long logId, int fromLineNum, @RequestParam(required = false, defaultValue = "0") long fromOffset){
 		try {
 			ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(executorAddress);
-			ReturnT<LogResult> logResult = executorBiz.log(new LogParam(triggerTime, logId, fromLineNum));
+			ReturnT<LogResult> logResult = executorBiz.log(new LogParam(triggerTime, logId, fromLineNum, fromOffset));
 
-			// is end
-            if (logResult.getContent()!=null && logResult.getContent().getFromLineNum() > logResult.getContent().getToLineNum()) {
+			// is end, no more log (offset not support by old version executor, always 0)
+            if (logResult.getContent()!=null
+					&& logResult.getContent().getFromLineNum() > logResult.getContent().getToLineNum()
+					&& logResult.getContent().getFromOffset() == logResult.getContent().getToOffset()) {
                 XxlJobLog jobLog = xxlJobLogDao.load(logId);
                 if (jobLog.getHandleCode() > 0) {
                     logResult.getContent().setEnd(true);
@@ -157,6 +163,39 @@ public class JobLogController {
 		}
 	}
 
+	/**
+	 * stream log from executor to browser, copied by buffer, not loaded whole into heap; for large log
+	 */
+	@RequestMapping("/logDetailStream")
+	public void logDetailStream(HttpServletResponse response, String executorAddress, long triggerTime, long logId,
+								@RequestParam(required = false, defaultValue = "0") long fromOffset) throws IOException {
+		response.setContentType("text/plain;charset=UTF-8");
+
+		// is end, load before streaming, log complete if handled
+		XxlJobLog jobLog = xxlJobLogDao.load(logId);
+		boolean isEnd = jobLog!=null && jobLog.getHandleCode() > 0;
+		response.setHeader("XXL-JOB-LOG-END", String.valueOf(isEnd));
+
+		ReturnT<LogResult> logResult;
+		try {
+			ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(executorAddress);
+			if (!(executorBiz instanceof ExecutorBizClient)) {
+				logResult = new ReturnT<LogResult>(ReturnT.FAIL_CODE, "executor address invalid.");
+			} else {
+				logResult = ((ExecutorBizClient) executorBiz).logStream(new LogParam(triggerTime, logId, 0, fromOffset), response.getOutputStream());
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+			logResult = new ReturnT<LogResult>(ReturnT.FAIL_CODE, e.getMessage());
+		}
+
+		// fail, nothing streamed
+		if (logResult.getCode() != ReturnT.SUCCESS_CODE && !response.isCommitted()) {
+			response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			response.getOutputStream().write((logResult.getMsg()!=null?logResult.getMsg():"").getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
 	@RequestMapping("/logKill")
 	@ResponseBody
 	public ReturnT<String> logKill(int id){
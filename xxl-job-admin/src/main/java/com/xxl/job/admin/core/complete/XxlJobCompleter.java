@@ -3,6 +3,7 @@ package com.xxl.job.admin.core.complete;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
+import com.xxl.job.admin.core.thread.JobCacheHelper;
 import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import com.xxl.job.admin.core.util.I18nUtil;
@@ -12,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.MessageFormat;
+import java.util.*;
 
 /**
  * @author xuxueli 2020-10-30 20:43:10
@@ -39,6 +41,47 @@ public class XxlJobCompleter {
         return XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfo(xxlJobLog);
     }
 
+    private static final int UPDATE_BATCH_SIZE = 500;
+
+    /**
+     * batch fresh handle entrance, child job resolved by one query, handle info written by multi-row update
+     *
+     * @param xxlJobLogList
+     * @return
+     */
+    public static int updateHandleInfoAndFinish(List<XxlJobLog> xxlJobLogList) {
+        if (xxlJobLogList==null || xxlJobLogList.isEmpty()) {
+            return 0;
+        }
+
+        // child job, load not cached
+        Set<Integer> jobIds = new HashSet<Integer>();
+        for (XxlJobLog xxlJobLog: xxlJobLogList) {
+            if (XxlJobContext.HANDLE_CODE_SUCCESS == xxlJobLog.getHandleCode()) {
+                jobIds.add(xxlJobLog.getJobId());
+            }
+        }
+        JobCacheHelper.getInstance().loadJobInfos(jobIds);
+
+        // finish
+        for (XxlJobLog xxlJobLog: xxlJobLogList) {
+            finishJob(xxlJobLog);
+
+            // text最大64kb 避免长度过长
+            if (xxlJobLog.getHandleMsg().length() > 15000) {
+                xxlJobLog.setHandleMsg( xxlJobLog.getHandleMsg().substring(0, 15000) );
+            }
+        }
+
+        // fresh handle
+        int ret = 0;
+        for (int i = 0; i < xxlJobLogList.size(); i += UPDATE_BATCH_SIZE) {
+            List<XxlJobLog> batchList = xxlJobLogList.subList(i, Math.min(i + UPDATE_BATCH_SIZE, xxlJobLogList.size()));
+            ret += XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().updateHandleInfoBatch(batchList);
+        }
+        return ret;
+    }
+
 
     /**
      * do somethind to finish job
@@ -48,11 +91,11 @@ public class XxlJobCompleter {
         // 1、handle success, to trigger child job
         String triggerChildMsg = null;
         if (XxlJobContext.HANDLE_CODE_SUCCESS == xxlJobLog.getHandleCode()) {
-            XxlJobInfo xxlJobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(xxlJobLog.getJobId());
-            if (xxlJobInfo!=null && xxlJobInfo.getChildJobId()!=null && xxlJobInfo.getChildJobId().trim().length()>0) {
+            String childJobIdConf = loadChildJobId(xxlJobLog.getJobId());
+            if (childJobIdConf!=null && childJobIdConf.trim().length()>0) {
                 triggerChildMsg = "<br><br><span style=\"color:#00c0ef;\" > >>>>>>>>>>>"+ I18nUtil.getString("jobconf_trigger_child_run") +"<<<<<<<<<<< </span><br>";
 
-                String[] childJobIds = xxlJobInfo.getChildJobId().split(",");
+                String[] childJobIds = childJobIdConf.split(",");
                 for (int i = 0; i < childJobIds.length; i++) {
                     int childJobId = (childJobIds[i]!=null && childJobIds[i].trim().length()>0 && isNumeric(childJobIds[i]))?Integer.valueOf(childJobIds[i]):-1;
                     if (childJobId > 0) {
@@ -87,6 +130,12 @@ public class XxlJobCompleter {
 
     }
 
+
+    private static String loadChildJobId(int jobId) {
+        XxlJobInfo xxlJobInfo = JobCacheHelper.getInstance().getJobInfo(jobId);
+        return xxlJobInfo!=null?xxlJobInfo.getChildJobId():null;
+    }
+
     private static boolean isNumeric(String str){
         try {
             int result = Integer.valueOf(str);
@@ -3,6 +3,8 @@ package com.xxl.job.admin.core.conf;
 import com.xxl.job.admin.core.alarm.JobAlarmer;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
 import com.xxl.job.admin.dao.*;
+import com.xxl.job.core.serializer.SerializerEnum;
+import com.xxl.job.core.util.IpUtil;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
@@ -67,6 +69,27 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Value("${xxl.job.logretentiondays}")
     private int logretentiondays;
 
+    @Value("${xxl.job.schedule.shardtotal:1}")
+    private int scheduleShardTotal;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${xxl.job.remoting.maxconnections:0}")
+    private int remotingMaxConnections;         // 0: default of transport, see PooledHttpTransport
+
+    @Value("${xxl.job.remoting.keepalive:0}")
+    private int remotingKeepAlive;              // 0: default of transport, see PooledHttpTransport
+
+    @Value("${xxl.job.remoting.serializer:JSON}")
+    private String remotingSerializer;
+
+    @Value("${xxl.job.trigger.async:false}")
+    private boolean triggerAsync;
+
+    @Value("${xxl.job.trigger.batchsize:1}")
+    private int triggerBatchSize;
+
     // dao, service
 
     @Resource
@@ -80,6 +103,8 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
     @Resource
     private XxlJobLogReportDao xxlJobLogReportDao;
     @Resource
+    private XxlJobLockDao xxlJobLockDao;
+    @Resource
     private JavaMailSender mailSender;
     @Resource
     private DataSource dataSource;
@@ -123,6 +148,37 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return logretentiondays;
     }
 
+    public int getScheduleShardTotal() {
+        if (scheduleShardTotal < 1) {
+            return 1;
+        }
+        return scheduleShardTotal;
+    }
+
+    public int getRemotingMaxConnections() {
+        return remotingMaxConnections;
+    }
+
+    public int getRemotingKeepAlive() {
+        return remotingKeepAlive;
+    }
+
+    public SerializerEnum getRemotingSerializer() {
+        return SerializerEnum.match(remotingSerializer, SerializerEnum.JSON);
+    }
+
+    public boolean isTriggerAsync() {
+        return triggerAsync;
+    }
+
+    public int getTriggerBatchSize() {
+        return triggerBatchSize;
+    }
+
+    public String getAdminAddress() {
+        return IpUtil.getIpPort(serverPort);
+    }
+
     public XxlJobLogDao getXxlJobLogDao() {
         return xxlJobLogDao;
     }
@@ -131,6 +187,10 @@ public class XxlJobAdminConfig implements InitializingBean, DisposableBean {
         return xxlJobInfoDao;
     }
 
+    public XxlJobLockDao getXxlJobLockDao() {
+        return xxlJobLockDao;
+    }
+
     public XxlJobRegistryDao getXxlJobRegistryDao() {
         return xxlJobRegistryDao;
     }
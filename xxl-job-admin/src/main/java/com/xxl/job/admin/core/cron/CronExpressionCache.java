@@ -0,0 +1,83 @@
+package com.xxl.job.admin.core.cron;
+
+import java.text.ParseException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * compiled cron expression cache, key is cron string (same cron shared by different job)
+ *
+ *      a、bounded：LRU by LinkedHashMap (accessOrder), remove eldest when over max size;
+ *      b、invalidate：when job cron changed or job removed; stale cron can never be hit, because key is cron string itself;
+ *      c、compiled：cache FastCronExpression (bitmask), next-time computed by bit scan;
+ *
+ * @author xuxueli 2023-06-12
+ */
+public class CronExpressionCache {
+
+    private static final int MAX_SIZE = 10000;
+
+    private static final Map<String, FastCronExpression> cronRepository = new LinkedHashMap<String, FastCronExpression>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FastCronExpression> eldest) {
+            return size() > MAX_SIZE;
+        }
+    };
+    private static final AtomicLong hitCount = new AtomicLong(0);
+    private static final AtomicLong missCount = new AtomicLong(0);
+
+    /**
+     * load compiled cron expression, parse and cache if not exists
+     *
+     * @param cronExpression
+     * @return
+     * @throws ParseException
+     */
+    public static FastCronExpression load(String cronExpression) throws ParseException {
+        synchronized (cronRepository) {
+            FastCronExpression cron = cronRepository.get(cronExpression);
+            if (cron != null) {
+                hitCount.incrementAndGet();
+                return cron;
+            }
+        }
+
+        // parse out of lock
+        missCount.incrementAndGet();
+        FastCronExpression cron = new FastCronExpression(new CronExpression(cronExpression));
+        synchronized (cronRepository) {
+            cronRepository.put(cronExpression, cron);
+        }
+        return cron;
+    }
+
+    /**
+     * remove cache
+     *
+     * @param cronExpression
+     */
+    public static void invalidate(String cronExpression) {
+        if (cronExpression == null) {
+            return;
+        }
+        synchronized (cronRepository) {
+            cronRepository.remove(cronExpression);
+        }
+    }
+
+    public static int size() {
+        synchronized (cronRepository) {
+            return cronRepository.size();
+        }
+    }
+
+    public static long getHitCount() {
+        return hitCount.get();
+    }
+
+    public static long getMissCount() {
+        return missCount.get();
+    }
+
+}
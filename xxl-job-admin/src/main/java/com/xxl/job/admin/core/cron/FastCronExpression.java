@@ -0,0 +1,309 @@
+package com.xxl.job.admin.core.cron;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * compiled cron expression, each field stored as primitive long bitmask, next-fire-time computed by bit scan
+ *
+ *      a、field：second/minute/hour/day-of-month/month as long bitmask; year as long[] bitmask, offset from 1970;
+ *      b、day-of-week：pre-expand to day-of-month bitmask for each "weekday of the 1st" (7 masks), so day match is one AND;
+ *      c、time-zone：search on local epoch-second like Calendar does, convert to epoch-second by the offset of fire time;
+ *      d、fallback：special char (L/W/#), fire time near zone transition (DST), or year before 1970, delegate to CronExpression;
+ *
+ * result is always the same as CronExpression.getNextValidTimeAfter
+ *
+ * @author xuxueli 2023-06-14
+ */
+public class FastCronExpression {
+
+    private static final int SECONDS_PER_DAY = 86400;
+    private static final int MIN_YEAR = 1970;
+    private static final int MAX_YEAR = CronExpression.MAX_YEAR;
+
+    /**
+     * day bitmask (bit 1 ~ bit n) by length of month, index 28 ~ 31
+     */
+    private static final long[] MONTH_DAYS_MASK = new long[32];
+    static {
+        for (int len = 28; len <= 31; len++) {
+            MONTH_DAYS_MASK[len] = ((1L << (len + 1)) - 1) & ~1L;
+        }
+    }
+
+    private final CronExpression cronExpression;
+    private final TimeZone timeZone;
+    private final boolean fallback;
+
+    private final long secondMask;
+    private final long minuteMask;
+    private final long hourMask;
+    private final long dayOfMonthMask;
+    private final long monthMask;
+    private final long[] dayOfWeekMasks;    // index: weekday of the 1st of month (1=SUN ~ 7=SAT); null if by day-of-month
+    private final long[] yearMask;
+
+    public FastCronExpression(CronExpression cronExpression) {
+        this.cronExpression = cronExpression;
+        this.timeZone = cronExpression.getTimeZone();
+        this.fallback = cronExpression.lastdayOfMonth
+                || cronExpression.nearestWeekday
+                || cronExpression.lastdayOfWeek
+                || cronExpression.nthdayOfWeek != 0;
+
+        this.secondMask = toMask(cronExpression.seconds, 0, 59);
+        this.minuteMask = toMask(cronExpression.minutes, 0, 59);
+        this.hourMask = toMask(cronExpression.hours, 0, 23);
+        this.monthMask = toMask(cronExpression.months, 1, 12);
+
+        if (!cronExpression.daysOfMonth.contains(CronExpression.NO_SPEC)) {
+            // by day-of-month
+            this.dayOfMonthMask = toMask(cronExpression.daysOfMonth, 1, 31);
+            this.dayOfWeekMasks = null;
+        } else {
+            // by day-of-week
+            long dayOfWeekMask = toMask(cronExpression.daysOfWeek, 1, 7);
+            this.dayOfMonthMask = 0;
+            this.dayOfWeekMasks = new long[8];
+            for (int firstDow = 1; firstDow <= 7; firstDow++) {
+                long mask = 0;
+                for (int day = 1; day <= 31; day++) {
+                    int dow = (firstDow - 1 + day - 1) % 7 + 1;
+                    if ((dayOfWeekMask & (1L << dow)) != 0) {
+                        mask |= 1L << day;
+                    }
+                }
+                this.dayOfWeekMasks[firstDow] = mask;
+            }
+        }
+
+        this.yearMask = new long[((MAX_YEAR - MIN_YEAR) >> 6) + 1];
+        for (Integer year : cronExpression.years) {
+            if (year >= MIN_YEAR && year <= MAX_YEAR) {
+                int index = year - MIN_YEAR;
+                yearMask[index >> 6] |= 1L << index;
+            }
+        }
+    }
+
+    public String getCronExpression() {
+        return cronExpression.getCronExpression();
+    }
+
+    /**
+     * Returns the next date/time after the given date/time which satisfies the cron expression.
+     *
+     * @param date
+     * @return  null if never fire again
+     */
+    public Date getNextValidTimeAfter(Date date) {
+        if (fallback) {
+            return cronExpression.getNextValidTimeAfter(date);
+        }
+
+        // move ahead one second, ignore millisecond
+        long startSecond = Math.floorDiv(date.getTime() + 1000, 1000);
+        int startOffset = timeZone.getOffset(startSecond * 1000) / 1000;
+
+        long localSecond = nextLocalSecond(startSecond + startOffset);
+        if (localSecond == -1) {
+            return null;
+        }
+        if (localSecond == Long.MIN_VALUE) {
+            // year before 1970, out of bitmask
+            return cronExpression.getNextValidTimeAfter(date);
+        }
+
+        long nextSecond = toEpochSecond(localSecond, startOffset);
+        if (nextSecond == Long.MIN_VALUE) {
+            return cronExpression.getNextValidTimeAfter(date);
+        }
+        return new Date(nextSecond * 1000);
+    }
+
+
+    // ---------------------- bit scan ----------------------
+
+    /**
+     * @return  next local epoch-second matched (inclusive); -1 if never; Long.MIN_VALUE if not supported
+     */
+    private long nextLocalSecond(long time) {
+        while (true) {
+            long epochDay = Math.floorDiv(time, SECONDS_PER_DAY);
+            int secondOfDay = (int) Math.floorMod(time, SECONDS_PER_DAY);
+
+            // civil from days
+            long z = epochDay + 719468;
+            long era = Math.floorDiv(z, 146097);
+            int doe = (int) (z - era * 146097);
+            int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            int mp = (5 * doy + 2) / 153;
+            int day = doy - (153 * mp + 2) / 5 + 1;
+            int month = mp < 10 ? mp + 3 : mp - 9;
+            int year = (int) (yoe + era * 400) + (month <= 2 ? 1 : 0);
+
+            if (year < MIN_YEAR) {
+                return Long.MIN_VALUE;
+            }
+
+            // year
+            int nextYear = nextYear(year);
+            if (nextYear == -1) {
+                return -1;
+            }
+            if (nextYear != year) {
+                time = toEpochDay(nextYear, 1, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // month
+            int nextMonth = nextBit(monthMask, month);
+            if (nextMonth == -1) {
+                time = toEpochDay(year + 1, 1, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextMonth != month) {
+                time = toEpochDay(year, nextMonth, 1) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // day
+            long dayMask = MONTH_DAYS_MASK[lengthOfMonth(year, month)];
+            if (dayOfWeekMasks != null) {
+                int firstDow = (int) Math.floorMod(epochDay - (day - 1) + 4, 7) + 1;    // 1970-01-01 is THU(5)
+                dayMask &= dayOfWeekMasks[firstDow];
+            } else {
+                dayMask &= dayOfMonthMask;
+            }
+            int nextDay = nextBit(dayMask, day);
+            if (nextDay == -1) {
+                time = (month == 12 ? toEpochDay(year + 1, 1, 1) : toEpochDay(year, month + 1, 1)) * SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextDay != day) {
+                time = (epochDay + nextDay - day) * SECONDS_PER_DAY;
+                continue;
+            }
+
+            // hour
+            long dayStart = epochDay * SECONDS_PER_DAY;
+            int hour = secondOfDay / 3600;
+            int nextHour = nextBit(hourMask, hour);
+            if (nextHour == -1) {
+                time = dayStart + SECONDS_PER_DAY;
+                continue;
+            }
+            if (nextHour != hour) {
+                time = dayStart + nextHour * 3600;
+                continue;
+            }
+
+            // minute
+            long hourStart = dayStart + hour * 3600;
+            int minute = (secondOfDay / 60) % 60;
+            int nextMinute = nextBit(minuteMask, minute);
+            if (nextMinute == -1) {
+                time = hourStart + 3600;
+                continue;
+            }
+            if (nextMinute != minute) {
+                time = hourStart + nextMinute * 60;
+                continue;
+            }
+
+            // second
+            long minuteStart = hourStart + minute * 60;
+            int nextSecond = nextBit(secondMask, secondOfDay % 60);
+            if (nextSecond == -1) {
+                time = minuteStart + 60;
+                continue;
+            }
+            return minuteStart + nextSecond;
+        }
+    }
+
+    private int nextYear(int year) {
+        int index = year - MIN_YEAR;
+        int word = index >> 6;
+        if (word >= yearMask.length) {
+            return -1;
+        }
+        long mask = yearMask[word] & (-1L << index);
+        while (mask == 0) {
+            if (++word >= yearMask.length) {
+                return -1;
+            }
+            mask = yearMask[word];
+        }
+        return MIN_YEAR + (word << 6) + Long.numberOfTrailingZeros(mask);
+    }
+
+    /**
+     * @return  lowest set bit >= from, -1 if none
+     */
+    private static int nextBit(long mask, int from) {
+        long masked = mask & (-1L << from);
+        return masked == 0 ? -1 : Long.numberOfTrailingZeros(masked);
+    }
+
+    private static long toMask(Set<Integer> values, int min, int max) {
+        long mask = 0;
+        for (Integer value : values) {
+            // skip marker, like ALL_SPEC/NO_SPEC
+            if (value >= min && value <= max) {
+                mask |= 1L << value;
+            }
+        }
+        return mask;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return ((year % 4 == 0 && year % 100 != 0) || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * days from civil
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        int yoe = (int) (y - era * 400);
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+
+    // ---------------------- zone offset ----------------------
+
+    /**
+     * local epoch-second to epoch-second
+     *
+     * @return  Long.MIN_VALUE if near zone transition (DST gap or overlap, Calendar will shift or choose), let CronExpression decide
+     */
+    private long toEpochSecond(long localSecond, int offsetHint) {
+        int offsetSecond = timeZone.getOffset((localSecond - offsetHint) * 1000) / 1000;
+        long epochSecond = localSecond - offsetSecond;
+
+        // same offset in one day around, local time is unique
+        if (timeZone.getOffset(epochSecond * 1000) / 1000 != offsetSecond
+                || timeZone.getOffset((epochSecond - SECONDS_PER_DAY) * 1000) / 1000 != offsetSecond
+                || timeZone.getOffset((epochSecond + SECONDS_PER_DAY) * 1000) / 1000 != offsetSecond) {
+            return Long.MIN_VALUE;
+        }
+        return epochSecond;
+    }
+
+}
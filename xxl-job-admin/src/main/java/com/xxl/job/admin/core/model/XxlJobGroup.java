@@ -2,6 +2,7 @@ package com.xxl.job.admin.core.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -16,13 +17,11 @@ public class XxlJobGroup {
     private int addressType;        // 执行器地址类型：0=自动注册、1=手动录入
     private String addressList;     // 执行器地址列表，多地址逗号分隔(手动录入)
     private Date updateTime;
+    private long version;           // 版本，执行器变更时递增
 
     // registry list
-    private List<String> registryList;  // 执行器地址列表(系统注册)
+    private List<String> registryList;  // 执行器地址列表(系统注册)，parsed when address list set, immutable
     public List<String> getRegistryList() {
-        if (addressList!=null && addressList.trim().length()>0) {
-            registryList = new ArrayList<String>(Arrays.asList(addressList.split(",")));
-        }
         return registryList;
     }
 
@@ -72,6 +71,17 @@ public class XxlJobGroup {
 
     public void setAddressList(String addressList) {
         this.addressList = addressList;
+        this.registryList = (addressList!=null && addressList.trim().length()>0)
+                ? Collections.unmodifiableList(new ArrayList<String>(Arrays.asList(addressList.split(","))))
+                : null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
     }
 
 }
@@ -0,0 +1,38 @@
+package com.xxl.job.admin.core.model;
+
+/**
+ * schedule lock, and lease of schedule shard
+ *
+ * @author xuxueli 2023-07-12
+ */
+public class XxlJobLock {
+
+    private String lockName;
+    private String leaseOwner;      // admin address holding the shard
+    private long leaseTime;         // lease expire time, ms
+
+    public String getLockName() {
+        return lockName;
+    }
+
+    public void setLockName(String lockName) {
+        this.lockName = lockName;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public long getLeaseTime() {
+        return leaseTime;
+    }
+
+    public void setLeaseTime(long leaseTime) {
+        this.leaseTime = leaseTime;
+    }
+
+}
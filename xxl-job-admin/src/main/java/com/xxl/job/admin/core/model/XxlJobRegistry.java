@@ -12,6 +12,7 @@ public class XxlJobRegistry {
     private String registryKey;
     private String registryValue;
     private Date updateTime;
+    private String executorLoad;    // executor load, "queueSize,runningCount,cpuLoad,latency"
 
     public int getId() {
         return id;
@@ -52,4 +53,12 @@ public class XxlJobRegistry {
     public void setUpdateTime(Date updateTime) {
         this.updateTime = updateTime;
     }
+
+    public String getExecutorLoad() {
+        return executorLoad;
+    }
+
+    public void setExecutorLoad(String executorLoad) {
+        this.executorLoad = executorLoad;
+    }
 }
@@ -0,0 +1,237 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.core.biz.AsyncExecutorBiz;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.model.IdleBeatParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * executor beat fan-out, for FAILOVER / BUSYOVER route
+ *
+ *      a、fan-out：beat all address concurrently (async client if enabled, else beat pool), first success chosen, others cancelled;
+ *      b、circuit breaker：address open after remoting fail, skipped without beat for "OPEN_TIME" (doubled when fail again, max "OPEN_TIME_MAX");
+ *          beat again after open time (half-open), closed when success; all address open, beat all;
+ *          recorded by result of beat itself, also after cancelled by fan-out: hung executor (no response) open when beat timeout;
+ *      c、beat pool：sync client, bounded threads and queue; beat rejected when full, as fail (not recorded to circuit), never run in caller thread;
+ *
+ * @author xuxueli 2023-07-10
+ */
+public class ExecutorBeatHelper {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorBeatHelper.class);
+
+    private static final long OPEN_TIME = 5 * 1000;
+    private static final long OPEN_TIME_MAX = 60 * 1000;
+    private static final String REMOTING_FAIL_PREFIX = "xxl-job remoting";       // remoting error msg, see XxlJobRemotingUtil
+    private static final String BEAT_REJECT_MSG = "beat pool busy, beat rejected.";
+
+    private static final ThreadPoolExecutor beatPool = new ThreadPoolExecutor(
+            200,
+            200,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(1000),
+            new ThreadFactory() {
+                private final AtomicInteger threadCount = new AtomicInteger(0);
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "xxl-job, admin ExecutorBeatHelper-beatPool-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    static {
+        beatPool.allowCoreThreadTimeOut(true);
+    }
+
+
+    // ---------------------- circuit breaker ----------------------
+
+    private static class Circuit {
+        private final AtomicInteger failCount = new AtomicInteger(0);
+        private volatile long openUntil = 0;
+    }
+
+    private static final ConcurrentMap<String, Circuit> circuitMap = new ConcurrentHashMap<String, Circuit>();
+
+    public static boolean isOpen(String address) {
+        Circuit circuit = circuitMap.get(address);
+        return circuit != null && circuit.openUntil > System.currentTimeMillis();
+    }
+
+    private static boolean isRejected(ReturnT<String> beatResult) {
+        return beatResult != null
+                && beatResult.getCode() != ReturnT.SUCCESS_CODE
+                && BEAT_REJECT_MSG.equals(beatResult.getMsg());
+    }
+
+    private static boolean isRemotingFail(ReturnT<String> beatResult) {
+        return beatResult == null
+                || (beatResult.getCode() != ReturnT.SUCCESS_CODE
+                    && beatResult.getMsg() != null
+                    && beatResult.getMsg().startsWith(REMOTING_FAIL_PREFIX));
+    }
+
+    private static void recordResult(String address, boolean remotingFail) {
+        if (!remotingFail) {
+            circuitMap.remove(address);
+            return;
+        }
+
+        Circuit circuit = circuitMap.get(address);
+        if (circuit == null) {
+            circuitMap.putIfAbsent(address, new Circuit());
+            circuit = circuitMap.get(address);
+        }
+        if (circuit != null) {
+            int failCount = Math.min(circuit.failCount.incrementAndGet(), 10);
+            circuit.openUntil = System.currentTimeMillis() + Math.min(OPEN_TIME << (failCount - 1), OPEN_TIME_MAX);
+        }
+    }
+
+
+    // ---------------------- fan-out ----------------------
+
+    /**
+     * beat all address concurrently, first success chosen
+     *
+     * @param addressList
+     * @param idleBeatParam     null: beat; not null: idle beat
+     * @param beatTitle         title of beat msg
+     * @return  success: content is the address; fail: msg of all beat
+     */
+    public static ReturnT<String> beat(List<String> addressList, final IdleBeatParam idleBeatParam, final String beatTitle) {
+
+        // skip open address
+        List<String> beatAddressList = new ArrayList<String>();
+        final StringBuffer beatResultSB = new StringBuffer();
+        for (String address : addressList) {
+            if (isOpen(address)) {
+                appendResult(beatResultSB, beatTitle, address, new ReturnT<String>(ReturnT.FAIL_CODE, "circuit open, skip beat."));
+            } else {
+                beatAddressList.add(address);
+            }
+        }
+        if (beatAddressList.isEmpty()) {
+            beatResultSB.setLength(0);
+            beatAddressList.addAll(addressList);
+        }
+
+        // fan-out, first success
+        final CompletableFuture<String> chosenFuture = new CompletableFuture<String>();
+        final AtomicInteger remaining = new AtomicInteger(beatAddressList.size());
+        List<Future<?>> beatFutureList = new ArrayList<Future<?>>();
+        for (final String address : beatAddressList) {
+            CompletableFuture<ReturnT<String>> beatFuture = beatAsync(address, idleBeatParam);
+
+            // circuit, by beat itself (recorded before fan-out); not cancelled when chosen, hung executor recorded when beat timeout
+            CompletableFuture<ReturnT<String>> recordFuture = beatFuture.whenComplete(new BiConsumer<ReturnT<String>, Throwable>() {
+                @Override
+                public void accept(ReturnT<String> beatResult, Throwable throwable) {
+                    if (isRejected(beatResult)) {
+                        return;     // local overload, not beat, circuit untouched
+                    }
+                    recordResult(address, isRemotingFail(beatResult));
+                }
+            });
+
+            // fan-out, cancelled when chosen
+            CompletableFuture<ReturnT<String>> fanOutFuture = recordFuture.thenApply(new Function<ReturnT<String>, ReturnT<String>>() {
+                @Override
+                public ReturnT<String> apply(ReturnT<String> beatResult) {
+                    return beatResult;
+                }
+            });
+            beatFutureList.add(fanOutFuture);
+            fanOutFuture.whenComplete(new BiConsumer<ReturnT<String>, Throwable>() {
+                @Override
+                public void accept(ReturnT<String> beatResult, Throwable throwable) {
+                    if (throwable instanceof CancellationException) {
+                        return;
+                    }
+                    if (beatResult == null) {
+                        beatResult = new ReturnT<String>(ReturnT.FAIL_CODE, REMOTING_FAIL_PREFIX + " error(" + throwable + ")");
+                    }
+
+                    synchronized (beatResultSB) {
+                        if (!chosenFuture.isDone()) {
+                            appendResult(beatResultSB, beatTitle, address, beatResult);
+                        }
+                    }
+                    if (beatResult.getCode() == ReturnT.SUCCESS_CODE) {
+                        chosenFuture.complete(address);
+                    } else if (remaining.decrementAndGet() == 0) {
+                        chosenFuture.complete(null);
+                    }
+                }
+            });
+        }
+
+        String chosenAddress = null;
+        try {
+            chosenAddress = chosenFuture.get();
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+        } finally {
+            for (Future<?> beatFuture : beatFutureList) {
+                beatFuture.cancel(true);
+            }
+        }
+
+        synchronized (beatResultSB) {
+            if (chosenAddress != null) {
+                ReturnT<String> beatResult = new ReturnT<String>(chosenAddress);
+                beatResult.setMsg(beatResultSB.toString());
+                return beatResult;
+            }
+            return new ReturnT<String>(ReturnT.FAIL_CODE, beatResultSB.toString());
+        }
+    }
+
+    private static CompletableFuture<ReturnT<String>> beatAsync(final String address, final IdleBeatParam idleBeatParam) {
+        // async client, not holding thread
+        AsyncExecutorBiz asyncExecutorBiz = XxlJobScheduler.getAsyncExecutorBiz(address);
+        if (asyncExecutorBiz != null) {
+            return idleBeatParam != null ? asyncExecutorBiz.idleBeat(idleBeatParam) : asyncExecutorBiz.beat();
+        }
+
+        // sync client, in beat pool; rejected as fail
+        try {
+            return CompletableFuture.supplyAsync(new Supplier<ReturnT<String>>() {
+                @Override
+                public ReturnT<String> get() {
+                    try {
+                        ExecutorBiz executorBiz = XxlJobScheduler.getExecutorBiz(address);
+                        return idleBeatParam != null ? executorBiz.idleBeat(idleBeatParam) : executorBiz.beat();
+                    } catch (Exception e) {
+                        logger.error(e.getMessage(), e);
+                        return new ReturnT<String>(ReturnT.FAIL_CODE, REMOTING_FAIL_PREFIX + " error(" + e + ")");
+                    }
+                }
+            }, beatPool);
+        } catch (RejectedExecutionException e) {
+            logger.warn(">>>>>>>>>>> xxl-job, executor beat pool busy, beat rejected, address:{}", address);
+            return CompletableFuture.completedFuture(new ReturnT<String>(ReturnT.FAIL_CODE, BEAT_REJECT_MSG));
+        }
+    }
+
+    private static void appendResult(StringBuffer beatResultSB, String beatTitle, String address, ReturnT<String> beatResult) {
+        beatResultSB.append( (beatResultSB.length()>0)?"<br><br>":"")
+                .append(beatTitle + "：")
+                .append("<br>address：").append(address)
+                .append("<br>code：").append(beatResult.getCode())
+                .append("<br>msg：").append(beatResult.getMsg());
+    }
+
+}
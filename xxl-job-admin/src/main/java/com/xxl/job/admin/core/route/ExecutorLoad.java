@@ -0,0 +1,123 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.core.biz.model.RegistryParam;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * executor load, reported by executor heartbeat, in memory
+ *
+ *      a、report：queue size, running count, cpu load, latency; replaced each heartbeat;
+ *          written to registry row ("executor_load") when heartbeat flushed, loaded by other admin from registry row;
+ *      b、dispatch：trigger routed by this admin after report, added to pending, avoid all trigger to the same node before next heartbeat;
+ *
+ * @author xuxueli 2023-07-08
+ */
+public class ExecutorLoad {
+
+    private final int queueSize;
+    private final int runningCount;
+    private final int cpuLoad;
+    private final long latency;
+    private final long reportTime;
+    private final AtomicInteger dispatchCount = new AtomicInteger(0);
+
+    public ExecutorLoad(RegistryParam registryParam, long reportTime) {
+        this(registryParam.getQueueSize(), registryParam.getRunningCount(), registryParam.getCpuLoad(), registryParam.getLatency(), reportTime);
+    }
+
+    public ExecutorLoad(int queueSize, int runningCount, int cpuLoad, long latency, long reportTime) {
+        this.queueSize = queueSize;
+        this.runningCount = runningCount;
+        this.cpuLoad = cpuLoad;
+        this.latency = latency;
+        this.reportTime = reportTime;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    public int getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public long getReportTime() {
+        return reportTime;
+    }
+
+    public int getDispatchCount() {
+        return dispatchCount.get();
+    }
+
+    public void dispatch() {
+        dispatchCount.incrementAndGet();
+    }
+
+    /**
+     * pending job: queue + running + dispatched after report
+     */
+    public int getPending() {
+        return queueSize + runningCount + dispatchCount.get();
+    }
+
+    /**
+     * compare by pending, then cpu load, then latency
+     *
+     * @return  <0 if lighter than other
+     */
+    public int compareLoad(ExecutorLoad other) {
+        int ret = Integer.compare(getPending(), other.getPending());
+        if (ret == 0) {
+            ret = Integer.compare(Math.max(cpuLoad, 0), Math.max(other.cpuLoad, 0));
+        }
+        if (ret == 0) {
+            ret = Long.compare(latency, other.latency);
+        }
+        return ret;
+    }
+
+    // ---------------------- registry row ----------------------
+
+    /**
+     * format for registry row, "queueSize,runningCount,cpuLoad,latency"
+     */
+    public String toLoadString() {
+        return queueSize + "," + runningCount + "," + cpuLoad + "," + latency;
+    }
+
+    /**
+     * parse from registry row
+     *
+     * @param loadString
+     * @param reportTime
+     * @return  null if empty or invalid
+     */
+    public static ExecutorLoad parse(String loadString, long reportTime) {
+        if (loadString==null || loadString.trim().length()==0) {
+            return null;
+        }
+        String[] loadArr = loadString.split(",");
+        if (loadArr.length < 4) {
+            return null;
+        }
+        try {
+            return new ExecutorLoad(Integer.parseInt(loadArr[0].trim()),
+                    Integer.parseInt(loadArr[1].trim()),
+                    Integer.parseInt(loadArr[2].trim()),
+                    Long.parseLong(loadArr[3].trim()),
+                    reportTime);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
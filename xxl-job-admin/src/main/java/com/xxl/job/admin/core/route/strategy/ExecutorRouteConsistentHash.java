@@ -4,22 +4,39 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 分组下机器地址相同，不同JOB均匀散列在不同机器上，保证分组下机器分配JOB平均；且每个JOB固定调度其中一台机器；
  *      a、virtual node：解决不均衡问题
  *      b、hash method replace hashCode：String的hashCode可能重复，需要进一步扩大hashCode的取值范围
+ *      c、ring cache：ring built once for each address list (key: address list, hashCode as fingerprint), sorted long[] + binary search;
+ *          rebuilt only when address list changed, same result as TreeMap ring;
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteConsistentHash extends ExecutorRouter {
 
     private static int VIRTUAL_NODE_NUM = 100;
+    private static final int RING_CACHE_MAX_SIZE = 1000;
+
+    private static final ThreadLocal<MessageDigest> md5Holder = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("MD5 not supported", e);
+            }
+        }
+    };
 
     /**
      * get hash code on 2^32 ring (md5散列的方式计算hash值)
@@ -29,21 +46,9 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
     private static long hash(String key) {
 
         // md5 byte
-        MessageDigest md5;
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 not supported", e);
-        }
+        MessageDigest md5 = md5Holder.get();
         md5.reset();
-        byte[] keyBytes = null;
-        try {
-            keyBytes = key.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Unknown string :" + key, e);
-        }
-
-        md5.update(keyBytes);
+        md5.update(key.getBytes(StandardCharsets.UTF_8));
         byte[] digest = md5.digest();
 
         // hash code, Truncate to 32-bits
@@ -56,24 +61,101 @@ public class ExecutorRouteConsistentHash extends ExecutorRouter {
         return truncateHashCode;
     }
 
+
+    // ---------------------- ring ----------------------
+
+    private static final ConcurrentMap<List<String>, AddressRing> ringCache = new ConcurrentHashMap<List<String>, AddressRing>();
+    private static final AtomicLong ringBuildCount = new AtomicLong(0);
+
+    /**
+     * immutable ring, node hash sorted
+     */
+    private static class AddressRing {
+        private final long[] nodeHashes;
+        private final String[] nodeAddresses;
+
+        private AddressRing(List<String> addressList) {
+
+            // node: hash(32 bit) << 31 | address index, sorted by hash then address index
+            long[] nodes = new long[addressList.size() * VIRTUAL_NODE_NUM];
+            int nodeCount = 0;
+            for (int addressIndex = 0; addressIndex < addressList.size(); addressIndex++) {
+                String address = addressList.get(addressIndex);
+                for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
+                    long addressHash = hash("SHARD-" + address + "-NODE-" + i);
+                    nodes[nodeCount++] = (addressHash << 31) | addressIndex;
+                }
+            }
+            Arrays.sort(nodes);
+
+            // same hash, the last address wins (same as TreeMap.put)
+            long[] nodeHashes = new long[nodes.length];
+            String[] nodeAddresses = new String[nodes.length];
+            int ringSize = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                long nodeHash = nodes[i] >>> 31;
+                String nodeAddress = addressList.get((int) (nodes[i] & 0x7fffffffL));
+                if (ringSize > 0 && nodeHashes[ringSize - 1] == nodeHash) {
+                    nodeAddresses[ringSize - 1] = nodeAddress;
+                } else {
+                    nodeHashes[ringSize] = nodeHash;
+                    nodeAddresses[ringSize] = nodeAddress;
+                    ringSize++;
+                }
+            }
+            this.nodeHashes = ringSize < nodes.length ? Arrays.copyOf(nodeHashes, ringSize) : nodeHashes;
+            this.nodeAddresses = ringSize < nodes.length ? Arrays.copyOf(nodeAddresses, ringSize) : nodeAddresses;
+        }
+
+        private String find(long jobHash) {
+            if (nodeHashes.length == 0) {
+                return null;
+            }
+            int index = Arrays.binarySearch(nodeHashes, jobHash);
+            if (index < 0) {
+                index = -(index + 1);
+                if (index == nodeHashes.length) {
+                    index = 0;
+                }
+            }
+            return nodeAddresses[index];
+        }
+    }
+
+    private static AddressRing loadRing(List<String> addressList) {
+        AddressRing addressRing = ringCache.get(addressList);
+        if (addressRing != null) {
+            return addressRing;
+        }
+
+        // build, key copied (address list may be changed by caller)
+        List<String> ringKey = new ArrayList<String>(addressList);
+        addressRing = new AddressRing(ringKey);
+        ringBuildCount.incrementAndGet();
+        if (ringCache.size() >= RING_CACHE_MAX_SIZE) {
+            ringCache.clear();
+        }
+        ringCache.put(ringKey, addressRing);
+        return addressRing;
+    }
+
+    public static long getRingBuildCount() {
+        return ringBuildCount.get();
+    }
+
+    public static int getRingCacheSize() {
+        return ringCache.size();
+    }
+
+
     public String hashJob(int jobId, List<String> addressList) {
 
         // ------A1------A2-------A3------
         // -----------J1------------------
-        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
-        for (String address: addressList) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                long addressHash = hash("SHARD-" + address + "-NODE-" + i);
-                addressRing.put(addressHash, address);
-            }
-        }
+        AddressRing addressRing = loadRing(addressList);
 
         long jobHash = hash(String.valueOf(jobId));
-        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
-        }
-        return addressRing.firstEntry().getValue();
+        return addressRing.find(jobHash);
     }
 
     @Override
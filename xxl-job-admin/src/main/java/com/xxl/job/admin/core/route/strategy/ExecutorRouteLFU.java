@@ -4,21 +4,24 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.*;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * 单个JOB对应的每个执行器，使用频率最低的优先被选举
  *      a(*)、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      thread-safe：use count in RouteAddressCounter (AtomicLongArray), least used taken by CAS, no lock and no allocation when route;
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLFU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, HashMap<String, Integer>> jobLfuMap = new ConcurrentHashMap<Integer, HashMap<String, Integer>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, RouteAddressCounter> jobLfuMap = new ConcurrentHashMap<Integer, RouteAddressCounter>();
+    private static volatile long CACHE_VALID_TIME = 0;
 
     public String route(int jobId, List<String> addressList) {
 
@@ -28,46 +31,46 @@ public class ExecutorRouteLFU extends ExecutorRouter {
             CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*24;
         }
 
-        // lfu item init
-        HashMap<String, Integer> lfuItemMap = jobLfuMap.get(jobId);     // Key排序可以用TreeMap+构造入参Compare；Value排序暂时只能通过ArrayList；
-        if (lfuItemMap == null) {
-            lfuItemMap = new HashMap<String, Integer>();
-            jobLfuMap.putIfAbsent(jobId, lfuItemMap);   // 避免重复覆盖
+        // lfu item init, rebuild when address changed
+        RouteAddressCounter lfuCounter = jobLfuMap.get(jobId);
+        if (lfuCounter == null || !lfuCounter.match(addressList)) {
+            lfuCounter = buildLfuCounter(lfuCounter, addressList);
+            jobLfuMap.put(jobId, lfuCounter);
         }
 
-        // put new
-        for (String address: addressList) {
-            if (!lfuItemMap.containsKey(address) || lfuItemMap.get(address) >1000000 ) {
-                lfuItemMap.put(address, new Random().nextInt(addressList.size()));  // 初始化时主动Random一次，缓解首次压力
+        // load least used count address, count++
+        while (true) {
+            int index = lfuCounter.minIndex();
+            long count = lfuCounter.value(index);
+            if (lfuCounter.compareAndSet(index, count, count + 1)) {
+                return lfuCounter.address(index);
             }
         }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lfuItemMap.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
+    }
+
+    /**
+     * count of exists address kept; new address start from min count, not flooded
+     */
+    private static RouteAddressCounter buildLfuCounter(RouteAddressCounter oldLfuCounter, List<String> addressList) {
+        long[] counts = new long[addressList.size()];
+        long minCount = Long.MAX_VALUE;
+        boolean[] exists = new boolean[addressList.size()];
+        for (int i = 0; i < addressList.size(); i++) {
+            int oldIndex = (oldLfuCounter != null) ? oldLfuCounter.indexOf(addressList.get(i)) : -1;
+            if (oldIndex > -1) {
+                counts[i] = oldLfuCounter.value(oldIndex);
+                exists[i] = true;
+                minCount = Math.min(minCount, counts[i]);
             }
         }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lfuItemMap.remove(delKey);
+        for (int i = 0; i < addressList.size(); i++) {
+            if (!exists[i]) {
+                counts[i] = (minCount != Long.MAX_VALUE)
+                        ? minCount
+                        : ThreadLocalRandom.current().nextInt(addressList.size());  // 初始化时主动Random一次，缓解首次压力
             }
         }
-
-        // load least userd count address
-        List<Map.Entry<String, Integer>> lfuItemList = new ArrayList<Map.Entry<String, Integer>>(lfuItemMap.entrySet());
-        Collections.sort(lfuItemList, new Comparator<Map.Entry<String, Integer>>() {
-            @Override
-            public int compare(Map.Entry<String, Integer> o1, Map.Entry<String, Integer> o2) {
-                return o1.getValue().compareTo(o2.getValue());
-            }
-        });
-
-        Map.Entry<String, Integer> addressItem = lfuItemList.get(0);
-        String minAddress = addressItem.getKey();
-        addressItem.setValue(addressItem.getValue() + 1);
-
-        return addressItem.getKey();
+        return new RouteAddressCounter(addressList, counts);
     }
 
     @Override
@@ -4,8 +4,6 @@ import com.xxl.job.admin.core.route.ExecutorRouter;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -15,12 +13,14 @@ import java.util.concurrent.ConcurrentMap;
  *      a、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b(*)、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ *      thread-safe：last use clock (nanoTime) in RouteAddressCounter, eldest taken by CAS, no lock and no allocation when route;
+ *
  * Created by xuxueli on 17/3/10.
  */
 public class ExecutorRouteLRU extends ExecutorRouter {
 
-    private static ConcurrentMap<Integer, LinkedHashMap<String, String>> jobLRUMap = new ConcurrentHashMap<Integer, LinkedHashMap<String, String>>();
-    private static long CACHE_VALID_TIME = 0;
+    private static ConcurrentMap<Integer, RouteAddressCounter> jobLRUMap = new ConcurrentHashMap<Integer, RouteAddressCounter>();
+    private static volatile long CACHE_VALID_TIME = 0;
 
     public String route(int jobId, List<String> addressList) {
 
@@ -30,41 +30,40 @@ public class ExecutorRouteLRU extends ExecutorRouter {
             CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*24;
         }
 
-        // init lru
-        LinkedHashMap<String, String> lruItem = jobLRUMap.get(jobId);
-        if (lruItem == null) {
-            /**
-             * LinkedHashMap
-             *      a、accessOrder：true=访问顺序排序（get/put时排序）；false=插入顺序排期；
-             *      b、removeEldestEntry：新增元素时将会调用，返回true时会删除最老元素；可封装LinkedHashMap并重写该方法，比如定义最大容量，超出是返回true即可实现固定长度的LRU算法；
-             */
-            lruItem = new LinkedHashMap<String, String>(16, 0.75f, true);
-            jobLRUMap.putIfAbsent(jobId, lruItem);
+        // init lru, rebuild when address changed
+        long now = System.nanoTime();
+        RouteAddressCounter lruCounter = jobLRUMap.get(jobId);
+        if (lruCounter == null || !lruCounter.match(addressList)) {
+            lruCounter = buildLruCounter(lruCounter, addressList, now);
+            jobLRUMap.put(jobId, lruCounter);
         }
 
-        // put new
-        for (String address: addressList) {
-            if (!lruItem.containsKey(address)) {
-                lruItem.put(address, address);
-            }
-        }
-        // remove old
-        List<String> delKeys = new ArrayList<>();
-        for (String existKey: lruItem.keySet()) {
-            if (!addressList.contains(existKey)) {
-                delKeys.add(existKey);
+        // load eldest, set last use
+        while (true) {
+            int index = lruCounter.minIndex();
+            long lastUse = lruCounter.value(index);
+            if (lruCounter.compareAndSet(index, lastUse, Math.max(now, lastUse + 1))) {
+                return lruCounter.address(index);
             }
         }
-        if (delKeys.size() > 0) {
-            for (String delKey: delKeys) {
-                lruItem.remove(delKey);
+    }
+
+    /**
+     * init: eldest by list order; last use of exists address kept; new address as newest (same as put to LinkedHashMap tail)
+     */
+    private static RouteAddressCounter buildLruCounter(RouteAddressCounter oldLruCounter, List<String> addressList, long now) {
+        long[] lastUses = new long[addressList.size()];
+        for (int i = 0; i < addressList.size(); i++) {
+            int oldIndex = (oldLruCounter != null) ? oldLruCounter.indexOf(addressList.get(i)) : -1;
+            if (oldIndex > -1) {
+                lastUses[i] = oldLruCounter.value(oldIndex);
+            } else if (oldLruCounter != null) {
+                lastUses[i] = now - 1;      // before this route
+            } else {
+                lastUses[i] = now - addressList.size() + i;
             }
         }
-
-        // load
-        String eldestKey = lruItem.entrySet().iterator().next().getKey();
-        String eldestValue = lruItem.get(eldestKey);
-        return eldestValue;
+        return new RouteAddressCounter(addressList, lastUses);
     }
 
     @Override
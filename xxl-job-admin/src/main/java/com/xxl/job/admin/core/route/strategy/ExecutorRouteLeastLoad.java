@@ -0,0 +1,66 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import com.xxl.job.admin.core.route.ExecutorLoad;
+import com.xxl.job.admin.core.route.ExecutorRouter;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 负载最低的执行器优先被选举，负载由执行器注册心跳上报（排队数、运行数、CPU负载、执行耗时），无需每次调度探测
+ *      a、power of two choices：random pick two, route to the lighter; avoid all trigger to the same node by stale load;
+ *      b、dispatch：pending of chosen node increased until next heartbeat;
+ *      c、load unknown (old executor, or registry row of other admin not loaded yet)：the first random one;
+ *
+ * @author xuxueli 2023-07-08
+ */
+public class ExecutorRouteLeastLoad extends ExecutorRouter {
+
+    public String route(List<String> addressList) {
+        int size = addressList.size();
+        if (size == 1) {
+            dispatch(addressList.get(0));
+            return addressList.get(0);
+        }
+
+        // random two
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        // lighter one
+        String address = addressList.get(first);
+        ExecutorLoad firstLoad = JobRegistryHelper.getInstance().getExecutorLoad(address);
+        ExecutorLoad secondLoad = JobRegistryHelper.getInstance().getExecutorLoad(addressList.get(second));
+        ExecutorLoad chosenLoad = firstLoad;
+        if (firstLoad != null && secondLoad != null && secondLoad.compareLoad(firstLoad) < 0) {
+            address = addressList.get(second);
+            chosenLoad = secondLoad;
+        }
+
+        if (chosenLoad != null) {
+            chosenLoad.dispatch();
+        }
+        return address;
+    }
+
+    private static void dispatch(String address) {
+        ExecutorLoad executorLoad = JobRegistryHelper.getInstance().getExecutorLoad(address);
+        if (executorLoad != null) {
+            executorLoad.dispatch();
+        }
+    }
+
+    @Override
+    public ReturnT<String> route(TriggerParam triggerParam, List<String> addressList) {
+        String address = route(addressList);
+        return new ReturnT<String>(address);
+    }
+
+}
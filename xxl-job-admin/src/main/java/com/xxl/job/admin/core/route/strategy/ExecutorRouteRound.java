@@ -5,9 +5,9 @@ import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
 
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -16,7 +16,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class ExecutorRouteRound extends ExecutorRouter {
 
     private static ConcurrentMap<Integer, AtomicInteger> routeCountEachJob = new ConcurrentHashMap<>();
-    private static long CACHE_VALID_TIME = 0;
+    private static volatile long CACHE_VALID_TIME = 0;
 
     private static int count(int jobId) {
         // cache clear
@@ -26,15 +26,17 @@ public class ExecutorRouteRound extends ExecutorRouter {
         }
 
         AtomicInteger count = routeCountEachJob.get(jobId);
-        if (count == null || count.get() > 1000000) {
+        if (count == null) {
             // 初始化时主动Random一次，缓解首次压力
-            count = new AtomicInteger(new Random().nextInt(100));
-        } else {
-            // count++
-            count.addAndGet(1);
+            AtomicInteger newCount = new AtomicInteger(ThreadLocalRandom.current().nextInt(100));
+            count = routeCountEachJob.putIfAbsent(jobId, newCount);
+            if (count == null) {
+                count = newCount;
+            }
         }
-        routeCountEachJob.put(jobId, count);
-        return count.get();
+
+        // count++, not negative when overflow
+        return count.getAndIncrement() & Integer.MAX_VALUE;
     }
 
     @Override
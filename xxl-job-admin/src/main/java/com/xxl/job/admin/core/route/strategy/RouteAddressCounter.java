@@ -0,0 +1,86 @@
+package com.xxl.job.admin.core.route.strategy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * address counter of one job, for LFU (use count) and LRU (last use clock)
+ *
+ *      a、immutable address, built for one address list; rebuilt when address list changed;
+ *      b、lock-free：min selected by scan, taken by CAS; retry when taken by other thread;
+ *      c、allocation-free when route;
+ *
+ * @author xuxueli 2023-07-05
+ */
+class RouteAddressCounter {
+
+    private final List<String> addressList;     // built for, same list (cached registry list) checked by reference first
+    private final String[] addresses;
+    private final AtomicLongArray values;
+
+    RouteAddressCounter(List<String> addressList, long[] initValues) {
+        this.addressList = addressList;
+        this.addresses = addressList.toArray(new String[addressList.size()]);
+        this.values = new AtomicLongArray(initValues);
+    }
+
+    /**
+     * built for this address list
+     */
+    boolean match(List<String> addressList) {
+        if (this.addressList == addressList) {
+            return true;
+        }
+        if (addresses.length != addressList.size()) {
+            return false;
+        }
+        for (int i = 0; i < addresses.length; i++) {
+            if (!addresses[i].equals(addressList.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return addresses.length;
+    }
+
+    String address(int index) {
+        return addresses[index];
+    }
+
+    long value(int index) {
+        return values.get(index);
+    }
+
+    boolean compareAndSet(int index, long expect, long update) {
+        return values.compareAndSet(index, expect, update);
+    }
+
+    int indexOf(String address) {
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i].equals(address)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * index of min value, first one when equal
+     */
+    int minIndex() {
+        int minIndex = 0;
+        long minValue = values.get(0);
+        for (int i = 1; i < addresses.length; i++) {
+            long value = values.get(i);
+            if (value < minValue) {
+                minValue = value;
+                minIndex = i;
+            }
+        }
+        return minIndex;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobLock;
+import com.xxl.job.admin.dao.XxlJobLockDao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * lease of schedule shard, on "xxl_job_lock" row of each shard, renewed each second by schedule thread
+ *
+ *      a、preferred shard：shard "i" preferred by the online admin at "i % adminNum" (sorted by address), renewed unconditionally (taken back);
+ *      b、take over：lease lapsed (owner crashed, not renewed in "LEASE_MS"), taken over by any admin; given back when preferred admin renew again;
+ *      c、consistency：shard still scheduled under its "xxl_job_lock" row lock, lease only decide which admin to schedule, never trigger repeatedly;
+ *
+ * @author xuxueli 2023-07-12
+ */
+public class ShardLease {
+
+    public static final long LEASE_MS = 3000;       // much shorter than pre-read window, shard of crashed admin taken over before job misfire
+
+    private final XxlJobLockDao xxlJobLockDao;
+    private final String leaseOwner;
+
+    public ShardLease(XxlJobLockDao xxlJobLockDao, String leaseOwner) {
+        this.xxlJobLockDao = xxlJobLockDao;
+        this.leaseOwner = leaseOwner;
+    }
+
+    /**
+     * renew lease of preferred shard, take over shard whose lease lapsed
+     *
+     * @param adminList     online admin, sorted; null if not ready (take over lapsed shard only)
+     * @param shardTotal
+     * @param nowTime
+     * @return  shard index owned by this admin
+     */
+    public List<Integer> renew(List<String> adminList, int shardTotal, long nowTime) {
+        int adminIndex = adminList!=null?adminList.indexOf(leaseOwner):-1;
+
+        List<String> lockNameList = new ArrayList<String>();
+        List<String> preferredLockNameList = new ArrayList<String>();
+        for (int shardIndex = 0; shardIndex < shardTotal; shardIndex++) {
+            String lockName = makeShardLockName(shardIndex, shardTotal);
+            lockNameList.add(lockName);
+            if (adminIndex > -1 && shardIndex % adminList.size() == adminIndex) {
+                preferredLockNameList.add(lockName);
+            }
+        }
+
+        // renew preferred, take over lapsed (and renew taken over)
+        long leaseTime = nowTime + LEASE_MS;
+        if (!preferredLockNameList.isEmpty()) {
+            xxlJobLockDao.renewLease(preferredLockNameList, leaseOwner, leaseTime);
+        }
+        xxlJobLockDao.takeOverLease(lockNameList, leaseOwner, leaseTime, nowTime);
+
+        // own shard
+        List<Integer> ownShardList = new ArrayList<Integer>();
+        List<XxlJobLock> leaseList = xxlJobLockDao.findLease(lockNameList);
+        if (leaseList != null) {
+            for (XxlJobLock lease: leaseList) {
+                int shardIndex = lockNameList.indexOf(lease.getLockName());
+                if (shardIndex > -1
+                        && leaseOwner.equals(lease.getLeaseOwner())
+                        && lease.getLeaseTime() > nowTime
+                        && !ownShardList.contains(shardIndex)) {
+                    ownShardList.add(shardIndex);
+                }
+            }
+        }
+        return ownShardList;
+    }
+
+    /**
+     * release all lease of this admin, taken over by other admin immediately
+     */
+    public void release() {
+        xxlJobLockDao.releaseLease(leaseOwner);
+    }
+
+    public static String makeShardLockName(int shardIndex, int shardTotal) {
+        if (shardTotal <= 1) {
+            return "schedule_lock";
+        }
+        return "schedule_lock_" + shardIndex;
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * hierarchical time wheel, hold pre-read job until trigger-time
+ *
+ *      a、bucket：each level has "wheelSize" buckets, each covers "tickMs"; level-0 tick is 1ms, job fire at exact trigger-time;
+ *      b、overflow：trigger-time beyond current level, push to overflow level (tickMs = lower level interval), created on demand;
+ *      c、read-write lock：add hold read lock (concurrent add, bucket entry is ConcurrentLinkedQueue), advance hold write lock,
+ *          clock never move and bucket never flush during add, so that entry not put into flushed bucket, and bucket in DelayQueue not re-expirated;
+ *      d、advance：single thread poll expired bucket, move clock forward, then re-add entry (cascade down or fire outside lock);
+ *
+ * @author xuxueli 2023-06-10
+ */
+public class TimeWheel {
+    private static Logger logger = LoggerFactory.getLogger(TimeWheel.class);
+
+    /**
+     * fire handler, invoked by advance thread
+     */
+    public interface TriggerHandler {
+        void trigger(int jobId, long triggerTime);
+    }
+
+    private final TriggerHandler triggerHandler;
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<Bucket>();
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Level level;
+
+    public TimeWheel(long tickMs, int wheelSize, TriggerHandler triggerHandler) {
+        this.triggerHandler = triggerHandler;
+        this.level = new Level(tickMs, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * push job, fire now if trigger-time already expired
+     *
+     * @param jobId
+     * @param triggerTime
+     */
+    public void add(int jobId, long triggerTime) {
+        Entry entry = new Entry(jobId, triggerTime);
+        size.incrementAndGet();
+        boolean added;
+        lock.readLock().lock();
+        try {
+            added = level.add(entry);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (!added) {
+            fire(entry);
+        }
+    }
+
+    /**
+     * wait for expired bucket (at most timeoutMs), fire all expired job
+     *
+     * @param timeoutMs
+     * @return  fired job count
+     * @throws InterruptedException
+     */
+    public int advance(long timeoutMs) throws InterruptedException {
+        Bucket bucket = delayQueue.poll(timeoutMs, TimeUnit.MILLISECONDS);
+        if (bucket == null) {
+            return 0;
+        }
+
+        List<Entry> expiredList = new ArrayList<Entry>();
+        lock.writeLock().lock();
+        try {
+            while (bucket != null) {
+                level.advanceClock(bucket.getExpiration());
+
+                // re-add：cascade down, or fire if expired
+                Entry entry;
+                bucket.expire();
+                while ((entry = bucket.poll()) != null) {
+                    if (!level.add(entry)) {
+                        expiredList.add(entry);
+                    }
+                }
+
+                bucket = delayQueue.poll();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Entry entry : expiredList) {
+            fire(entry);
+        }
+        return expiredList.size();
+    }
+
+    /**
+     * job count in wheel, not fired yet
+     */
+    public int size() {
+        return size.get();
+    }
+
+    private void fire(Entry entry) {
+        size.decrementAndGet();
+        try {
+            triggerHandler.trigger(entry.jobId, entry.triggerTime);
+        } catch (Throwable e) {
+            logger.error(">>>>>>>>>>> xxl-job, TimeWheel fire error, jobId:{}", entry.jobId, e);
+        }
+    }
+
+
+    // ---------------------- level ----------------------
+
+    private class Level {
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket[] buckets;
+        private volatile long currentTime;      // always multiple of tickMs, only move forward by advance thread (write lock)
+        private final AtomicReference<Level> overflowLevel = new AtomicReference<Level>();
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.currentTime = startMs - (startMs % tickMs);
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        /**
+         * hold read lock (or write lock when advance)
+         *
+         * @return  false if expired
+         */
+        boolean add(Entry entry) {
+            long expiration = entry.triggerTime;
+            long current = currentTime;
+            if (expiration < current + tickMs) {
+                // expired
+                return false;
+            } else if (expiration < current + interval) {
+                // in this level
+                long virtualId = expiration / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(entry);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    // bucket reused (or flushed), need enqueue again
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            } else {
+                // out of this level
+                return overflowLevel().add(entry);
+            }
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+
+                Level overflow = overflowLevel.get();
+                if (overflow != null) {
+                    overflow.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Level overflowLevel() {
+            Level overflow = overflowLevel.get();
+            if (overflow == null) {
+                overflowLevel.compareAndSet(null, new Level(interval, wheelSize, currentTime));
+                overflow = overflowLevel.get();
+            }
+            return overflow;
+        }
+    }
+
+
+    // ---------------------- bucket ----------------------
+
+    private static class Bucket implements Delayed {
+        private final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<Entry>();
+        private final AtomicLong expiration = new AtomicLong(-1L);
+
+        void add(Entry entry) {
+            entries.offer(entry);
+        }
+
+        Entry poll() {
+            return entries.poll();
+        }
+
+        /**
+         * @return  true if expiration changed
+         */
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        /**
+         * mark expired before drain, so that entry added concurrently will enqueue bucket again
+         */
+        void expire() {
+            expiration.set(-1L);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getExpiration(), ((Bucket) o).getExpiration());
+        }
+    }
+
+    private static class Entry {
+        private final int jobId;
+        private final long triggerTime;
+
+        Entry(int jobId, long triggerTime) {
+            this.jobId = jobId;
+            this.triggerTime = triggerTime;
+        }
+    }
+
+}
@@ -3,9 +3,14 @@ package com.xxl.job.admin.core.scheduler;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.thread.*;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.core.biz.AsyncExecutorBiz;
 import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.AsyncExecutorBizClient;
 import com.xxl.job.core.biz.client.ExecutorBizClient;
 import com.xxl.job.core.enums.ExecutorBlockStrategyEnum;
+import com.xxl.job.core.remoting.NettyHttpClient;
+import com.xxl.job.core.remoting.PooledHttpTransport;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,9 +29,32 @@ public class XxlJobScheduler  {
         // init i18n
         initI18n();
 
+        // admin remoting transport, keep-alive connection pool
+        XxlJobRemotingUtil.setTransport(new PooledHttpTransport(
+                XxlJobAdminConfig.getAdminConfig().getRemotingMaxConnections(),
+                XxlJobAdminConfig.getAdminConfig().getRemotingKeepAlive() * 1000L));
+        XxlJobRemotingUtil.setSerializer(XxlJobAdminConfig.getAdminConfig().getRemotingSerializer());
+
+        // admin async remoting client, non-blocking trigger
+        if (XxlJobAdminConfig.getAdminConfig().isTriggerAsync()) {
+            nettyHttpClient = new NettyHttpClient(
+                    XxlJobAdminConfig.getAdminConfig().getRemotingMaxConnections(),
+                    XxlJobAdminConfig.getAdminConfig().getRemotingKeepAlive() * 1000L,
+                    NettyHttpClient.DEFAULT_MAX_PENDING,
+                    0);
+        }
+
+        // admin job cache start
+        JobCacheHelper.getInstance().start();
+
         // admin trigger pool start
         JobTriggerPoolHelper.toStart();
 
+        // admin trigger batch start ( depend on async trigger )
+        if (XxlJobAdminConfig.getAdminConfig().isTriggerAsync()) {
+            JobTriggerBatchHelper.getInstance().start(XxlJobAdminConfig.getAdminConfig().getTriggerBatchSize());
+        }
+
         // admin registry monitor run
         JobRegistryHelper.getInstance().start();
 
@@ -63,9 +91,23 @@ public class XxlJobScheduler  {
         // admin registry stop
         JobRegistryHelper.getInstance().toStop();
 
+        // admin trigger batch stop
+        JobTriggerBatchHelper.getInstance().toStop();
+
         // admin trigger pool stop
         JobTriggerPoolHelper.toStop();
 
+        // admin job cache stop
+        JobCacheHelper.getInstance().toStop();
+
+        // admin remoting transport, close idle connection
+        XxlJobRemotingUtil.getTransport().close();
+        if (nettyHttpClient != null) {
+            nettyHttpClient.close();
+            nettyHttpClient = null;
+            asyncExecutorBizRepository.clear();
+        }
+
     }
 
     // ---------------------- I18n ----------------------
@@ -98,4 +140,33 @@ public class XxlJobScheduler  {
         return executorBiz;
     }
 
+    // ---------------------- executor-client (async) ----------------------
+    private static volatile NettyHttpClient nettyHttpClient;
+    private static ConcurrentMap<String, AsyncExecutorBiz> asyncExecutorBizRepository = new ConcurrentHashMap<String, AsyncExecutorBiz>();
+
+    /**
+     * @param address
+     * @return  null if async trigger disabled
+     */
+    public static AsyncExecutorBiz getAsyncExecutorBiz(String address) {
+        // valid
+        NettyHttpClient client = nettyHttpClient;
+        if (client==null || address==null || address.trim().length()==0) {
+            return null;
+        }
+
+        // load-cache
+        address = address.trim();
+        AsyncExecutorBiz asyncExecutorBiz = asyncExecutorBizRepository.get(address);
+        if (asyncExecutorBiz != null) {
+            return asyncExecutorBiz;
+        }
+
+        // set-cache
+        asyncExecutorBiz = new AsyncExecutorBizClient(address, XxlJobAdminConfig.getAdminConfig().getAccessToken(), client);
+
+        asyncExecutorBizRepository.put(address, asyncExecutorBiz);
+        return asyncExecutorBiz;
+    }
+
 }
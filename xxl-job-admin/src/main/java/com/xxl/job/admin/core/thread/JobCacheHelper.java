@@ -0,0 +1,268 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.admin.core.model.XxlJobGroup;
+import com.xxl.job.admin.core.model.XxlJobInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job info and job group cache, for trigger hot path; cached object shared, read only
+ *
+ *      a、load：loaded from db when miss, by id;
+ *      b、local invalidate：removed when job / group changed by this admin (service, registry refresh);
+ *      c、cluster invalidate："version" column increased when changed; version summary (count, sum, max id) checked each "SYNC_INTERVAL",
+ *          when changed, load id + version of all and remove cache of changed or removed;
+ *      d、generation：increased before each invalidate; object loaded from db put only if no invalidate during load,
+ *          so a load racing with invalidate never puts back stale object;
+ *
+ * @author xuxueli 2023-07-02
+ */
+public class JobCacheHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobCacheHelper.class);
+
+    private static JobCacheHelper instance = new JobCacheHelper();
+    public static JobCacheHelper getInstance(){
+        return instance;
+    }
+
+    private static final long SYNC_INTERVAL = 3;        // s
+
+    private final ConcurrentMap<Integer, XxlJobInfo> jobInfoCache = new ConcurrentHashMap<Integer, XxlJobInfo>();
+    private final ConcurrentMap<Integer, XxlJobGroup> jobGroupCache = new ConcurrentHashMap<Integer, XxlJobGroup>();
+    private final AtomicLong jobInfoGeneration = new AtomicLong(0);
+    private final AtomicLong jobGroupGeneration = new AtomicLong(0);
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong missCount = new AtomicLong(0);
+
+    // ---------------------- sync ----------------------
+
+    private Thread syncThread;
+    private volatile boolean toStop = false;
+    public void start(){
+        toStop = false;
+        syncThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Map<String, Object> jobInfoVersionSummary = null;
+                Map<String, Object> jobGroupVersionSummary = null;
+                while (!toStop) {
+                    try {
+                        jobInfoVersionSummary = syncJobInfo(jobInfoVersionSummary);
+                        jobGroupVersionSummary = syncJobGroup(jobGroupVersionSummary);
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(">>>>>>>>>>> xxl-job, job cache sync thread error:{}", e);
+                        }
+                    }
+
+                    try {
+                        TimeUnit.SECONDS.sleep(SYNC_INTERVAL);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, job cache sync thread stop");
+            }
+        });
+        syncThread.setDaemon(true);
+        syncThread.setName("xxl-job, admin JobCacheHelper-syncThread");
+        syncThread.start();
+    }
+
+    public void toStop(){
+        toStop = true;
+        if (syncThread == null) {
+            return;
+        }
+
+        // interrupt and wait
+        syncThread.interrupt();
+        try {
+            syncThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        syncThread = null;
+        jobInfoCache.clear();
+        jobGroupCache.clear();
+    }
+
+    private Map<String, Object> syncJobInfo(Map<String, Object> lastVersionSummary) {
+        Map<String, Object> versionSummary = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().findVersionSummary();
+        if (lastVersionSummary == null || !lastVersionSummary.equals(versionSummary)) {
+            jobInfoGeneration.incrementAndGet();
+            Map<Integer, Long> versionMap = new HashMap<Integer, Long>();
+            for (XxlJobInfo jobInfo: XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().findAllVersion()) {
+                versionMap.put(jobInfo.getId(), jobInfo.getVersion());
+            }
+            for (XxlJobInfo jobInfo: jobInfoCache.values()) {
+                Long version = versionMap.get(jobInfo.getId());
+                if (version == null || version != jobInfo.getVersion()) {
+                    jobInfoCache.remove(jobInfo.getId(), jobInfo);
+                }
+            }
+        }
+        return versionSummary;
+    }
+
+    private Map<String, Object> syncJobGroup(Map<String, Object> lastVersionSummary) {
+        Map<String, Object> versionSummary = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findVersionSummary();
+        if (lastVersionSummary == null || !lastVersionSummary.equals(versionSummary)) {
+            jobGroupGeneration.incrementAndGet();
+            Map<Integer, Long> versionMap = new HashMap<Integer, Long>();
+            for (XxlJobGroup jobGroup: XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findAllVersion()) {
+                versionMap.put(jobGroup.getId(), jobGroup.getVersion());
+            }
+            for (XxlJobGroup jobGroup: jobGroupCache.values()) {
+                Long version = versionMap.get(jobGroup.getId());
+                if (version == null || version != jobGroup.getVersion()) {
+                    jobGroupCache.remove(jobGroup.getId(), jobGroup);
+                }
+            }
+        }
+        return versionSummary;
+    }
+
+
+    // ---------------------- job info ----------------------
+
+    /**
+     * load job info, shared object, do not modify
+     *
+     * @param jobId
+     * @return  null if not exists
+     */
+    public XxlJobInfo getJobInfo(int jobId) {
+        XxlJobInfo jobInfo = jobInfoCache.get(jobId);
+        if (jobInfo != null) {
+            hitCount.incrementAndGet();
+            return jobInfo;
+        }
+
+        missCount.incrementAndGet();
+        long loadGeneration = jobInfoGeneration.get();
+        jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        if (jobInfo != null) {
+            putIfNotInvalidated(jobInfoCache, jobInfoGeneration, loadGeneration, jobId, jobInfo);
+        }
+        return jobInfo;
+    }
+
+    /**
+     * load job info of not cached, by one query
+     *
+     * @param jobIds
+     */
+    public void loadJobInfos(Set<Integer> jobIds) {
+        List<Integer> loadJobIds = new ArrayList<Integer>();
+        for (Integer jobId: jobIds) {
+            if (!jobInfoCache.containsKey(jobId)) {
+                loadJobIds.add(jobId);
+            }
+        }
+        if (loadJobIds.isEmpty()) {
+            return;
+        }
+
+        missCount.addAndGet(loadJobIds.size());
+        long loadGeneration = jobInfoGeneration.get();
+        List<XxlJobInfo> jobInfoList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadByIds(loadJobIds);
+        if (jobInfoList != null) {
+            for (XxlJobInfo jobInfo: jobInfoList) {
+                putIfNotInvalidated(jobInfoCache, jobInfoGeneration, loadGeneration, jobInfo.getId(), jobInfo);
+            }
+        }
+    }
+
+    /**
+     * job info changed or removed
+     *
+     * @param jobId
+     */
+    public void invalidateJobInfo(int jobId) {
+        jobInfoGeneration.incrementAndGet();
+        jobInfoCache.remove(jobId);
+    }
+
+
+    // ---------------------- job group ----------------------
+
+    /**
+     * load job group, shared object, do not modify
+     *
+     * @param jobGroupId
+     * @return  null if not exists
+     */
+    public XxlJobGroup getJobGroup(int jobGroupId) {
+        XxlJobGroup jobGroup = jobGroupCache.get(jobGroupId);
+        if (jobGroup != null) {
+            hitCount.incrementAndGet();
+            return jobGroup;
+        }
+
+        missCount.incrementAndGet();
+        long loadGeneration = jobGroupGeneration.get();
+        jobGroup = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobGroupId);
+        if (jobGroup != null) {
+            putIfNotInvalidated(jobGroupCache, jobGroupGeneration, loadGeneration, jobGroupId, jobGroup);
+        }
+        return jobGroup;
+    }
+
+    /**
+     * job group changed or removed
+     *
+     * @param jobGroupId
+     */
+    public void invalidateJobGroup(int jobGroupId) {
+        jobGroupGeneration.incrementAndGet();
+        jobGroupCache.remove(jobGroupId);
+    }
+
+
+    // ---------------------- load ----------------------
+
+    /**
+     * put object loaded from db, skipped if any invalidate since load start (generation changed);
+     * checked again after put, invalidate between check and put removes it here (generation increased before remove, never missed)
+     */
+    private static <T> void putIfNotInvalidated(ConcurrentMap<Integer, T> cache, AtomicLong generation, long loadGeneration, int id, T value) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        cache.putIfAbsent(id, value);
+        if (generation.get() != loadGeneration) {
+            cache.remove(id, value);
+        }
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public int getJobInfoCacheSize() {
+        return jobInfoCache.size();
+    }
+
+    public int getJobGroupCacheSize() {
+        return jobGroupCache.size();
+    }
+
+}
@@ -10,9 +10,9 @@ import com.xxl.job.core.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Date;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * job lose-monitor instance
@@ -79,6 +79,7 @@ public class JobCompleteHelper {
 						List<Long> losedJobIds  = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().findLostJobIds(losedTime);
 
 						if (losedJobIds!=null && losedJobIds.size()>0) {
+							List<XxlJobLog> losedJobLogList = new ArrayList<XxlJobLog>();
 							for (Long logId: losedJobIds) {
 
 								XxlJobLog jobLog = new XxlJobLog();
@@ -88,8 +89,9 @@ public class JobCompleteHelper {
 								jobLog.setHandleCode(ReturnT.FAIL_CODE);
 								jobLog.setHandleMsg( I18nUtil.getString("joblog_lost_fail") );
 
-								XxlJobCompleter.updateHandleInfoAndFinish(jobLog);
+								losedJobLogList.add(jobLog);
 							}
+							XxlJobCompleter.updateHandleInfoAndFinish(losedJobLogList);
 
 						}
 					} catch (Exception e) {
@@ -140,10 +142,8 @@ public class JobCompleteHelper {
 		callbackThreadPool.execute(new Runnable() {
 			@Override
 			public void run() {
-				for (HandleCallbackParam handleCallbackParam: callbackParamList) {
-					ReturnT<String> callbackResult = callback(handleCallbackParam);
-					logger.debug(">>>>>>>>> JobApiController.callback {}, handleCallbackParam={}, callbackResult={}",
-							(callbackResult.getCode()== ReturnT.SUCCESS_CODE?"success":"fail"), handleCallbackParam, callbackResult);
+				for (int i = 0; i < callbackParamList.size(); i += CALLBACK_BATCH_SIZE) {
+					callbackBatch(callbackParamList.subList(i, Math.min(i + CALLBACK_BATCH_SIZE, callbackParamList.size())));
 				}
 			}
 		});
@@ -151,9 +151,46 @@ public class JobCompleteHelper {
 		return ReturnT.SUCCESS;
 	}
 
-	private ReturnT<String> callback(HandleCallbackParam handleCallbackParam) {
+	private static final int CALLBACK_BATCH_SIZE = 500;
+
+	/**
+	 * callback batch, log loaded by one query, handle info written by multi-row update
+	 */
+	private void callbackBatch(List<HandleCallbackParam> callbackParamList) {
+		long startTime = System.currentTimeMillis();
+
+		// load log
+		List<Long> logIds = new ArrayList<Long>();
+		for (HandleCallbackParam handleCallbackParam: callbackParamList) {
+			logIds.add(handleCallbackParam.getLogId());
+		}
+		Map<Long, XxlJobLog> logMap = new HashMap<Long, XxlJobLog>();
+		List<XxlJobLog> logList = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().loadByIds(logIds);
+		if (logList != null) {
+			for (XxlJobLog log: logList) {
+				logMap.put(log.getId(), log);
+			}
+		}
+
+		// handle
+		List<XxlJobLog> finishLogList = new ArrayList<XxlJobLog>();
+		for (HandleCallbackParam handleCallbackParam: callbackParamList) {
+			ReturnT<String> callbackResult = callback(logMap.get(handleCallbackParam.getLogId()), handleCallbackParam);
+			if (callbackResult.getCode() == ReturnT.SUCCESS_CODE) {
+				finishLogList.add(logMap.get(handleCallbackParam.getLogId()));
+			}
+			logger.debug(">>>>>>>>> JobApiController.callback {}, handleCallbackParam={}, callbackResult={}",
+					(callbackResult.getCode()== ReturnT.SUCCESS_CODE?"success":"fail"), handleCallbackParam, callbackResult);
+		}
+
+		// finish, save log
+		XxlJobCompleter.updateHandleInfoAndFinish(finishLogList);
+
+		recordCallbackBatchTime(callbackParamList.size(), finishLogList.size(), System.currentTimeMillis() - startTime);
+	}
+
+	private ReturnT<String> callback(XxlJobLog log, HandleCallbackParam handleCallbackParam) {
 		// valid log item
-		XxlJobLog log = XxlJobAdminConfig.getAdminConfig().getXxlJobLogDao().load(handleCallbackParam.getLogId());
 		if (log == null) {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "log item not found.");
 		}
@@ -170,15 +207,55 @@ public class JobCompleteHelper {
 			handleMsg.append(handleCallbackParam.getHandleMsg());
 		}
 
-		// success, save log
+		// success, to save log
 		log.setHandleTime(new Date());
 		log.setHandleCode(handleCallbackParam.getHandleCode());
 		log.setHandleMsg(handleMsg.toString());
-		XxlJobCompleter.updateHandleInfoAndFinish(log);
 
 		return ReturnT.SUCCESS;
 	}
 
 
+	// ---------------------- callback metric ----------------------
+
+	private volatile long callbackBatchTimeLast = 0;
+	private volatile long callbackBatchTimeMax = 0;
+	private final AtomicLong callbackBatchCount = new AtomicLong(0);
+	private final AtomicLong callbackBatchTimeTotal = new AtomicLong(0);
+
+	private void recordCallbackBatchTime(int callbackCount, int finishCount, long batchTime) {
+		callbackBatchTimeLast = batchTime;
+		if (batchTime > callbackBatchTimeMax) {
+			callbackBatchTimeMax = batchTime;
+		}
+		callbackBatchCount.incrementAndGet();
+		callbackBatchTimeTotal.addAndGet(batchTime);
+
+		if (batchTime > 1000) {
+			logger.warn(">>>>>>>>>>> xxl-job, callback batch db too slow, callback = {}, finish = {}, dbTime = {}ms", callbackCount, finishCount, batchTime);
+		} else {
+			logger.debug(">>>>>>>>>>> xxl-job, callback batch, callback = {}, finish = {}, dbTime = {}ms", callbackCount, finishCount, batchTime);
+		}
+	}
+
+	/**
+	 * db time of callback batch (load log + finish + update log), ms
+	 */
+	public long getCallbackBatchTimeLast() {
+		return callbackBatchTimeLast;
+	}
+
+	public long getCallbackBatchTimeMax() {
+		return callbackBatchTimeMax;
+	}
+
+	public long getCallbackBatchTimeAvg() {
+		long count = callbackBatchCount.get();
+		return count > 0 ? callbackBatchTimeTotal.get() / count : 0;
+	}
+
+	public long getCallbackBatchCount() {
+		return callbackBatchCount.get();
+	}
 
 }
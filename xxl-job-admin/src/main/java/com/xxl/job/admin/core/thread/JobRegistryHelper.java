@@ -3,6 +3,7 @@ package com.xxl.job.admin.core.thread;
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.ExecutorLoad;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.enums.RegistryConfig;
@@ -15,6 +16,12 @@ import java.util.concurrent.*;
 
 /**
  * job registry instance
+ *
+ *      a、registry table (in memory)：heartbeat received by this admin, no sql for known registry; flushed by batch update every "FLUSH_INTERVAL";
+ *      b、join / leave：new registry saved, removed registry deleted, and group address fresh immediately;
+ *      c、monitor：remove dead and fresh group address every "BEAT_TIMEOUT" (registry to other admin), group written only when address changed;
+ *      d、executor load：flushed with heartbeat to registry row, loaded by monitor for executor beat to other admin;
+ *
  * @author xuxueli 2016-10-02 19:10:24
  */
 public class JobRegistryHelper {
@@ -27,6 +34,7 @@ public class JobRegistryHelper {
 
 	private ThreadPoolExecutor registryOrRemoveThreadPool = null;
 	private Thread registryMonitorThread;
+	private Thread registryFlushThread;
 	private volatile boolean toStop = false;
 
 	public void start(){
@@ -58,55 +66,22 @@ public class JobRegistryHelper {
 			public void run() {
 				while (!toStop) {
 					try {
-						// auto registry group
-						List<XxlJobGroup> groupList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAddressType(0);
-						if (groupList!=null && !groupList.isEmpty()) {
-
-							// remove dead address (admin/executor)
-							List<Integer> ids = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findDead(RegistryConfig.DEAD_TIMEOUT, new Date());
-							if (ids!=null && ids.size()>0) {
-								XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
-							}
-
-							// fresh online address (admin/executor)
-							HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
-							List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
-							if (list != null) {
-								for (XxlJobRegistry item: list) {
-									if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())) {
-										String appname = item.getRegistryKey();
-										List<String> registryList = appAddressMap.get(appname);
-										if (registryList == null) {
-											registryList = new ArrayList<String>();
-										}
-
-										if (!registryList.contains(item.getRegistryValue())) {
-											registryList.add(item.getRegistryValue());
-										}
-										appAddressMap.put(appname, registryList);
-									}
-								}
-							}
-
-							// fresh group address
-							for (XxlJobGroup group: groupList) {
-								List<String> registryList = appAddressMap.get(group.getAppname());
-								String addressListStr = null;
-								if (registryList!=null && !registryList.isEmpty()) {
-									Collections.sort(registryList);
-									StringBuilder addressListSB = new StringBuilder();
-									for (String item:registryList) {
-										addressListSB.append(item).append(",");
-									}
-									addressListStr = addressListSB.toString();
-									addressListStr = addressListStr.substring(0, addressListStr.length()-1);
-								}
-								group.setAddressList(addressListStr);
-								group.setUpdateTime(new Date());
-
-								XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
-							}
+						// admin beat, and rebalance schedule shard
+						adminBeat();
+					} catch (Exception e) {
+						if (!toStop) {
+							logger.error(">>>>>>>>>>> xxl-job, job registry monitor thread admin beat error:{}", e);
+						}
+					}
+					try {
+						// remove dead address (admin/executor)
+						List<Integer> ids = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findDead(RegistryConfig.DEAD_TIMEOUT, new Date());
+						if (ids!=null && ids.size()>0) {
+							XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().removeDead(ids);
 						}
+
+						// fresh group address, auto registry group
+						freshGroupAddress(null);
 					} catch (Exception e) {
 						if (!toStop) {
 							logger.error(">>>>>>>>>>> xxl-job, job registry monitor thread error:{}", e);
@@ -126,11 +101,54 @@ public class JobRegistryHelper {
 		registryMonitorThread.setDaemon(true);
 		registryMonitorThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryMonitorThread");
 		registryMonitorThread.start();
+
+		// for registry flush
+		registryFlushThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while (!toStop) {
+					try {
+						TimeUnit.SECONDS.sleep(FLUSH_INTERVAL);
+					} catch (InterruptedException e) {
+						if (!toStop) {
+							logger.error(">>>>>>>>>>> xxl-job, job registry flush thread error:{}", e);
+						}
+					}
+					try {
+						flushRegistry();
+					} catch (Exception e) {
+						if (!toStop) {
+							logger.error(">>>>>>>>>>> xxl-job, job registry flush thread error:{}", e);
+						}
+					}
+				}
+				logger.info(">>>>>>>>>>> xxl-job, job registry flush thread stop");
+			}
+		});
+		registryFlushThread.setDaemon(true);
+		registryFlushThread.setName("xxl-job, admin JobRegistryMonitorHelper-registryFlushThread");
+		registryFlushThread.start();
 	}
 
 	public void toStop(){
 		toStop = true;
 
+		// admin remove, other admin take over schedule shard
+		adminRemove();
+
+		// stop flush (interrupt and wait), flush the last heartbeat
+		registryFlushThread.interrupt();
+		try {
+			registryFlushThread.join();
+		} catch (InterruptedException e) {
+			logger.error(e.getMessage(), e);
+		}
+		try {
+			flushRegistry();
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+
 		// stop registryOrRemoveThreadPool
 		registryOrRemoveThreadPool.shutdownNow();
 
@@ -144,6 +162,46 @@ public class JobRegistryHelper {
 	}
 
 
+	// ---------------------- admin ----------------------
+
+	public static final String ADMIN_APPNAME = "xxl-job-admin";
+
+	/**
+	 * registry this admin, and fresh schedule shard by online admin list
+	 */
+	private void adminBeat(){
+		String adminAddress = XxlJobAdminConfig.getAdminConfig().getAdminAddress();
+		int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryUpdate(RegistryConfig.RegistType.ADMIN.name(), ADMIN_APPNAME, adminAddress, null, new Date());
+		if (ret < 1) {
+			XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySave(RegistryConfig.RegistType.ADMIN.name(), ADMIN_APPNAME, adminAddress, null, new Date());
+		}
+
+		List<String> adminAddressList = new ArrayList<String>();
+		List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
+		if (list != null) {
+			for (XxlJobRegistry item: list) {
+				if (RegistryConfig.RegistType.ADMIN.name().equals(item.getRegistryGroup())
+						&& ADMIN_APPNAME.equals(item.getRegistryKey())
+						&& !adminAddressList.contains(item.getRegistryValue())) {
+					adminAddressList.add(item.getRegistryValue());
+				}
+			}
+		}
+		if (!adminAddressList.contains(adminAddress)) {
+			adminAddressList.add(adminAddress);
+		}
+		JobScheduleHelper.getInstance().refreshScheduleShard(adminAddressList);
+	}
+
+	private void adminRemove(){
+		try {
+			XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryDelete(RegistryConfig.RegistType.ADMIN.name(), ADMIN_APPNAME, XxlJobAdminConfig.getAdminConfig().getAdminAddress());
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
+	}
+
+
 	// ---------------------- helper ----------------------
 
 	public ReturnT<String> registry(RegistryParam registryParam) {
@@ -155,13 +213,29 @@ public class JobRegistryHelper {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
 		}
 
-		// async execute
+		// executor load, in memory
+		ExecutorLoad executorLoad = freshExecutorLoad(registryParam);
+		final String executorLoadStr = executorLoad!=null?executorLoad.toLoadString():null;
+
+		// known registry, beat in memory, flushed by batch
+		List<String> registryKey = Arrays.asList(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue());
+		RegistryBeat registryBeat = registryMap.get(registryKey);
+		if (registryBeat != null) {
+			registryBeat.executorLoad = executorLoadStr;
+			registryBeat.beatTime = System.currentTimeMillis();
+			return ReturnT.SUCCESS;
+		}
+		if (registryMap.putIfAbsent(registryKey, new RegistryBeat(registryParam, executorLoadStr)) != null) {
+			return ReturnT.SUCCESS;
+		}
+
+		// new registry (join, or admin restart), async execute
 		registryOrRemoveThreadPool.execute(new Runnable() {
 			@Override
 			public void run() {
-				int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryUpdate(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), new Date());
+				int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryUpdate(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), executorLoadStr, new Date());
 				if (ret < 1) {
-					XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySave(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), new Date());
+					XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySave(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue(), executorLoadStr, new Date());
 
 					// fresh
 					freshGroupRegistryInfo(registryParam);
@@ -181,6 +255,16 @@ public class JobRegistryHelper {
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "Illegal Argument.");
 		}
 
+		// executor load, in memory
+		if (RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			executorLoadMap.remove(registryParam.getRegistryValue());
+		}
+
+		// registry table, in memory; exclusive with flush save, removed registry never saved again by flush
+		synchronized (registryMap) {
+			registryMap.remove(Arrays.asList(registryParam.getRegistryGroup(), registryParam.getRegistryKey(), registryParam.getRegistryValue()));
+		}
+
 		// async execute
 		registryOrRemoveThreadPool.execute(new Runnable() {
 			@Override
@@ -197,7 +281,221 @@ public class JobRegistryHelper {
 	}
 
 	private void freshGroupRegistryInfo(RegistryParam registryParam){
-		// Under consideration, prevent affecting core tables
+		// executor join / leave, fresh group address immediately, not wait for monitor
+		if (RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			freshGroupAddress(registryParam.getRegistryKey());
+		}
+	}
+
+	/**
+	 * fresh address of auto registry group, by online executor; written only when changed
+	 *
+	 * @param appname	null: all group
+	 */
+	private synchronized void freshGroupAddress(String appname) {
+		List<XxlJobRegistry> list = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().findAll(RegistryConfig.DEAD_TIMEOUT, new Date());
+
+		// executor load, beat to other admin
+		freshExecutorLoad(list);
+
+		List<XxlJobGroup> groupList = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().findByAddressType(0);
+		if (groupList==null || groupList.isEmpty()) {
+			return;
+		}
+
+		// online address (executor)
+		HashMap<String, List<String>> appAddressMap = new HashMap<String, List<String>>();
+		if (list != null) {
+			for (XxlJobRegistry item: list) {
+				if (RegistryConfig.RegistType.EXECUTOR.name().equals(item.getRegistryGroup())) {
+					String itemAppname = item.getRegistryKey();
+					List<String> registryList = appAddressMap.get(itemAppname);
+					if (registryList == null) {
+						registryList = new ArrayList<String>();
+					}
+
+					if (!registryList.contains(item.getRegistryValue())) {
+						registryList.add(item.getRegistryValue());
+					}
+					appAddressMap.put(itemAppname, registryList);
+				}
+			}
+		}
+
+		// fresh group address
+		for (XxlJobGroup group: groupList) {
+			if (appname!=null && !appname.equals(group.getAppname())) {
+				continue;
+			}
+			List<String> registryList = appAddressMap.get(group.getAppname());
+			String addressListStr = null;
+			if (registryList!=null && !registryList.isEmpty()) {
+				Collections.sort(registryList);
+				StringBuilder addressListSB = new StringBuilder();
+				for (String item:registryList) {
+					addressListSB.append(item).append(",");
+				}
+				addressListStr = addressListSB.toString();
+				addressListStr = addressListStr.substring(0, addressListStr.length()-1);
+			}
+			if (Objects.equals(group.getAddressList(), addressListStr)) {
+				continue;
+			}
+
+			group.setAddressList(addressListStr);
+			group.setUpdateTime(new Date());
+			XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().update(group);
+			JobCacheHelper.getInstance().invalidateJobGroup(group.getId());
+		}
+	}
+
+
+	// ---------------------- registry table ----------------------
+
+	private static final int FLUSH_INTERVAL = RegistryConfig.BEAT_TIMEOUT / 3;
+	private static final int FLUSH_BATCH_SIZE = 100;
+
+	private static class RegistryBeat {
+		private final String registryGroup;
+		private final String registryKey;
+		private final String registryValue;
+		private volatile String executorLoad;
+		private volatile long beatTime;
+		private volatile long flushTime;
+
+		public RegistryBeat(RegistryParam registryParam, String executorLoad) {
+			this.registryGroup = registryParam.getRegistryGroup();
+			this.registryKey = registryParam.getRegistryKey();
+			this.registryValue = registryParam.getRegistryValue();
+			this.executorLoad = executorLoad;
+			this.beatTime = System.currentTimeMillis();
+			this.flushTime = this.beatTime;		// saved when join
+		}
+	}
+
+	private final ConcurrentMap<List<String>, RegistryBeat> registryMap = new ConcurrentHashMap<List<String>, RegistryBeat>();
+
+	/**
+	 * flush heartbeat since last flush, by batch update; missing registry (removed as dead by other admin) saved again,
+	 * only if still in registry table (not removed by executor during flush)
+	 */
+	private void flushRegistry() {
+		long nowTime = System.currentTimeMillis();
+		List<RegistryBeat> beatList = new ArrayList<RegistryBeat>();
+		for (Map.Entry<List<String>, RegistryBeat> entry: registryMap.entrySet()) {
+			RegistryBeat registryBeat = entry.getValue();
+			if (nowTime - registryBeat.beatTime > RegistryConfig.DEAD_TIMEOUT * 1000L) {
+				// beat to other admin, or dead
+				registryMap.remove(entry.getKey(), registryBeat);
+			} else if (registryBeat.beatTime > registryBeat.flushTime) {
+				beatList.add(registryBeat);
+			}
+		}
+
+		for (int from = 0; from < beatList.size(); from += FLUSH_BATCH_SIZE) {
+			List<RegistryBeat> batchList = beatList.subList(from, Math.min(from + FLUSH_BATCH_SIZE, beatList.size()));
+			List<XxlJobRegistry> registryList = new ArrayList<XxlJobRegistry>();
+			for (RegistryBeat registryBeat: batchList) {
+				XxlJobRegistry registry = new XxlJobRegistry();
+				registry.setRegistryGroup(registryBeat.registryGroup);
+				registry.setRegistryKey(registryBeat.registryKey);
+				registry.setRegistryValue(registryBeat.registryValue);
+				registry.setExecutorLoad(registryBeat.executorLoad);
+				registryList.add(registry);
+				registryBeat.flushTime = registryBeat.beatTime;
+			}
+
+			// row unique by (group, key, value) and count is matched rows, so less than batch size means some missing
+			int ret = XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryBatchUpdate(registryList, new Date());
+			if (ret < registryList.size()) {
+				// some missing, one by one
+				for (int i = 0; i < registryList.size(); i++) {
+					XxlJobRegistry registry = registryList.get(i);
+					RegistryBeat registryBeat = batchList.get(i);
+					if (XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registryUpdate(registry.getRegistryGroup(), registry.getRegistryKey(), registry.getRegistryValue(), registry.getExecutorLoad(), new Date()) >= 1) {
+						continue;
+					}
+
+					// removed (registryRemove) after beat captured: skip, the async delete may already be done
+					boolean saved = false;
+					synchronized (registryMap) {
+						if (registryMap.get(Arrays.asList(registry.getRegistryGroup(), registry.getRegistryKey(), registry.getRegistryValue())) == registryBeat) {
+							XxlJobAdminConfig.getAdminConfig().getXxlJobRegistryDao().registrySave(registry.getRegistryGroup(), registry.getRegistryKey(), registry.getRegistryValue(), registry.getExecutorLoad(), new Date());
+							saved = true;
+						}
+					}
+					if (saved) {
+						freshGroupRegistryInfo(new RegistryParam(registry.getRegistryGroup(), registry.getRegistryKey(), registry.getRegistryValue()));
+					}
+				}
+			}
+		}
+	}
+
+
+	// ---------------------- executor load ----------------------
+
+	private final ConcurrentMap<String, ExecutorLoad> executorLoadMap = new ConcurrentHashMap<String, ExecutorLoad>();
+
+	/**
+	 * fresh executor load, by executor heartbeat
+	 *
+	 * @param registryParam
+	 * @return	null if not executor
+	 */
+	public ExecutorLoad freshExecutorLoad(RegistryParam registryParam) {
+		if (!RegistryConfig.RegistType.EXECUTOR.name().equals(registryParam.getRegistryGroup())) {
+			return null;
+		}
+		ExecutorLoad executorLoad = new ExecutorLoad(registryParam, System.currentTimeMillis());
+		executorLoadMap.put(registryParam.getRegistryValue(), executorLoad);
+		return executorLoad;
+	}
+
+	/**
+	 * fresh executor load, by registry row (flushed by the admin received heartbeat); executor beat to this admin skipped, heartbeat is newer
+	 *
+	 * @param registryList
+	 */
+	public void freshExecutorLoad(List<XxlJobRegistry> registryList) {
+		if (registryList == null) {
+			return;
+		}
+		for (XxlJobRegistry registry: registryList) {
+			if (!RegistryConfig.RegistType.EXECUTOR.name().equals(registry.getRegistryGroup())
+					|| registry.getUpdateTime() == null
+					|| registryMap.containsKey(Arrays.asList(registry.getRegistryGroup(), registry.getRegistryKey(), registry.getRegistryValue()))) {
+				continue;
+			}
+			ExecutorLoad executorLoad = ExecutorLoad.parse(registry.getExecutorLoad(), registry.getUpdateTime().getTime());
+			if (executorLoad == null) {
+				continue;
+			}
+
+			// newer only, dispatch count kept until new report
+			ExecutorLoad oldExecutorLoad = executorLoadMap.get(registry.getRegistryValue());
+			if (oldExecutorLoad == null) {
+				executorLoadMap.putIfAbsent(registry.getRegistryValue(), executorLoad);
+			} else if (oldExecutorLoad.getReportTime() < executorLoad.getReportTime()) {
+				executorLoadMap.replace(registry.getRegistryValue(), oldExecutorLoad, executorLoad);
+			}
+		}
+	}
+
+	/**
+	 * load executor load, reported by heartbeat to this admin, or loaded from registry row
+	 *
+	 * @param address
+	 * @return	null if not reported, or dead
+	 */
+	public ExecutorLoad getExecutorLoad(String address) {
+		ExecutorLoad executorLoad = executorLoadMap.get(address);
+		if (executorLoad != null
+				&& System.currentTimeMillis() - executorLoad.getReportTime() > RegistryConfig.DEAD_TIMEOUT * 1000L) {
+			executorLoadMap.remove(address, executorLoad);
+			return null;
+		}
+		return executorLoad;
 	}
 
 
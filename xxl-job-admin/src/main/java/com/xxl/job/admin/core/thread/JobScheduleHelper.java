@@ -1,10 +1,12 @@
 package com.xxl.job.admin.core.thread;
 
 import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
-import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.core.scheduler.ShardLease;
+import com.xxl.job.admin.core.scheduler.TimeWheel;
 import com.xxl.job.admin.core.trigger.TriggerTypeEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,8 +14,10 @@ import org.slf4j.LoggerFactory;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -28,15 +32,26 @@ public class JobScheduleHelper {
     }
 
     public static final long PRE_READ_MS = 5000;    // pre read
+    private static final int SCHEDULE_UPDATE_BATCH_SIZE = 500;     // schedule update, rows each sql
 
     private Thread scheduleThread;
     private Thread ringThread;
     private volatile boolean scheduleThreadToStop = false;
     private volatile boolean ringThreadToStop = false;
-    private volatile static Map<Integer, List<Integer>> ringData = new ConcurrentHashMap<>();
+    private volatile TimeWheel timeWheel;
+    private volatile ShardLease shardLease;
 
     public void start(){
 
+        // time wheel, level-0 : 1ms * 1000
+        timeWheel = new TimeWheel(1, 1000, new TimeWheel.TriggerHandler() {
+            @Override
+            public void trigger(int jobId, long triggerTime) {
+                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
+                logger.debug(">>>>>>>>>>> xxl-job, time-wheel trigger : jobId = {}, triggerTime = {}", jobId, triggerTime);
+            }
+        });
+
         // schedule thread
         scheduleThread = new Thread(new Runnable() {
             @Override
@@ -51,155 +66,51 @@ public class JobScheduleHelper {
                 }
                 logger.info(">>>>>>>>> init xxl-job admin scheduler success.");
 
+                // init shard lock
+                initShardLock(XxlJobAdminConfig.getAdminConfig().getScheduleShardTotal());
+
                 // pre-read count: treadpool-size * trigger-qps (each trigger cost 50ms, qps = 1000/50 = 20)
                 int preReadCount = (XxlJobAdminConfig.getAdminConfig().getTriggerPoolFastMax() + XxlJobAdminConfig.getAdminConfig().getTriggerPoolSlowMax()) * 20;
 
+                // shard lease, renewed each second
+                shardLease = new ShardLease(XxlJobAdminConfig.getAdminConfig().getXxlJobLockDao(), XxlJobAdminConfig.getAdminConfig().getAdminAddress());
+                List<Integer> ownShardList = new ArrayList<Integer>();
+                long nextScanTime = 0;
+
                 while (!scheduleThreadToStop) {
 
-                    // Scan Job
+                    // Renew shard lease, take over shard of crashed admin
                     long start = System.currentTimeMillis();
-
-                    Connection conn = null;
-                    Boolean connAutoCommit = null;
-                    PreparedStatement preparedStatement = null;
-
-                    boolean preReadSuc = true;
-                    try {
-
-                        conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
-                        connAutoCommit = conn.getAutoCommit();
-                        conn.setAutoCommit(false);
-
-                        preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = 'schedule_lock' for update" );
-                        preparedStatement.execute();
-
-                        // tx start
-
-                        // 1、pre read
-                        long nowTime = System.currentTimeMillis();
-                        List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + PRE_READ_MS, preReadCount);
-                        if (scheduleList!=null && scheduleList.size()>0) {
-                            // 2、push time-ring
-                            for (XxlJobInfo jobInfo: scheduleList) {
-
-                                // time-ring jump
-                                if (nowTime > jobInfo.getTriggerNextTime() + PRE_READ_MS) {
-                                    // 2.1、trigger-expire > 5s：pass && make next-trigger-time
-                                    logger.warn(">>>>>>>>>>> xxl-job, schedule misfire, jobId = " + jobInfo.getId());
-
-                                    // 1、misfire match
-                                    MisfireStrategyEnum misfireStrategyEnum = MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), MisfireStrategyEnum.DO_NOTHING);
-                                    if (MisfireStrategyEnum.FIRE_ONCE_NOW == misfireStrategyEnum) {
-                                        // FIRE_ONCE_NOW 》 trigger
-                                        JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.MISFIRE, -1, null, null, null);
-                                        logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
-                                    }
-
-                                    // 2、fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
-
-                                } else if (nowTime > jobInfo.getTriggerNextTime()) {
-                                    // 2.2、trigger-expire < 5s：direct-trigger && make next-trigger-time
-
-                                    // 1、trigger
-                                    JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.CRON, -1, null, null, null);
-                                    logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
-
-                                    // 2、fresh next
-                                    refreshNextValidTime(jobInfo, new Date());
-
-                                    // next-trigger-time in 5s, pre-read again
-                                    if (jobInfo.getTriggerStatus()==1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
-
-                                        // 1、make ring second
-                                        int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
-
-                                        // 2、push time ring
-                                        pushTimeRing(ringSecond, jobInfo.getId());
-
-                                        // 3、fresh next
-                                        refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
-
-                                    }
-
-                                } else {
-                                    // 2.3、trigger-pre-read：time-ring trigger && make next-trigger-time
-
-                                    // 1、make ring second
-                                    int ringSecond = (int)((jobInfo.getTriggerNextTime()/1000)%60);
-
-                                    // 2、push time ring
-                                    pushTimeRing(ringSecond, jobInfo.getId());
-
-                                    // 3、fresh next
-                                    refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
-
-                                }
-
-                            }
-
-                            // 3、update trigger info
-                            for (XxlJobInfo jobInfo: scheduleList) {
-                                XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdate(jobInfo);
-                            }
-
-                        } else {
-                            preReadSuc = false;
-                        }
-
-                        // tx stop
-
-
-                    } catch (Exception e) {
-                        if (!scheduleThreadToStop) {
-                            logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread error:{}", e);
-                        }
-                    } finally {
-
-                        // commit
-                        if (conn != null) {
-                            try {
-                                conn.commit();
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
-                            }
-                            try {
-                                conn.setAutoCommit(connAutoCommit);
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
-                            }
-                            try {
-                                conn.close();
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
+                    int shardTotal = XxlJobAdminConfig.getAdminConfig().getScheduleShardTotal();
+                    List<Integer> lastOwnShardList = ownShardList;
+                    ownShardList = loadOwnShard(shardTotal, start);
+
+                    // Scan Job, each shard owned by this admin (shard newly taken over, scan now)
+                    boolean preReadSuc = false;
+                    boolean scanAll = start >= nextScanTime;
+                    for (int shardIndex : ownShardList) {
+                        if (scanAll || !lastOwnShardList.contains(shardIndex)) {
+                            if (scheduleShard(shardIndex, shardTotal, preReadCount)) {
+                                preReadSuc = true;
                             }
                         }
+                    }
 
-                        // close PreparedStatement
-                        if (null != preparedStatement) {
-                            try {
-                                preparedStatement.close();
-                            } catch (SQLException e) {
-                                if (!scheduleThreadToStop) {
-                                    logger.error(e.getMessage(), e);
-                                }
-                            }
-                        }
+                    // pre-read period: success > scan each second; fail > skip this period;
+                    long end = System.currentTimeMillis();
+                    if (preReadSuc) {
+                        nextScanTime = 0;
+                    } else if (scanAll) {
+                        nextScanTime = end - end%1000 + PRE_READ_MS;
                     }
-                    long cost = System.currentTimeMillis()-start;
+
+                    long cost = end-start;
 
 
-                    // Wait seconds, align second
+                    // Wait seconds, align second (lease renew)
                     if (cost < 1000) {  // scan-overtime, not wait
                         try {
-                            // pre-read period: success > scan each second; fail > skip this period;
-                            TimeUnit.MILLISECONDS.sleep((preReadSuc?1000:PRE_READ_MS) - System.currentTimeMillis()%1000);
+                            TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis()%1000);
                         } catch (InterruptedException e) {
                             if (!scheduleThreadToStop) {
                                 logger.error(e.getMessage(), e);
@@ -223,38 +134,13 @@ public class JobScheduleHelper {
             public void run() {
 
                 while (!ringThreadToStop) {
-
-                    // align second
                     try {
-                        TimeUnit.MILLISECONDS.sleep(1000 - System.currentTimeMillis() % 1000);
+                        // wait expired bucket, fire at trigger-time
+                        timeWheel.advance(1000);
                     } catch (InterruptedException e) {
                         if (!ringThreadToStop) {
                             logger.error(e.getMessage(), e);
                         }
-                    }
-
-                    try {
-                        // second data
-                        List<Integer> ringItemData = new ArrayList<>();
-                        int nowSecond = Calendar.getInstance().get(Calendar.SECOND);   // 避免处理耗时太长，跨过刻度，向前校验一个刻度；
-                        for (int i = 0; i < 2; i++) {
-                            List<Integer> tmpData = ringData.remove( (nowSecond+60-i)%60 );
-                            if (tmpData != null) {
-                                ringItemData.addAll(tmpData);
-                            }
-                        }
-
-                        // ring trigger
-                        logger.debug(">>>>>>>>>>> xxl-job, time-ring beat : " + nowSecond + " = " + Arrays.asList(ringItemData) );
-                        if (ringItemData.size() > 0) {
-                            // do trigger
-                            for (int jobId: ringItemData) {
-                                // do trigger
-                                JobTriggerPoolHelper.trigger(jobId, TriggerTypeEnum.CRON, -1, null, null, null);
-                            }
-                            // clear
-                            ringItemData.clear();
-                        }
                     } catch (Exception e) {
                         if (!ringThreadToStop) {
                             logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#ringThread error:{}", e);
@@ -269,6 +155,151 @@ public class JobScheduleHelper {
         ringThread.start();
     }
 
+    /**
+     * pre-read and push time-wheel for one shard, job belong to shard by "id % shardTotal", and each shard has its own lock
+     *
+     * @return  pre-read success
+     */
+    private boolean scheduleShard(int shardIndex, int shardTotal, int preReadCount) {
+        Connection conn = null;
+        Boolean connAutoCommit = null;
+        PreparedStatement preparedStatement = null;
+
+        boolean preReadSuc = true;
+        long lockTime = 0;
+        try {
+
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            connAutoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            preparedStatement = conn.prepareStatement(  "select * from xxl_job_lock where lock_name = ? for update" );
+            preparedStatement.setString(1, ShardLease.makeShardLockName(shardIndex, shardTotal));
+            preparedStatement.execute();
+            lockTime = System.currentTimeMillis();
+
+            // tx start
+
+            // 1、pre read
+            long nowTime = System.currentTimeMillis();
+            List<XxlJobInfo> scheduleList = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleJobQuery(nowTime + PRE_READ_MS, preReadCount, shardIndex, shardTotal);
+            if (scheduleList!=null && scheduleList.size()>0) {
+                // 2、push time-ring
+                for (XxlJobInfo jobInfo: scheduleList) {
+
+                    // time-ring jump
+                    if (nowTime > jobInfo.getTriggerNextTime() + PRE_READ_MS) {
+                        // 2.1、trigger-expire > 5s：pass && make next-trigger-time
+                        logger.warn(">>>>>>>>>>> xxl-job, schedule misfire, jobId = " + jobInfo.getId());
+
+                        // 1、misfire match
+                        MisfireStrategyEnum misfireStrategyEnum = MisfireStrategyEnum.match(jobInfo.getMisfireStrategy(), MisfireStrategyEnum.DO_NOTHING);
+                        if (MisfireStrategyEnum.FIRE_ONCE_NOW == misfireStrategyEnum) {
+                            // FIRE_ONCE_NOW 》 trigger
+                            JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.MISFIRE, -1, null, null, null);
+                            logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
+                        }
+
+                        // 2、fresh next
+                        refreshNextValidTime(jobInfo, new Date());
+
+                    } else if (nowTime > jobInfo.getTriggerNextTime()) {
+                        // 2.2、trigger-expire < 5s：direct-trigger && make next-trigger-time
+
+                        // 1、trigger
+                        JobTriggerPoolHelper.trigger(jobInfo.getId(), TriggerTypeEnum.CRON, -1, null, null, null);
+                        logger.debug(">>>>>>>>>>> xxl-job, schedule push trigger : jobId = " + jobInfo.getId() );
+
+                        // 2、fresh next
+                        refreshNextValidTime(jobInfo, new Date());
+
+                        // next-trigger-time in 5s, pre-read again
+                        if (jobInfo.getTriggerStatus()==1 && nowTime + PRE_READ_MS > jobInfo.getTriggerNextTime()) {
+
+                            // 1、push time wheel
+                            pushTimeWheel(jobInfo.getId(), jobInfo.getTriggerNextTime());
+
+                            // 2、fresh next
+                            refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+
+                        }
+
+                    } else {
+                        // 2.3、trigger-pre-read：time-wheel trigger && make next-trigger-time
+
+                        // 1、push time wheel
+                        pushTimeWheel(jobInfo.getId(), jobInfo.getTriggerNextTime());
+
+                        // 2、fresh next
+                        refreshNextValidTime(jobInfo, new Date(jobInfo.getTriggerNextTime()));
+
+                    }
+
+                }
+
+                // 3、update trigger info (batch, multi-row update)
+                for (int i = 0; i < scheduleList.size(); i += SCHEDULE_UPDATE_BATCH_SIZE) {
+                    List<XxlJobInfo> batchList = scheduleList.subList(i, Math.min(i + SCHEDULE_UPDATE_BATCH_SIZE, scheduleList.size()));
+                    XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().scheduleUpdateBatch(batchList);
+                }
+
+            } else {
+                preReadSuc = false;
+            }
+
+            // tx stop
+
+
+        } catch (Exception e) {
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper#scheduleThread error:{}", e);
+            }
+        } finally {
+
+            // commit
+            if (conn != null) {
+                try {
+                    conn.commit();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.setAutoCommit(connAutoCommit);
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            }
+
+            // close PreparedStatement
+            if (null != preparedStatement) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    if (!scheduleThreadToStop) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            }
+
+            // lock hold time
+            if (lockTime > 0) {
+                recordLockHoldTime(shardIndex, System.currentTimeMillis() - lockTime);
+            }
+        }
+        return preReadSuc;
+    }
+
     private void refreshNextValidTime(XxlJobInfo jobInfo, Date fromTime) throws Exception {
         Date nextValidTime = generateNextValidTime(jobInfo, fromTime);
         if (nextValidTime != null) {
@@ -283,16 +314,11 @@ public class JobScheduleHelper {
         }
     }
 
-    private void pushTimeRing(int ringSecond, int jobId){
-        // push async ring
-        List<Integer> ringItemData = ringData.get(ringSecond);
-        if (ringItemData == null) {
-            ringItemData = new ArrayList<Integer>();
-            ringData.put(ringSecond, ringItemData);
-        }
-        ringItemData.add(jobId);
+    private void pushTimeWheel(int jobId, long triggerTime){
+        // push time wheel, fire at trigger-time
+        timeWheel.add(jobId, triggerTime);
 
-        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-ring : " + ringSecond + " = " + Arrays.asList(ringItemData) );
+        logger.debug(">>>>>>>>>>> xxl-job, schedule push time-wheel : jobId = {}, triggerTime = {}", jobId, triggerTime);
     }
 
     public void toStop(){
@@ -314,18 +340,17 @@ public class JobScheduleHelper {
             }
         }
 
-        // if has ring data
-        boolean hasRingData = false;
-        if (!ringData.isEmpty()) {
-            for (int second : ringData.keySet()) {
-                List<Integer> tmpData = ringData.get(second);
-                if (tmpData!=null && tmpData.size()>0) {
-                    hasRingData = true;
-                    break;
-                }
+        // release shard lease, other admin take over immediately
+        if (shardLease != null) {
+            try {
+                shardLease.release();
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
             }
         }
-        if (hasRingData) {
+
+        // if has ring data
+        if (timeWheel.size() > 0) {
             try {
                 TimeUnit.SECONDS.sleep(8);
             } catch (InterruptedException e) {
@@ -354,11 +379,103 @@ public class JobScheduleHelper {
     }
 
 
+    // ---------------------- lock metric ----------------------
+
+    /**
+     * lock hold time of each schedule, only logged: over schedule period (1s) delay next scan, over pre-read window job may misfire
+     */
+    private void recordLockHoldTime(int shardIndex, long holdTime) {
+        if (holdTime > PRE_READ_MS) {
+            logger.warn(">>>>>>>>>>> xxl-job, schedule lock hold over pre-read window, job may misfire, shardIndex = {}, holdTime = {}ms", shardIndex, holdTime);
+        } else if (holdTime > 1000) {
+            logger.warn(">>>>>>>>>>> xxl-job, schedule lock hold too long, shardIndex = {}, holdTime = {}ms", shardIndex, holdTime);
+        } else {
+            logger.debug(">>>>>>>>>>> xxl-job, schedule lock hold, shardIndex = {}, holdTime = {}ms", shardIndex, holdTime);
+        }
+    }
+
+
+    // ---------------------- schedule shard ----------------------
+
+    private volatile List<String> onlineAdminList = null;     // null: not ready, take over lapsed shard only
+
+    /**
+     * rebalance schedule shard by online admin, shard "i" preferred by the admin at "i % adminNum" (sorted by address)
+     *
+     * @param adminAddressList
+     */
+    public void refreshScheduleShard(List<String> adminAddressList) {
+        List<String> newAdminList = new ArrayList<String>(adminAddressList);
+        Collections.sort(newAdminList);
+        if (!newAdminList.equals(onlineAdminList)) {
+            logger.info(">>>>>>>>>>> xxl-job, schedule shard rebalance, onlineAdminList:{}", newAdminList);
+        }
+        onlineAdminList = newAdminList;
+    }
+
+    private List<Integer> loadOwnShard(int shardTotal, long nowTime) {
+        List<String> adminList = onlineAdminList;
+        try {
+            return shardLease.renew(adminList, shardTotal, nowTime);
+        } catch (Exception e) {
+            if (!scheduleThreadToStop) {
+                logger.error(">>>>>>>>>>> xxl-job, schedule shard lease error, own shard by online admin:{}", e);
+            }
+        }
+
+        // lease fail (e.g. table not upgraded), own shard by online admin
+        List<Integer> ownShardList = new ArrayList<Integer>();
+        int adminIndex = adminList!=null?adminList.indexOf(XxlJobAdminConfig.getAdminConfig().getAdminAddress()):-1;
+        for (int shardIndex = 0; shardIndex < shardTotal; shardIndex++) {
+            // own all shard, if this admin not online yet (shard lock avoid repeat schedule)
+            if (adminIndex < 0 || shardIndex % adminList.size() == adminIndex) {
+                ownShardList.add(shardIndex);
+            }
+        }
+        return ownShardList;
+    }
+
+    private void initShardLock(int shardTotal) {
+        if (shardTotal <= 1) {
+            return;
+        }
+
+        Connection conn = null;
+        PreparedStatement preparedStatement = null;
+        try {
+            conn = XxlJobAdminConfig.getAdminConfig().getDataSource().getConnection();
+            preparedStatement = conn.prepareStatement("insert ignore into xxl_job_lock (lock_name) values (?)");
+            for (int shardIndex = 0; shardIndex < shardTotal; shardIndex++) {
+                preparedStatement.setString(1, ShardLease.makeShardLockName(shardIndex, shardTotal));
+                preparedStatement.addBatch();
+            }
+            preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            logger.error(">>>>>>>>>>> xxl-job, JobScheduleHelper init shard lock error:{}", e);
+        } finally {
+            if (preparedStatement != null) {
+                try {
+                    preparedStatement.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    logger.error(e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+
     // ---------------------- tools ----------------------
     public static Date generateNextValidTime(XxlJobInfo jobInfo, Date fromTime) throws Exception {
         ScheduleTypeEnum scheduleTypeEnum = ScheduleTypeEnum.match(jobInfo.getScheduleType(), null);
         if (ScheduleTypeEnum.CRON == scheduleTypeEnum) {
-            Date nextValidTime = new CronExpression(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
+            Date nextValidTime = CronExpressionCache.load(jobInfo.getScheduleConf()).getNextValidTimeAfter(fromTime);
             return nextValidTime;
         } else if (ScheduleTypeEnum.FIX_RATE == scheduleTypeEnum /*|| ScheduleTypeEnum.FIX_DELAY == scheduleTypeEnum*/) {
             return new Date(fromTime.getTime() + Integer.valueOf(jobInfo.getScheduleConf())*1000 );
@@ -0,0 +1,251 @@
+package com.xxl.job.admin.core.thread;
+
+import com.xxl.job.core.biz.AsyncExecutorBiz;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * job trigger batch helper, merge schedule triggers to same executor address into one "runBatch" request
+ *
+ *      a、batch：triggers of same address collected in "LINGER_TIME" (triggers leaving one ring tick), or sent once reach "batchSize";
+ *      b、result：run result of each trigger, by index; batch request fail, each trigger fail with same result;
+ *      c、compatible：executor not support "runBatch" (old version), address marked and fallback to "run" one by one;
+ *
+ * @author xuxueli 2023-06-20
+ */
+public class JobTriggerBatchHelper {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerBatchHelper.class);
+
+    private static JobTriggerBatchHelper instance = new JobTriggerBatchHelper();
+    public static JobTriggerBatchHelper getInstance(){
+        return instance;
+    }
+
+    private static final long LINGER_TIME = 5;     // ms
+
+    private volatile ScheduledExecutorService flushThread;
+    private int batchSize;
+    private final ConcurrentMap<String, TriggerBatch> triggerBatchMap = new ConcurrentHashMap<String, TriggerBatch>();
+    private final Set<String> unsupportedAddressSet = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong requestCount = new AtomicLong(0);
+    private final AtomicLong triggerCount = new AtomicLong(0);
+
+    /**
+     * @param batchSize     max trigger in one request, less than 2 not start
+     */
+    public void start(int batchSize) {
+        if (batchSize < 2) {
+            return;
+        }
+        this.batchSize = batchSize;
+        flushThread = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "xxl-job, admin JobTriggerBatchHelper-flushThread");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        logger.info(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper start, batchSize:{}", batchSize);
+    }
+
+    public void toStop() {
+        ScheduledExecutorService flushThreadTmp = flushThread;
+        if (flushThreadTmp == null) {
+            return;
+        }
+        flushThread = null;
+        flushThreadTmp.shutdownNow();
+
+        // flush remaining trigger
+        for (Map.Entry<String, TriggerBatch> item : triggerBatchMap.entrySet()) {
+            flush(item.getValue());
+        }
+        triggerBatchMap.clear();
+        unsupportedAddressSet.clear();
+        logger.info(">>>>>>>>>>> xxl-job, JobTriggerBatchHelper stop, request:{}, trigger:{}", requestCount.get(), triggerCount.get());
+    }
+
+    /**
+     * run trigger, may be merged with others to same address
+     *
+     * @param asyncExecutorBiz      executor client of "address"
+     * @param address
+     * @param triggerParam
+     * @return  run result of this trigger
+     */
+    public CompletableFuture<ReturnT<String>> run(AsyncExecutorBiz asyncExecutorBiz, String address, TriggerParam triggerParam) {
+        ScheduledExecutorService flushThreadTmp = flushThread;
+        if (flushThreadTmp == null || unsupportedAddressSet.contains(address)) {
+            requestCount.incrementAndGet();
+            triggerCount.incrementAndGet();
+            return asyncExecutorBiz.run(triggerParam);
+        }
+
+        TriggerItem triggerItem = new TriggerItem(triggerParam);
+        TriggerBatch triggerBatch = triggerBatchMap.get(address);
+        if (triggerBatch == null) {
+            triggerBatch = new TriggerBatch(asyncExecutorBiz, address);
+            TriggerBatch exists = triggerBatchMap.putIfAbsent(address, triggerBatch);
+            if (exists != null) {
+                triggerBatch = exists;
+            }
+        }
+
+        int size = triggerBatch.add(triggerItem);
+        if (size >= batchSize) {
+            flush(triggerBatch);
+        } else if (size == 1) {
+            // first trigger of batch, flush after linger
+            final TriggerBatch finalTriggerBatch = triggerBatch;
+            try {
+                flushThreadTmp.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        flush(finalTriggerBatch);
+                    }
+                }, LINGER_TIME, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // stopped
+                flush(triggerBatch);
+            }
+        }
+        return triggerItem.future;
+    }
+
+    private void flush(final TriggerBatch triggerBatch) {
+        final List<TriggerItem> triggerItemList = triggerBatch.drain();
+        if (triggerItemList == null) {
+            return;
+        }
+        requestCount.incrementAndGet();
+        triggerCount.addAndGet(triggerItemList.size());
+
+        // single, run directly
+        if (triggerItemList.size() == 1) {
+            runOneByOne(triggerBatch.asyncExecutorBiz, triggerItemList);
+            return;
+        }
+
+        List<TriggerParam> triggerParamList = new ArrayList<TriggerParam>(triggerItemList.size());
+        for (TriggerItem triggerItem : triggerItemList) {
+            triggerParamList.add(triggerItem.triggerParam);
+        }
+        triggerBatch.asyncExecutorBiz.runBatch(triggerParamList).whenComplete(new BiConsumer<ReturnT<List<ReturnT<String>>>, Throwable>() {
+            @Override
+            public void accept(ReturnT<List<ReturnT<String>>> batchResult, Throwable throwable) {
+                if (throwable != null) {
+                    batchResult = new ReturnT<List<ReturnT<String>>>(ReturnT.FAIL_CODE, throwable.toString());
+                }
+
+                // success, result of each trigger
+                if (batchResult.getCode() == ReturnT.SUCCESS_CODE
+                        && batchResult.getContent() != null
+                        && batchResult.getContent().size() == triggerItemList.size()) {
+                    for (int i = 0; i < triggerItemList.size(); i++) {
+                        triggerItemList.get(i).future.complete(batchResult.getContent().get(i));
+                    }
+                    return;
+                }
+
+                // executor not support "runBatch", fallback
+                if (batchResult.getMsg() != null && batchResult.getMsg().contains("uri-mapping(/runBatch) not found")) {
+                    logger.warn(">>>>>>>>>>> xxl-job, executor not support runBatch, fallback to run, address:{}", triggerBatch.address);
+                    unsupportedAddressSet.add(triggerBatch.address);
+                    runOneByOne(triggerBatch.asyncExecutorBiz, triggerItemList);
+                    return;
+                }
+
+                // fail, each trigger fail
+                for (TriggerItem triggerItem : triggerItemList) {
+                    triggerItem.future.complete(new ReturnT<String>(batchResult.getCode()!=ReturnT.SUCCESS_CODE?batchResult.getCode():ReturnT.FAIL_CODE,
+                            batchResult.getMsg()));
+                }
+            }
+        });
+    }
+
+    private void runOneByOne(AsyncExecutorBiz asyncExecutorBiz, List<TriggerItem> triggerItemList) {
+        for (final TriggerItem triggerItem : triggerItemList) {
+            asyncExecutorBiz.run(triggerItem.triggerParam).whenComplete(new BiConsumer<ReturnT<String>, Throwable>() {
+                @Override
+                public void accept(ReturnT<String> runResult, Throwable throwable) {
+                    if (throwable != null) {
+                        triggerItem.future.complete(new ReturnT<String>(ReturnT.FAIL_CODE, throwable.toString()));
+                    } else {
+                        triggerItem.future.complete(runResult);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * batch request sent
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * trigger sent, by batch or one by one
+     */
+    public long getTriggerCount() {
+        return triggerCount.get();
+    }
+
+
+    // ---------------------- batch ----------------------
+
+    private static class TriggerBatch {
+        private final AsyncExecutorBiz asyncExecutorBiz;
+        private final String address;
+        private List<TriggerItem> triggerItemList = new ArrayList<TriggerItem>();
+
+        TriggerBatch(AsyncExecutorBiz asyncExecutorBiz, String address) {
+            this.asyncExecutorBiz = asyncExecutorBiz;
+            this.address = address;
+        }
+
+        /**
+         * @return  size after add
+         */
+        synchronized int add(TriggerItem triggerItem) {
+            triggerItemList.add(triggerItem);
+            return triggerItemList.size();
+        }
+
+        /**
+         * @return  null if empty
+         */
+        synchronized List<TriggerItem> drain() {
+            if (triggerItemList.isEmpty()) {
+                return null;
+            }
+            List<TriggerItem> drained = triggerItemList;
+            triggerItemList = new ArrayList<TriggerItem>();
+            return drained;
+        }
+    }
+
+    private static class TriggerItem {
+        private final TriggerParam triggerParam;
+        private final CompletableFuture<ReturnT<String>> future = new CompletableFuture<ReturnT<String>>();
+
+        TriggerItem(TriggerParam triggerParam) {
+            this.triggerParam = triggerParam;
+        }
+    }
+
+}
@@ -23,6 +23,8 @@ public class JobTriggerPoolHelper {
     // fast/slow thread pool
     private ThreadPoolExecutor fastTriggerPool = null;
     private ThreadPoolExecutor slowTriggerPool = null;
+    // async trigger callback (update trigger log), keep db io out of netty io thread
+    private ThreadPoolExecutor triggerCallbackPool = null;
 
     public void start(){
         fastTriggerPool = new ThreadPoolExecutor(
@@ -50,6 +52,19 @@ public class JobTriggerPoolHelper {
                         return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-slowTriggerPool-" + r.hashCode());
                     }
                 });
+
+        triggerCallbackPool = new ThreadPoolExecutor(
+                20,
+                20,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return new Thread(r, "xxl-job, admin JobTriggerPoolHelper-triggerCallbackPool-" + r.hashCode());
+                    }
+                });
     }
 
 
@@ -57,6 +72,7 @@ public class JobTriggerPoolHelper {
         //triggerPool.shutdown();
         fastTriggerPool.shutdownNow();
         slowTriggerPool.shutdownNow();
+        triggerCallbackPool.shutdownNow();
         logger.info(">>>>>>>>> xxl-job trigger thread pool shutdown success.");
     }
 
@@ -132,6 +148,13 @@ public class JobTriggerPoolHelper {
         helper.stop();
     }
 
+    /**
+     * executor for async trigger callback
+     */
+    public static Executor getTriggerCallbackPool() {
+        return helper.triggerCallbackPool;
+    }
+
     /**
      * @param jobId
      * @param triggerType
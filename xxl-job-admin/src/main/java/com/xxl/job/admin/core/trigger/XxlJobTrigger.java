@@ -6,7 +6,11 @@ import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLog;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.XxlJobScheduler;
+import com.xxl.job.admin.core.thread.JobCacheHelper;
+import com.xxl.job.admin.core.thread.JobTriggerBatchHelper;
+import com.xxl.job.admin.core.thread.JobTriggerPoolHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
+import com.xxl.job.core.biz.AsyncExecutorBiz;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.ReturnT;
 import com.xxl.job.core.biz.model.TriggerParam;
@@ -17,6 +21,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * xxl-job trigger
@@ -48,22 +54,25 @@ public class XxlJobTrigger {
                                String executorParam,
                                String addressList) {
 
-        // load data
-        XxlJobInfo jobInfo = XxlJobAdminConfig.getAdminConfig().getXxlJobInfoDao().loadById(jobId);
+        // load data (cached, shared, not modify)
+        XxlJobInfo jobInfo = JobCacheHelper.getInstance().getJobInfo(jobId);
         if (jobInfo == null) {
             logger.warn(">>>>>>>>>>>> trigger fail, jobId invalid，jobId={}", jobId);
             return;
         }
-        if (executorParam != null) {
-            jobInfo.setExecutorParam(executorParam);
-        }
+        String finalExecutorParam = executorParam!=null?executorParam:jobInfo.getExecutorParam();
         int finalFailRetryCount = failRetryCount>=0?failRetryCount:jobInfo.getExecutorFailRetryCount();
-        XxlJobGroup group = XxlJobAdminConfig.getAdminConfig().getXxlJobGroupDao().load(jobInfo.getJobGroup());
+        XxlJobGroup group = JobCacheHelper.getInstance().getJobGroup(jobInfo.getJobGroup());
 
         // cover addressList
         if (addressList!=null && addressList.trim().length()>0) {
-            group.setAddressType(1);
-            group.setAddressList(addressList.trim());
+            XxlJobGroup coverGroup = new XxlJobGroup();
+            coverGroup.setId(group.getId());
+            coverGroup.setAppname(group.getAppname());
+            coverGroup.setTitle(group.getTitle());
+            coverGroup.setAddressType(1);
+            coverGroup.setAddressList(addressList.trim());
+            group = coverGroup;
         }
 
         // sharding param
@@ -80,13 +89,13 @@ public class XxlJobTrigger {
                 && group.getRegistryList()!=null && !group.getRegistryList().isEmpty()
                 && shardingParam==null) {
             for (int i = 0; i < group.getRegistryList().size(); i++) {
-                processTrigger(group, jobInfo, finalFailRetryCount, triggerType, i, group.getRegistryList().size());
+                processTrigger(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, i, group.getRegistryList().size());
             }
         } else {
             if (shardingParam == null) {
                 shardingParam = new int[]{0, 1};
             }
-            processTrigger(group, jobInfo, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1]);
+            processTrigger(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, shardingParam[0], shardingParam[1]);
         }
 
     }
@@ -102,21 +111,20 @@ public class XxlJobTrigger {
 
     /**
      * @param group                     job group, registry list may be empty
-     * @param jobInfo
+     * @param jobInfo                   shared, not modify
+     * @param finalExecutorParam
      * @param finalFailRetryCount
      * @param triggerType
      * @param index                     sharding index
      * @param total                     sharding index
      */
-    private static void processTrigger(XxlJobGroup group, XxlJobInfo jobInfo, int finalFailRetryCount, TriggerTypeEnum triggerType, int index, int total){
+    private static void processTrigger(final XxlJobGroup group, final XxlJobInfo jobInfo, final String finalExecutorParam, final int finalFailRetryCount, final TriggerTypeEnum triggerType, final int index, final int total){
 
         // param
-        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
         ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
-        String shardingParam = (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==executorRouteStrategyEnum)?String.valueOf(index).concat("/").concat(String.valueOf(total)):null;
 
         // 1、save log-id
-        XxlJobLog jobLog = new XxlJobLog();
+        final XxlJobLog jobLog = new XxlJobLog();
         jobLog.setJobGroup(jobInfo.getJobGroup());
         jobLog.setJobId(jobInfo.getId());
         jobLog.setTriggerTime(new Date());
@@ -127,7 +135,7 @@ public class XxlJobTrigger {
         TriggerParam triggerParam = new TriggerParam();
         triggerParam.setJobId(jobInfo.getId());
         triggerParam.setExecutorHandler(jobInfo.getExecutorHandler());
-        triggerParam.setExecutorParams(jobInfo.getExecutorParam());
+        triggerParam.setExecutorParams(finalExecutorParam);
         triggerParam.setExecutorBlockStrategy(jobInfo.getExecutorBlockStrategy());
         triggerParam.setExecutorTimeout(jobInfo.getExecutorTimeout());
         triggerParam.setLogId(jobLog.getId());
@@ -161,11 +169,56 @@ public class XxlJobTrigger {
         // 4、trigger remote executor
         ReturnT<String> triggerResult = null;
         if (address != null) {
+            AsyncExecutorBiz asyncExecutorBiz = XxlJobScheduler.getAsyncExecutorBiz(address);
+            if (asyncExecutorBiz != null) {
+                // async：not holding trigger thread, save trigger-info in callback; schedule trigger merged by address
+                CompletableFuture<ReturnT<String>> runFuture = (triggerType == TriggerTypeEnum.CRON)
+                        ? JobTriggerBatchHelper.getInstance().run(asyncExecutorBiz, address, triggerParam)
+                        : asyncExecutorBiz.run(triggerParam);
+
+                final String finalAddress = address;
+                final ReturnT<String> finalRouteAddressResult = routeAddressResult;
+                runFuture.thenAcceptAsync(new Consumer<ReturnT<String>>() {
+                    @Override
+                    public void accept(ReturnT<String> runResult) {
+                        try {
+                            saveTriggerInfo(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, index, total,
+                                    jobLog, finalAddress, finalRouteAddressResult, fillRunResult(runResult, finalAddress));
+                        } catch (Throwable e) {
+                            logger.error(">>>>>>>>>>> xxl-job trigger callback error, logId:{}", jobLog.getId(), e);
+                        }
+                    }
+                }, JobTriggerPoolHelper.getTriggerCallbackPool());
+                return;
+            }
             triggerResult = runExecutor(triggerParam, address);
         } else {
             triggerResult = new ReturnT<String>(ReturnT.FAIL_CODE, null);
         }
 
+        saveTriggerInfo(group, jobInfo, finalExecutorParam, finalFailRetryCount, triggerType, index, total, jobLog, address, routeAddressResult, triggerResult);
+    }
+
+    /**
+     * collection trigger info, and save log trigger-info
+     */
+    private static void saveTriggerInfo(XxlJobGroup group,
+                                        XxlJobInfo jobInfo,
+                                        String finalExecutorParam,
+                                        int finalFailRetryCount,
+                                        TriggerTypeEnum triggerType,
+                                        int index,
+                                        int total,
+                                        XxlJobLog jobLog,
+                                        String address,
+                                        ReturnT<String> routeAddressResult,
+                                        ReturnT<String> triggerResult) {
+
+        // param
+        ExecutorBlockStrategyEnum blockStrategy = ExecutorBlockStrategyEnum.match(jobInfo.getExecutorBlockStrategy(), ExecutorBlockStrategyEnum.SERIAL_EXECUTION);  // block strategy
+        ExecutorRouteStrategyEnum executorRouteStrategyEnum = ExecutorRouteStrategyEnum.match(jobInfo.getExecutorRouteStrategy(), null);    // route strategy
+        String shardingParam = (ExecutorRouteStrategyEnum.SHARDING_BROADCAST==executorRouteStrategyEnum)?String.valueOf(index).concat("/").concat(String.valueOf(total)):null;
+
         // 5、collection trigger info
         StringBuffer triggerMsgSb = new StringBuffer();
         triggerMsgSb.append(I18nUtil.getString("jobconf_trigger_type")).append("：").append(triggerType.getTitle());
@@ -187,7 +240,7 @@ public class XxlJobTrigger {
         // 6、save log trigger-info
         jobLog.setExecutorAddress(address);
         jobLog.setExecutorHandler(jobInfo.getExecutorHandler());
-        jobLog.setExecutorParam(jobInfo.getExecutorParam());
+        jobLog.setExecutorParam(finalExecutorParam);
         jobLog.setExecutorShardingParam(shardingParam);
         jobLog.setExecutorFailRetryCount(finalFailRetryCount);
         //jobLog.setTriggerTime();
@@ -214,6 +267,10 @@ public class XxlJobTrigger {
             runResult = new ReturnT<String>(ReturnT.FAIL_CODE, ThrowableUtil.toString(e));
         }
 
+        return fillRunResult(runResult, address);
+    }
+
+    private static ReturnT<String> fillRunResult(ReturnT<String> runResult, String address) {
         StringBuffer runResultSB = new StringBuffer(I18nUtil.getString("jobconf_trigger_run") + "：");
         runResultSB.append("<br>address：").append(address);
         runResultSB.append("<br>code：").append(runResult.getCode());
@@ -4,7 +4,9 @@ import com.xxl.job.admin.core.model.XxlJobInfo;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -32,8 +34,14 @@ public interface XxlJobInfoDao {
 	public int save(XxlJobInfo info);
 
 	public XxlJobInfo loadById(@Param("id") int id);
+
+	public List<XxlJobInfo> loadByIds(@Param("ids") Collection<Integer> ids);
 	
 	public int update(XxlJobInfo xxlJobInfo);
+
+	public Map<String, Object> findVersionSummary();
+
+	public List<XxlJobInfo> findAllVersion();
 	
 	public int delete(@Param("id") long id);
 
@@ -41,9 +49,14 @@ public interface XxlJobInfoDao {
 
 	public int findAllCount();
 
-	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime, @Param("pagesize") int pagesize );
+	public List<XxlJobInfo> scheduleJobQuery(@Param("maxNextTime") long maxNextTime,
+											 @Param("pagesize") int pagesize,
+											 @Param("shardIndex") int shardIndex,
+											 @Param("shardTotal") int shardTotal);
 
 	public int scheduleUpdate(XxlJobInfo xxlJobInfo);
 
+	public int scheduleUpdateBatch(@Param("jobInfoList") List<XxlJobInfo> jobInfoList);
+
 
 }
@@ -0,0 +1,30 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobLock;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * schedule lock, and lease of schedule shard
+ *
+ * @author xuxueli 2023-07-12
+ */
+@Mapper
+public interface XxlJobLockDao {
+
+    public List<XxlJobLock> findLease(@Param("lockNameList") List<String> lockNameList);
+
+    public int renewLease(@Param("lockNameList") List<String> lockNameList,
+                          @Param("leaseOwner") String leaseOwner,
+                          @Param("leaseTime") long leaseTime);
+
+    public int takeOverLease(@Param("lockNameList") List<String> lockNameList,
+                             @Param("leaseOwner") String leaseOwner,
+                             @Param("leaseTime") long leaseTime,
+                             @Param("nowTime") long nowTime);
+
+    public int releaseLease(@Param("leaseOwner") String leaseOwner);
+
+}
@@ -33,11 +33,15 @@ public interface XxlJobLogDao {
 	
 	public XxlJobLog load(@Param("id") long id);
 
+	public List<XxlJobLog> loadByIds(@Param("ids") List<Long> ids);
+
 	public long save(XxlJobLog xxlJobLog);
 
 	public int updateTriggerInfo(XxlJobLog xxlJobLog);
 
 	public int updateHandleInfo(XxlJobLog xxlJobLog);
+
+	public int updateHandleInfoBatch(@Param("logList") List<XxlJobLog> logList);
 	
 	public int delete(@Param("jobId") int jobId);
 
@@ -24,11 +24,16 @@ public interface XxlJobRegistryDao {
     public int registryUpdate(@Param("registryGroup") String registryGroup,
                               @Param("registryKey") String registryKey,
                               @Param("registryValue") String registryValue,
+                              @Param("executorLoad") String executorLoad,
                               @Param("updateTime") Date updateTime);
 
+    public int registryBatchUpdate(@Param("registryList") List<XxlJobRegistry> registryList,
+                                   @Param("updateTime") Date updateTime);
+
     public int registrySave(@Param("registryGroup") String registryGroup,
                             @Param("registryKey") String registryKey,
                             @Param("registryValue") String registryValue,
+                            @Param("executorLoad") String executorLoad,
                             @Param("updateTime") Date updateTime);
 
     public int registryDelete(@Param("registryGroup") String registryGroup,
@@ -1,12 +1,14 @@
 package com.xxl.job.admin.service.impl;
 
 import com.xxl.job.admin.core.cron.CronExpression;
+import com.xxl.job.admin.core.cron.CronExpressionCache;
 import com.xxl.job.admin.core.model.XxlJobGroup;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.model.XxlJobLogReport;
 import com.xxl.job.admin.core.route.ExecutorRouteStrategyEnum;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import com.xxl.job.admin.core.thread.JobCacheHelper;
 import com.xxl.job.admin.core.thread.JobScheduleHelper;
 import com.xxl.job.admin.core.util.I18nUtil;
 import com.xxl.job.admin.dao.*;
@@ -264,6 +266,11 @@ public class XxlJobServiceImpl implements XxlJobService {
 			}
 		}
 
+		// invalidate compiled cron
+		if (!scheduleDataNotChanged) {
+			CronExpressionCache.invalidate(exists_jobInfo.getScheduleConf());
+		}
+
 		exists_jobInfo.setJobGroup(jobInfo.getJobGroup());
 		exists_jobInfo.setJobDesc(jobInfo.getJobDesc());
 		exists_jobInfo.setAuthor(jobInfo.getAuthor());
@@ -282,6 +289,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		exists_jobInfo.setUpdateTime(new Date());
         xxlJobInfoDao.update(exists_jobInfo);
+        JobCacheHelper.getInstance().invalidateJobInfo(exists_jobInfo.getId());
 
 
 		return ReturnT.SUCCESS;
@@ -295,8 +303,10 @@ public class XxlJobServiceImpl implements XxlJobService {
 		}
 
 		xxlJobInfoDao.delete(id);
+		JobCacheHelper.getInstance().invalidateJobInfo(id);
 		xxlJobLogDao.delete(id);
 		xxlJobLogGlueDao.deleteByJobId(id);
+		CronExpressionCache.invalidate(xxlJobInfo.getScheduleConf());
 		return ReturnT.SUCCESS;
 	}
 
@@ -329,6 +339,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobCacheHelper.getInstance().invalidateJobInfo(xxlJobInfo.getId());
 		return ReturnT.SUCCESS;
 	}
 
@@ -342,6 +353,7 @@ public class XxlJobServiceImpl implements XxlJobService {
 
 		xxlJobInfo.setUpdateTime(new Date());
 		xxlJobInfoDao.update(xxlJobInfo);
+		JobCacheHelper.getInstance().invalidateJobInfo(xxlJobInfo.getId());
 		return ReturnT.SUCCESS;
 	}
 
@@ -7,8 +7,16 @@ $(function() {
         return;
     }
 
+    // raw log, streamed whole
+    $('#logRaw').attr('href', base_url + '/joblog/logDetailStream?' + $.param({
+        "executorAddress":executorAddress,
+        "triggerTime":triggerTime,
+        "logId":logId
+    }));
+
     // pull log
     var fromLineNum = 1;    // [from, to], start as 1
+    var fromOffset = 0;     // byte offset, [from, to), start as 0; always 0 for old version executor
     var pullFailCount = 0;
     function pullLog() {
         // pullFailCount, max=20
@@ -18,7 +26,7 @@ $(function() {
         }
 
         // load
-        console.log("pullLog, fromLineNum:" + fromLineNum);
+        console.log("pullLog, fromLineNum:" + fromLineNum + ", fromOffset:" + fromOffset);
 
         $.ajax({
             type : 'POST',
@@ -28,7 +36,8 @@ $(function() {
                 "executorAddress":executorAddress,
                 "triggerTime":triggerTime,
                 "logId":logId,
-                "fromLineNum":fromLineNum
+                "fromLineNum":fromLineNum,
+                "fromOffset":fromOffset
             },
             dataType : "json",
             success : function(data){
@@ -42,7 +51,7 @@ $(function() {
                         console.log('pullLog fromLineNum not match');
                         return;
                     }
-                    if (fromLineNum > data.content.toLineNum ) {
+                    if (fromLineNum > data.content.toLineNum && data.content.fromOffset == data.content.toOffset) {
                         console.log('pullLog already line-end');
 
                         // valid end
@@ -56,6 +65,7 @@ $(function() {
 
                     // append content
                     fromLineNum = data.content.toLineNum + 1;
+                    fromOffset = data.content.toOffset || 0;
                     $('#logConsole').append(data.content.logContent);
                     pullFailCount = 0;
 
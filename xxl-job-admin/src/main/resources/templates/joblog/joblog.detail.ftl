@@ -30,6 +30,12 @@
                 <#-- right nav -->
                 <div class="navbar-custom-menu">
                     <ul class="nav navbar-nav">
+                        <li>
+                            <a id="logRaw" href="javascript:;" target="_blank" >
+                                <i class="fa fa-fw fa-file-text-o" ></i>
+                                ${I18n.joblog_rolling_log_raw}
+                            </a>
+                        </li>
                         <li>
                             <a href="javascript:window.location.reload();" >
                                 <i class="fa fa-fw fa-refresh" ></i>
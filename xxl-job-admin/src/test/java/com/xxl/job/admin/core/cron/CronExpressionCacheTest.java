@@ -0,0 +1,80 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+
+public class CronExpressionCacheTest {
+    private static Logger logger = LoggerFactory.getLogger(CronExpressionCacheTest.class);
+
+    private static final String[] CRON_ARR = {
+            "0 0 0 * * ? *",
+            "*/5 * * * * ?",
+            "0 0/15 9-18 ? * MON-FRI",
+            "0 30 2 L * ?",
+            "0 0 12 ? * 6#3",
+            "1-10/3 0 * * * ? 2030-2040"
+    };
+
+    @Test
+    public void sameResult() throws Exception {
+        Date fromTime = new Date();
+        for (String cron : CRON_ARR) {
+            Date expected = new CronExpression(cron).getNextValidTimeAfter(fromTime);
+            Date cached = CronExpressionCache.load(cron).getNextValidTimeAfter(fromTime);
+            Date cachedAgain = CronExpressionCache.load(cron).getNextValidTimeAfter(fromTime);
+            Assertions.assertEquals(expected, cached);
+            Assertions.assertEquals(expected, cachedAgain);
+        }
+        Assertions.assertTrue(CronExpressionCache.getHitCount() >= CRON_ARR.length);
+
+        CronExpressionCache.invalidate(CRON_ARR[0]);
+        long missCount = CronExpressionCache.getMissCount();
+        CronExpressionCache.load(CRON_ARR[0]);
+        Assertions.assertEquals(missCount + 1, CronExpressionCache.getMissCount());
+    }
+
+    /**
+     * parse each time vs cached, 3 next-time each job scan
+     */
+    @Test
+    public void compare() throws Exception {
+        int loop = 100000;
+        Date fromTime = new Date();
+
+        // warm up
+        for (int i = 0; i < loop; i++) {
+            String cron = CRON_ARR[i % CRON_ARR.length];
+            new CronExpression(cron).getNextValidTimeAfter(fromTime);
+            CronExpressionCache.load(cron).getNextValidTimeAfter(fromTime);
+        }
+
+        long missCount = CronExpressionCache.getMissCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            String cron = CRON_ARR[i % CRON_ARR.length];
+            new CronExpression(cron).getNextValidTimeAfter(fromTime);
+        }
+        long parseCost = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            String cron = CRON_ARR[i % CRON_ARR.length];
+            CronExpressionCache.load(cron).getNextValidTimeAfter(fromTime);
+        }
+        long cacheCost = System.nanoTime() - start;
+
+        logger.info(">>>>>>>>>>> cron next-time, loop:{}, parse each time:{}ns/op, cached:{}ns/op, hit:{}, miss:{}",
+                loop, parseCost / loop, cacheCost / loop, CronExpressionCache.getHitCount(), CronExpressionCache.getMissCount());
+
+        // timing only logged; cached instance reused, no parse in loop
+        Assertions.assertEquals(missCount, CronExpressionCache.getMissCount());
+        for (String cron : CRON_ARR) {
+            Assertions.assertSame(CronExpressionCache.load(cron), CronExpressionCache.load(cron));
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.xxl.job.admin.core.cron;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+public class FastCronExpressionTest {
+    private static Logger logger = LoggerFactory.getLogger(FastCronExpressionTest.class);
+
+    private static final String[] DAY_OF_WEEK_NAME = {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+    private static final String[] SPECIAL_DAY_OF_MONTH = {"L", "L-3", "LW", "15W", "1W"};
+    private static final String[] SPECIAL_DAY_OF_WEEK = {"6L", "2#1", "5#3", "1#5"};
+
+    /**
+     * differential fuzz：random expression + random time zone + random start time, fire chain must be same
+     */
+    @Test
+    public void fuzz() throws Exception {
+        long seed = System.currentTimeMillis();
+        Random random = new Random(seed);
+        String[] zoneIds = TimeZone.getAvailableIDs();
+
+        int expressionCount = 0;
+        int compareCount = 0;
+        while (expressionCount < 5000) {
+            String cron = randomCron(random);
+            CronExpression cronExpression;
+            try {
+                cronExpression = new CronExpression(cron);
+            } catch (ParseException e) {
+                continue;
+            }
+            expressionCount++;
+
+            TimeZone timeZone = TimeZone.getTimeZone(zoneIds[random.nextInt(zoneIds.length)]);
+            cronExpression.setTimeZone(timeZone);
+            FastCronExpression fastCronExpression = new FastCronExpression(cronExpression);
+
+            // start time in [2000, 2040), with random millisecond
+            Date fromTime = new Date(946684800000L + (long) (random.nextDouble() * 40 * 365 * 24 * 3600 * 1000L));
+            for (int i = 0; i < 10 && fromTime != null; i++) {
+                Date expected = cronExpression.getNextValidTimeAfter(fromTime);
+                Date actual = fastCronExpression.getNextValidTimeAfter(fromTime);
+                Assertions.assertEquals(expected, actual,
+                        "seed:" + seed + ", cron:" + cron + ", zone:" + timeZone.getID() + ", from:" + fromTime.getTime());
+                compareCount++;
+
+                // next from fire time, or jump forward random
+                fromTime = random.nextBoolean() || expected == null
+                        ? expected
+                        : new Date(fromTime.getTime() + random.nextInt(90 * 24 * 3600) * 1000L + random.nextInt(1000));
+            }
+        }
+        logger.info(">>>>>>>>>>> cron fuzz, seed:{}, expression:{}, compare:{}", seed, expressionCount, compareCount);
+    }
+
+    /**
+     * DST transition, fall back to CronExpression
+     */
+    @Test
+    public void daylightSaving() throws Exception {
+        String[] crons = {"0 30 2 * * ?", "0 0/20 1-3 * * ?", "*/30 * 2 ? * SUN"};
+        String[] zoneIds = {"America/New_York", "Europe/London", "Australia/Sydney"};
+        for (String cron : crons) {
+            for (String zoneId : zoneIds) {
+                CronExpression cronExpression = new CronExpression(cron);
+                cronExpression.setTimeZone(TimeZone.getTimeZone(zoneId));
+                FastCronExpression fastCronExpression = new FastCronExpression(cronExpression);
+
+                // 2023-01-01 ~ 2024-01-01, step 1 hour
+                for (long time = 1672531200000L; time < 1704067200000L; time += 3600 * 1000L) {
+                    Date fromTime = new Date(time);
+                    Assertions.assertEquals(cronExpression.getNextValidTimeAfter(fromTime), fastCronExpression.getNextValidTimeAfter(fromTime),
+                            "cron:" + cron + ", zone:" + zoneId + ", from:" + time);
+                }
+            }
+        }
+    }
+
+    /**
+     * CronExpression vs FastCronExpression, next-time cost
+     */
+    @Test
+    public void compare() throws Exception {
+        String[] crons = {
+                "0 0 0 * * ? *",
+                "*/5 * * * * ?",
+                "0 0/15 9-18 ? * MON-FRI",
+                "0 0 12 1,15 * ?",
+                "1-10/3 0 * * * ? 2030-2040"
+        };
+        int loop = 200000;
+        Date fromTime = new Date();
+
+        CronExpression[] cronExpressions = new CronExpression[crons.length];
+        FastCronExpression[] fastCronExpressions = new FastCronExpression[crons.length];
+        for (int i = 0; i < crons.length; i++) {
+            cronExpressions[i] = new CronExpression(crons[i]);
+            fastCronExpressions[i] = new FastCronExpression(cronExpressions[i]);
+        }
+
+        // warm up
+        for (int i = 0; i < loop; i++) {
+            cronExpressions[i % crons.length].getNextValidTimeAfter(fromTime);
+            fastCronExpressions[i % crons.length].getNextValidTimeAfter(fromTime);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            cronExpressions[i % crons.length].getNextValidTimeAfter(fromTime);
+        }
+        long cronCost = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            fastCronExpressions[i % crons.length].getNextValidTimeAfter(fromTime);
+        }
+        long fastCost = System.nanoTime() - start;
+
+        logger.info(">>>>>>>>>>> cron next-time, loop:{}, CronExpression:{}ns/op, FastCronExpression:{}ns/op, speedup:{}x",
+                loop, cronCost / loop, fastCost / loop, cronCost / Math.max(fastCost, 1));
+
+        // timing only logged, not asserted (noisy on shared host); result must be same
+        for (int i = 0; i < crons.length; i++) {
+            Assertions.assertEquals(cronExpressions[i].getNextValidTimeAfter(fromTime), fastCronExpressions[i].getNextValidTimeAfter(fromTime), crons[i]);
+        }
+    }
+
+    private static String randomCron(Random random) {
+        StringBuilder cron = new StringBuilder();
+        cron.append(randomField(random, 0, 59)).append(' ');
+        cron.append(randomField(random, 0, 59)).append(' ');
+        cron.append(randomField(random, 0, 23)).append(' ');
+
+        boolean byDayOfMonth = random.nextBoolean();
+        boolean special = random.nextInt(10) == 0;
+        if (byDayOfMonth) {
+            cron.append(special ? SPECIAL_DAY_OF_MONTH[random.nextInt(SPECIAL_DAY_OF_MONTH.length)] : randomField(random, 1, 31));
+            cron.append(' ').append(randomField(random, 1, 12)).append(" ?");
+        } else {
+            cron.append("? ").append(randomField(random, 1, 12)).append(' ');
+            if (special) {
+                cron.append(SPECIAL_DAY_OF_WEEK[random.nextInt(SPECIAL_DAY_OF_WEEK.length)]);
+            } else if (random.nextInt(4) == 0) {
+                int from = random.nextInt(7);
+                cron.append(DAY_OF_WEEK_NAME[from]).append('-').append(DAY_OF_WEEK_NAME[from + random.nextInt(7 - from)]);
+            } else {
+                cron.append(randomField(random, 1, 7));
+            }
+        }
+
+        // year
+        int yearType = random.nextInt(4);
+        if (yearType == 1) {
+            cron.append(" *");
+        } else if (yearType == 2) {
+            int from = 2000 + random.nextInt(50);
+            cron.append(' ').append(from).append('-').append(from + random.nextInt(20));
+        } else if (yearType == 3) {
+            cron.append(' ').append(2000 + random.nextInt(50)).append('/').append(1 + random.nextInt(5));
+        }
+        return cron.toString();
+    }
+
+    private static String randomField(Random random, int min, int max) {
+        int range = max - min + 1;
+        switch (random.nextInt(6)) {
+            case 0:
+                return "*";
+            case 1:
+                return String.valueOf(min + random.nextInt(range));
+            case 2: {
+                int from = min + random.nextInt(range);
+                int to = min + random.nextInt(range);   // may wrap, like 50-10
+                return from + "-" + to;
+            }
+            case 3:
+                return (random.nextBoolean() ? "*" : String.valueOf(min + random.nextInt(range))) + "/" + (1 + random.nextInt(range));
+            case 4: {
+                int from = min + random.nextInt(range);
+                return from + "-" + (from + random.nextInt(max - from + 1)) + "/" + (1 + random.nextInt(range));
+            }
+            default: {
+                StringBuilder list = new StringBuilder();
+                int size = 2 + random.nextInt(4);
+                for (int i = 0; i < size; i++) {
+                    if (i > 0) {
+                        list.append(',');
+                    }
+                    list.append(min + random.nextInt(range));
+                }
+                return list.toString();
+            }
+        }
+    }
+
+}
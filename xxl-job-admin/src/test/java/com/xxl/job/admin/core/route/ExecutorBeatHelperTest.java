@@ -0,0 +1,145 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.conf.XxlJobAdminConfig;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.IdleBeatParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.server.EmbedServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * beat fan-out, first success chosen, dead executor skipped by circuit breaker
+ */
+public class ExecutorBeatHelperTest {
+
+    private static EmbedServer embedServer;
+    private static String aliveAddress;
+    private static ServerSocket blackholeServer;        // accept, never response
+    private static String blackholeAddress;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        // admin config, for executor client (access token)
+        Field adminConfigField = XxlJobAdminConfig.class.getDeclaredField("adminConfig");
+        adminConfigField.setAccessible(true);
+        adminConfigField.set(null, new XxlJobAdminConfig());
+
+        int port = freePort();
+        aliveAddress = "http://127.0.0.1:" + port + "/";
+        embedServer = new EmbedServer();
+        embedServer.start(aliveAddress, port, null, null);
+        ExecutorBizClient executorBiz = new ExecutorBizClient(aliveAddress, null);
+        for (int i = 0; i < 50 && executorBiz.beat().getCode() != ReturnT.SUCCESS_CODE; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        blackholeServer = new ServerSocket(0);
+        blackholeAddress = "http://127.0.0.1:" + blackholeServer.getLocalPort() + "/";
+    }
+
+    @AfterAll
+    public static void destroy() throws Exception {
+        embedServer.stop();
+        blackholeServer.close();
+
+        Field adminConfigField = XxlJobAdminConfig.class.getDeclaredField("adminConfig");
+        adminConfigField.setAccessible(true);
+        adminConfigField.set(null, null);
+    }
+
+    /**
+     * not response executor first, not wait for its timeout
+     */
+    @Test
+    public void firstSuccess() {
+        ReturnT<String> beatResult = ExecutorBeatHelper.beat(Arrays.asList(blackholeAddress, aliveAddress), null, "beat");
+
+        // chosen before not response executor done (its result never in msg), not by wall clock
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, beatResult.getCode());
+        Assertions.assertEquals(aliveAddress, beatResult.getContent());
+        Assertions.assertTrue(beatResult.getMsg().contains(aliveAddress));
+        Assertions.assertFalse(beatResult.getMsg().contains(blackholeAddress), beatResult.getMsg());
+
+        // idle beat
+        beatResult = ExecutorBeatHelper.beat(Arrays.asList(blackholeAddress, aliveAddress), new IdleBeatParam(1), "idle beat");
+        Assertions.assertEquals(aliveAddress, beatResult.getContent());
+    }
+
+    @Test
+    public void circuitOpen() throws Exception {
+        String deadAddress = "http://127.0.0.1:" + freePort() + "/";
+        ReturnT<String> beatResult = ExecutorBeatHelper.beat(Arrays.asList(deadAddress, aliveAddress), null, "beat");
+        Assertions.assertEquals(aliveAddress, beatResult.getContent());
+
+        // dead, open
+        for (int i = 0; i < 50 && !ExecutorBeatHelper.isOpen(deadAddress); i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        Assertions.assertTrue(ExecutorBeatHelper.isOpen(deadAddress));
+        beatResult = ExecutorBeatHelper.beat(Arrays.asList(deadAddress, aliveAddress), null, "beat");
+        Assertions.assertEquals(aliveAddress, beatResult.getContent());
+        Assertions.assertTrue(beatResult.getMsg().contains("circuit open"));
+
+        // alive, never open
+        Assertions.assertFalse(ExecutorBeatHelper.isOpen(aliveAddress));
+    }
+
+    /**
+     * hung executor (accept, never response), beat cancelled when other chosen, still open when its beat timeout
+     */
+    @Test
+    public void blackholeCircuitOpen() throws Exception {
+        ServerSocket hungServer = new ServerSocket(0);
+        try {
+            String hungAddress = "http://127.0.0.1:" + hungServer.getLocalPort() + "/";
+            ReturnT<String> beatResult = ExecutorBeatHelper.beat(Arrays.asList(hungAddress, aliveAddress), null, "beat");
+            Assertions.assertEquals(aliveAddress, beatResult.getContent());
+            Assertions.assertFalse(ExecutorBeatHelper.isOpen(hungAddress));
+
+            // open after beat timeout (3s)
+            for (int i = 0; i < 100 && !ExecutorBeatHelper.isOpen(hungAddress); i++) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            Assertions.assertTrue(ExecutorBeatHelper.isOpen(hungAddress));
+
+            // skipped, not beat
+            beatResult = ExecutorBeatHelper.beat(Arrays.asList(hungAddress, aliveAddress), null, "beat");
+            Assertions.assertEquals(aliveAddress, beatResult.getContent());
+            Assertions.assertTrue(beatResult.getMsg().contains("circuit open"));
+            Assertions.assertFalse(ExecutorBeatHelper.isOpen(aliveAddress));
+        } finally {
+            hungServer.close();
+        }
+    }
+
+    @Test
+    public void allFail() throws Exception {
+        String deadAddress = "http://127.0.0.1:" + freePort() + "/";
+        ReturnT<String> beatResult = ExecutorBeatHelper.beat(Collections.singletonList(deadAddress), null, "beat");
+        Assertions.assertEquals(ReturnT.FAIL_CODE, beatResult.getCode());
+        Assertions.assertTrue(ExecutorBeatHelper.isOpen(deadAddress));
+
+        // all open, beat again
+        beatResult = ExecutorBeatHelper.beat(Collections.singletonList(deadAddress), null, "beat");
+        Assertions.assertEquals(ReturnT.FAIL_CODE, beatResult.getCode());
+        Assertions.assertFalse(beatResult.getMsg().contains("circuit open"));
+        Assertions.assertTrue(beatResult.getMsg().contains("xxl-job remoting"));
+    }
+
+    private static int freePort() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        int port = serverSocket.getLocalPort();
+        serverSocket.close();
+        return port;
+    }
+
+}
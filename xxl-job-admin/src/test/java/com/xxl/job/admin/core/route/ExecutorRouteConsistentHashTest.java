@@ -0,0 +1,132 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteConsistentHash;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * consistent hash, cached ring vs ring built each time (old version)
+ */
+public class ExecutorRouteConsistentHashTest {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorRouteConsistentHashTest.class);
+
+    @Test
+    public void sameResult() throws Exception {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        for (int addressCount : new int[]{1, 3, 50}) {
+            List<String> addressList = buildAddressList(addressCount);
+            for (int jobId = 1; jobId <= 1000; jobId++) {
+                Assertions.assertEquals(hashJobByTreeMap(jobId, addressList), router.hashJob(jobId, addressList));
+            }
+        }
+    }
+
+    @Test
+    public void rebuildWhenChanged() throws Exception {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        List<String> addressList = buildAddressList(10);
+
+        long buildCount = ExecutorRouteConsistentHash.getRingBuildCount();
+        for (int jobId = 1; jobId <= 100; jobId++) {
+            router.hashJob(jobId, addressList);
+            router.hashJob(jobId, new ArrayList<String>(addressList));      // same address, other list
+        }
+        Assertions.assertEquals(buildCount + 1, ExecutorRouteConsistentHash.getRingBuildCount());
+
+        // executor offline, ring rebuilt; job of other executor not moved
+        List<String> changedAddressList = new ArrayList<String>(addressList);
+        String offlineAddress = changedAddressList.remove(3);
+        for (int jobId = 1; jobId <= 100; jobId++) {
+            String address = router.hashJob(jobId, addressList);
+            String changedAddress = router.hashJob(jobId, changedAddressList);
+            Assertions.assertNotEquals(offlineAddress, changedAddress);
+            if (!offlineAddress.equals(address)) {
+                Assertions.assertEquals(address, changedAddress);
+            }
+        }
+        Assertions.assertEquals(buildCount + 2, ExecutorRouteConsistentHash.getRingBuildCount());
+    }
+
+    /**
+     * routing cost by executor count, ring built each time vs cached ring
+     */
+    @Test
+    public void benchmark() throws Exception {
+        ExecutorRouteConsistentHash router = new ExecutorRouteConsistentHash();
+        for (int addressCount : new int[]{1, 10, 50, 200}) {
+            List<String> addressList = Collections.unmodifiableList(buildAddressList(addressCount));
+            int loop = Math.max(200, 20000 / addressCount);
+
+            // warm up
+            for (int i = 0; i < loop; i++) {
+                hashJobByTreeMap(i, addressList);
+                router.hashJob(i, addressList);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < loop; i++) {
+                hashJobByTreeMap(i, addressList);
+            }
+            long treeMapCost = System.nanoTime() - start;
+
+            long buildCount = ExecutorRouteConsistentHash.getRingBuildCount();
+            start = System.nanoTime();
+            for (int i = 0; i < loop; i++) {
+                router.hashJob(i, addressList);
+            }
+            long ringCost = System.nanoTime() - start;
+
+            logger.info(">>>>>>>>>>> consistent hash, executor:{}, loop:{}, ring built each time:{}ns/op, cached ring:{}ns/op",
+                    addressCount, loop, treeMapCost / loop, ringCost / loop);
+
+            // timing only logged; address list unchanged, ring not rebuilt
+            Assertions.assertEquals(buildCount, ExecutorRouteConsistentHash.getRingBuildCount());
+        }
+    }
+
+    private static List<String> buildAddressList(int count) {
+        List<String> addressList = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://192.168.0." + i + ":9999/");
+        }
+        return addressList;
+    }
+
+    // ---------------------- old version ----------------------
+
+    private static long hash(String key) throws Exception {
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        md5.update(key.getBytes(StandardCharsets.UTF_8));
+        byte[] digest = md5.digest();
+        long hashCode = ((long) (digest[3] & 0xFF) << 24)
+                | ((long) (digest[2] & 0xFF) << 16)
+                | ((long) (digest[1] & 0xFF) << 8)
+                | (digest[0] & 0xFF);
+        return hashCode & 0xffffffffL;
+    }
+
+    private static String hashJobByTreeMap(int jobId, List<String> addressList) throws Exception {
+        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+        for (String address : addressList) {
+            for (int i = 0; i < 100; i++) {
+                addressRing.put(hash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+        SortedMap<Long, String> lastRing = addressRing.tailMap(hash(String.valueOf(jobId)));
+        if (!lastRing.isEmpty()) {
+            return lastRing.get(lastRing.firstKey());
+        }
+        return addressRing.firstEntry().getValue();
+    }
+
+}
@@ -0,0 +1,184 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLFU;
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLRU;
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteRound;
+import com.xxl.job.core.biz.model.TriggerParam;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * LFU / LRU / Round router, concurrent route + throughput
+ */
+public class ExecutorRouteCounterTest {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorRouteCounterTest.class);
+
+    private static final int THREAD_COUNT = 8;
+    private static final int ADDRESS_COUNT = 10;
+
+    @Test
+    public void lfuConcurrent() throws Exception {
+        // initial count random in [0, ADDRESS_COUNT) (same as before, spread first trigger of jobs), routed count differs by it
+        assertBalanced(new ExecutorRouteLFU(), 1001, THREAD_COUNT + ADDRESS_COUNT - 1);
+    }
+
+    @Test
+    public void lruConcurrent() throws Exception {
+        assertBalanced(new ExecutorRouteLRU(), 1002, THREAD_COUNT);
+    }
+
+    @Test
+    public void roundConcurrent() throws Exception {
+        assertBalanced(new ExecutorRouteRound(), 1003, 0);
+    }
+
+    @Test
+    public void lfuAddressChanged() throws Exception {
+        ExecutorRouteLFU router = new ExecutorRouteLFU();
+        List<String> addressList = buildAddressList(3);
+        for (int i = 0; i < 300; i++) {
+            router.route(1004, addressList);
+        }
+
+        // offline, not routed
+        List<String> changedAddressList = new ArrayList<String>(addressList);
+        String offlineAddress = changedAddressList.remove(0);
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNotEquals(offlineAddress, router.route(1004, changedAddressList));
+        }
+
+        // online, start from min count, not flooded
+        changedAddressList.add("http://192.168.1.1:9999/");
+        int newAddressCount = 0;
+        for (int i = 0; i < 300; i++) {
+            if ("http://192.168.1.1:9999/".equals(router.route(1004, changedAddressList))) {
+                newAddressCount++;
+            }
+        }
+        Assertions.assertTrue(newAddressCount <= 110);
+    }
+
+    @Test
+    public void lruAddressChanged() throws Exception {
+        ExecutorRouteLRU router = new ExecutorRouteLRU();
+        List<String> addressList = buildAddressList(3);
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(addressList.get(i), router.route(1005, addressList));
+        }
+
+        // online, as newest
+        List<String> changedAddressList = new ArrayList<String>(addressList);
+        changedAddressList.add("http://192.168.1.1:9999/");
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(addressList.get(i), router.route(1005, changedAddressList));
+        }
+        Assertions.assertEquals("http://192.168.1.1:9999/", router.route(1005, changedAddressList));
+    }
+
+    /**
+     * route throughput, 1 thread and multi thread, same job
+     */
+    @Test
+    public void benchmark() throws Exception {
+        List<String> addressList = Collections.unmodifiableList(buildAddressList(20));
+        ExecutorRouter[] routers = {new ExecutorRouteLFU(), new ExecutorRouteLRU(), new ExecutorRouteRound()};
+        for (ExecutorRouter router : routers) {
+            route(router, 1006, addressList, 1, 200000, null);      // warm up
+            long singleCost = route(router, 1006, addressList, 1, 1000000, null);
+            long multiCost = route(router, 1006, addressList, THREAD_COUNT, 1000000 / THREAD_COUNT, null);
+            logger.info(">>>>>>>>>>> {}, {} executor, 1 thread: {} route/ms, {} thread: {} route/ms",
+                    router.getClass().getSimpleName(), addressList.size(),
+                    1000000 / Math.max(1, TimeUnit.NANOSECONDS.toMillis(singleCost)),
+                    THREAD_COUNT, 1000000 / Math.max(1, TimeUnit.NANOSECONDS.toMillis(multiCost)));
+        }
+    }
+
+    /**
+     * each address routed same times (round: exactly; LRU: diff within thread count; LFU: plus initial count diff)
+     */
+    private static void assertBalanced(ExecutorRouter router, int jobId, int maxDiff) throws Exception {
+        List<String> addressList = Collections.unmodifiableList(buildAddressList(ADDRESS_COUNT));
+        ConcurrentMap<String, AtomicInteger> routeCountMap = new ConcurrentHashMap<String, AtomicInteger>();
+        route(router, jobId, addressList, THREAD_COUNT, 10000, routeCountMap);
+
+        int total = 0;
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (String address : addressList) {
+            AtomicInteger count = routeCountMap.get(address);
+            Assertions.assertNotNull(count);
+            total += count.get();
+            min = Math.min(min, count.get());
+            max = Math.max(max, count.get());
+        }
+        Assertions.assertEquals(THREAD_COUNT * 10000, total);
+        Assertions.assertEquals(addressList.size(), routeCountMap.size());
+        Assertions.assertTrue(max - min <= maxDiff, router.getClass().getSimpleName() + ", min:" + min + ", max:" + max);
+    }
+
+    private static long route(final ExecutorRouter router,
+                              final int jobId,
+                              final List<String> addressList,
+                              int threadCount,
+                              final int loop,
+                              final ConcurrentMap<String, AtomicInteger> routeCountMap) throws Exception {
+        final TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(jobId);
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch endLatch = new CountDownLatch(threadCount);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        for (int j = 0; j < loop; j++) {
+                            String address = router.route(triggerParam, addressList).getContent();
+                            if (routeCountMap != null) {
+                                AtomicInteger count = routeCountMap.get(address);
+                                if (count == null) {
+                                    routeCountMap.putIfAbsent(address, new AtomicInteger());
+                                    count = routeCountMap.get(address);
+                                }
+                                count.incrementAndGet();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    } finally {
+                        endLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        long start = System.nanoTime();
+        startLatch.countDown();
+        endLatch.await();
+        long cost = System.nanoTime() - start;
+        Assertions.assertNull(error.get());
+        return cost;
+    }
+
+    private static List<String> buildAddressList(int count) {
+        List<String> addressList = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://192.168.0." + i + ":9999/");
+        }
+        return addressList;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.xxl.job.admin.core.route;
+
+import com.xxl.job.admin.core.model.XxlJobRegistry;
+import com.xxl.job.admin.core.route.strategy.ExecutorRouteLeastLoad;
+import com.xxl.job.admin.core.thread.JobRegistryHelper;
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.enums.RegistryConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * least load router, by executor heartbeat load, power of two choices
+ */
+public class ExecutorRouteLeastLoadTest {
+
+    @Test
+    public void avoidBusy() {
+        List<String> addressList = buildAddressList("busy", 10);
+        for (String address : addressList) {
+            freshLoad(address, 0, 0, 10, 100);
+        }
+        String busyAddress = addressList.get(3);
+        freshLoad(busyAddress, 500, 8, 90, 100);
+
+        // dispatched to others, still lighter than busy one
+        Map<String, Integer> routeCountMap = route(new ExecutorRouteLeastLoad(), addressList, 900);
+        Assertions.assertNull(routeCountMap.get(busyAddress));
+        Assertions.assertEquals(9, routeCountMap.size());
+    }
+
+    /**
+     * same load, spread by dispatch count until next heartbeat
+     */
+    @Test
+    public void spreadByDispatch() {
+        List<String> addressList = buildAddressList("spread", 5);
+        for (String address : addressList) {
+            freshLoad(address, 0, 0, 10, 100);
+        }
+
+        Map<String, Integer> routeCountMap = route(new ExecutorRouteLeastLoad(), addressList, 5000);
+        for (String address : addressList) {
+            Assertions.assertTrue(routeCountMap.get(address) > 900);
+            Assertions.assertTrue(routeCountMap.get(address) < 1100);
+        }
+
+        // heartbeat, dispatch reset
+        freshLoad(addressList.get(0), 0, 0, 10, 100);
+        Assertions.assertEquals(0, JobRegistryHelper.getInstance().getExecutorLoad(addressList.get(0)).getDispatchCount());
+    }
+
+    @Test
+    public void compareLoad() {
+        String address = "http://compare:9999/";
+        freshLoad(address, 1, 1, 50, 100);
+        ExecutorLoad load = JobRegistryHelper.getInstance().getExecutorLoad(address);
+        freshLoad(address, 1, 1, 20, 100);
+        ExecutorLoad lowCpuLoad = JobRegistryHelper.getInstance().getExecutorLoad(address);
+        freshLoad(address, 1, 1, 50, 10);
+        ExecutorLoad lowLatencyLoad = JobRegistryHelper.getInstance().getExecutorLoad(address);
+        freshLoad(address, 0, 1, 90, 1000);
+        ExecutorLoad lessPendingLoad = JobRegistryHelper.getInstance().getExecutorLoad(address);
+
+        Assertions.assertTrue(lowCpuLoad.compareLoad(load) < 0);
+        Assertions.assertTrue(lowLatencyLoad.compareLoad(load) < 0);
+        Assertions.assertTrue(lessPendingLoad.compareLoad(lowCpuLoad) < 0);
+
+        load.dispatch();
+        Assertions.assertEquals(3, load.getPending());
+    }
+
+    /**
+     * heartbeat to other admin, load from registry row
+     */
+    @Test
+    public void loadFromRegistry() {
+        List<String> addressList = buildAddressList("registry", 10);
+        long updateTime = System.currentTimeMillis() / 1000 * 1000;
+        List<XxlJobRegistry> registryList = new ArrayList<XxlJobRegistry>();
+        for (String address : addressList) {
+            registryList.add(buildRegistry(address, new ExecutorLoad(0, 0, 10, 100, 0).toLoadString(), updateTime));
+        }
+        String busyAddress = addressList.get(3);
+        registryList.set(3, buildRegistry(busyAddress, new ExecutorLoad(500, 8, 90, 100, 0).toLoadString(), updateTime));
+        registryList.add(buildRegistry("http://registry-invalid:9999/", "invalid", updateTime));
+        JobRegistryHelper.getInstance().freshExecutorLoad(registryList);
+
+        ExecutorLoad busyLoad = JobRegistryHelper.getInstance().getExecutorLoad(busyAddress);
+        Assertions.assertEquals(508, busyLoad.getPending());
+        Assertions.assertEquals(updateTime, busyLoad.getReportTime());
+        Assertions.assertNull(JobRegistryHelper.getInstance().getExecutorLoad("http://registry-invalid:9999/"));
+
+        Map<String, Integer> routeCountMap = route(new ExecutorRouteLeastLoad(), addressList, 900);
+        Assertions.assertNull(routeCountMap.get(busyAddress));
+        Assertions.assertEquals(9, routeCountMap.size());
+
+        // same row loaded again, dispatch kept; newer row replace
+        ExecutorLoad load = JobRegistryHelper.getInstance().getExecutorLoad(addressList.get(0));
+        Assertions.assertTrue(load.getDispatchCount() > 0);
+        JobRegistryHelper.getInstance().freshExecutorLoad(registryList);
+        Assertions.assertSame(load, JobRegistryHelper.getInstance().getExecutorLoad(addressList.get(0)));
+        JobRegistryHelper.getInstance().freshExecutorLoad(Collections.singletonList(buildRegistry(addressList.get(0), load.toLoadString(), updateTime + 10000)));
+        Assertions.assertEquals(0, JobRegistryHelper.getInstance().getExecutorLoad(addressList.get(0)).getDispatchCount());
+    }
+
+    /**
+     * not reported (old executor, or heartbeat to other admin), random
+     */
+    @Test
+    public void loadUnknown() {
+        List<String> addressList = buildAddressList("unknown", 4);
+        Map<String, Integer> routeCountMap = route(new ExecutorRouteLeastLoad(), addressList, 4000);
+        Assertions.assertEquals(4, routeCountMap.size());
+    }
+
+    private static void freshLoad(String address, int queueSize, int runningCount, int cpuLoad, long latency) {
+        RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), "xxl-job-executor-sample", address);
+        registryParam.setQueueSize(queueSize);
+        registryParam.setRunningCount(runningCount);
+        registryParam.setCpuLoad(cpuLoad);
+        registryParam.setLatency(latency);
+        JobRegistryHelper.getInstance().freshExecutorLoad(registryParam);
+    }
+
+    private static XxlJobRegistry buildRegistry(String address, String executorLoad, long updateTime) {
+        XxlJobRegistry registry = new XxlJobRegistry();
+        registry.setRegistryGroup(RegistryConfig.RegistType.EXECUTOR.name());
+        registry.setRegistryKey("xxl-job-executor-sample");
+        registry.setRegistryValue(address);
+        registry.setExecutorLoad(executorLoad);
+        registry.setUpdateTime(new Date(updateTime));
+        return registry;
+    }
+
+    private static Map<String, Integer> route(ExecutorRouteLeastLoad router, List<String> addressList, int count) {
+        Map<String, Integer> routeCountMap = new HashMap<String, Integer>();
+        for (int i = 0; i < count; i++) {
+            String address = router.route(addressList);
+            Integer routeCount = routeCountMap.get(address);
+            routeCountMap.put(address, routeCount != null ? routeCount + 1 : 1);
+        }
+        return routeCountMap;
+    }
+
+    private static List<String> buildAddressList(String name, int count) {
+        List<String> addressList = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            addressList.add("http://" + name + "-" + i + ":9999/");
+        }
+        return addressList;
+    }
+
+}
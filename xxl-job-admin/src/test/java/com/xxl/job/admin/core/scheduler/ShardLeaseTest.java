@@ -0,0 +1,189 @@
+package com.xxl.job.admin.core.scheduler;
+
+import com.xxl.job.admin.core.model.XxlJobLock;
+import com.xxl.job.admin.core.thread.JobScheduleHelper;
+import com.xxl.job.admin.dao.XxlJobLockDao;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * shard lease, two admin on one lock table, renewed each second
+ */
+public class ShardLeaseTest {
+
+    private static final int SHARD_TOTAL = 4;
+    private static final List<String> ADMIN_LIST = Arrays.asList("127.0.0.1:8080", "127.0.0.1:8081");
+
+    private MemoryLockDao lockDao;
+    private ShardLease leaseA;
+    private ShardLease leaseB;
+
+    @BeforeEach
+    public void init() {
+        lockDao = new MemoryLockDao();
+        for (int shardIndex = 0; shardIndex < SHARD_TOTAL; shardIndex++) {
+            lockDao.init(ShardLease.makeShardLockName(shardIndex, SHARD_TOTAL));
+        }
+        leaseA = new ShardLease(lockDao, ADMIN_LIST.get(0));
+        leaseB = new ShardLease(lockDao, ADMIN_LIST.get(1));
+    }
+
+    @Test
+    public void balance() {
+        long nowTime = System.currentTimeMillis();
+        for (int i = 0; i < 2; i++) {
+            leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+            leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+            nowTime += 1000;
+        }
+        Assertions.assertEquals(Arrays.asList(0, 2), sorted(leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime)));
+        Assertions.assertEquals(Arrays.asList(1, 3), sorted(leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime)));
+    }
+
+    /**
+     * admin A crashed (no graceful stop, still in online admin list), shard taken over by B within one pre-read window
+     */
+    @Test
+    public void crashTakeOver() {
+        long nowTime = System.currentTimeMillis();
+        for (int i = 0; i < 3; i++) {
+            leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+            leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+            nowTime += 1000;
+        }
+        long crashTime = nowTime - 1000;      // last renew of A
+
+        long takeOverTime = -1;
+        for (int i = 0; i < 10; i++) {
+            List<Integer> ownShardList = leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+            if (ownShardList.size() == SHARD_TOTAL) {
+                takeOverTime = nowTime;
+                break;
+            }
+            Assertions.assertEquals(Arrays.asList(1, 3), sorted(ownShardList));
+            nowTime += 1000;
+        }
+        Assertions.assertTrue(takeOverTime > 0);
+
+        // taken over at first renew after lease lapsed (simulated clock, renewed each second), lease shorter than pre-read window
+        long lapseTime = crashTime + ShardLease.LEASE_MS;
+        Assertions.assertTrue(takeOverTime > lapseTime && takeOverTime <= lapseTime + 1000, "take over cost:" + (takeOverTime - crashTime));
+        Assertions.assertTrue(ShardLease.LEASE_MS < JobScheduleHelper.PRE_READ_MS);
+
+        // A restart, preferred shard given back
+        Assertions.assertEquals(Arrays.asList(0, 2), sorted(leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime)));
+        Assertions.assertEquals(Arrays.asList(1, 3), sorted(leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime + 1000)));
+    }
+
+    /**
+     * admin A stopped, lease released, taken over in next renew
+     */
+    @Test
+    public void release() {
+        long nowTime = System.currentTimeMillis();
+        leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+        leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+        leaseA.release();
+
+        Assertions.assertEquals(SHARD_TOTAL, leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime + 1000).size());
+    }
+
+    /**
+     * admin not online yet, only lapsed shard taken over
+     */
+    @Test
+    public void notOnline() {
+        long nowTime = System.currentTimeMillis();
+        leaseA.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+        leaseB.renew(ADMIN_LIST, SHARD_TOTAL, nowTime);
+
+        ShardLease leaseC = new ShardLease(lockDao, "127.0.0.1:8082");
+        Assertions.assertTrue(leaseC.renew(ADMIN_LIST, SHARD_TOTAL, nowTime + 1000).isEmpty());
+        Assertions.assertTrue(leaseC.renew(null, SHARD_TOTAL, nowTime + 1000).isEmpty());
+    }
+
+    private static List<Integer> sorted(List<Integer> list) {
+        List<Integer> sortedList = new ArrayList<Integer>(list);
+        Collections.sort(sortedList);
+        return sortedList;
+    }
+
+    /**
+     * lock table in memory, same as XxlJobLockMapper.xml
+     */
+    private static class MemoryLockDao implements XxlJobLockDao {
+        private final Map<String, XxlJobLock> lockMap = new TreeMap<String, XxlJobLock>();
+
+        void init(String lockName) {
+            XxlJobLock lock = new XxlJobLock();
+            lock.setLockName(lockName);
+            lockMap.put(lockName, lock);
+        }
+
+        @Override
+        public synchronized List<XxlJobLock> findLease(List<String> lockNameList) {
+            List<XxlJobLock> list = new ArrayList<XxlJobLock>();
+            for (String lockName : lockNameList) {
+                XxlJobLock lock = lockMap.get(lockName);
+                if (lock != null) {
+                    XxlJobLock copy = new XxlJobLock();
+                    copy.setLockName(lock.getLockName());
+                    copy.setLeaseOwner(lock.getLeaseOwner());
+                    copy.setLeaseTime(lock.getLeaseTime());
+                    list.add(copy);
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public synchronized int renewLease(List<String> lockNameList, String leaseOwner, long leaseTime) {
+            int ret = 0;
+            for (String lockName : lockNameList) {
+                XxlJobLock lock = lockMap.get(lockName);
+                if (lock != null) {
+                    lock.setLeaseOwner(leaseOwner);
+                    lock.setLeaseTime(leaseTime);
+                    ret++;
+                }
+            }
+            return ret;
+        }
+
+        @Override
+        public synchronized int takeOverLease(List<String> lockNameList, String leaseOwner, long leaseTime, long nowTime) {
+            int ret = 0;
+            for (String lockName : lockNameList) {
+                XxlJobLock lock = lockMap.get(lockName);
+                if (lock != null
+                        && (leaseOwner.equals(lock.getLeaseOwner()) || lock.getLeaseOwner() == null || lock.getLeaseTime() < nowTime)) {
+                    lock.setLeaseOwner(leaseOwner);
+                    lock.setLeaseTime(leaseTime);
+                    ret++;
+                }
+            }
+            return ret;
+        }
+
+        @Override
+        public synchronized int releaseLease(String leaseOwner) {
+            int ret = 0;
+            for (XxlJobLock lock : lockMap.values()) {
+                if (leaseOwner.equals(lock.getLeaseOwner())) {
+                    lock.setLeaseTime(0);
+                    ret++;
+                }
+            }
+            return ret;
+        }
+    }
+
+}
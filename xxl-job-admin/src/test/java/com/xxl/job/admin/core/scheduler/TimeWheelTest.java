@@ -0,0 +1,223 @@
+package com.xxl.job.admin.core.scheduler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeWheelTest {
+    private static Logger logger = LoggerFactory.getLogger(TimeWheelTest.class);
+
+    /**
+     * fire once each, in trigger-time order across level-0 and overflow level, not early
+     */
+    @Test
+    public void fireAtTriggerTime() throws Exception {
+        final List<Integer> fireJobIds = new CopyOnWriteArrayList<>();
+        final Map<Integer, Long> fireTimes = new ConcurrentHashMap<>();
+        TimeWheel timeWheel = new TimeWheel(1, 1000, new TimeWheel.TriggerHandler() {
+            @Override
+            public void trigger(int jobId, long triggerTime) {
+                fireJobIds.add(jobId);
+                fireTimes.put(jobId, System.currentTimeMillis());
+            }
+        });
+
+        // level-0：0.3s later；overflow level：1.5s、3.5s later；added out of order
+        long now = System.currentTimeMillis();
+        long[] triggerTimes = new long[]{now + 300, now + 1500, now + 3500};
+        timeWheel.add(3, triggerTimes[2]);
+        timeWheel.add(1, triggerTimes[0]);
+        timeWheel.add(2, triggerTimes[1]);
+        Assertions.assertEquals(3, timeWheel.size());
+
+        while (timeWheel.size() > 0) {
+            timeWheel.advance(100);
+        }
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), fireJobIds);
+        for (int i = 0; i < triggerTimes.length; i++) {
+            long delay = fireTimes.get(i + 1) - triggerTimes[i];
+            logger.info(">>>>>>>>>>> time wheel fire, jobId:{}, delay:{}ms", i + 1, delay);
+
+            // not early; late by tick (1ms) plus a generous margin for slow host
+            Assertions.assertTrue(delay >= 0, "delay:" + delay);
+            Assertions.assertTrue(delay < 1000, "delay:" + delay);
+        }
+    }
+
+    @Test
+    public void fireExpired() throws Exception {
+        final AtomicInteger fireCount = new AtomicInteger();
+        TimeWheel timeWheel = new TimeWheel(1, 1000, new TimeWheel.TriggerHandler() {
+            @Override
+            public void trigger(int jobId, long triggerTime) {
+                fireCount.incrementAndGet();
+            }
+        });
+
+        timeWheel.add(1, System.currentTimeMillis() - 1000);
+        Assertions.assertEquals(1, fireCount.get());
+        Assertions.assertEquals(0, timeWheel.size());
+    }
+
+    /**
+     * push 100k job in one second, by 4 producer thread
+     */
+    @Test
+    public void stress() throws Exception {
+        final int producerNum = 4;
+        final int jobNumEachProducer = 25000;
+        final int total = producerNum * jobNumEachProducer;
+
+        final AtomicInteger fireCount = new AtomicInteger();
+        final AtomicIntegerArray fireCountEachJob = new AtomicIntegerArray(total);
+        final AtomicLong earlyCount = new AtomicLong();
+        final AtomicLong totalDelay = new AtomicLong();
+        final AtomicLong maxDelay = new AtomicLong();
+        final TimeWheel timeWheel = new TimeWheel(1, 1000, new TimeWheel.TriggerHandler() {
+            @Override
+            public void trigger(int jobId, long triggerTime) {
+                long delay = System.currentTimeMillis() - triggerTime;
+                if (delay < 0) {
+                    earlyCount.incrementAndGet();
+                }
+                totalDelay.addAndGet(delay);
+                if (delay > maxDelay.get()) {
+                    maxDelay.set(delay);
+                }
+                fireCountEachJob.incrementAndGet(jobId);
+                fireCount.incrementAndGet();
+            }
+        });
+
+        // advance thread
+        final CountDownLatch finishLatch = new CountDownLatch(1);
+        Thread advanceThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (fireCount.get() < total) {
+                        timeWheel.advance(100);
+                    }
+                } catch (InterruptedException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                finishLatch.countDown();
+            }
+        });
+        advanceThread.setDaemon(true);
+        advanceThread.start();
+
+        // producer thread, trigger-time in [now+1s, now+6s)
+        long start = System.currentTimeMillis();
+        final CountDownLatch produceLatch = new CountDownLatch(producerNum);
+        for (int i = 0; i < producerNum; i++) {
+            final int producerIndex = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < jobNumEachProducer; j++) {
+                        long triggerTime = System.currentTimeMillis() + 1000 + ThreadLocalRandom.current().nextInt(5000);
+                        timeWheel.add(producerIndex * jobNumEachProducer + j, triggerTime);
+                    }
+                    produceLatch.countDown();
+                }
+            }).start();
+        }
+        produceLatch.await();
+        long produceCost = System.currentTimeMillis() - start;
+
+        Assertions.assertTrue(finishLatch.await(20, TimeUnit.SECONDS));
+        logger.info(">>>>>>>>>>> time wheel stress, total:{}, produce cost:{}ms, avg delay:{}ms, max delay:{}ms",
+                total, produceCost, totalDelay.get() / total, maxDelay.get());
+
+        Assertions.assertEquals(total, fireCount.get());
+        for (int i = 0; i < total; i++) {
+            Assertions.assertEquals(1, fireCountEachJob.get(i), "jobId:" + i);
+        }
+        Assertions.assertEquals(0, earlyCount.get());
+        Assertions.assertEquals(0, timeWheel.size());
+    }
+
+    /**
+     * add while advancing, trigger-time close to now (same bucket as advancing one), no job fire early or lost
+     */
+    @Test
+    public void addWhileAdvancing() throws Exception {
+        final int producerNum = 4;
+        final int jobNumEachProducer = 20000;
+        final int total = producerNum * jobNumEachProducer;
+
+        final AtomicInteger fireCount = new AtomicInteger();
+        final AtomicLong earlyCount = new AtomicLong();
+        final AtomicLong maxDelay = new AtomicLong();
+        final TimeWheel timeWheel = new TimeWheel(1, 20, new TimeWheel.TriggerHandler() {
+            @Override
+            public void trigger(int jobId, long triggerTime) {
+                long delay = System.currentTimeMillis() - triggerTime;
+                if (delay < 0) {
+                    earlyCount.incrementAndGet();
+                }
+                if (delay > maxDelay.get()) {
+                    maxDelay.set(delay);
+                }
+                fireCount.incrementAndGet();
+            }
+        });
+
+        // advance thread, keep advancing while adding
+        final CountDownLatch finishLatch = new CountDownLatch(1);
+        Thread advanceThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (fireCount.get() < total) {
+                        timeWheel.advance(10);
+                    }
+                } catch (InterruptedException e) {
+                    logger.error(e.getMessage(), e);
+                }
+                finishLatch.countDown();
+            }
+        });
+        advanceThread.setDaemon(true);
+        advanceThread.start();
+
+        // producer thread, trigger-time in [now, now+100ms), level-0 (20ms) and overflow level
+        final CountDownLatch produceLatch = new CountDownLatch(producerNum);
+        for (int i = 0; i < producerNum; i++) {
+            final int producerIndex = i;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < jobNumEachProducer; j++) {
+                        long triggerTime = System.currentTimeMillis() + ThreadLocalRandom.current().nextInt(100);
+                        timeWheel.add(producerIndex * jobNumEachProducer + j, triggerTime);
+                    }
+                    produceLatch.countDown();
+                }
+            }).start();
+        }
+        produceLatch.await();
+
+        Assertions.assertTrue(finishLatch.await(20, TimeUnit.SECONDS), "fire:" + fireCount.get());
+        logger.info(">>>>>>>>>>> time wheel add while advancing, total:{}, max delay:{}ms", total, maxDelay.get());
+
+        Assertions.assertEquals(total, fireCount.get());
+        Assertions.assertEquals(0, earlyCount.get());
+        Assertions.assertEquals(0, timeWheel.size());
+    }
+
+}
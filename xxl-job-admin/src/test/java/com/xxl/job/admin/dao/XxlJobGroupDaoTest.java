@@ -7,6 +7,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import javax.annotation.Resource;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class XxlJobGroupDaoTest {
@@ -38,6 +39,9 @@ public class XxlJobGroupDaoTest {
 
         int ret2 = xxlJobGroupDao.update(group2);
 
+        Map<String, Object> versionSummary = xxlJobGroupDao.findVersionSummary();
+        List<XxlJobGroup> list3 = xxlJobGroupDao.findAllVersion();
+
         int ret3 = xxlJobGroupDao.remove(group.getId());
     }
 
@@ -3,14 +3,17 @@ package com.xxl.job.admin.dao;
 import com.xxl.job.admin.core.model.XxlJobInfo;
 import com.xxl.job.admin.core.scheduler.MisfireStrategyEnum;
 import com.xxl.job.admin.core.scheduler.ScheduleTypeEnum;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class XxlJobInfoDaoTest {
@@ -28,6 +31,13 @@ public class XxlJobInfoDaoTest {
 		logger.info("", list_count);
 
 		List<XxlJobInfo> list2 = xxlJobInfoDao.getJobsByGroup(1);
+
+		List<XxlJobInfo> list3 = xxlJobInfoDao.loadByIds(Arrays.asList(1, 2, -1));
+		logger.info("loadByIds:{}", list3.size());
+
+		Map<String, Object> versionSummary = xxlJobInfoDao.findVersionSummary();
+		List<XxlJobInfo> list4 = xxlJobInfoDao.findAllVersion();
+		logger.info("findVersionSummary:{}, findAllVersion:{}", versionSummary, list4.size());
 	}
 	
 	@Test
@@ -83,4 +93,62 @@ public class XxlJobInfoDaoTest {
 
 	}
 
+	@Test
+	public void scheduleUpdateBatch(){
+		XxlJobInfo info1 = buildJobInfo();
+		XxlJobInfo info2 = buildJobInfo();
+		XxlJobInfo info3 = buildJobInfo();		// not updated
+		xxlJobInfoDao.save(info1);
+		xxlJobInfoDao.save(info2);
+		xxlJobInfoDao.save(info3);
+
+		try {
+			info1.setTriggerStatus(1);
+			info1.setTriggerLastTime(1000);
+			info1.setTriggerNextTime(2000);
+			info2.setTriggerStatus(0);
+			info2.setTriggerLastTime(3000);
+			info2.setTriggerNextTime(4000);
+			int ret = xxlJobInfoDao.scheduleUpdateBatch(Arrays.asList(info1, info2));
+			Assertions.assertEquals(2, ret);
+
+			XxlJobInfo load1 = xxlJobInfoDao.loadById(info1.getId());
+			Assertions.assertEquals(1, load1.getTriggerStatus());
+			Assertions.assertEquals(1000, load1.getTriggerLastTime());
+			Assertions.assertEquals(2000, load1.getTriggerNextTime());
+
+			XxlJobInfo load2 = xxlJobInfoDao.loadById(info2.getId());
+			Assertions.assertEquals(0, load2.getTriggerStatus());
+			Assertions.assertEquals(3000, load2.getTriggerLastTime());
+			Assertions.assertEquals(4000, load2.getTriggerNextTime());
+
+			XxlJobInfo load3 = xxlJobInfoDao.loadById(info3.getId());
+			Assertions.assertEquals(0, load3.getTriggerStatus());
+			Assertions.assertEquals(0, load3.getTriggerLastTime());
+			Assertions.assertEquals(0, load3.getTriggerNextTime());
+		} finally {
+			xxlJobInfoDao.delete(info1.getId());
+			xxlJobInfoDao.delete(info2.getId());
+			xxlJobInfoDao.delete(info3.getId());
+		}
+	}
+
+	private static XxlJobInfo buildJobInfo() {
+		XxlJobInfo info = new XxlJobInfo();
+		info.setJobGroup(1);
+		info.setJobDesc("desc");
+		info.setAuthor("setAuthor");
+		info.setScheduleType(ScheduleTypeEnum.FIX_RATE.name());
+		info.setScheduleConf(String.valueOf(33));
+		info.setMisfireStrategy(MisfireStrategyEnum.DO_NOTHING.name());
+		info.setExecutorRouteStrategy("FIRST");
+		info.setExecutorHandler("setExecutorHandler");
+		info.setExecutorBlockStrategy("SERIAL_EXECUTION");
+		info.setGlueType("BEAN");
+		info.setAddTime(new Date());
+		info.setUpdateTime(new Date());
+		info.setGlueUpdatetime(new Date());
+		return info;
+	}
+
 }
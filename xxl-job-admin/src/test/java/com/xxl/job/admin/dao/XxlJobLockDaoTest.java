@@ -0,0 +1,40 @@
+package com.xxl.job.admin.dao;
+
+import com.xxl.job.admin.core.model.XxlJobLock;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class XxlJobLockDaoTest {
+
+    @Resource
+    private XxlJobLockDao xxlJobLockDao;
+
+    @Test
+    public void lease(){
+        List<String> lockNameList = Arrays.asList("schedule_lock");
+        long nowTime = System.currentTimeMillis();
+
+        xxlJobLockDao.renewLease(lockNameList, "127.0.0.1:8080", nowTime + 3000);
+
+        // not lapsed, not taken over
+        Assertions.assertEquals(0, xxlJobLockDao.takeOverLease(lockNameList, "127.0.0.1:8081", nowTime + 3000, nowTime));
+        List<XxlJobLock> list = xxlJobLockDao.findLease(lockNameList);
+        Assertions.assertEquals("127.0.0.1:8080", list.get(0).getLeaseOwner());
+
+        // lapsed, taken over
+        Assertions.assertEquals(1, xxlJobLockDao.takeOverLease(lockNameList, "127.0.0.1:8081", nowTime + 7000, nowTime + 4000));
+        list = xxlJobLockDao.findLease(lockNameList);
+        Assertions.assertEquals("127.0.0.1:8081", list.get(0).getLeaseOwner());
+        Assertions.assertEquals(nowTime + 7000, list.get(0).getLeaseTime());
+
+        xxlJobLockDao.releaseLease("127.0.0.1:8081");
+        Assertions.assertEquals(0, xxlJobLockDao.findLease(lockNameList).get(0).getLeaseTime());
+    }
+
+}
@@ -1,10 +1,14 @@
 package com.xxl.job.admin.dao;
 
 import com.xxl.job.admin.core.model.XxlJobLog;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -49,4 +53,62 @@ public class XxlJobLogDaoTest {
 
     }
 
+    @Test
+    public void handleInfoBatch(){
+        XxlJobLog log1 = buildJobLog();
+        XxlJobLog log2 = buildJobLog();
+        XxlJobLog log3 = buildJobLog();        // not updated
+        xxlJobLogDao.save(log1);
+        xxlJobLogDao.save(log2);
+        xxlJobLogDao.save(log3);
+
+        try {
+            // load by ids, missing id skipped
+            List<XxlJobLog> loadList = xxlJobLogDao.loadByIds(Arrays.asList(log1.getId(), log2.getId(), -1L));
+            List<Long> loadIds = new ArrayList<Long>();
+            for (XxlJobLog item : loadList) {
+                loadIds.add(item.getId());
+            }
+            Collections.sort(loadIds);
+            Assertions.assertEquals(Arrays.asList(log1.getId(), log2.getId()), loadIds);
+
+            // update handle info batch, datetime in second
+            Date handleTime1 = new Date(System.currentTimeMillis() / 1000 * 1000);
+            Date handleTime2 = new Date(handleTime1.getTime() + 1000);
+            log1.setHandleTime(handleTime1);
+            log1.setHandleCode(200);
+            log1.setHandleMsg("msg1");
+            log2.setHandleTime(handleTime2);
+            log2.setHandleCode(500);
+            log2.setHandleMsg("msg2");
+            int ret = xxlJobLogDao.updateHandleInfoBatch(Arrays.asList(log1, log2));
+            Assertions.assertEquals(2, ret);
+
+            XxlJobLog load1 = xxlJobLogDao.load(log1.getId());
+            Assertions.assertEquals(handleTime1, load1.getHandleTime());
+            Assertions.assertEquals(200, load1.getHandleCode());
+            Assertions.assertEquals("msg1", load1.getHandleMsg());
+
+            XxlJobLog load2 = xxlJobLogDao.load(log2.getId());
+            Assertions.assertEquals(handleTime2, load2.getHandleTime());
+            Assertions.assertEquals(500, load2.getHandleCode());
+            Assertions.assertEquals("msg2", load2.getHandleMsg());
+
+            XxlJobLog load3 = xxlJobLogDao.load(log3.getId());
+            Assertions.assertNull(load3.getHandleTime());
+            Assertions.assertEquals(0, load3.getHandleCode());
+            Assertions.assertNull(load3.getHandleMsg());
+        } finally {
+            xxlJobLogDao.clearLog(Arrays.asList(log1.getId(), log2.getId(), log3.getId()));
+        }
+    }
+
+    private static XxlJobLog buildJobLog() {
+        XxlJobLog log = new XxlJobLog();
+        log.setJobGroup(1);
+        log.setJobId(1);
+        log.setTriggerTime(new Date());
+        return log;
+    }
+
 }
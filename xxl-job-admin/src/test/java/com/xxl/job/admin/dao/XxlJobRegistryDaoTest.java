@@ -17,13 +17,20 @@ public class XxlJobRegistryDaoTest {
 
     @Test
     public void test(){
-        int ret = xxlJobRegistryDao.registryUpdate("g1", "k1", "v1", new Date());
+        int ret = xxlJobRegistryDao.registryUpdate("g1", "k1", "v1", "0,0,-1,0", new Date());
         if (ret < 1) {
-            ret = xxlJobRegistryDao.registrySave("g1", "k1", "v1", new Date());
+            ret = xxlJobRegistryDao.registrySave("g1", "k1", "v1", "0,0,-1,0", new Date());
         }
 
         List<XxlJobRegistry> list = xxlJobRegistryDao.findAll(1, new Date());
 
+        XxlJobRegistry registry = new XxlJobRegistry();
+        registry.setRegistryGroup("g1");
+        registry.setRegistryKey("k1");
+        registry.setRegistryValue("v1");
+        registry.setExecutorLoad("1,2,30,40");
+        int ret3 = xxlJobRegistryDao.registryBatchUpdate(Arrays.asList(registry), new Date());
+
         int ret2 = xxlJobRegistryDao.removeDead(Arrays.asList(1));
     }
 
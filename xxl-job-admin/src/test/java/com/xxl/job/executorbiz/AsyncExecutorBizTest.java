@@ -0,0 +1,172 @@
+package com.xxl.job.executorbiz;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xxl.job.core.biz.AsyncExecutorBiz;
+import com.xxl.job.core.biz.client.AsyncExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.remoting.NettyHttpClient;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * async executor api test, with a mock executor (jdk http server)
+ */
+public class AsyncExecutorBizTest {
+    private static Logger logger = LoggerFactory.getLogger(AsyncExecutorBizTest.class);
+
+    private static HttpServer server;
+    private static String addressUrl;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream inputStream = exchange.getRequestBody();
+                byte[] buffer = new byte[1024];
+                while (inputStream.read(buffer) != -1) {
+                }
+                inputStream.close();
+
+                // slow executor
+                if (exchange.getRequestURI().getPath().endsWith("/slow")) {
+                    try {
+                        TimeUnit.SECONDS.sleep(2);
+                    } catch (InterruptedException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+
+                byte[] response = "{\"code\":200,\"msg\":null}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(response);
+                outputStream.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(64));
+        server.start();
+        addressUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void run() throws Exception {
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+        AsyncExecutorBiz executorBiz = new AsyncExecutorBizClient(addressUrl, null, nettyHttpClient);
+
+        ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(1)).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, returnT.getCode());
+        Assertions.assertEquals(0, nettyHttpClient.getInFlightCount());
+        nettyHttpClient.close();
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+
+        CompletableFuture<?> future = nettyHttpClient.post(addressUrl + "slow", null, null, 1, null);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            Assertions.fail();
+        } catch (ExecutionException e) {
+            Assertions.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+
+        // error as fail ReturnT
+        ReturnT returnT = XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "slow", null, 1, null, String.class).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(ReturnT.FAIL_CODE, returnT.getCode());
+        nettyHttpClient.close();
+    }
+
+    /**
+     * server read the whole request then close, "run" not replayed (may be executed by server)
+     */
+    @Test
+    public void noReplayAfterWritten() throws Exception {
+        CloseAfterReadServer closeServer = new CloseAfterReadServer(2);
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+        AsyncExecutorBiz executorBiz = new AsyncExecutorBizClient(closeServer.addressUrl, null, nettyHttpClient);
+        try {
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.run(ExecutorTestHelper.buildTriggerParam(1)).get(5, TimeUnit.SECONDS).getCode());
+
+            ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(2)).get(5, TimeUnit.SECONDS);
+            Assertions.assertEquals(ReturnT.FAIL_CODE, returnT.getCode());
+            TimeUnit.MILLISECONDS.sleep(200);
+            Assertions.assertEquals(2, closeServer.requestCount.get());
+        } finally {
+            nettyHttpClient.close();
+            closeServer.close();
+        }
+    }
+
+    @Test
+    public void connectRefused() throws Exception {
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+        AsyncExecutorBiz executorBiz = new AsyncExecutorBizClient("http://127.0.0.1:1/", null, nettyHttpClient);
+
+        ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(1)).get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(ReturnT.FAIL_CODE, returnT.getCode());
+        nettyHttpClient.close();
+    }
+
+    /**
+     * 20k in-flight trigger, by 2 io thread (without trigger thread); timeout 30s, include waiting for channel
+     */
+    @Test
+    public void inFlight() throws Exception {
+        int total = 20000;
+        NettyHttpClient nettyHttpClient = new NettyHttpClient(32, 15000, 100000, 2);
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<ReturnT>> futureList = new ArrayList<CompletableFuture<ReturnT>>(total);
+        for (int i = 0; i < total; i++) {
+            futureList.add(XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "run", null, 30, ExecutorTestHelper.buildTriggerParam(i), String.class));
+        }
+        long dispatchCost = System.currentTimeMillis() - start;
+        long maxInFlight = nettyHttpClient.getInFlightCount();
+
+        CompletableFuture.allOf(futureList.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        long cost = System.currentTimeMillis() - start;
+
+        int successCount = 0;
+        for (CompletableFuture<ReturnT> future : futureList) {
+            if (future.get().getCode() == ReturnT.SUCCESS_CODE) {
+                successCount++;
+            }
+        }
+        logger.info(">>>>>>>>>>> async trigger, total:{}, dispatch cost:{}ms, in-flight after dispatch:{}, total cost:{}ms, tps:{}",
+                total, dispatchCost, maxInFlight, cost, total * 1000L / Math.max(cost, 1));
+
+        Assertions.assertEquals(total, successCount);
+        Assertions.assertEquals(0, nettyHttpClient.getInFlightCount());
+        nettyHttpClient.close();
+    }
+
+}
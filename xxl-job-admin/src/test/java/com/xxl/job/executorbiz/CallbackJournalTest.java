@@ -0,0 +1,220 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.util.CallbackJournal;
+import com.xxl.job.core.util.FileUtil;
+import com.xxl.job.core.util.JdkSerializeTool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * callback journal test, replay in order, recover after restart
+ */
+public class CallbackJournalTest {
+    private static Logger logger = LoggerFactory.getLogger(CallbackJournalTest.class);
+
+    private static final File JOURNAL_PATH = new File("target/xxl-job-callback-journal-test");
+
+    @AfterEach
+    public void destroy() {
+        FileUtil.deleteRecursively(JOURNAL_PATH);
+    }
+
+    @Test
+    public void replayInOrder() throws Exception {
+        CallbackJournal journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        for (int i = 0; i < 100; i++) {
+            journal.append(buildCallbackParamList(i * 10, 10));
+        }
+        Assertions.assertEquals(1000, journal.getPendingCount());
+        Assertions.assertTrue(journal.getSegmentCount() > 1);
+
+        // fail, not committed, read again
+        CallbackJournal.Batch batch = journal.read(30);
+        Assertions.assertEquals(0, batch.getCallbackParamList().get(0).getLogId());
+        Assertions.assertEquals(0, journal.read(30).getCallbackParamList().get(0).getLogId());
+
+        // replay by batch, across segment
+        long nextLogId = 0;
+        while (!(batch = journal.read(30)).isEmpty()) {
+            for (HandleCallbackParam callbackParam : batch.getCallbackParamList()) {
+                Assertions.assertEquals(nextLogId++, callbackParam.getLogId());
+            }
+            journal.commit(batch);
+            journal.commit(batch);      // committed, ignored
+        }
+        Assertions.assertEquals(1000, nextLogId);
+        Assertions.assertEquals(0, journal.getPendingCount());
+        Assertions.assertEquals(0, journal.getPendingSize());
+        Assertions.assertEquals(1000, journal.getReplayCount());
+        Assertions.assertEquals(1, journal.getSegmentCount());
+        journal.close();
+    }
+
+    @Test
+    public void recover() throws Exception {
+        CallbackJournal journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        journal.append(buildCallbackParamList(0, 200));
+        journal.commit(journal.read(50));
+        long pendingSize = journal.getPendingSize();
+        journal.close();
+
+        // torn record at tail, like crash when append
+        File lastSegment = lastSegment();
+        RandomAccessFile raf = new RandomAccessFile(lastSegment, "rw");
+        raf.seek(raf.length());
+        raf.writeInt(100);
+        raf.writeInt(0);
+        raf.write(new byte[10]);
+        raf.close();
+
+        // restart, from checkpoint
+        journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        Assertions.assertEquals(150, journal.getPendingCount());
+        Assertions.assertEquals(pendingSize, journal.getPendingSize());
+        Assertions.assertEquals(50, journal.read(10).getCallbackParamList().get(0).getLogId());
+
+        // append after torn tail truncated
+        journal.append(buildCallbackParamList(200, 1));
+        Assertions.assertEquals(151, drain(journal).size());
+        journal.close();
+
+        // checkpoint invalid, replay from oldest
+        journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        journal.append(buildCallbackParamList(300, 5));
+        journal.close();
+        FileUtil.writeFileContent(new File(JOURNAL_PATH, "checkpoint"), new byte[]{1, 2, 3});
+        journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        List<HandleCallbackParam> replayed = drain(journal);
+        Assertions.assertTrue(replayed.size() >= 5);
+        Assertions.assertEquals(304, replayed.get(replayed.size() - 1).getLogId());
+        journal.close();
+    }
+
+    @Test
+    public void corrupt() throws Exception {
+        CallbackJournal journal = new CallbackJournal(JOURNAL_PATH, 64 * 1024 * 1024, 64 * 1024 * 1024);
+        journal.open();
+        journal.append(buildCallbackParamList(0, 10));
+        long recordSize = journal.getPendingSize() / 10;
+
+        // corrupt 6th record payload
+        RandomAccessFile raf = new RandomAccessFile(lastSegment(), "rw");
+        raf.seek(recordSize * 5 + 10);
+        raf.write(0xFF);
+        raf.close();
+
+        List<HandleCallbackParam> replayed = drain(journal);
+        Assertions.assertEquals(5, replayed.size());
+        Assertions.assertEquals(5, journal.getDropCount());
+        Assertions.assertEquals(0, journal.getPendingCount());
+
+        // append after corrupt, readable
+        journal.append(buildCallbackParamList(10, 3));
+        replayed = drain(journal);
+        Assertions.assertEquals(3, replayed.size());
+        Assertions.assertEquals(10, replayed.get(0).getLogId());
+        journal.close();
+    }
+
+    @Test
+    public void bounded() throws Exception {
+        CallbackJournal journal = new CallbackJournal(JOURNAL_PATH, 4 * 1024, 16 * 1024);
+        journal.open();
+        for (int i = 0; i < 100; i++) {
+            journal.append(buildCallbackParamList(i * 10, 10));
+        }
+        Assertions.assertTrue(journal.getDropCount() > 0);
+        Assertions.assertEquals(1000, journal.getPendingCount() + journal.getDropCount());
+        Assertions.assertTrue(journal.getPendingSize() <= 16 * 1024);
+
+        // newest kept, in order
+        List<HandleCallbackParam> replayed = drain(journal);
+        Assertions.assertEquals(journal.getDropCount(), replayed.get(0).getLogId());
+        Assertions.assertEquals(999, replayed.get(replayed.size() - 1).getLogId());
+        journal.close();
+    }
+
+    /**
+     * journal vs old version fail-callback file (one JDK-serialized file per batch)
+     */
+    @Test
+    public void benchmark() throws Exception {
+        int batchCount = 1000;
+        int batchSize = 10;
+
+        long start = System.nanoTime();
+        File fileDir = new File(JOURNAL_PATH, "file");
+        fileDir.mkdirs();
+        for (int i = 0; i < batchCount; i++) {
+            FileUtil.writeFileContent(new File(fileDir, "xxl-job-callback-" + i + ".log"), JdkSerializeTool.serialize(buildCallbackParamList(i * batchSize, batchSize)));
+        }
+        long fileSize = 0;
+        for (File file : fileDir.listFiles()) {
+            fileSize += file.length();
+            JdkSerializeTool.deserialize(FileUtil.readFileContent(file), List.class);
+            file.delete();
+        }
+        long fileCost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        CallbackJournal journal = new CallbackJournal(new File(JOURNAL_PATH, "journal"), 4 * 1024 * 1024, 256 * 1024 * 1024);
+        journal.open();
+        for (int i = 0; i < batchCount; i++) {
+            journal.append(buildCallbackParamList(i * batchSize, batchSize));
+        }
+        long journalSize = journal.getPendingSize();
+        Assertions.assertEquals(batchCount * batchSize, drain(journal).size());
+        journal.close();
+        long journalCost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertTrue(journalSize < fileSize);
+        logger.info(">>>>>>>>>>> callback journal, {} callback, file: {}byte {}ms, journal: {}byte {}ms",
+                batchCount * batchSize, fileSize, fileCost, journalSize, journalCost);
+    }
+
+    private static List<HandleCallbackParam> buildCallbackParamList(long fromLogId, int count) {
+        List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
+        for (int i = 0; i < count; i++) {
+            callbackParamList.add(new HandleCallbackParam(fromLogId + i, System.currentTimeMillis(), 200, "callback msg, 中文, " + (fromLogId + i)));
+        }
+        return callbackParamList;
+    }
+
+    private static List<HandleCallbackParam> drain(CallbackJournal journal) throws Exception {
+        List<HandleCallbackParam> replayed = new ArrayList<HandleCallbackParam>();
+        CallbackJournal.Batch batch;
+        while (!(batch = journal.read(100)).isEmpty()) {
+            replayed.addAll(batch.getCallbackParamList());
+            journal.commit(batch);
+        }
+        return replayed;
+    }
+
+    private static File lastSegment() {
+        File[] files = JOURNAL_PATH.listFiles();
+        Arrays.sort(files);
+        for (int i = files.length - 1; i >= 0; i--) {
+            if (files[i].getName().endsWith(".journal")) {
+                return files[i];
+            }
+        }
+        return null;
+    }
+
+}
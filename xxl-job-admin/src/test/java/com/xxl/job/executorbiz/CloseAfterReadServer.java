@@ -0,0 +1,104 @@
+package com.xxl.job.executorbiz;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * raw http server, the "closeAt" request (count from 1) read fully, then connection closed without response
+ */
+public class CloseAfterReadServer {
+    private final ServerSocket serverSocket;
+    final String addressUrl;
+    final AtomicInteger requestCount = new AtomicInteger();
+
+    public CloseAfterReadServer(final int closeAt) throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        addressUrl = "http://127.0.0.1:" + serverSocket.getLocalPort() + "/";
+        Thread acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        final Socket socket = serverSocket.accept();
+                        Thread connectionThread = new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                handle(socket, closeAt);
+                            }
+                        });
+                        connectionThread.setDaemon(true);
+                        connectionThread.start();
+                    } catch (IOException e) {
+                        // closed
+                    }
+                }
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    private void handle(Socket socket, int closeAt) {
+        try {
+            InputStream inputStream = new BufferedInputStream(socket.getInputStream());
+            OutputStream outputStream = socket.getOutputStream();
+            while (true) {
+                // header
+                int contentLength = 0;
+                String line;
+                while ((line = readLine(inputStream)).length() > 0) {
+                    if (line.toLowerCase().startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(line.substring(15).trim());
+                    }
+                }
+                // body
+                for (int i = 0; i < contentLength; i++) {
+                    if (inputStream.read() == -1) {
+                        throw new EOFException();
+                    }
+                }
+
+                if (requestCount.incrementAndGet() == closeAt) {
+                    socket.close();
+                    return;
+                }
+                byte[] response = "{\"code\":200,\"msg\":null}".getBytes(StandardCharsets.UTF_8);
+                outputStream.write(("HTTP/1.1 200 OK\r\nContent-Type: text/html;charset=UTF-8\r\nContent-Length: " + response.length + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                outputStream.write(response);
+                outputStream.flush();
+            }
+        } catch (IOException e) {
+            // client closed
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static String readLine(InputStream inputStream) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = inputStream.read()) != -1) {
+            if (b == '\n') {
+                return line.toString().trim();
+            }
+            line.append((char) b);
+        }
+        throw new EOFException();
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.FileUtil;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.File;
+
+/**
+ * shared by executor test:
+ *      a、log path："target/xxl-job-{name}-test", init before "@BeforeAll" of test class, deleted after its "@AfterAll";
+ *          registered as "@RegisterExtension static final ExecutorTestHelper testHelper = new ExecutorTestHelper(name);"
+ *      b、trigger param：jobId 1, "demoJobHandler", trigger now;
+ */
+public class ExecutorTestHelper implements BeforeAllCallback, AfterAllCallback {
+    private final File logPath;
+
+    public ExecutorTestHelper(String name) {
+        this.logPath = new File("target/xxl-job-" + name + "-test");
+    }
+
+    public File getLogPath() {
+        return logPath;
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        XxlJobFileAppender.initLogPath(logPath.getPath());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        FileUtil.deleteRecursively(logPath);
+    }
+
+    public static TriggerParam buildTriggerParam(long logId) {
+        TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(1);
+        triggerParam.setExecutorHandler("demoJobHandler");
+        triggerParam.setLogId(logId);
+        triggerParam.setLogDateTime(System.currentTimeMillis());
+        return triggerParam;
+    }
+
+}
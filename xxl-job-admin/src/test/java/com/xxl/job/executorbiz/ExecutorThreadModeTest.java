@@ -0,0 +1,216 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.thread.ExecutorThreadFactory;
+import com.xxl.job.core.thread.JobExecuteThreadPool;
+import com.xxl.job.core.thread.JobThread;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * executor thread mode test, PLATFORM vs VIRTUAL, with 5k concurrent jobs
+ */
+public class ExecutorThreadModeTest {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorThreadModeTest.class);
+
+    private static final int JOB_COUNT = 5000;
+    private static final int TRIGGER_ROUND = 5;
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("thread-mode");
+
+    private static final AtomicLong logIdGenerator = new AtomicLong(0);
+
+    @AfterAll
+    public static void destroy() {
+        JobExecuteThreadPool.getInstance().toStop();
+        ExecutorThreadFactory.init(null, null);
+    }
+
+    @Test
+    public void platform() throws Exception {
+        ExecutorThreadFactory.init(ExecutorThreadFactory.PLATFORM, null);
+        Assertions.assertFalse(ExecutorThreadFactory.isVirtual());
+        benchmark(ExecutorThreadFactory.PLATFORM);
+    }
+
+    @Test
+    public void virtual() throws Exception {
+        ExecutorThreadFactory.init(ExecutorThreadFactory.VIRTUAL, null);
+        if (!ExecutorThreadFactory.isVirtualThreadSupported()) {
+            // fallback
+            Assertions.assertFalse(ExecutorThreadFactory.isVirtual());
+            logger.info(">>>>>>>>>>> virtual thread not supported, java.version:{}, fallback to platform", System.getProperty("java.version"));
+            return;
+        }
+        Assertions.assertTrue(ExecutorThreadFactory.isVirtual());
+        benchmark(ExecutorThreadFactory.VIRTUAL);
+    }
+
+    @Test
+    public void customThreadFactory() throws Exception {
+        final AtomicInteger threadCount = new AtomicInteger();
+        ExecutorThreadFactory.init(ExecutorThreadFactory.VIRTUAL, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                threadCount.incrementAndGet();
+                Thread thread = new Thread(r);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        Assertions.assertFalse(ExecutorThreadFactory.isVirtual());
+        JobExecuteThreadPool.getInstance().toStop();     // worker of pool, created again by custom thread factory
+
+        JobThread jobThread = XxlJobExecutor.registJobThread(Integer.MAX_VALUE, new IJobHandler() {
+            @Override
+            public void execute() throws Exception {
+            }
+        }, null);
+        try {
+            Assertions.assertTrue(jobThread.getThread().isDaemon());
+            Assertions.assertTrue(jobThread.getThread().getName().startsWith("xxl-job, JobThread-" + Integer.MAX_VALUE));
+            Assertions.assertEquals(1, threadCount.get());
+
+            // worker thread of job with timeout, by custom thread factory too
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, jobThread.pushTriggerQueue(buildTriggerParam(Integer.MAX_VALUE, 10)).getCode());
+            for (int i = 0; i < 100 && threadCount.get() < 2; i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assertions.assertEquals(2, threadCount.get());
+        } finally {
+            XxlJobExecutor.removeJobThread(Integer.MAX_VALUE, "test end");
+            jobThread.join();
+        }
+    }
+
+    /**
+     * a、memory：5k job running at same time, each occupy its thread (JobThread, or execute thread if timeout);
+     * b、throughput：5k job, 5 trigger each, 20ms io-bound handler;
+     */
+    private void benchmark(String threadMode) throws Exception {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        final CountDownLatch startLatch = new CountDownLatch(JOB_COUNT);
+        final CountDownLatch gateLatch = new CountDownLatch(1);
+        final AtomicInteger finishCount = new AtomicInteger();
+        final AtomicInteger sleepMillis = new AtomicInteger(0);
+
+        IJobHandler jobHandler = new IJobHandler() {
+            @Override
+            public void execute() throws Exception {
+                if (gateLatch.getCount() > 0) {
+                    startLatch.countDown();
+                    gateLatch.await();
+                } else {
+                    TimeUnit.MILLISECONDS.sleep(sleepMillis.get());
+                }
+                finishCount.incrementAndGet();
+            }
+        };
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long rssBefore = rss();
+        threadMXBean.resetPeakThreadCount();
+
+        JobThread[] jobThreads = new JobThread[JOB_COUNT];
+        try {
+            // a、memory, all job running
+            for (int jobId = 1; jobId <= JOB_COUNT; jobId++) {
+                jobThreads[jobId - 1] = XxlJobExecutor.registJobThread(jobId, jobHandler, null);
+                jobThreads[jobId - 1].pushTriggerQueue(buildTriggerParam(jobId, jobId % 2 == 0 ? 10 : 0));     // half with timeout
+            }
+            Assertions.assertTrue(startLatch.await(60, TimeUnit.SECONDS));
+            long heapUsed = usedHeap() - heapBefore;
+            long rssUsed = rss() - rssBefore;
+            int peakThreadCount = threadMXBean.getPeakThreadCount();
+            gateLatch.countDown();
+            waitFinish(finishCount, JOB_COUNT);
+
+            // b、throughput
+            sleepMillis.set(20);
+            finishCount.set(0);
+            long start = System.nanoTime();
+            for (int round = 0; round < TRIGGER_ROUND; round++) {
+                for (int jobId = 1; jobId <= JOB_COUNT; jobId++) {
+                    jobThreads[jobId - 1].pushTriggerQueue(buildTriggerParam(jobId, jobId % 2 == 0 ? 10 : 0));
+                }
+            }
+            waitFinish(finishCount, JOB_COUNT * TRIGGER_ROUND);
+            long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            logger.info(">>>>>>>>>>> thread mode benchmark, {}, {} running jobs: heap +{}MB, rss +{}MB, peak platform thread:{}; {} triggers(20ms): {}ms, {}/s",
+                    threadMode, JOB_COUNT, heapUsed / 1024 / 1024, rssUsed / 1024 / 1024, peakThreadCount,
+                    JOB_COUNT * TRIGGER_ROUND, cost, JOB_COUNT * TRIGGER_ROUND * 1000L / Math.max(cost, 1));
+        } finally {
+            for (int jobId = 1; jobId <= JOB_COUNT; jobId++) {
+                XxlJobExecutor.removeJobThread(jobId, "test end");
+            }
+            for (JobThread jobThread : jobThreads) {
+                if (jobThread != null) {
+                    jobThread.join();
+                }
+            }
+        }
+    }
+
+    private static void waitFinish(AtomicInteger finishCount, int total) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 60 * 1000;
+        while (finishCount.get() < total && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        Assertions.assertEquals(total, finishCount.get());
+    }
+
+    private static TriggerParam buildTriggerParam(int jobId, int executorTimeout) {
+        TriggerParam triggerParam = ExecutorTestHelper.buildTriggerParam(logIdGenerator.incrementAndGet());
+        triggerParam.setJobId(jobId);
+        triggerParam.setExecutorTimeout(executorTimeout);
+        return triggerParam;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * resident memory of process, include thread stack; linux only, 0 if not supported
+     */
+    private static long rss() {
+        File statusFile = new File("/proc/self/status");
+        if (!statusFile.exists()) {
+            return 0;
+        }
+        try {
+            List<String> lines = Files.readAllLines(statusFile.toPath(), StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (Exception e) {
+            logger.warn(e.getMessage());
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.executor.XxlJobExecutor;
+import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.thread.JobExecuteThreadPool;
+import com.xxl.job.core.thread.JobThread;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * job execute thread pool test, worker reuse + watchdog timeout
+ */
+public class JobExecuteThreadPoolTest {
+    private static Logger logger = LoggerFactory.getLogger(JobExecuteThreadPoolTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("execute-pool");
+
+    @BeforeAll
+    public static void init() {
+        JobExecuteThreadPool.getInstance().start();
+    }
+
+    @AfterAll
+    public static void destroy() {
+        JobExecuteThreadPool.getInstance().toStop();
+    }
+
+    @Test
+    public void reuseWorker() throws Exception {
+        JobExecuteThreadPool pool = JobExecuteThreadPool.getInstance();
+        long threadCreateBefore = pool.getThreadCreateCount();
+        long timeoutBefore = pool.getTimeoutCount();
+
+        int count = 10000;
+        for (int i = 0; i < count; i++) {
+            Integer result = pool.execute(new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    return 1;
+                }
+            }, 10);
+            Assertions.assertEquals(1, result);
+        }
+
+        long threadCreated = pool.getThreadCreateCount() - threadCreateBefore;
+        logger.info(">>>>>>>>>>> timed execute:{}, worker thread created:{}, rate:{}", count, threadCreated, threadCreated * 1.0 / count);
+        Assertions.assertTrue(threadCreated < count / 10);
+        Assertions.assertEquals(timeoutBefore, pool.getTimeoutCount());
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        JobExecuteThreadPool pool = JobExecuteThreadPool.getInstance();
+        long timeoutBefore = pool.getTimeoutCount();
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+
+        long start = System.currentTimeMillis();
+        try {
+            pool.execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    try {
+                        TimeUnit.SECONDS.sleep(10);
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                        throw e;
+                    }
+                    return true;
+                }
+            }, 1);
+            Assertions.fail("timeout expected");
+        } catch (TimeoutException e) {
+            // not before timeout; upper bound left to interrupted and timeout count below, not wall clock
+            long cost = System.currentTimeMillis() - start;
+            Assertions.assertTrue(cost >= 1000, "cost:" + cost);
+        }
+
+        for (int i = 0; i < 500 && !interrupted.get(); i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertTrue(interrupted.get());
+        Assertions.assertEquals(timeoutBefore + 1, pool.getTimeoutCount());
+    }
+
+    @Test
+    public void executeFail() throws Exception {
+        try {
+            JobExecuteThreadPool.getInstance().execute(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    throw new IllegalStateException("execute fail");
+                }
+            }, 10);
+            Assertions.fail("fail expected");
+        } catch (ExecutionException e) {
+            Assertions.assertEquals("execute fail", e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * high frequency job with timeout, by JobThread
+     */
+    @Test
+    public void jobThread() throws Exception {
+        JobExecuteThreadPool pool = JobExecuteThreadPool.getInstance();
+        long threadCreateBefore = pool.getThreadCreateCount();
+        final AtomicInteger executeCount = new AtomicInteger();
+
+        int jobId = 1;
+        int count = 500;
+        JobThread jobThread = XxlJobExecutor.registJobThread(jobId, new IJobHandler() {
+            @Override
+            public void execute() throws Exception {
+                executeCount.incrementAndGet();
+            }
+        }, null);
+        try {
+            for (int i = 0; i < count; i++) {
+                TriggerParam triggerParam = new TriggerParam();
+                triggerParam.setJobId(jobId);
+                triggerParam.setExecutorTimeout(10);
+                triggerParam.setLogId(i);
+                triggerParam.setLogDateTime(System.currentTimeMillis());
+                jobThread.pushTriggerQueue(triggerParam);
+            }
+            for (int i = 0; i < 1000 && executeCount.get() < count; i++) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assertions.assertEquals(count, executeCount.get());
+            Assertions.assertTrue(pool.getThreadCreateCount() - threadCreateBefore < count / 10);
+        } finally {
+            XxlJobExecutor.removeJobThread(jobId, "test end");
+            jobThread.join();
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.thread.JobLogAppendThread;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job log append test, async append vs append directly
+ */
+public class JobLogAppendTest {
+    private static Logger logger = LoggerFactory.getLogger(JobLogAppendTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("log-append");
+    private static long logId = 0;
+
+    @AfterEach
+    public void stopAppend() {
+        JobLogAppendThread.getInstance().toStop();
+    }
+
+    /**
+     * multi job log concurrently, complete and ordered after flush
+     */
+    @Test
+    public void appendAsync() throws Exception {
+        JobLogAppendThread.getInstance().start();
+
+        final int jobCount = 8;
+        final int lineCount = 5000;
+        final String[] logFileNames = new String[jobCount];
+        for (int i = 0; i < jobCount; i++) {
+            logFileNames[i] = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        }
+
+        final CountDownLatch finishLatch = new CountDownLatch(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            final String logFileName = logFileNames[i];
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int line = 0; line < lineCount; line++) {
+                        XxlJobFileAppender.appendLog(logFileName, "line-" + line);
+                    }
+                    // run complete
+                    XxlJobFileAppender.flushLog(logFileName);
+                    finishLatch.countDown();
+                }
+            }).start();
+        }
+        Assertions.assertTrue(finishLatch.await(30, TimeUnit.SECONDS));
+
+        // flushed, visible without waiting
+        for (String logFileName : logFileNames) {
+            List<String> lines = Files.readAllLines(new File(logFileName).toPath(), StandardCharsets.UTF_8);
+            Assertions.assertEquals(lineCount, lines.size());
+            for (int line = 0; line < lineCount; line++) {
+                Assertions.assertEquals("line-" + line, lines.get(line).trim());
+            }
+        }
+    }
+
+    /**
+     * log of running job, written periodically without flush
+     */
+    @Test
+    public void periodicFlush() throws Exception {
+        JobLogAppendThread.getInstance().start();
+
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        XxlJobFileAppender.appendLog(logFileName, "running");
+        for (int i = 0; i < 100 && new File(logFileName).length() == 0; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Assertions.assertEquals("running\n", XxlJobFileAppender.readLog(logFileName, 1).getLogContent());
+    }
+
+    /**
+     * log written by others after flush (like script), keep order
+     */
+    @Test
+    public void flushBeforeOtherWriter() throws Exception {
+        JobLogAppendThread.getInstance().start();
+
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        XxlJobFileAppender.appendLog(logFileName, "before script");
+        XxlJobFileAppender.flushLog(logFileName);
+        Files.write(new File(logFileName).toPath(), "script output\r\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        XxlJobFileAppender.appendLog(logFileName, "after script");
+
+        // stop, all flushed
+        JobLogAppendThread.getInstance().toStop();
+        Assertions.assertEquals("before script\nscript output\nafter script\n", XxlJobFileAppender.readLog(logFileName, 1).getLogContent());
+    }
+
+    @Test
+    public void benchmark() throws Exception {
+        int lineCount = 50000;
+        String logLine = "2023-06-27 10:00:00 [com.xxl.job.executor.service.jobhandler.SampleXxlJob#demoJobHandler]-[40]-[xxl-job, JobThread-1] beat at:";
+
+        // direct
+        String directLogFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        long start = System.nanoTime();
+        for (int i = 0; i < lineCount; i++) {
+            XxlJobFileAppender.appendLog(directLogFileName, logLine + i);
+        }
+        long directCost = System.nanoTime() - start;
+
+        // async, include flush
+        JobLogAppendThread.getInstance().start();
+        String asyncLogFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        start = System.nanoTime();
+        for (int i = 0; i < lineCount; i++) {
+            XxlJobFileAppender.appendLog(asyncLogFileName, logLine + i);
+        }
+        long asyncAppendCost = System.nanoTime() - start;
+        XxlJobFileAppender.flushLog(asyncLogFileName);
+        long asyncCost = System.nanoTime() - start;
+
+        logger.info(">>>>>>>>>>> job log append benchmark, {} lines, direct: {}ns/line; async: {}ns/line (caller), {}ns/line (flushed)",
+                lineCount, directCost / lineCount, asyncAppendCost / lineCount, asyncCost / lineCount);
+        Assertions.assertEquals(new File(directLogFileName).length(), new File(asyncLogFileName).length());
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.log.XxlJobLogArchive;
+import com.xxl.job.core.thread.JobLogArchiveThread;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job log archive test, read transparently after archived
+ */
+public class JobLogArchiveTest {
+    private static Logger logger = LoggerFactory.getLogger(JobLogArchiveTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("log-archive");
+
+    @Test
+    public void archiveAndRead() throws Exception {
+        Date triggerDate = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-01");
+        int logCount = 200;
+        for (int logId = 1; logId <= logCount; logId++) {
+            String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, logId);
+            for (int line = 0; line < logId * 10; line++) {
+                XxlJobFileAppender.appendLog(logFileName, "2000-01-01 00:00:00 [SampleXxlJob#demoJobHandler]-[40]-[xxl-job, JobThread-1] 中文, logId:" + logId + ", line:" + line);
+            }
+        }
+        File logDir = new File(XxlJobFileAppender.makeLogFileName(triggerDate, 1)).getParentFile();
+
+        // read before archive
+        LogResult[] lineResults = new LogResult[logCount + 1];
+        LogResult[] offsetResults = new LogResult[logCount + 1];
+        for (int logId = 1; logId <= logCount; logId++) {
+            String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, logId);
+            lineResults[logId] = XxlJobFileAppender.readLog(logFileName, logId * 3);
+            offsetResults[logId] = XxlJobFileAppender.readLog(logFileName, 1, 0);
+        }
+
+        // archive
+        XxlJobLogArchive.ArchiveResult result = XxlJobLogArchive.archive(logDir, 0);
+        Assertions.assertEquals(logCount, result.getFileCount());
+        Assertions.assertTrue(result.getSavedSize() > result.getOriginalSize() / 2);
+        Assertions.assertEquals(2, logDir.listFiles().length);      // archive.dat + archive.idx
+        logger.info(">>>>>>>>>>> job log archive, file:{}, size:{} -> {}, saved:{}",
+                result.getFileCount(), result.getOriginalSize(), result.getArchivedSize(), result.getSavedSize());
+
+        // read after archive, same result
+        for (int logId = 1; logId <= logCount; logId++) {
+            String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, logId);
+            assertLogResult(lineResults[logId], XxlJobFileAppender.readLog(logFileName, logId * 3));
+            assertLogResult(offsetResults[logId], XxlJobFileAppender.readLog(logFileName, 1, 0));
+        }
+
+        // line not exists
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, 1);
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, 100);
+        Assertions.assertEquals(10, logResult.getToLineNum());
+        Assertions.assertEquals("", logResult.getLogContent());
+
+        // offset, tail
+        long fromOffset = offsetResults[1].getToOffset() - "line:9\r\n".length();
+        logResult = XxlJobFileAppender.readLog(logFileName, 10, fromOffset);
+        Assertions.assertEquals("line:9\n", logResult.getLogContent());
+        Assertions.assertEquals(offsetResults[1].getToOffset(), logResult.getToOffset());
+
+        // not exists
+        Assertions.assertEquals("readLog fail, logFile not exists",
+                XxlJobFileAppender.readLog(XxlJobFileAppender.makeLogFileName(triggerDate, logCount + 1), 1).getLogContent());
+    }
+
+    /**
+     * log file written recently not archived; appended after archived, merged by re-archive
+     */
+    @Test
+    public void reArchive() throws Exception {
+        Date triggerDate = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-02");
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, 1);
+        File logDir = new File(logFileName).getParentFile();
+        XxlJobFileAppender.appendLog(logFileName, "before archive");
+
+        // running, not archived
+        Assertions.assertNull(XxlJobLogArchive.archive(logDir, 60 * 1000));
+        Assertions.assertTrue(new File(logFileName).exists());
+
+        Assertions.assertEquals(1, XxlJobLogArchive.archive(logDir, 0).getFileCount());
+        Assertions.assertFalse(new File(logFileName).exists());
+
+        // append after archived
+        XxlJobFileAppender.appendLog(logFileName, "after archive");
+        Assertions.assertEquals(1, XxlJobLogArchive.archive(logDir, 0).getFileCount());
+        Assertions.assertEquals("before archive\nafter archive\n", XxlJobFileAppender.readLog(logFileName, 1).getLogContent());
+        Assertions.assertEquals("before archive\nafter archive\n", XxlJobFileAppender.readLog(logFileName, 1, 0).getLogContent());
+    }
+
+    /**
+     * appended after archived (like callback log of replayed callback), not re-archived yet; archived body not hidden by log file
+     */
+    @Test
+    public void appendAfterArchive() throws Exception {
+        Date triggerDate = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-04");
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, 1);
+        File logDir = new File(logFileName).getParentFile();
+        XxlJobFileAppender.appendLog(logFileName, "line 1");
+        XxlJobFileAppender.appendLog(logFileName, "line 2");
+        long archivedSize = new File(logFileName).length();
+        Assertions.assertEquals(1, XxlJobLogArchive.archive(logDir, 0).getFileCount());
+
+        XxlJobFileAppender.appendLog(logFileName, "line 3");
+        Assertions.assertTrue(new File(logFileName).exists());
+
+        // by line
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, 1);
+        Assertions.assertEquals("line 1\nline 2\nline 3\n", logResult.getLogContent());
+        Assertions.assertEquals(3, logResult.getToLineNum());
+        Assertions.assertEquals("line 3\n", XxlJobFileAppender.readLog(logFileName, 3).getLogContent());
+
+        // by offset, archived size + log file size
+        logResult = XxlJobFileAppender.readLog(logFileName, 1, 0);
+        Assertions.assertEquals("line 1\nline 2\nline 3\n", logResult.getLogContent());
+        Assertions.assertEquals(archivedSize + new File(logFileName).length(), logResult.getToOffset());
+        logResult = XxlJobFileAppender.readLog(logFileName, 3, archivedSize);
+        Assertions.assertEquals("line 3\n", logResult.getLogContent());
+        Assertions.assertEquals(3, logResult.getToLineNum());
+
+        // re-archive, same
+        Assertions.assertEquals(1, XxlJobLogArchive.archive(logDir, 0).getFileCount());
+        Assertions.assertEquals("line 1\nline 2\nline 3\n", XxlJobFileAppender.readLog(logFileName, 1).getLogContent());
+    }
+
+    @Test
+    public void archiveThread() throws Exception {
+        Date triggerDate = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-03");
+        for (int logId = 1; logId <= 10; logId++) {
+            String logFileName = XxlJobFileAppender.makeLogFileName(triggerDate, logId);
+            for (int line = 0; line < 100; line++) {
+                XxlJobFileAppender.appendLog(logFileName, "logId:" + logId + ", line:" + line);
+            }
+            new File(logFileName).setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        }
+
+        // today, not archived
+        String todayLogFileName = XxlJobFileAppender.makeLogFileName(new Date(), 1);
+        XxlJobFileAppender.appendLog(todayLogFileName, "today");
+        new File(todayLogFileName).setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+
+        JobLogArchiveThread.getInstance().start(1);
+        try {
+            for (int i = 0; i < 100 && new File(XxlJobFileAppender.makeLogFileName(triggerDate, 10)).exists(); i++) {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+            Assertions.assertFalse(new File(XxlJobFileAppender.makeLogFileName(triggerDate, 1)).exists());
+            Assertions.assertTrue(new File(todayLogFileName).exists());
+            Assertions.assertTrue(JobLogArchiveThread.getInstance().getArchivedFileCount() >= 10);
+            Assertions.assertTrue(JobLogArchiveThread.getInstance().getSavedSize() > 0);
+            Assertions.assertEquals("logId:1, line:99\n",
+                    XxlJobFileAppender.readLog(XxlJobFileAppender.makeLogFileName(triggerDate, 1), 100).getLogContent());
+        } finally {
+            JobLogArchiveThread.getInstance().toStop();
+        }
+    }
+
+    private static void assertLogResult(LogResult expected, LogResult actual) {
+        Assertions.assertEquals(expected.getLogContent(), actual.getLogContent());
+        Assertions.assertEquals(expected.getFromLineNum(), actual.getFromLineNum());
+        Assertions.assertEquals(expected.getToLineNum(), actual.getToLineNum());
+        Assertions.assertEquals(expected.getFromOffset(), actual.getFromOffset());
+        Assertions.assertEquals(expected.getToOffset(), actual.getToOffset());
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * job log read test, by offset and by line number
+ */
+public class JobLogReadTest {
+    private static Logger logger = LoggerFactory.getLogger(JobLogReadTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("log-read");
+    private static long logId = 0;
+
+    /**
+     * tail log while job running, by offset
+     */
+    @Test
+    public void tailByOffset() {
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+
+        int fromLineNum = 1;
+        long fromOffset = 0;
+        StringBuilder expected = new StringBuilder();
+        StringBuilder tailed = new StringBuilder();
+        for (int round = 1; round < 50; round++) {
+            for (int i = 0; i < round; i++) {
+                String line = "round " + round + ", line " + i + ", 中文";
+                XxlJobFileAppender.appendLog(logFileName, line);
+                expected.append(line).append("\n");
+            }
+
+            LogResult logResult = XxlJobFileAppender.readLog(logFileName, fromLineNum, fromOffset);
+            Assertions.assertEquals(fromLineNum, logResult.getFromLineNum());
+            Assertions.assertEquals(fromOffset, logResult.getFromOffset());
+            Assertions.assertEquals(fromLineNum + round - 1, logResult.getToLineNum());
+            tailed.append(logResult.getLogContent());
+
+            fromLineNum = logResult.getToLineNum() + 1;
+            fromOffset = logResult.getToOffset();
+        }
+        Assertions.assertEquals(expected.toString(), tailed.toString());
+        Assertions.assertEquals(new File(logFileName).length(), fromOffset);
+
+        // no more log
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, fromLineNum, fromOffset);
+        Assertions.assertEquals("", logResult.getLogContent());
+        Assertions.assertEquals(fromLineNum - 1, logResult.getToLineNum());
+        Assertions.assertEquals(fromOffset, logResult.getToOffset());
+    }
+
+    /**
+     * huge log, read limited size each time, not cut in line or char
+     */
+    @Test
+    public void readSizeLimit() {
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+
+        StringBuilder expected = new StringBuilder();
+        StringBuilder longLine = new StringBuilder();
+        for (int i = 0; i < XxlJobFileAppender.READ_LOG_MAX_SIZE; i++) {
+            longLine.append(i % 3 == 0 ? "中" : "a");      // line longer than limit, multi-byte char
+        }
+        XxlJobFileAppender.appendLog(logFileName, longLine.toString());
+        expected.append(longLine).append("\n");
+        for (int i = 0; i < 30000; i++) {
+            String line = "line " + i + ", 2023-06-28 10:00:00 [com.xxl.job.core.thread.JobThread#run]-[133]-[xxl-job, JobThread-1] xxl-job job execute";
+            XxlJobFileAppender.appendLog(logFileName, line);
+            expected.append(line).append("\n");
+        }
+
+        int fromLineNum = 1;
+        long fromOffset = 0;
+        int readCount = 0;
+        StringBuilder read = new StringBuilder();
+        while (true) {
+            LogResult logResult = XxlJobFileAppender.readLog(logFileName, fromLineNum, fromOffset);
+            if (logResult.getToOffset() == fromOffset) {
+                break;
+            }
+            readCount++;
+            Assertions.assertTrue(logResult.getToOffset() - logResult.getFromOffset() <= XxlJobFileAppender.READ_LOG_MAX_SIZE);
+            read.append(logResult.getLogContent());
+            fromLineNum = logResult.getToLineNum() + 1;
+            fromOffset = logResult.getToOffset();
+        }
+        Assertions.assertEquals(expected.toString(), read.toString());
+        Assertions.assertTrue(readCount > 3);
+    }
+
+    /**
+     * read by line number (old version admin), same as read all lines and skip
+     */
+    @Test
+    public void readByLineNum() {
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+
+        Random random = new Random(1);
+        int lineTotal = 0;
+        for (int round = 0; round < 5; round++) {
+            // log grow, index built incrementally
+            for (int i = 0; i < 2500; i++) {
+                XxlJobFileAppender.appendLog(logFileName, "line " + (++lineTotal));
+            }
+
+            int[] fromLineNums = new int[]{1, 999, 1000, 1001, 2001, lineTotal, lineTotal + 1, lineTotal + 100, random.nextInt(lineTotal) + 1};
+            for (int fromLineNum : fromLineNums) {
+                LogResult logResult = XxlJobFileAppender.readLog(logFileName, fromLineNum);
+                StringBuilder expected = new StringBuilder();
+                for (int line = fromLineNum; line <= lineTotal; line++) {
+                    expected.append("line ").append(line).append("\n");
+                }
+                Assertions.assertEquals(expected.toString(), logResult.getLogContent(), "fromLineNum:" + fromLineNum);
+                Assertions.assertEquals(fromLineNum, logResult.getFromLineNum());
+                Assertions.assertEquals(lineTotal, logResult.getToLineNum());
+            }
+        }
+
+        // offset of line mode result, continue by offset
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, 3);
+        Assertions.assertEquals(("line 1\r\nline 2\r\n").getBytes(StandardCharsets.UTF_8).length, logResult.getFromOffset());
+        Assertions.assertEquals(new File(logFileName).length(), logResult.getToOffset());
+
+        // not exists
+        Assertions.assertEquals("readLog fail, logFile not exists", XxlJobFileAppender.readLog(logFileName + ".not", 1).getLogContent());
+        Assertions.assertEquals("readLog fail, logFile not exists", XxlJobFileAppender.readLog(logFileName + ".not", 1, 0).getLogContent());
+    }
+
+    /**
+     * tail last page of big log, by line number (line index) vs by offset
+     */
+    @Test
+    public void benchmark() {
+        String logFileName = XxlJobFileAppender.makeLogFileName(new Date(), ++logId);
+        String line = "2023-06-28 10:00:00 [com.xxl.job.executor.service.jobhandler.SampleXxlJob#demoJobHandler]-[40]-[xxl-job, JobThread-1] beat at:";
+        int lineTotal = 200000;
+        StringBuilder block = new StringBuilder();
+        for (int i = 1; i <= lineTotal; i++) {
+            block.append(line).append(i).append("\r\n");
+            if (i % 10000 == 0) {
+                XxlJobFileAppender.appendLog(logFileName, block.substring(0, block.length() - 2));
+                block.setLength(0);
+            }
+        }
+        long fileSize = new File(logFileName).length();
+
+        // first read, build index
+        long start = System.nanoTime();
+        LogResult logResult = XxlJobFileAppender.readLog(logFileName, lineTotal - 100);
+        long firstCost = System.nanoTime() - start;
+        Assertions.assertEquals(lineTotal, logResult.getToLineNum());
+
+        // tail, by index
+        int count = 100;
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            XxlJobFileAppender.readLog(logFileName, lineTotal - 100);
+        }
+        long lineCost = (System.nanoTime() - start) / count;
+
+        // tail, by offset
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            XxlJobFileAppender.readLog(logFileName, lineTotal - 100, logResult.getFromOffset());
+        }
+        long offsetCost = (System.nanoTime() - start) / count;
+
+        logger.info(">>>>>>>>>>> job log read benchmark, {}MB log, tail 100 line: by line first(build index):{}us, by line:{}us, by offset:{}us",
+                fileSize / 1024 / 1024, firstCost / 1000, lineCost / 1000, offsetCost / 1000);
+    }
+
+}
@@ -0,0 +1,201 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.LogParam;
+import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.log.XxlJobLogArchive;
+import com.xxl.job.core.server.EmbedServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * job log stream test, EmbedServer "/logStream" by FileRegion
+ */
+public class JobLogStreamTest {
+    private static Logger logger = LoggerFactory.getLogger(JobLogStreamTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("log-stream");
+    private static EmbedServer embedServer;
+    private static String address;
+
+    @BeforeAll
+    public static void init() throws Exception {
+        ServerSocket serverSocket = new ServerSocket(0);
+        int port = serverSocket.getLocalPort();
+        serverSocket.close();
+
+        address = "http://127.0.0.1:" + port + "/";
+        embedServer = new EmbedServer();
+        embedServer.start(address, port, null, "token");
+
+        // wait for server start
+        ExecutorBizClient executorBiz = new ExecutorBizClient(address, "token");
+        for (int i = 0; i < 50 && executorBiz.beat().getCode() != ReturnT.SUCCESS_CODE; i++) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+    }
+
+    @AfterAll
+    public static void destroy() throws Exception {
+        embedServer.stop();
+    }
+
+    @Test
+    public void logStream() throws Exception {
+        Date triggerTime = new Date();
+        long logId = 1;
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerTime, logId);
+        for (int i = 0; i < 1000; i++) {
+            XxlJobFileAppender.appendLog(logFileName, "line " + i + ", 中文");
+        }
+        byte[] fileData = Files.readAllBytes(new File(logFileName).toPath());
+
+        // whole
+        ExecutorBizClient executorBiz = new ExecutorBizClient(address, "token");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReturnT<LogResult> streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, 0), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(0, streamResult.getContent().getFromOffset());
+        Assertions.assertEquals(fileData.length, streamResult.getContent().getToOffset());
+        Assertions.assertArrayEquals(fileData, outputStream.toByteArray());
+
+        // from offset, tail appended
+        XxlJobFileAppender.appendLog(logFileName, "tail");
+        outputStream = new ByteArrayOutputStream();
+        streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, fileData.length), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(fileData.length + "tail\r\n".length(), streamResult.getContent().getToOffset());
+        Assertions.assertEquals("tail\r\n", new String(outputStream.toByteArray(), "UTF-8"));
+
+        // end, empty
+        outputStream = new ByteArrayOutputStream();
+        streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, streamResult.getContent().getToOffset()), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(streamResult.getContent().getFromOffset(), streamResult.getContent().getToOffset());
+        Assertions.assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    public void logStreamFail() {
+        Date triggerTime = new Date();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // not exists
+        ReturnT<LogResult> streamResult = new ExecutorBizClient(address, "token").logStream(new LogParam(triggerTime.getTime(), 404, 0, 0), outputStream);
+        Assertions.assertEquals(ReturnT.FAIL_CODE, streamResult.getCode());
+        Assertions.assertEquals("readLog fail, logFile not exists", streamResult.getMsg());
+
+        // access token, file not streamed
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerTime, 2);
+        XxlJobFileAppender.appendLog(logFileName, "secret");
+        streamResult = new ExecutorBizClient(address, "wrong").logStream(new LogParam(triggerTime.getTime(), 2, 0, 0), outputStream);
+        Assertions.assertEquals(ReturnT.FAIL_CODE, streamResult.getCode());
+        Assertions.assertEquals("The access token is wrong.", streamResult.getMsg());
+        Assertions.assertEquals(0, outputStream.size());
+    }
+
+    @Test
+    public void archivedLogStream() throws Exception {
+        Date triggerTime = new SimpleDateFormat("yyyy-MM-dd").parse("2000-01-01");       // day directory of its own
+        long logId = 4;
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerTime, logId);
+        for (int i = 0; i < 50000; i++) {
+            XxlJobFileAppender.appendLog(logFileName, "line " + i + ", 中文");
+        }
+        byte[] fileData = Files.readAllBytes(new File(logFileName).toPath());
+
+        // archive, log file deleted
+        File logDir = new File(logFileName).getParentFile();
+        Assertions.assertNotNull(XxlJobLogArchive.archive(logDir, 0));
+        Assertions.assertFalse(new File(logFileName).exists());
+
+        // whole, decompressed by chunk
+        ExecutorBizClient executorBiz = new ExecutorBizClient(address, "token");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ReturnT<LogResult> streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, 0), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(fileData.length, streamResult.getContent().getToOffset());
+        Assertions.assertArrayEquals(fileData, outputStream.toByteArray());
+
+        // from offset
+        outputStream = new ByteArrayOutputStream();
+        streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, 100), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertArrayEquals(Arrays.copyOfRange(fileData, 100, fileData.length), outputStream.toByteArray());
+
+        // appended after archived, archived body followed by log file
+        XxlJobFileAppender.appendLog(logFileName, "after archive");
+        XxlJobFileAppender.flushLog(logFileName);
+        byte[] tailData = Files.readAllBytes(new File(logFileName).toPath());
+        outputStream = new ByteArrayOutputStream();
+        streamResult = executorBiz.logStream(new LogParam(triggerTime.getTime(), logId, 0, 0), outputStream);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(fileData.length + tailData.length, outputStream.size());
+        Assertions.assertArrayEquals(fileData, Arrays.copyOfRange(outputStream.toByteArray(), 0, fileData.length));
+        Assertions.assertArrayEquals(tailData, Arrays.copyOfRange(outputStream.toByteArray(), fileData.length, outputStream.size()));
+    }
+
+    /**
+     * large log, streamed by buffer, not loaded whole into heap
+     */
+    @Test
+    public void largeLog() throws Exception {
+        Date triggerTime = new Date();
+        long logId = 3;
+        String logFileName = XxlJobFileAppender.makeLogFileName(triggerTime, logId);
+        char[] line = new char[1022];
+        Arrays.fill(line, 'a');
+        StringBuilder block = new StringBuilder();
+        for (int i = 0; i < 1024; i++) {
+            block.append(line).append("\r\n");
+        }
+        String blockLog = block.substring(0, block.length() - 2);
+        for (int i = 0; i < 64; i++) {
+            XxlJobFileAppender.appendLog(logFileName, blockLog);      // 1MB each
+        }
+        final long fileSize = new File(logFileName).length();
+
+        // count only, like proxy to servlet response
+        final long[] written = new long[]{0, 0};
+        OutputStream countOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written[0]++;
+            }
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written[0] += len;
+                written[1] = Math.max(written[1], len);
+            }
+        };
+
+        long start = System.nanoTime();
+        ReturnT<LogResult> streamResult = new ExecutorBizClient(address, "token").logStream(new LogParam(triggerTime.getTime(), logId, 0, 0), countOutputStream);
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, streamResult.getCode());
+        Assertions.assertEquals(fileSize, streamResult.getContent().getToOffset());
+        Assertions.assertEquals(fileSize, written[0]);
+        Assertions.assertTrue(written[1] <= 8 * 1024);
+
+        logger.info(">>>>>>>>>>> job log stream, {}MB log, cost:{}ms, max write:{}byte", fileSize / 1024 / 1024, cost, written[1]);
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.xxl.job.executorbiz;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xxl.job.admin.core.thread.JobTriggerBatchHelper;
+import com.xxl.job.core.biz.AsyncExecutorBiz;
+import com.xxl.job.core.biz.client.AsyncExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.remoting.NettyHttpClient;
+import com.xxl.job.core.util.GsonTool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * trigger batch test, with a mock executor (jdk http server)
+ */
+public class JobTriggerBatchTest {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerBatchTest.class);
+
+    private static HttpServer server;
+    private static String addressUrl;
+    private static volatile boolean supportRunBatch = true;
+    private static AtomicInteger runCount = new AtomicInteger();
+    private static AtomicInteger runBatchCount = new AtomicInteger();
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream inputStream = exchange.getRequestBody();
+                ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                int len;
+                while ((len = inputStream.read(buffer)) != -1) {
+                    requestBody.write(buffer, 0, len);
+                }
+                inputStream.close();
+                String requestData = new String(requestBody.toByteArray(), StandardCharsets.UTF_8);
+
+                // mock EmbedServer, result msg is logId
+                Object responseObj;
+                String uri = exchange.getRequestURI().getPath();
+                if ("/run".equals(uri)) {
+                    runCount.incrementAndGet();
+                    TriggerParam triggerParam = GsonTool.fromJson(requestData, TriggerParam.class);
+                    responseObj = new ReturnT<String>(ReturnT.SUCCESS_CODE, String.valueOf(triggerParam.getLogId()));
+                } else if ("/runBatch".equals(uri) && supportRunBatch) {
+                    runBatchCount.incrementAndGet();
+                    List<ReturnT<String>> resultList = new ArrayList<ReturnT<String>>();
+                    for (TriggerParam triggerParam : GsonTool.fromJsonList(requestData, TriggerParam.class)) {
+                        resultList.add(new ReturnT<String>(ReturnT.SUCCESS_CODE, String.valueOf(triggerParam.getLogId())));
+                    }
+                    responseObj = new ReturnT<List<ReturnT<String>>>(resultList);
+                } else {
+                    responseObj = new ReturnT<String>(ReturnT.FAIL_CODE, "invalid request, uri-mapping(" + uri + ") not found.");
+                }
+
+                byte[] response = GsonTool.toJson(responseObj).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(response);
+                outputStream.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(16));
+        server.start();
+        addressUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    /**
+     * 1000 triggers of one tick, to same address
+     */
+    @Test
+    public void runBatch() throws Exception {
+        supportRunBatch = true;
+        runCount.set(0);
+        runBatchCount.set(0);
+
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+        AsyncExecutorBiz executorBiz = new AsyncExecutorBizClient(addressUrl, null, nettyHttpClient);
+        JobTriggerBatchHelper batchHelper = JobTriggerBatchHelper.getInstance();
+        batchHelper.start(100);
+        try {
+            List<CompletableFuture<ReturnT<String>>> futureList = trigger(batchHelper, executorBiz, 1000);
+            for (int i = 0; i < futureList.size(); i++) {
+                ReturnT<String> runResult = futureList.get(i).get(10, TimeUnit.SECONDS);
+                Assertions.assertEquals(ReturnT.SUCCESS_CODE, runResult.getCode(), runResult.getMsg());
+                Assertions.assertEquals(String.valueOf(i), runResult.getMsg());     // result matched by index
+            }
+            logger.info(">>>>>>>>>>> trigger batch, trigger:1000, runBatch request:{}, run request:{}", runBatchCount.get(), runCount.get());
+            Assertions.assertTrue(runBatchCount.get() + runCount.get() < 100);
+        } finally {
+            batchHelper.toStop();
+            nettyHttpClient.close();
+        }
+    }
+
+    /**
+     * executor of old version, fallback to run one by one
+     */
+    @Test
+    public void notSupportRunBatch() throws Exception {
+        supportRunBatch = false;
+        runCount.set(0);
+        runBatchCount.set(0);
+
+        NettyHttpClient nettyHttpClient = new NettyHttpClient();
+        AsyncExecutorBiz executorBiz = new AsyncExecutorBizClient(addressUrl, null, nettyHttpClient);
+        JobTriggerBatchHelper batchHelper = JobTriggerBatchHelper.getInstance();
+        batchHelper.start(100);
+        try {
+            for (int round = 0; round < 2; round++) {
+                List<CompletableFuture<ReturnT<String>>> futureList = trigger(batchHelper, executorBiz, 100);
+                for (int i = 0; i < futureList.size(); i++) {
+                    ReturnT<String> runResult = futureList.get(i).get(10, TimeUnit.SECONDS);
+                    Assertions.assertEquals(ReturnT.SUCCESS_CODE, runResult.getCode());
+                    Assertions.assertEquals(String.valueOf(i), runResult.getMsg());
+                }
+            }
+            Assertions.assertEquals(200, runCount.get());
+        } finally {
+            batchHelper.toStop();
+            nettyHttpClient.close();
+            supportRunBatch = true;
+        }
+    }
+
+    private static List<CompletableFuture<ReturnT<String>>> trigger(JobTriggerBatchHelper batchHelper, AsyncExecutorBiz executorBiz, int total) {
+        List<CompletableFuture<ReturnT<String>>> futureList = new ArrayList<CompletableFuture<ReturnT<String>>>(total);
+        for (int i = 0; i < total; i++) {
+            TriggerParam triggerParam = new TriggerParam();
+            triggerParam.setJobId(i);
+            triggerParam.setExecutorHandler("demoJobHandler");
+            triggerParam.setLogId(i);
+            triggerParam.setLogDateTime(System.currentTimeMillis());
+            futureList.add(batchHelper.run(executorBiz, addressUrl, triggerParam));
+        }
+        return futureList;
+    }
+
+}
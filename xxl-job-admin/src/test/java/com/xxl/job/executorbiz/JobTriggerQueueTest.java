@@ -0,0 +1,209 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.biz.model.TriggerParam;
+import com.xxl.job.core.handler.IJobHandler;
+import com.xxl.job.core.thread.JobThread;
+import com.xxl.job.core.util.LongHashSet;
+import com.xxl.job.core.util.MpscArrayQueue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * trigger queue of JobThread test, MpscArrayQueue + LongHashSet
+ */
+public class JobTriggerQueueTest {
+    private static Logger logger = LoggerFactory.getLogger(JobTriggerQueueTest.class);
+
+    @Test
+    public void mpscQueue() throws Exception {
+        final int producerCount = 8;
+        final int countPerProducer = 200000;
+        final MpscArrayQueue<long[]> queue = new MpscArrayQueue<long[]>(1000);
+        Assertions.assertEquals(1024, queue.capacity());
+
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        for (int i = 0; i < producerCount; i++) {
+            final int producer = i;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int seq = 0; seq < countPerProducer; seq++) {
+                        long[] item = new long[]{producer, seq};
+                        while (!queue.offer(item)) {
+                            Thread.yield();     // full, retry
+                        }
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // single consumer, FIFO of each producer
+        long start = System.nanoTime();
+        startLatch.countDown();
+        long[] lastSeq = new long[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            lastSeq[i] = -1;
+        }
+        int total = producerCount * countPerProducer;
+        for (int i = 0; i < total; i++) {
+            long[] item = queue.poll(10, TimeUnit.SECONDS);
+            Assertions.assertNotNull(item);
+            Assertions.assertEquals(lastSeq[(int) item[0]] + 1, item[1]);
+            lastSeq[(int) item[0]] = item[1];
+        }
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info(">>>>>>>>>>> MpscArrayQueue, producer:{}, total:{}, cost:{}ms", producerCount, total, cost);
+
+        Assertions.assertNull(queue.poll());
+        Assertions.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void mpscQueueBounded() throws Exception {
+        MpscArrayQueue<Integer> queue = new MpscArrayQueue<Integer>(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertTrue(queue.offer(i));
+        }
+        Assertions.assertFalse(queue.offer(4));
+        Assertions.assertEquals(4, queue.size());
+
+        Assertions.assertEquals(0, queue.poll());
+        Assertions.assertTrue(queue.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            Assertions.assertEquals(i, queue.poll());
+        }
+
+        // empty, poll timeout
+        long start = System.currentTimeMillis();
+        Assertions.assertNull(queue.poll(100, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(System.currentTimeMillis() - start >= 100);
+    }
+
+    @Test
+    public void mpscQueueWakeUp() throws Exception {
+        final MpscArrayQueue<Integer> queue = new MpscArrayQueue<Integer>(16);
+        final AtomicReference<Integer> polled = new AtomicReference<Integer>();
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    polled.set(queue.poll(60, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        consumer.start();
+
+        // offer once consumer parked
+        while (consumer.getState() != Thread.State.TIMED_WAITING) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        queue.offer(1);
+
+        // parked consumer wake up once offered, long before poll timeout
+        consumer.join(TimeUnit.SECONDS.toMillis(30));
+        Assertions.assertFalse(consumer.isAlive());
+        Assertions.assertEquals(1, polled.get());
+    }
+
+    @Test
+    public void longHashSet() {
+        LongHashSet longHashSet = new LongHashSet(4);
+        Set<Long> hashSet = new HashSet<Long>();
+        Random random = new Random(1);
+        for (int i = 0; i < 200000; i++) {
+            long key = random.nextInt(2000) - 100;      // include 0 and negative
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(hashSet.add(key), longHashSet.add(key));
+            } else {
+                Assertions.assertEquals(hashSet.remove(key), longHashSet.remove(key));
+            }
+            Assertions.assertEquals(hashSet.size(), longHashSet.size());
+        }
+        for (long key = -100; key < 1900; key++) {
+            Assertions.assertEquals(hashSet.contains(key), longHashSet.contains(key));
+        }
+    }
+
+    /**
+     * same logId pushed concurrently, only one accepted
+     */
+    @Test
+    public void repeatTrigger() throws Exception {
+        final JobThread jobThread = new JobThread(1, new EmptyJobHandler(), 64);     // not started, trigger stay in queue
+        final AtomicInteger successCount = new AtomicInteger();
+
+        for (int logId = 0; logId < 32; logId++) {
+            final TriggerParam triggerParam = ExecutorTestHelper.buildTriggerParam(logId);
+            final CountDownLatch startLatch = new CountDownLatch(1);
+            Thread[] threads = new Thread[8];
+            for (int i = 0; i < threads.length; i++) {
+                threads[i] = new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            startLatch.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        if (jobThread.pushTriggerQueue(triggerParam).getCode() == ReturnT.SUCCESS_CODE) {
+                            successCount.incrementAndGet();
+                        }
+                    }
+                });
+                threads[i].start();
+            }
+            startLatch.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        Assertions.assertEquals(32, successCount.get());
+    }
+
+    /**
+     * queue full, trigger fail
+     */
+    @Test
+    public void backPressure() {
+        JobThread jobThread = new JobThread(1, new EmptyJobHandler(), 4);      // not started, trigger stay in queue
+        for (int logId = 0; logId < 4; logId++) {
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, jobThread.pushTriggerQueue(ExecutorTestHelper.buildTriggerParam(logId)).getCode());
+        }
+
+        ReturnT<String> pushResult = jobThread.pushTriggerQueue(ExecutorTestHelper.buildTriggerParam(4));
+        Assertions.assertEquals(ReturnT.FAIL_CODE, pushResult.getCode());
+        Assertions.assertEquals("job trigger queue is full, capacity:4, logId:4", pushResult.getMsg());
+        Assertions.assertTrue(jobThread.isRunningOrHasQueue());
+
+        // rejected logId not kept, as repeat
+        Assertions.assertEquals("job trigger queue is full, capacity:4, logId:4", jobThread.pushTriggerQueue(ExecutorTestHelper.buildTriggerParam(4)).getMsg());
+        Assertions.assertEquals("repeate trigger job, logId:3", jobThread.pushTriggerQueue(ExecutorTestHelper.buildTriggerParam(3)).getMsg());
+    }
+
+    private static class EmptyJobHandler extends IJobHandler {
+        @Override
+        public void execute() throws Exception {
+        }
+    }
+
+}
@@ -0,0 +1,251 @@
+package com.xxl.job.executorbiz;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.remoting.PooledHttpTransport;
+import com.xxl.job.core.remoting.RemotingTransport;
+import com.xxl.job.core.remoting.UrlConnectionTransport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * remoting transport test, with a mock executor (jdk http server)
+ */
+public class RemotingTransportTest {
+    private static Logger logger = LoggerFactory.getLogger(RemotingTransportTest.class);
+
+    private static HttpServer server;
+    private static String addressUrl;
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        // avoid nagle + delayed ack, like netty server of executor
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                // consume request body
+                InputStream inputStream = exchange.getRequestBody();
+                byte[] buffer = new byte[1024];
+                while (inputStream.read(buffer) != -1) {
+                }
+                inputStream.close();
+
+                byte[] response = "{\"code\":200,\"msg\":null}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/html;charset=UTF-8");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream outputStream = exchange.getResponseBody();
+                outputStream.write(response);
+                outputStream.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(64));
+        server.start();
+        addressUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void run() {
+        PooledHttpTransport transport = new PooledHttpTransport(4, 15000);
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, null, transport);
+        for (int i = 0; i < 10; i++) {
+            ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(i));
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, returnT.getCode());
+        }
+        // serial call, one connection reused
+        Assertions.assertEquals(1, transport.getConnectCount());
+        Assertions.assertEquals(9, transport.getReuseCount());
+        transport.close();
+    }
+
+    @Test
+    public void staleConnection() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(4, 15000);
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, null, transport);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.beat().getCode());
+
+        // server restart, pooled connection closed by server
+        restartServer();
+
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.beat().getCode());
+        Assertions.assertEquals(2, transport.getConnectCount());
+        transport.close();
+    }
+
+    /**
+     * idle connection closed by server, probed before reuse, "run" sent by new connection
+     */
+    @Test
+    public void staleConnectionProbe() throws Exception {
+        PooledHttpTransport transport = new PooledHttpTransport(4, 15000);
+        ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, null, transport);
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.run(ExecutorTestHelper.buildTriggerParam(1)).getCode());
+
+        restartServer();
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.run(ExecutorTestHelper.buildTriggerParam(2)).getCode());
+        Assertions.assertEquals(2, transport.getConnectCount());
+        transport.close();
+    }
+
+    /**
+     * server read the whole request then close, "run" not replayed (may be executed by server)
+     */
+    @Test
+    public void noReplayAfterWritten() throws Exception {
+        CloseAfterReadServer closeServer = new CloseAfterReadServer(2);
+        PooledHttpTransport transport = new PooledHttpTransport(4, 15000);
+        ExecutorBiz executorBiz = new ExecutorBizClient(closeServer.addressUrl, null, transport);
+        try {
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.run(ExecutorTestHelper.buildTriggerParam(1)).getCode());
+
+            ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(2));
+            Assertions.assertEquals(ReturnT.FAIL_CODE, returnT.getCode());
+            Assertions.assertEquals(2, closeServer.requestCount.get());
+            Assertions.assertEquals(1, transport.getConnectCount());
+        } finally {
+            transport.close();
+            closeServer.close();
+        }
+    }
+
+    /**
+     * server read the whole request then close, idempotent "beat" retried with new connection
+     */
+    @Test
+    public void replayIdempotent() throws Exception {
+        CloseAfterReadServer closeServer = new CloseAfterReadServer(2);
+        PooledHttpTransport transport = new PooledHttpTransport(4, 15000);
+        ExecutorBiz executorBiz = new ExecutorBizClient(closeServer.addressUrl, null, transport);
+        try {
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.beat().getCode());
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.beat().getCode());
+            Assertions.assertEquals(3, closeServer.requestCount.get());
+            Assertions.assertEquals(2, transport.getConnectCount());
+        } finally {
+            transport.close();
+            closeServer.close();
+        }
+    }
+
+    /**
+     * trigger latency at 1k triggers per second, UrlConnectionTransport vs PooledHttpTransport
+     */
+    @Test
+    public void benchmark() throws Exception {
+        // warm up
+        benchmark(new UrlConnectionTransport(), 500);
+        benchmark(new PooledHttpTransport(), 500);
+
+        long[] urlConnectionLatency = benchmark(new UrlConnectionTransport(), 3000);
+        PooledHttpTransport pooledHttpTransport = new PooledHttpTransport();
+        long[] pooledLatency = benchmark(pooledHttpTransport, 3000);
+
+        logger.info(">>>>>>>>>>> remoting benchmark, 1k triggers/s, UrlConnectionTransport avg:{}us, p99:{}us; PooledHttpTransport avg:{}us, p99:{}us, connect:{}, reuse:{}",
+                avg(urlConnectionLatency), percentile(urlConnectionLatency, 99),
+                avg(pooledLatency), percentile(pooledLatency, 99),
+                pooledHttpTransport.getConnectCount(), pooledHttpTransport.getReuseCount());
+        Assertions.assertTrue(pooledHttpTransport.getReuseCount() > pooledHttpTransport.getConnectCount());
+        pooledHttpTransport.close();
+    }
+
+    /**
+     * trigger "total" times, 1 trigger per millisecond, by trigger pool (like JobTriggerPoolHelper fast pool)
+     *
+     * @return  latency of each trigger, by microsecond
+     */
+    private long[] benchmark(RemotingTransport transport, final int total) throws Exception {
+        final ExecutorBiz executorBiz = new ExecutorBizClient(addressUrl, null, transport);
+        final long[] latency = new long[total];
+        final AtomicInteger failCount = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(total);
+
+        ThreadPoolExecutor triggerPool = new ThreadPoolExecutor(10, 200, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(1000));
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        final AtomicInteger index = new AtomicInteger();
+        ticker.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                final int i = index.getAndIncrement();
+                if (i >= total) {
+                    return;
+                }
+                triggerPool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        long start = System.nanoTime();
+                        ReturnT<String> returnT = executorBiz.run(ExecutorTestHelper.buildTriggerParam(i));
+                        latency[i] = (System.nanoTime() - start) / 1000;
+                        if (returnT.getCode() != ReturnT.SUCCESS_CODE) {
+                            failCount.incrementAndGet();
+                        }
+                        latch.countDown();
+                    }
+                });
+            }
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        Assertions.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        ticker.shutdownNow();
+        triggerPool.shutdown();
+        transport.close();
+
+        Assertions.assertEquals(0, failCount.get());
+        return latency;
+    }
+
+    private static void restartServer() throws IOException {
+        int port = server.getAddress().getPort();
+        server.stop(0);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] response = "{\"code\":200,\"msg\":null}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, response.length);
+                exchange.getResponseBody().write(response);
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    private static long avg(long[] latency) {
+        long total = 0;
+        for (long item : latency) {
+            total += item;
+        }
+        return total / latency.length;
+    }
+
+    private static long percentile(long[] latency, int percent) {
+        long[] sorted = Arrays.copyOf(latency, latency.length);
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)];
+    }
+
+}
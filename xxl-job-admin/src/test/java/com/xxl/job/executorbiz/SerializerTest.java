@@ -0,0 +1,241 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.ExecutorBiz;
+import com.xxl.job.core.biz.client.ExecutorBizClient;
+import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.remoting.PooledHttpTransport;
+import com.xxl.job.core.remoting.RemotingResponse;
+import com.xxl.job.core.remoting.RemotingTransport;
+import com.xxl.job.core.serializer.Serializer;
+import com.xxl.job.core.serializer.SerializerEnum;
+import com.xxl.job.core.server.EmbedServer;
+import com.xxl.job.core.util.GsonTool;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * remoting serializer test, JSON vs BINARY
+ */
+public class SerializerTest {
+    private static Logger logger = LoggerFactory.getLogger(SerializerTest.class);
+
+    private static final Type RETURN_T_LOG_RESULT = new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Type[]{LogResult.class});
+    private static final Type CALLBACK_PARAM_LIST = new GsonTool.ParameterizedType4ReturnT(List.class, new Type[]{HandleCallbackParam.class});
+
+    @Test
+    public void roundTrip() {
+        Serializer serializer = SerializerEnum.BINARY.getSerializer();
+
+        List<Object> objList = Arrays.<Object>asList(
+                buildTriggerParam(),
+                new RegistryParam("EXECUTOR", "xxl-job-executor-sample", "http://127.0.0.1:9999/"),
+                buildRegistryParam(),
+                new IdleBeatParam(-1),
+                new KillParam(Integer.MAX_VALUE),
+                new LogParam(System.currentTimeMillis(), Long.MAX_VALUE, 1),
+                new LogParam(System.currentTimeMillis(), 1, 100, 1024L * 1024 * 1024 * 8),
+                new ReturnT<LogResult>(new LogResult(100, 200, "log", false, 1024, 2048)),
+                ReturnT.SUCCESS,
+                new ReturnT<String>(ReturnT.FAIL_CODE, "job handler [中文 handler] not found."),
+                new ReturnT<LogResult>(buildLogResult()),
+                new ReturnT<List<ReturnT<String>>>(Arrays.asList(ReturnT.SUCCESS, ReturnT.FAIL)),
+                buildCallbackParamList(100));
+        for (Object obj : objList) {
+            byte[] data = serializer.serialize(obj);
+            Object result = serializer.deserialize(data, obj.getClass());
+            Assertions.assertEquals(obj.getClass(), result.getClass());
+            Assertions.assertEquals(GsonTool.toJson(obj), GsonTool.toJson(result));
+        }
+
+        // null
+        Assertions.assertNull(serializer.deserialize(serializer.serialize(null), Object.class));
+    }
+
+    @Test
+    public void payloadSize() {
+        Object[][] cases = new Object[][]{
+                {"TriggerParam(glue shell)", buildTriggerParam(), TriggerParam.class},
+                {"HandleCallbackParam(x100)", buildCallbackParamList(100), CALLBACK_PARAM_LIST},
+                {"RegistryParam", new RegistryParam("EXECUTOR", "xxl-job-executor-sample", "http://127.0.0.1:9999/"), RegistryParam.class},
+                {"ReturnT<LogResult>(100 lines)", new ReturnT<LogResult>(buildLogResult()), RETURN_T_LOG_RESULT},
+        };
+        for (Object[] item : cases) {
+            byte[] json = SerializerEnum.JSON.getSerializer().serialize(item[1]);
+            byte[] binary = SerializerEnum.BINARY.getSerializer().serialize(item[1]);
+            logger.info(">>>>>>>>>>> payload size, {}: JSON {} bytes, BINARY {} bytes ({}%)",
+                    item[0], json.length, binary.length, binary.length * 100 / json.length);
+            Assertions.assertTrue(binary.length < json.length);
+        }
+    }
+
+    /**
+     * encode/decode cost, by ns/op
+     */
+    @Test
+    public void benchmark() {
+        Object[][] cases = new Object[][]{
+                {"TriggerParam(glue shell)", buildTriggerParam(), TriggerParam.class},
+                {"HandleCallbackParam(x100)", buildCallbackParamList(100), CALLBACK_PARAM_LIST},
+                {"ReturnT<LogResult>(100 lines)", new ReturnT<LogResult>(buildLogResult()), RETURN_T_LOG_RESULT},
+        };
+        int count = 20000;
+        for (Object[] item : cases) {
+            StringBuilder result = new StringBuilder();
+            for (SerializerEnum serializerEnum : SerializerEnum.values()) {
+                Serializer serializer = serializerEnum.getSerializer();
+                Type type = (Type) item[2];
+
+                // warm up
+                for (int i = 0; i < count; i++) {
+                    serializer.deserialize(serializer.serialize(item[1]), type);
+                }
+
+                long start = System.nanoTime();
+                byte[] data = null;
+                for (int i = 0; i < count; i++) {
+                    data = serializer.serialize(item[1]);
+                }
+                long encodeCost = (System.nanoTime() - start) / count;
+
+                start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    serializer.deserialize(data, type);
+                }
+                long decodeCost = (System.nanoTime() - start) / count;
+                result.append(serializerEnum).append(" encode:").append(encodeCost).append("ns, decode:").append(decodeCost).append("ns; ");
+            }
+            logger.info(">>>>>>>>>>> serializer benchmark, {}: {}", item[0], result);
+        }
+    }
+
+    /**
+     * admin (new, BINARY opted in) to EmbedServer (new): JSON for first request, BINARY once accepted
+     */
+    @Test
+    public void negotiate() throws Exception {
+        Assertions.assertEquals(SerializerEnum.JSON, XxlJobRemotingUtil.getSerializer());
+        XxlJobRemotingUtil.setSerializer(SerializerEnum.BINARY);
+
+        int port;
+        ServerSocket serverSocket = new ServerSocket(0);
+        port = serverSocket.getLocalPort();
+        serverSocket.close();
+
+        EmbedServer embedServer = new EmbedServer();
+        embedServer.start("http://127.0.0.1:" + port + "/", port, null, "token");
+        RecordTransport transport = new RecordTransport();
+        try {
+            ExecutorBiz executorBiz = new ExecutorBizClient("http://127.0.0.1:" + port + "/", "token", transport);
+
+            // wait for server start
+            for (int i = 0; i < 50 && executorBiz.beat().getCode() != ReturnT.SUCCESS_CODE; i++) {
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.beat().getCode());
+            Assertions.assertEquals(SerializerEnum.JSON, transport.serializerList.get(0));
+            Assertions.assertEquals(SerializerEnum.BINARY, transport.serializerList.get(transport.serializerList.size() - 1));
+
+            // by BINARY
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.idleBeat(new IdleBeatParam(1)).getCode());
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, executorBiz.kill(new KillParam(1)).getCode());
+
+            TriggerParam triggerParam = buildTriggerParam();
+            triggerParam.setGlueType("BEAN");
+            triggerParam.setExecutorHandler("notExistHandler");
+            ReturnT<String> runResult = executorBiz.run(triggerParam);
+            Assertions.assertEquals(ReturnT.FAIL_CODE, runResult.getCode());
+            Assertions.assertEquals("job handler [notExistHandler] not found.", runResult.getMsg());
+
+            ReturnT<List<ReturnT<String>>> batchResult = executorBiz.runBatch(Arrays.asList(triggerParam, triggerParam));
+            Assertions.assertEquals(ReturnT.SUCCESS_CODE, batchResult.getCode());
+            Assertions.assertEquals(2, batchResult.getContent().size());
+            Assertions.assertEquals("job handler [notExistHandler] not found.", batchResult.getContent().get(1).getMsg());
+
+            // access token, by BINARY
+            ExecutorBiz wrongTokenExecutorBiz = new ExecutorBizClient("http://127.0.0.1:" + port + "/", "wrong", transport);
+            Assertions.assertEquals("The access token is wrong.", wrongTokenExecutorBiz.beat().getMsg());
+            Assertions.assertEquals(SerializerEnum.BINARY, transport.serializerList.get(transport.serializerList.size() - 1));
+        } finally {
+            XxlJobRemotingUtil.setSerializer(SerializerEnum.JSON);
+            transport.close();
+            embedServer.stop();
+        }
+    }
+
+    /**
+     * record serializer of request
+     */
+    private static RegistryParam buildRegistryParam() {
+        RegistryParam registryParam = new RegistryParam("EXECUTOR", "xxl-job-executor-sample", "http://127.0.0.1:9999/");
+        registryParam.setQueueSize(1024);
+        registryParam.setRunningCount(8);
+        registryParam.setCpuLoad(-1);
+        registryParam.setLatency(Long.MAX_VALUE);
+        return registryParam;
+    }
+
+    private static class RecordTransport implements RemotingTransport {
+        private final PooledHttpTransport transport = new PooledHttpTransport();
+        private final List<SerializerEnum> serializerList = new CopyOnWriteArrayList<SerializerEnum>();
+
+        @Override
+        public RemotingResponse post(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws Exception {
+            serializerList.add(serializer);
+            return transport.post(url, accessToken, serializer, timeout, requestBody);
+        }
+
+        @Override
+        public void close() {
+            transport.close();
+        }
+    }
+
+    private static TriggerParam buildTriggerParam() {
+        StringBuilder glueSource = new StringBuilder("#!/bin/bash\n");
+        for (int i = 0; i < 30; i++) {
+            glueSource.append("echo \"xxl-job: step ").append(i).append(" <param> = '$1'\" && sleep 1\n");
+        }
+        TriggerParam triggerParam = new TriggerParam();
+        triggerParam.setJobId(1);
+        triggerParam.setExecutorHandler("");
+        triggerParam.setExecutorParams("a=1&b=2");
+        triggerParam.setExecutorBlockStrategy("SERIAL_EXECUTION");
+        triggerParam.setExecutorTimeout(0);
+        triggerParam.setLogId(123456789L);
+        triggerParam.setLogDateTime(System.currentTimeMillis());
+        triggerParam.setGlueType("GLUE_SHELL");
+        triggerParam.setGlueSource(glueSource.toString());
+        triggerParam.setGlueUpdatetime(System.currentTimeMillis());
+        triggerParam.setBroadcastIndex(0);
+        triggerParam.setBroadcastTotal(1);
+        return triggerParam;
+    }
+
+    private static List<HandleCallbackParam> buildCallbackParamList(int size) {
+        List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
+        for (int i = 0; i < size; i++) {
+            callbackParamList.add(new HandleCallbackParam(100000L + i, System.currentTimeMillis(), 200, null));
+        }
+        return callbackParamList;
+    }
+
+    private static LogResult buildLogResult() {
+        StringBuilder logContent = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            logContent.append("2023-06-22 10:00:00 [com.xxl.job.core.thread.JobThread#run]-[133]-[xxl-job, JobThread-1-1687399200000] <br>----------- xxl-job job execute start -----------<br>----------- Param:\n");
+        }
+        return new LogResult(1, 100, logContent.toString(), false);
+    }
+
+}
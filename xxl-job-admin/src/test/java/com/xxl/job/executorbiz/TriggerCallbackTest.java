@@ -0,0 +1,244 @@
+package com.xxl.job.executorbiz;
+
+import com.xxl.job.core.biz.AdminBiz;
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.biz.model.RegistryParam;
+import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.thread.JobLogAppendThread;
+import com.xxl.job.core.thread.TriggerCallbackThread;
+import com.xxl.job.core.util.FileUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * trigger callback test, batch + pipeline + admin select
+ */
+public class TriggerCallbackTest {
+    private static Logger logger = LoggerFactory.getLogger(TriggerCallbackTest.class);
+
+    @RegisterExtension
+    static final ExecutorTestHelper testHelper = new ExecutorTestHelper("trigger-callback");
+    private static final AtomicLong logIdGenerator = new AtomicLong(0);
+
+    @BeforeAll
+    public static void init() {
+        JobLogAppendThread.getInstance().start();
+    }
+
+    @AfterAll
+    public static void destroy() {
+        JobLogAppendThread.getInstance().toStop();
+    }
+
+    @BeforeEach
+    public void reset() {
+        drain();
+    }
+
+    @AfterEach
+    public void stop() {
+        TriggerCallbackThread.getInstance().toStop();
+        drain();
+    }
+
+    /**
+     * callback queue and fail-callback journal shared by singleton: callback pushed by other test (callback thread not started)
+     * or left by last test, drained to a sink admin by last callback of stop; journal removed
+     */
+    private static void drain() {
+        FileUtil.deleteRecursively(new File(testHelper.getLogPath(), "callbacklog"));
+        TriggerCallbackThread.getInstance().start(Collections.<AdminBiz>singletonList(new MockAdminBiz(0, false)), 1000, 0, 1, null);
+        TriggerCallbackThread.getInstance().toStop();
+        FileUtil.deleteRecursively(new File(testHelper.getLogPath(), "callbacklog"));
+
+        Assertions.assertEquals(0, TriggerCallbackThread.getInstance().getQueueSize());
+        Assertions.assertEquals(0, TriggerCallbackThread.getInstance().getFailCallbackPendingCount());
+    }
+
+    @Test
+    public void batchAndPipeline() throws Exception {
+        int callbackCount = 20000;
+        MockAdminBiz adminBiz = new MockAdminBiz(2, false);
+        TriggerCallbackThread.getInstance().start(Collections.<AdminBiz>singletonList(adminBiz), 500, 5, 4, TriggerCallbackThread.ADMIN_FAILOVER);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < callbackCount; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+        }
+        waitFor(adminBiz.callbackCount, callbackCount);
+        long cost = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Assertions.assertEquals(callbackCount, adminBiz.callbackCount.get());
+        Assertions.assertTrue(adminBiz.batchCount.get() <= callbackCount / 10);
+        Assertions.assertTrue(adminBiz.maxBatchSize.get() <= 500);
+        Assertions.assertTrue(adminBiz.maxConcurrent.get() > 1);
+        Assertions.assertTrue(adminBiz.maxConcurrent.get() <= 4);
+        logger.info(">>>>>>>>>>> trigger callback, {} callback, cost:{}ms, batch:{}, max batch size:{}, max inflight:{}",
+                callbackCount, cost, adminBiz.batchCount.get(), adminBiz.maxBatchSize.get(), adminBiz.maxConcurrent.get());
+    }
+
+    /**
+     * idle, send at once, not linger
+     */
+    @Test
+    public void idleNotLinger() throws Exception {
+        MockAdminBiz adminBiz = new MockAdminBiz(0, false);
+        // linger (60s) far beyond waitFor (10s), so arrived means not lingered
+        TriggerCallbackThread.getInstance().start(Collections.<AdminBiz>singletonList(adminBiz), 1000, 60000, 1, null);
+
+        for (int i = 1; i <= 3; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+            waitFor(adminBiz.callbackCount, i);
+            Assertions.assertEquals(i, adminBiz.callbackCount.get());
+            Assertions.assertEquals(i, adminBiz.batchCount.get());
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+    }
+
+    @Test
+    public void adminRound() throws Exception {
+        MockAdminBiz adminBiz1 = new MockAdminBiz(0, false);
+        MockAdminBiz adminBiz2 = new MockAdminBiz(0, false);
+        TriggerCallbackThread.getInstance().start(Arrays.<AdminBiz>asList(adminBiz1, adminBiz2), 1000, 0, 1, "round");
+
+        for (int i = 1; i <= 10; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+            waitFor(adminBiz1.callbackCount, adminBiz2.callbackCount, i);
+        }
+        Assertions.assertEquals(5, adminBiz1.callbackCount.get());
+        Assertions.assertEquals(5, adminBiz2.callbackCount.get());
+    }
+
+    @Test
+    public void adminLeastLatency() throws Exception {
+        MockAdminBiz slowAdminBiz = new MockAdminBiz(30, false);
+        MockAdminBiz fastAdminBiz = new MockAdminBiz(0, false);
+        TriggerCallbackThread.getInstance().start(Arrays.<AdminBiz>asList(slowAdminBiz, fastAdminBiz), 1000, 0, 1, TriggerCallbackThread.ADMIN_LEAST_LATENCY);
+
+        for (int i = 1; i <= 20; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+            waitFor(slowAdminBiz.callbackCount, fastAdminBiz.callbackCount, i);
+        }
+        Assertions.assertTrue(slowAdminBiz.callbackCount.get() <= 1);
+        Assertions.assertTrue(fastAdminBiz.callbackCount.get() >= 19);
+    }
+
+    @Test
+    public void adminFailover() throws Exception {
+        MockAdminBiz failAdminBiz = new MockAdminBiz(0, true);
+        MockAdminBiz adminBiz = new MockAdminBiz(0, false);
+        TriggerCallbackThread.getInstance().start(Arrays.<AdminBiz>asList(failAdminBiz, adminBiz), 1000, 0, 2, TriggerCallbackThread.ADMIN_FAILOVER);
+
+        for (int i = 0; i < 100; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+        }
+        waitFor(adminBiz.callbackCount, 100);
+        Assertions.assertEquals(100, adminBiz.callbackCount.get());
+        Assertions.assertEquals(0, TriggerCallbackThread.getInstance().getFailCallbackPendingCount());
+    }
+
+    /**
+     * all admin fail, to fail-callback journal
+     */
+    @Test
+    public void allAdminFail() throws Exception {
+        MockAdminBiz failAdminBiz = new MockAdminBiz(0, true);
+        long callbackCount = TriggerCallbackThread.getInstance().getCallbackCount();
+        TriggerCallbackThread.getInstance().start(Collections.<AdminBiz>singletonList(failAdminBiz), 1000, 0, 2, null);
+
+        for (int i = 0; i < 100; i++) {
+            TriggerCallbackThread.pushCallBack(buildCallbackParam());
+        }
+        for (int i = 0; i < 100 && TriggerCallbackThread.getInstance().getFailCallbackPendingCount() < 100; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        Assertions.assertEquals(100, TriggerCallbackThread.getInstance().getFailCallbackPendingCount());
+        Assertions.assertEquals(callbackCount, TriggerCallbackThread.getInstance().getCallbackCount());
+    }
+
+    private static HandleCallbackParam buildCallbackParam() {
+        return new HandleCallbackParam(logIdGenerator.incrementAndGet(), System.currentTimeMillis(), ReturnT.SUCCESS_CODE, null);
+    }
+
+    private static void waitFor(AtomicLong count, long expected) throws InterruptedException {
+        for (int i = 0; i < 1000 && count.get() < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static void waitFor(AtomicLong count1, AtomicLong count2, long expected) throws InterruptedException {
+        for (int i = 0; i < 1000 && count1.get() + count2.get() < expected; i++) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int oldMax;
+        while ((oldMax = max.get()) < value && !max.compareAndSet(oldMax, value)) {
+        }
+    }
+
+    private static class MockAdminBiz implements AdminBiz {
+        private final long latency;
+        private final boolean fail;
+
+        private final AtomicLong callbackCount = new AtomicLong();
+        private final AtomicLong batchCount = new AtomicLong();
+        private final AtomicInteger maxBatchSize = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+        MockAdminBiz(long latency, boolean fail) {
+            this.latency = latency;
+            this.fail = fail;
+        }
+
+        @Override
+        public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
+            int current = concurrent.incrementAndGet();
+            try {
+                updateMax(maxConcurrent, current);
+                if (latency > 0) {
+                    TimeUnit.MILLISECONDS.sleep(latency);
+                }
+                if (fail) {
+                    throw new RuntimeException("admin down");
+                }
+                updateMax(maxBatchSize, callbackParamList.size());
+                batchCount.incrementAndGet();
+                callbackCount.addAndGet(callbackParamList.size());
+                return ReturnT.SUCCESS;
+            } catch (InterruptedException e) {
+                return ReturnT.FAIL;
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        @Override
+        public ReturnT<String> registry(RegistryParam registryParam) {
+            return ReturnT.SUCCESS;
+        }
+
+        @Override
+        public ReturnT<String> registryRemove(RegistryParam registryParam) {
+            return ReturnT.SUCCESS;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.xxl.job.core.biz;
+
+import com.xxl.job.core.biz.model.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * non-blocking executor api, future completed by remoting io thread
+ *
+ * @author xuxueli 2023-06-18
+ */
+public interface AsyncExecutorBiz {
+
+    /**
+     * beat
+     * @return
+     */
+    public CompletableFuture<ReturnT<String>> beat();
+
+    /**
+     * idle beat
+     *
+     * @param idleBeatParam
+     * @return
+     */
+    public CompletableFuture<ReturnT<String>> idleBeat(IdleBeatParam idleBeatParam);
+
+    /**
+     * run
+     * @param triggerParam
+     * @return
+     */
+    public CompletableFuture<ReturnT<String>> run(TriggerParam triggerParam);
+
+    /**
+     * run batch, multi trigger in one request
+     *
+     * @param triggerParamList
+     * @return  run result of each trigger, same order as "triggerParamList"
+     */
+    public CompletableFuture<ReturnT<List<ReturnT<String>>>> runBatch(List<TriggerParam> triggerParamList);
+
+    /**
+     * kill
+     * @param killParam
+     * @return
+     */
+    public CompletableFuture<ReturnT<String>> kill(KillParam killParam);
+
+    /**
+     * log
+     * @param logParam
+     * @return
+     */
+    public CompletableFuture<ReturnT<LogResult>> log(LogParam logParam);
+
+}
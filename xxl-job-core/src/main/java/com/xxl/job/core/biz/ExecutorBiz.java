@@ -2,6 +2,8 @@ package com.xxl.job.core.biz;
 
 import com.xxl.job.core.biz.model.*;
 
+import java.util.List;
+
 /**
  * Created by xuxueli on 17/3/1.
  */
@@ -28,6 +30,14 @@ public interface ExecutorBiz {
      */
     public ReturnT<String> run(TriggerParam triggerParam);
 
+    /**
+     * run batch, multi trigger in one request
+     *
+     * @param triggerParamList
+     * @return  run result of each trigger, same order as "triggerParamList"
+     */
+    public ReturnT<List<ReturnT<String>>> runBatch(List<TriggerParam> triggerParamList);
+
     /**
      * kill
      * @param killParam
@@ -4,6 +4,7 @@ import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.RegistryParam;
 import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.remoting.RemotingTransport;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 
 import java.util.List;
@@ -26,25 +27,34 @@ public class AdminBizClient implements AdminBiz {
             this.addressUrl = this.addressUrl + "/";
         }
     }
+    public AdminBizClient(String addressUrl, String accessToken, RemotingTransport transport) {
+        this(addressUrl, accessToken);
+        this.transport = transport;
+    }
 
     private String addressUrl ;
     private String accessToken;
     private int timeout = 3;
+    private RemotingTransport transport;    // null, use default transport of XxlJobRemotingUtil
+
+    private RemotingTransport transport() {
+        return transport != null ? transport : XxlJobRemotingUtil.getTransport();
+    }
 
 
     @Override
     public ReturnT<String> callback(List<HandleCallbackParam> callbackParamList) {
-        return XxlJobRemotingUtil.postBody(addressUrl+"api/callback", accessToken, timeout, callbackParamList, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl+"api/callback", accessToken, timeout, callbackParamList, String.class);
     }
 
     @Override
     public ReturnT<String> registry(RegistryParam registryParam) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "api/registry", accessToken, timeout, registryParam, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "api/registry", accessToken, timeout, registryParam, String.class);
     }
 
     @Override
     public ReturnT<String> registryRemove(RegistryParam registryParam) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "api/registryRemove", accessToken, timeout, registryParam, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "api/registryRemove", accessToken, timeout, registryParam, String.class);
     }
 
 }
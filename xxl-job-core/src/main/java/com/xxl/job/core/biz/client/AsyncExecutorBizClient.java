@@ -0,0 +1,66 @@
+package com.xxl.job.core.biz.client;
+
+import com.xxl.job.core.biz.AsyncExecutorBiz;
+import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.remoting.NettyHttpClient;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * non-blocking executor api client, by NettyHttpClient (shared by all executor address)
+ *
+ * @author xuxueli 2023-06-18
+ */
+@SuppressWarnings("unchecked")
+public class AsyncExecutorBizClient implements AsyncExecutorBiz {
+
+    public AsyncExecutorBizClient(String addressUrl, String accessToken, NettyHttpClient nettyHttpClient) {
+        this.addressUrl = addressUrl;
+        this.accessToken = accessToken;
+        this.nettyHttpClient = nettyHttpClient;
+
+        // valid
+        if (!this.addressUrl.endsWith("/")) {
+            this.addressUrl = this.addressUrl + "/";
+        }
+    }
+
+    private String addressUrl ;
+    private String accessToken;
+    private int timeout = 3;
+    private NettyHttpClient nettyHttpClient;
+
+
+    @Override
+    public CompletableFuture<ReturnT<String>> beat() {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl+"beat", accessToken, timeout, "", String.class);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<String>> idleBeat(IdleBeatParam idleBeatParam) {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl+"idleBeat", accessToken, timeout, idleBeatParam, String.class);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<String>> run(TriggerParam triggerParam) {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "run", accessToken, timeout, triggerParam, String.class);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<List<ReturnT<String>>>> runBatch(List<TriggerParam> triggerParamList) {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "runBatch", accessToken, timeout, triggerParamList, ExecutorBizClient.BATCH_RESULT_TYPE);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<String>> kill(KillParam killParam) {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "kill", accessToken, timeout, killParam, String.class);
+    }
+
+    @Override
+    public CompletableFuture<ReturnT<LogResult>> log(LogParam logParam) {
+        return (CompletableFuture) XxlJobRemotingUtil.postBodyAsync(nettyHttpClient, addressUrl + "log", accessToken, timeout, logParam, LogResult.class);
+    }
+
+}
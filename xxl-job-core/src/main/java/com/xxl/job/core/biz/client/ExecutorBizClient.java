@@ -2,8 +2,14 @@ package com.xxl.job.core.biz.client;
 
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.remoting.RemotingTransport;
+import com.xxl.job.core.util.GsonTool;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+
 /**
  * admin api test
  *
@@ -22,35 +28,74 @@ public class ExecutorBizClient implements ExecutorBiz {
             this.addressUrl = this.addressUrl + "/";
         }
     }
+    public ExecutorBizClient(String addressUrl, String accessToken, RemotingTransport transport) {
+        this(addressUrl, accessToken);
+        this.transport = transport;
+    }
+
+    /**
+     * content type of runBatch result, List&lt;ReturnT&lt;String&gt;&gt;
+     */
+    static final Type BATCH_RESULT_TYPE = new GsonTool.ParameterizedType4ReturnT(List.class,
+            new Type[]{new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Type[]{String.class})});
 
     private String addressUrl ;
     private String accessToken;
     private int timeout = 3;
+    private RemotingTransport transport;    // null, use default transport of XxlJobRemotingUtil
+
+    private RemotingTransport transport() {
+        return transport != null ? transport : XxlJobRemotingUtil.getTransport();
+    }
 
 
     @Override
     public ReturnT<String> beat() {
-        return XxlJobRemotingUtil.postBody(addressUrl+"beat", accessToken, timeout, "", String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl+"beat", accessToken, timeout, "", String.class);
     }
 
     @Override
     public ReturnT<String> idleBeat(IdleBeatParam idleBeatParam){
-        return XxlJobRemotingUtil.postBody(addressUrl+"idleBeat", accessToken, timeout, idleBeatParam, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl+"idleBeat", accessToken, timeout, idleBeatParam, String.class);
     }
 
     @Override
     public ReturnT<String> run(TriggerParam triggerParam) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "run", accessToken, timeout, triggerParam, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "run", accessToken, timeout, triggerParam, String.class);
+    }
+
+    @Override
+    public ReturnT<List<ReturnT<String>>> runBatch(List<TriggerParam> triggerParamList) {
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "runBatch", accessToken, timeout, triggerParamList, BATCH_RESULT_TYPE);
     }
 
     @Override
     public ReturnT<String> kill(KillParam killParam) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "kill", accessToken, timeout, killParam, String.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "kill", accessToken, timeout, killParam, String.class);
     }
 
     @Override
     public ReturnT<LogResult> log(LogParam logParam) {
-        return XxlJobRemotingUtil.postBody(addressUrl + "log", accessToken, timeout, logParam, LogResult.class);
+        return XxlJobRemotingUtil.postBody(transport(), addressUrl + "log", accessToken, timeout, logParam, LogResult.class);
+    }
+
+    /**
+     * stream log file from "fromOffset" to end, copied to outputStream directly, not buffered whole in heap
+     *
+     * @param logParam
+     * @param outputStream
+     * @return  LogResult without logContent, "toOffset" as next "fromOffset"; fail if executor not support (old version)
+     */
+    public ReturnT<LogResult> logStream(LogParam logParam, OutputStream outputStream) {
+        ReturnT<Long> streamResult = XxlJobRemotingUtil.postStream(addressUrl + "logStream", accessToken, timeout, logParam, outputStream);
+        if (streamResult.getCode() != ReturnT.SUCCESS_CODE) {
+            return new ReturnT<LogResult>(streamResult.getCode(), streamResult.getMsg());
+        }
+
+        LogResult logResult = new LogResult();
+        logResult.setFromOffset(logParam.getFromOffset());
+        logResult.setToOffset(logParam.getFromOffset() + streamResult.getContent());
+        return new ReturnT<LogResult>(logResult);
     }
 
 }
@@ -11,10 +11,13 @@ import com.xxl.job.core.handler.impl.GlueJobHandler;
 import com.xxl.job.core.handler.impl.ScriptJobHandler;
 import com.xxl.job.core.log.XxlJobFileAppender;
 import com.xxl.job.core.thread.JobThread;
+import com.xxl.job.core.util.ThrowableUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Created by xuxueli on 17/3/1.
@@ -148,6 +151,27 @@ public class ExecutorBizImpl implements ExecutorBiz {
         return pushResult;
     }
 
+    @Override
+    public ReturnT<List<ReturnT<String>>> runBatch(List<TriggerParam> triggerParamList) {
+        if (triggerParamList == null) {
+            return new ReturnT<List<ReturnT<String>>>(ReturnT.FAIL_CODE, "triggerParamList is null.");
+        }
+
+        // run each trigger, one fail not effect others
+        List<ReturnT<String>> resultList = new ArrayList<ReturnT<String>>(triggerParamList.size());
+        for (TriggerParam triggerParam : triggerParamList) {
+            ReturnT<String> runResult;
+            try {
+                runResult = run(triggerParam);
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                runResult = new ReturnT<String>(ReturnT.FAIL_CODE, "request error:" + ThrowableUtil.toString(e));
+            }
+            resultList.add(runResult);
+        }
+        return new ReturnT<List<ReturnT<String>>>(resultList);
+    }
+
     @Override
     public ReturnT<String> kill(KillParam killParam) {
         // kill handlerThread, and create new one
@@ -165,7 +189,13 @@ public class ExecutorBizImpl implements ExecutorBiz {
         // log filename: logPath/yyyy-MM-dd/9999.log
         String logFileName = XxlJobFileAppender.makeLogFileName(new Date(logParam.getLogDateTim()), logParam.getLogId());
 
-        LogResult logResult = XxlJobFileAppender.readLog(logFileName, logParam.getFromLineNum());
+        // read by offset; by line number for old version admin (no offset)
+        LogResult logResult;
+        if (logParam.getFromOffset() > 0 || logParam.getFromLineNum() <= 1) {
+            logResult = XxlJobFileAppender.readLog(logFileName, logParam.getFromLineNum(), logParam.getFromOffset());
+        } else {
+            logResult = XxlJobFileAppender.readLog(logFileName, logParam.getFromLineNum());
+        }
         return new ReturnT<LogResult>(logResult);
     }
 
@@ -15,10 +15,15 @@ public class LogParam implements Serializable {
         this.logId = logId;
         this.fromLineNum = fromLineNum;
     }
+    public LogParam(long logDateTim, long logId, int fromLineNum, long fromOffset) {
+        this(logDateTim, logId, fromLineNum);
+        this.fromOffset = fromOffset;
+    }
 
     private long logDateTim;
     private long logId;
     private int fromLineNum;
+    private long fromOffset;        // byte offset of "fromLineNum", read by offset if greater than 0; 0 and fromLineNum greater than 1, read by line (old version)
 
     public long getLogDateTim() {
         return logDateTim;
@@ -44,4 +49,11 @@ public class LogParam implements Serializable {
         this.fromLineNum = fromLineNum;
     }
 
-}
\ No newline at end of file
+    public long getFromOffset() {
+        return fromOffset;
+    }
+
+    public void setFromOffset(long fromOffset) {
+        this.fromOffset = fromOffset;
+    }
+}
@@ -16,11 +16,18 @@ public class LogResult implements Serializable {
         this.logContent = logContent;
         this.isEnd = isEnd;
     }
+    public LogResult(int fromLineNum, int toLineNum, String logContent, boolean isEnd, long fromOffset, long toOffset) {
+        this(fromLineNum, toLineNum, logContent, isEnd);
+        this.fromOffset = fromOffset;
+        this.toOffset = toOffset;
+    }
 
     private int fromLineNum;
     private int toLineNum;
     private String logContent;
     private boolean isEnd;
+    private long fromOffset;        // byte offset of log file, [from, to)
+    private long toOffset;          // next read from, 0 if not support (old version)
 
     public int getFromLineNum() {
         return fromLineNum;
@@ -53,4 +60,20 @@ public class LogResult implements Serializable {
     public void setEnd(boolean end) {
         isEnd = end;
     }
+
+    public long getFromOffset() {
+        return fromOffset;
+    }
+
+    public void setFromOffset(long fromOffset) {
+        this.fromOffset = fromOffset;
+    }
+
+    public long getToOffset() {
+        return toOffset;
+    }
+
+    public void setToOffset(long toOffset) {
+        this.toOffset = toOffset;
+    }
 }
@@ -12,6 +12,12 @@ public class RegistryParam implements Serializable {
     private String registryKey;
     private String registryValue;
 
+    // executor load, reported by heartbeat
+    private int queueSize;          // trigger waiting in job thread queue
+    private int runningCount;       // job thread running
+    private int cpuLoad;            // system load average / processors, percent; -1 if not available
+    private long latency;           // recent job execute time, ms (ewma)
+
     public RegistryParam(){}
     public RegistryParam(String registryGroup, String registryKey, String registryValue) {
         this.registryGroup = registryGroup;
@@ -43,12 +49,48 @@ public class RegistryParam implements Serializable {
         this.registryValue = registryValue;
     }
 
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getRunningCount() {
+        return runningCount;
+    }
+
+    public void setRunningCount(int runningCount) {
+        this.runningCount = runningCount;
+    }
+
+    public int getCpuLoad() {
+        return cpuLoad;
+    }
+
+    public void setCpuLoad(int cpuLoad) {
+        this.cpuLoad = cpuLoad;
+    }
+
+    public long getLatency() {
+        return latency;
+    }
+
+    public void setLatency(long latency) {
+        this.latency = latency;
+    }
+
     @Override
     public String toString() {
         return "RegistryParam{" +
                 "registryGroup='" + registryGroup + '\'' +
                 ", registryKey='" + registryKey + '\'' +
                 ", registryValue='" + registryValue + '\'' +
+                ", queueSize=" + queueSize +
+                ", runningCount=" + runningCount +
+                ", cpuLoad=" + cpuLoad +
+                ", latency=" + latency +
                 '}';
     }
 }
@@ -7,20 +7,27 @@ import com.xxl.job.core.handler.annotation.XxlJob;
 import com.xxl.job.core.handler.impl.MethodJobHandler;
 import com.xxl.job.core.log.XxlJobFileAppender;
 import com.xxl.job.core.server.EmbedServer;
+import com.xxl.job.core.thread.ExecutorThreadFactory;
+import com.xxl.job.core.thread.JobExecuteThreadPool;
+import com.xxl.job.core.thread.JobLogAppendThread;
+import com.xxl.job.core.thread.JobLogArchiveThread;
 import com.xxl.job.core.thread.JobLogFileCleanThread;
 import com.xxl.job.core.thread.JobThread;
 import com.xxl.job.core.thread.TriggerCallbackThread;
 import com.xxl.job.core.util.IpUtil;
 import com.xxl.job.core.util.NetUtil;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Created by xuxueli on 2016/3/2 21:14.
@@ -37,6 +44,14 @@ public class XxlJobExecutor  {
     private int port;
     private String logPath;
     private int logRetentionDays;
+    private int logArchiveDays;
+    private String threadMode;
+    private ThreadFactory threadFactory;
+    private int triggerQueueCapacity;
+    private int callbackBatchSize;
+    private long callbackLinger = TriggerCallbackThread.DEFAULT_LINGER;
+    private int callbackInflight;
+    private String callbackAdminStrategy;
 
     public void setAdminAddresses(String adminAddresses) {
         this.adminAddresses = adminAddresses;
@@ -62,6 +77,30 @@ public class XxlJobExecutor  {
     public void setLogRetentionDays(int logRetentionDays) {
         this.logRetentionDays = logRetentionDays;
     }
+    public void setLogArchiveDays(int logArchiveDays) {
+        this.logArchiveDays = logArchiveDays;
+    }
+    public void setThreadMode(String threadMode) {
+        this.threadMode = threadMode;
+    }
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+    }
+    public void setTriggerQueueCapacity(int triggerQueueCapacity) {
+        this.triggerQueueCapacity = triggerQueueCapacity;
+    }
+    public void setCallbackBatchSize(int callbackBatchSize) {
+        this.callbackBatchSize = callbackBatchSize;
+    }
+    public void setCallbackLinger(long callbackLinger) {
+        this.callbackLinger = callbackLinger;
+    }
+    public void setCallbackInflight(int callbackInflight) {
+        this.callbackInflight = callbackInflight;
+    }
+    public void setCallbackAdminStrategy(String callbackAdminStrategy) {
+        this.callbackAdminStrategy = callbackAdminStrategy;
+    }
 
 
     // ---------------------- start + stop ----------------------
@@ -70,15 +109,30 @@ public class XxlJobExecutor  {
         // init logpath
         XxlJobFileAppender.initLogPath(logPath);
 
+        // init JobLogAppendThread, async job log
+        JobLogAppendThread.getInstance().start();
+
+        // init thread factory, PLATFORM or VIRTUAL
+        ExecutorThreadFactory.init(threadMode, threadFactory);
+
+        // init trigger queue capacity of job thread
+        jobThreadTriggerQueueCapacity = triggerQueueCapacity>0?triggerQueueCapacity:JobThread.DEFAULT_TRIGGER_QUEUE_CAPACITY;
+
         // init invoker, admin-client
         initAdminBizList(adminAddresses, accessToken);
 
 
+        // init JobExecuteThreadPool
+        JobExecuteThreadPool.getInstance().start();
+
         // init JobLogFileCleanThread
         JobLogFileCleanThread.getInstance().start(logRetentionDays);
 
+        // init JobLogArchiveThread
+        JobLogArchiveThread.getInstance().start(logArchiveDays);
+
         // init TriggerCallbackThread
-        TriggerCallbackThread.getInstance().start();
+        TriggerCallbackThread.getInstance().start(adminBizList, callbackBatchSize, callbackLinger, callbackInflight, callbackAdminStrategy);
 
         // init executor-server
         initEmbedServer(address, ip, port, appname, accessToken);
@@ -105,13 +159,24 @@ public class XxlJobExecutor  {
         }
         jobHandlerRepository.clear();
 
+        // destroy JobExecuteThreadPool
+        JobExecuteThreadPool.getInstance().toStop();
+
+        // destroy JobLogAppendThread, flush job log
+        JobLogAppendThread.getInstance().toStop();
 
         // destroy JobLogFileCleanThread
         JobLogFileCleanThread.getInstance().toStop();
 
+        // destroy JobLogArchiveThread
+        JobLogArchiveThread.getInstance().toStop();
+
         // destroy TriggerCallbackThread
         TriggerCallbackThread.getInstance().toStop();
 
+        // close idle remoting connection
+        XxlJobRemotingUtil.getTransport().close();
+
     }
 
 
@@ -240,8 +305,9 @@ public class XxlJobExecutor  {
 
     // ---------------------- job thread repository ----------------------
     private static ConcurrentMap<Integer, JobThread> jobThreadRepository = new ConcurrentHashMap<Integer, JobThread>();
+    private static volatile int jobThreadTriggerQueueCapacity = JobThread.DEFAULT_TRIGGER_QUEUE_CAPACITY;
     public static JobThread registJobThread(int jobId, IJobHandler handler, String removeOldReason){
-        JobThread newJobThread = new JobThread(jobId, handler);
+        JobThread newJobThread = new JobThread(jobId, handler, jobThreadTriggerQueueCapacity);
         newJobThread.start();
         logger.info(">>>>>>>>>>> xxl-job regist JobThread success, jobId:{}, handler:{}", new Object[]{jobId, handler});
 
@@ -268,4 +334,8 @@ public class XxlJobExecutor  {
     public static JobThread loadJobThread(int jobId){
         return jobThreadRepository.get(jobId);
     }
+
+    public static Collection<JobThread> loadJobThreads(){
+        return jobThreadRepository.values();
+    }
 }
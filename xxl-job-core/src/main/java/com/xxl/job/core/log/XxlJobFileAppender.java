@@ -1,12 +1,20 @@
 package com.xxl.job.core.log;
 
 import com.xxl.job.core.biz.model.LogResult;
+import com.xxl.job.core.thread.JobLogAppendThread;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * store trigger log in each log-file
@@ -92,6 +100,15 @@ public class XxlJobFileAppender {
 		if (logFileName==null || logFileName.trim().length()==0) {
 			return;
 		}
+
+		// async append, if started by executor
+		if (JobLogAppendThread.getInstance().isRunning()) {
+			String appendLine = (appendLog!=null?appendLog:"") + "\r\n";
+			if (JobLogAppendThread.getInstance().append(logFileName, appendLine.getBytes(StandardCharsets.UTF_8))) {
+				return;
+			}
+		}
+
 		File logFile = new File(logFileName);
 
 		if (!logFile.exists()) {
@@ -130,7 +147,28 @@ public class XxlJobFileAppender {
 	}
 
 	/**
-	 * support read log-file
+	 * flush log appended async, and close log file; when job run complete, or before log file written by others (like script)
+	 *
+	 * @param logFileName
+	 */
+	public static void flushLog(String logFileName) {
+		if (logFileName==null || logFileName.trim().length()==0) {
+			return;
+		}
+		if (JobLogAppendThread.getInstance().isRunning()) {
+			JobLogAppendThread.getInstance().flush(logFileName);
+		}
+	}
+
+	// ---------------------- read log ----------------------
+
+	/**
+	 * max log size of one read, avoid huge log in one response
+	 */
+	public static final int READ_LOG_MAX_SIZE = 1024 * 1024;
+
+	/**
+	 * support read log-file, by line number (locate by sparse line index)
 	 *
 	 * @param logFileName
 	 * @return log content
@@ -143,47 +181,345 @@ public class XxlJobFileAppender {
 		}
 		File logFile = new File(logFileName);
 
+		// archived, and log file appended after archived
+		XxlJobLogArchive.ArchiveEntry entry = XxlJobLogArchive.find(logFileName);
+		if (entry != null) {
+			return readArchivedLog(logFileName, entry, Math.max(fromLineNum, 1), -1);
+		}
+
 		if (!logFile.exists()) {
             return new LogResult(fromLineNum, 0, "readLog fail, logFile not exists", true);
 		}
 
-		// read file
-		StringBuffer logContentBuffer = new StringBuffer();
-		int toLineNum = 0;
-		LineNumberReader reader = null;
+		fromLineNum = Math.max(fromLineNum, 1);
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+			long fileSize = channel.size();
+
+			// locate line
+			LogLineIndex lineIndex = loadLogLineIndex(logFileName);
+			long fromOffset;
+			int totalLineNum;
+			synchronized (lineIndex) {
+				fromOffset = lineIndex.lineOffset(channel, fileSize, fromLineNum);
+				totalLineNum = lineIndex.totalLineNum(fileSize);
+			}
+			if (fromOffset < 0) {
+				// line not exists yet
+				return new LogResult(fromLineNum, totalLineNum, "", false, fileSize, fileSize);
+			}
+
+			return readLog(channel, fileSize, fromLineNum, fromOffset);
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+			return new LogResult(fromLineNum, 0, "readLog fail, " + e.getMessage(), false);
+		} finally {
+			closeChannel(channel);
+		}
+	}
+
+	/**
+	 * support read log-file, by byte offset
+	 *
+	 *  a、read：seek "fromOffset", read "READ_LOG_MAX_SIZE" at most, cut at line end if log remains;
+	 *  b、line："fromLineNum" is line number of "fromOffset", provided by caller; line not end (writing) count as one line;
+	 *
+	 * @param logFileName
+	 * @param fromLineNum	line number of "fromOffset", start as 1
+	 * @param fromOffset	byte offset of log file, start as 0
+	 * @return log content, next read from "toOffset"
+	 */
+	public static LogResult readLog(String logFileName, int fromLineNum, long fromOffset){
+
+		// valid log file
+		if (logFileName==null || logFileName.trim().length()==0) {
+			return new LogResult(fromLineNum, 0, "readLog fail, logFile not found", true, fromOffset, fromOffset);
+		}
+		File logFile = new File(logFileName);
+
+		// archived, and log file appended after archived
+		XxlJobLogArchive.ArchiveEntry entry = XxlJobLogArchive.find(logFileName);
+		if (entry != null) {
+			return readArchivedLog(logFileName, entry, Math.max(fromLineNum, 1), Math.max(fromOffset, 0));
+		}
+
+		if (!logFile.exists()) {
+			return new LogResult(fromLineNum, 0, "readLog fail, logFile not exists", true, fromOffset, fromOffset);
+		}
+
+		FileChannel channel = null;
 		try {
-			//reader = new LineNumberReader(new FileReader(logFile));
-			reader = new LineNumberReader(new InputStreamReader(new FileInputStream(logFile), "utf-8"));
-			String line = null;
-
-			while ((line = reader.readLine())!=null) {
-				toLineNum = reader.getLineNumber();		// [from, to], start as 1
-				if (toLineNum >= fromLineNum) {
-					logContentBuffer.append(line).append("\n");
+			channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ);
+			return readLog(channel, channel.size(), Math.max(fromLineNum, 1), Math.max(fromOffset, 0));
+		} catch (IOException e) {
+			logger.error(e.getMessage(), e);
+			return new LogResult(fromLineNum, 0, "readLog fail, " + e.getMessage(), false, fromOffset, fromOffset);
+		} finally {
+			closeChannel(channel);
+		}
+	}
+
+	private static LogResult readLog(FileChannel channel, long fileSize, int fromLineNum, long fromOffset) throws IOException {
+		if (fromOffset >= fileSize) {
+			return new LogResult(fromLineNum, fromLineNum - 1, "", false, fromOffset, fromOffset);
+		}
+
+		// read
+		int readSize = (int) Math.min(fileSize - fromOffset, READ_LOG_MAX_SIZE);
+		ByteBuffer buffer = ByteBuffer.allocate(readSize);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, fromOffset + buffer.position()) < 0) {
+				break;
+			}
+		}
+		return buildLogResult(buffer.array(), buffer.position(), fromOffset + buffer.position() < fileSize, fromLineNum, fromOffset);
+	}
+
+	/**
+	 * read log archived, followed by log file appended after archived (like callback log of replayed callback), until re-archived
+	 *
+	 * @param fromOffset	-1 if locate by "fromLineNum"
+	 */
+	private static LogResult readArchivedLog(String logFileName, XxlJobLogArchive.ArchiveEntry entry, int fromLineNum, long fromOffset) {
+		File logFile = new File(logFileName);
+		long tailSize = logFile.isFile() ? logFile.length() : 0;
+		long fileSize = entry.getOriginalSize() + tailSize;
+
+		InputStream inputStream = null;
+		try {
+			inputStream = XxlJobLogArchive.open(logFileName, entry, tailSize);
+
+			// locate
+			if (fromOffset < 0) {
+				// by line, scan from start
+				fromOffset = 0;
+				int currentLineNum = 1;
+				boolean lineEnd = true;
+				byte[] buffer = new byte[8 * 1024];
+				while (currentLineNum < fromLineNum && fromOffset < fileSize) {
+					int readSize = inputStream.read(buffer, 0, (int) Math.min(buffer.length, fileSize - fromOffset));
+					if (readSize <= 0) {
+						break;
+					}
+					int i = 0;
+					for (; i < readSize && currentLineNum < fromLineNum; i++) {
+						if (buffer[i] == '\n') {
+							currentLineNum++;
+						}
+					}
+					fromOffset += i;
+					lineEnd = buffer[i - 1] == '\n';
+					if (i < readSize) {
+						// located in buffer, read from here
+						int length = (int) Math.min(readSize - i, READ_LOG_MAX_SIZE);
+						byte[] data = new byte[(int) Math.min(fileSize - fromOffset, READ_LOG_MAX_SIZE)];
+						System.arraycopy(buffer, i, data, 0, length);
+						length += readFully(inputStream, data, length);
+						return buildLogResult(data, length, fromOffset + length < fileSize, fromLineNum, fromOffset);
+					}
+				}
+				if (currentLineNum < fromLineNum) {
+					// line not exists
+					int totalLineNum = currentLineNum - 1 + (lineEnd ? 0 : 1);
+					return new LogResult(fromLineNum, totalLineNum, "", false, fileSize, fileSize);
 				}
+			} else {
+				// by offset, skip
+				long skipped = 0;
+				while (skipped < fromOffset) {
+					long n = inputStream.skip(fromOffset - skipped);
+					if (n <= 0) {
+						break;
+					}
+					skipped += n;
+				}
+			}
+			if (fromOffset >= fileSize) {
+				return new LogResult(fromLineNum, fromLineNum - 1, "", false, fromOffset, fromOffset);
 			}
+
+			// read
+			byte[] data = new byte[(int) Math.min(fileSize - fromOffset, READ_LOG_MAX_SIZE)];
+			int length = readFully(inputStream, data, 0);
+			return buildLogResult(data, length, fromOffset + length < fileSize, fromLineNum, fromOffset);
 		} catch (IOException e) {
 			logger.error(e.getMessage(), e);
+			return new LogResult(fromLineNum, 0, "readLog fail, " + e.getMessage(), false, fromOffset, fromOffset);
 		} finally {
-			if (reader != null) {
+			if (inputStream != null) {
 				try {
-					reader.close();
+					inputStream.close();
 				} catch (IOException e) {
 					logger.error(e.getMessage(), e);
 				}
 			}
 		}
+	}
+
+	private static int readFully(InputStream inputStream, byte[] data, int offset) throws IOException {
+		int length = 0;
+		while (offset + length < data.length) {
+			int readSize = inputStream.read(data, offset + length, data.length - offset - length);
+			if (readSize < 0) {
+				break;
+			}
+			length += readSize;
+		}
+		return length;
+	}
+
+	/**
+	 * log result of data read
+	 *
+	 * @param remains	log remains after data, cut at line end
+	 */
+	private static LogResult buildLogResult(byte[] data, int length, boolean remains, int fromLineNum, long fromOffset) {
+		// log remains, cut at line end (or char end, if line too long)
+		if (remains) {
+			int lineEnd = length;
+			while (lineEnd > 0 && data[lineEnd - 1] != '\n') {
+				lineEnd--;
+			}
+			if (lineEnd > 0) {
+				length = lineEnd;
+			} else {
+				length = utf8CharEnd(data, length);
+			}
+		}
+
+		// line
+		int lineCount = 0;
+		for (int i = 0; i < length; i++) {
+			if (data[i] == '\n') {
+				lineCount++;
+			}
+		}
+		if (length > 0 && data[length - 1] != '\n') {
+			lineCount++;
+		}
+
+		String logContent = new String(data, 0, length, StandardCharsets.UTF_8).replace("\r\n", "\n");
+		return new LogResult(fromLineNum, fromLineNum + lineCount - 1, logContent, false, fromOffset, fromOffset + length);
+	}
 
-		// result
-		LogResult logResult = new LogResult(fromLineNum, toLineNum, logContentBuffer.toString(), false);
-		return logResult;
+	/**
+	 * end of last complete utf-8 char, not cut in char
+	 */
+	private static int utf8CharEnd(byte[] data, int length) {
+		int charStart = length - 1;
+		while (charStart > 0 && (data[charStart] & 0xC0) == 0x80) {
+			charStart--;
+		}
+		int lead = data[charStart] & 0xFF;
+		int charSize = lead < 0x80 ? 1 : lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : 2;
+		return charStart + charSize <= length ? length : charStart;
+	}
 
-		/*
-        // it will return the number of characters actually skipped
-        reader.skip(Long.MAX_VALUE);
-        int maxLineNum = reader.getLineNumber();
-        maxLineNum++;	// 最大行号
-        */
+	private static void closeChannel(FileChannel channel) {
+		if (channel != null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				logger.error(e.getMessage(), e);
+			}
+		}
+	}
+
+
+	// ---------------------- line index ----------------------
+
+	private static final int LINE_INDEX_CACHE_SIZE = 64;
+	private static final Map<String, LogLineIndex> logLineIndexCache = new LinkedHashMap<String, LogLineIndex>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, LogLineIndex> eldest) {
+			return size() > LINE_INDEX_CACHE_SIZE;
+		}
+	};
+
+	private static LogLineIndex loadLogLineIndex(String logFileName) {
+		synchronized (logLineIndexCache) {
+			LogLineIndex lineIndex = logLineIndexCache.get(logFileName);
+			if (lineIndex == null) {
+				lineIndex = new LogLineIndex();
+				logLineIndexCache.put(logFileName, lineIndex);
+			}
+			return lineIndex;
+		}
+	}
+
+	/**
+	 * sparse line index of log file, offset of each "INTERVAL" line; file scanned incrementally, only new log appended
+	 */
+	private static class LogLineIndex {
+		private static final int INTERVAL = 1000;
+
+		private long[] lineOffsets = new long[16];		// lineOffsets[i] = offset of line (i * INTERVAL + 1)
+		private int indexCount = 1;
+		private long scannedOffset = 0;					// offset of line "scannedLineNum", all line before scanned
+		private int scannedLineNum = 1;
+
+		/**
+		 * @return	offset of line, -1 if not exists
+		 */
+		long lineOffset(FileChannel channel, long fileSize, int lineNum) throws IOException {
+			if (fileSize < scannedOffset) {
+				// file rewritten, rebuild
+				indexCount = 1;
+				scannedOffset = 0;
+				scannedLineNum = 1;
+			}
+
+			// scanned, from nearest index
+			if (lineNum <= scannedLineNum) {
+				int index = Math.min((lineNum - 1) / INTERVAL, indexCount - 1);
+				return scan(channel, fileSize, lineOffsets[index], index * INTERVAL + 1, lineNum, false);
+			}
+
+			// scan new log, and build index
+			return scan(channel, fileSize, scannedOffset, scannedLineNum, lineNum, true);
+		}
+
+		int totalLineNum(long fileSize) {
+			return scannedLineNum - 1 + (fileSize > scannedOffset ? 1 : 0);
+		}
+
+		private long scan(FileChannel channel, long fileSize, long offset, int currentLineNum, int lineNum, boolean buildIndex) throws IOException {
+			if (currentLineNum == lineNum) {
+				return offset;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			while (offset < fileSize) {
+				buffer.clear();
+				int readSize = channel.read(buffer, offset);
+				if (readSize <= 0) {
+					break;
+				}
+				byte[] data = buffer.array();
+				for (int i = 0; i < readSize; i++) {
+					if (data[i] != '\n') {
+						continue;
+					}
+					currentLineNum++;
+					long lineOffset = offset + i + 1;
+					if (buildIndex) {
+						scannedOffset = lineOffset;
+						scannedLineNum = currentLineNum;
+						if ((currentLineNum - 1) % INTERVAL == 0) {
+							if (indexCount == lineOffsets.length) {
+								lineOffsets = Arrays.copyOf(lineOffsets, indexCount * 2);
+							}
+							lineOffsets[indexCount++] = lineOffset;
+						}
+					}
+					if (currentLineNum == lineNum) {
+						return lineOffset;
+					}
+				}
+				offset += readSize;
+			}
+			return -1;
+		}
 	}
 
 	/**
@@ -0,0 +1,424 @@
+package com.xxl.job.core.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * archive log files of day directory into one compressed segment, indexed by logId
+ *
+ * strut like:
+ * 	---/2017-12-25/
+ * 	---/2017-12-25/archive.dat		: gzip member of each log file, appended
+ * 	---/2017-12-25/archive.idx		: header + entry (logId, offset, compressed size, original size), sorted by logId
+ *
+ *      a、archive：log file compressed and appended to "archive.dat", then index rewritten (tmp + rename), then log file deleted;
+ *      b、read：binary search "archive.idx" and decompress the gzip member, followed by log file appended after archived (if any), same as re-archive merged;
+ *      c、re-archive：log file of logId already archived (appended after archive), merged into a new gzip member;
+ *
+ * @author xuxueli 2023-06-29
+ */
+public class XxlJobLogArchive {
+    private static Logger logger = LoggerFactory.getLogger(XxlJobLogArchive.class);
+
+    public static final String ARCHIVE_DATA_FILE = "archive.dat";
+    public static final String ARCHIVE_INDEX_FILE = "archive.idx";
+
+    private static final int INDEX_MAGIC = 0x584A4C41;      // "XJLA"
+    private static final int INDEX_VERSION = 1;
+    private static final int INDEX_HEADER_SIZE = 8;
+    private static final int INDEX_ENTRY_SIZE = 32;
+
+    /**
+     * archive log files of day directory
+     *
+     * @param logDir        day directory, like "logPath/yyyy-MM-dd"
+     * @param idleTime      log file modified in "idleTime" (ms) not archived, may be written by running job
+     * @return  result, null if no log file archived
+     * @throws IOException
+     */
+    public static ArchiveResult archive(File logDir, long idleTime) throws IOException {
+        // log file to archive, sorted by logId
+        TreeMap<Long, File> logFileMap = new TreeMap<Long, File>();
+        File[] logFiles = logDir.listFiles();
+        if (logFiles != null) {
+            long now = System.currentTimeMillis();
+            for (File logFile : logFiles) {
+                long logId = parseLogId(logFile.getName());
+                if (logId >= 0 && logFile.isFile() && now - logFile.lastModified() >= idleTime) {
+                    logFileMap.put(logId, logFile);
+                }
+            }
+        }
+        if (logFileMap.isEmpty()) {
+            return null;
+        }
+
+        TreeMap<Long, ArchiveEntry> entryMap = loadIndex(logDir);
+        File dataFile = new File(logDir, ARCHIVE_DATA_FILE);
+        ArchiveResult result = new ArchiveResult();
+
+        // compress and append
+        FileOutputStream fileOutputStream = new FileOutputStream(dataFile, true);
+        try {
+            ArchiveOutputStream archiveOutputStream = new ArchiveOutputStream(new BufferedOutputStream(fileOutputStream, 64 * 1024), dataFile.length());
+            byte[] buffer = new byte[8 * 1024];
+            for (Map.Entry<Long, File> item : logFileMap.entrySet()) {
+                ArchiveEntry oldEntry = entryMap.get(item.getKey());
+                InputStream inputStream = new FileInputStream(item.getValue());
+                if (oldEntry != null) {
+                    inputStream = new SequenceInputStream(open(logDir, oldEntry), inputStream);
+                }
+
+                long offset = archiveOutputStream.count;
+                long size = 0;
+                try {
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(archiveOutputStream, 8 * 1024);
+                    int len;
+                    while ((len = inputStream.read(buffer)) != -1) {
+                        gzipOutputStream.write(buffer, 0, len);
+                        size += len;
+                    }
+                    gzipOutputStream.close();       // finish member, underlying not closed
+                } finally {
+                    inputStream.close();
+                }
+
+                entryMap.put(item.getKey(), new ArchiveEntry(item.getKey(), offset, archiveOutputStream.count - offset, size));
+                result.fileCount++;
+                result.originalSize += item.getValue().length();
+                result.archivedSize += archiveOutputStream.count - offset;
+            }
+            archiveOutputStream.flush();
+            fileOutputStream.getChannel().force(true);
+        } finally {
+            fileOutputStream.close();
+        }
+
+        // index, replace atomically
+        writeIndex(logDir, entryMap.values());
+
+        // delete archived log file
+        for (File logFile : logFileMap.values()) {
+            if (!logFile.delete()) {
+                logger.warn(">>>>>>>>>>> xxl-job, archived log file delete fail, file:{}", logFile.getPath());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * find archived log
+     *
+     * @param logFileName   like "logPath/yyyy-MM-dd/9999.log"
+     * @return  null if not archived
+     */
+    public static ArchiveEntry find(String logFileName) {
+        File logFile = new File(logFileName);
+        long logId = parseLogId(logFile.getName());
+        File indexFile = new File(logFile.getParentFile(), ARCHIVE_INDEX_FILE);
+        if (logId < 0 || !indexFile.isFile()) {
+            return null;
+        }
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ);
+            long entryCount = (channel.size() - INDEX_HEADER_SIZE) / INDEX_ENTRY_SIZE;
+
+            // binary search, by logId
+            ByteBuffer buffer = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+            long low = 0;
+            long high = entryCount - 1;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                buffer.clear();
+                readFully(channel, buffer, INDEX_HEADER_SIZE + mid * INDEX_ENTRY_SIZE);
+                buffer.flip();
+                long midLogId = buffer.getLong();
+                if (midLogId < logId) {
+                    low = mid + 1;
+                } else if (midLogId > logId) {
+                    high = mid - 1;
+                } else {
+                    return new ArchiveEntry(midLogId, buffer.getLong(), buffer.getLong(), buffer.getLong());
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            logger.error(">>>>>>>>>>> xxl-job, archive index read error, file:{}", indexFile.getPath(), e);
+            return null;
+        } finally {
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * open archived log, decompressed
+     *
+     * @param logFileName
+     * @param entry
+     * @return
+     * @throws IOException
+     */
+    public static InputStream open(String logFileName, ArchiveEntry entry) throws IOException {
+        return open(new File(logFileName).getParentFile(), entry);
+    }
+
+    /**
+     * open archived log, followed by log file appended after archived (not re-archived yet)
+     *
+     * @param logFileName
+     * @param entry
+     * @param tailSize      size of log file to read after archived member, 0 if not exists
+     * @return
+     * @throws IOException
+     */
+    public static InputStream open(String logFileName, ArchiveEntry entry, long tailSize) throws IOException {
+        InputStream inputStream = open(logFileName, entry);
+        if (tailSize <= 0) {
+            return inputStream;
+        }
+        try {
+            return new SequenceInputStream(inputStream, new BoundedInputStream(new FileInputStream(logFileName), tailSize));
+        } catch (IOException e) {
+            inputStream.close();
+            throw e;
+        }
+    }
+
+    private static InputStream open(File logDir, ArchiveEntry entry) throws IOException {
+        FileChannel channel = FileChannel.open(new File(logDir, ARCHIVE_DATA_FILE).toPath(), StandardOpenOption.READ);
+        try {
+            channel.position(entry.offset);
+            InputStream memberInputStream = new BoundedInputStream(Channels.newInputStream(channel), entry.compressedSize);
+            return new GZIPInputStream(new BufferedInputStream(memberInputStream, 8 * 1024), 8 * 1024);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * logId of log file name, like "9999.log"
+     *
+     * @return  -1 if not log file
+     */
+    private static long parseLogId(String fileName) {
+        if (!fileName.endsWith(".log") || fileName.length() <= 4) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(0, fileName.length() - 4));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    // ---------------------- index ----------------------
+
+    private static TreeMap<Long, ArchiveEntry> loadIndex(File logDir) throws IOException {
+        TreeMap<Long, ArchiveEntry> entryMap = new TreeMap<Long, ArchiveEntry>();
+        File indexFile = new File(logDir, ARCHIVE_INDEX_FILE);
+        if (!indexFile.isFile()) {
+            return entryMap;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile.toPath()));
+        if (buffer.remaining() < INDEX_HEADER_SIZE || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != INDEX_VERSION) {
+            throw new IOException("archive index invalid, file:" + indexFile.getPath());
+        }
+        while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+            ArchiveEntry entry = new ArchiveEntry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            entryMap.put(entry.logId, entry);
+        }
+        return entryMap;
+    }
+
+    private static void writeIndex(File logDir, Collection<ArchiveEntry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_SIZE + entries.size() * INDEX_ENTRY_SIZE);
+        buffer.putInt(INDEX_MAGIC);
+        buffer.putInt(INDEX_VERSION);
+        for (ArchiveEntry entry : entries) {
+            buffer.putLong(entry.logId);
+            buffer.putLong(entry.offset);
+            buffer.putLong(entry.compressedSize);
+            buffer.putLong(entry.originalSize);
+        }
+        buffer.flip();
+
+        File tmpFile = new File(logDir, ARCHIVE_INDEX_FILE + ".tmp");
+        FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+        Files.move(tmpFile.toPath(), new File(logDir, ARCHIVE_INDEX_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
+
+    // ---------------------- model ----------------------
+
+    public static class ArchiveEntry {
+        private final long logId;
+        private final long offset;              // offset of gzip member, in "archive.dat"
+        private final long compressedSize;
+        private final long originalSize;
+
+        public ArchiveEntry(long logId, long offset, long compressedSize, long originalSize) {
+            this.logId = logId;
+            this.offset = offset;
+            this.compressedSize = compressedSize;
+            this.originalSize = originalSize;
+        }
+
+        public long getLogId() {
+            return logId;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        public long getOriginalSize() {
+            return originalSize;
+        }
+    }
+
+    public static class ArchiveResult {
+        private int fileCount;
+        private long originalSize;              // size of log file archived
+        private long archivedSize;              // size appended to "archive.dat"
+
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        public long getOriginalSize() {
+            return originalSize;
+        }
+
+        public long getArchivedSize() {
+            return archivedSize;
+        }
+
+        public long getSavedSize() {
+            return originalSize - archivedSize;
+        }
+    }
+
+    /**
+     * count written bytes, underlying not closed by gzip member
+     */
+    private static class ArchiveOutputStream extends FilterOutputStream {
+        private long count;
+
+        ArchiveOutputStream(OutputStream out, long count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * read "limit" bytes at most, one gzip member
+     */
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+}
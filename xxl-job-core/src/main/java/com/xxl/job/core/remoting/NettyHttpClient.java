@@ -0,0 +1,399 @@
+package com.xxl.job.core.remoting;
+
+import com.xxl.job.core.serializer.SerializerEnum;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPoolHandler;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLException;
+import java.net.URL;
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * non-blocking http client, by netty
+ *
+ *      a、pool：FixedChannelPool by address (scheme://host:port), "maxConnections" channel, pending acquire queued (not blocking thread);
+ *      b、request：one in-flight request for each channel (http/1.1 keep-alive, no pipelining), response complete future on io thread;
+ *      c、timeout：from post (include waiting for channel), scheduled on event loop, close channel and fail future;
+ *      d、keep-alive：idle channel closed after "keepAliveTime"; write failed on reused channel (request not sent), retry once with new channel;
+ *          never retry after request written, the request (e.g. "run") may be executed by server;
+ *
+ * @author xuxueli 2023-06-18
+ */
+public class NettyHttpClient {
+    private static Logger logger = LoggerFactory.getLogger(NettyHttpClient.class);
+
+    public static final int DEFAULT_MAX_PENDING = 100000;
+    private static final int CONNECT_TIMEOUT = 3 * 1000;
+    private static final int MAX_CONTENT_LENGTH = 5 * 1024 * 1024;
+
+    private static final AttributeKey<PendingRequest> PENDING_REQUEST = AttributeKey.valueOf("xxl-job-pending-request");
+    private static final AttributeKey<Integer> USE_COUNT = AttributeKey.valueOf("xxl-job-use-count");
+
+    private final int maxConnections;
+    private final long keepAliveTime;
+    private final int maxPending;
+    private final EventLoopGroup group;
+    private final Bootstrap bootstrap;
+    private final ConcurrentMap<String, FixedChannelPool> channelPoolMap = new ConcurrentHashMap<String, FixedChannelPool>();
+    private volatile SslContext sslContext;
+
+    private final AtomicLong inFlightCount = new AtomicLong(0);
+
+    public NettyHttpClient() {
+        this(PooledHttpTransport.DEFAULT_MAX_CONNECTIONS, PooledHttpTransport.DEFAULT_KEEP_ALIVE_TIME, DEFAULT_MAX_PENDING, 0);
+    }
+
+    /**
+     * @param maxConnections    max channel for each address
+     * @param keepAliveTime     max idle time of pooled channel, by millisecond
+     * @param maxPending        max pending request (waiting for channel) for each address
+     * @param ioThreads         event loop thread count, 0 for netty default
+     */
+    public NettyHttpClient(int maxConnections, long keepAliveTime, int maxPending, int ioThreads) {
+        this.maxConnections = maxConnections > 0 ? maxConnections : PooledHttpTransport.DEFAULT_MAX_CONNECTIONS;
+        this.keepAliveTime = keepAliveTime > 0 ? keepAliveTime : PooledHttpTransport.DEFAULT_KEEP_ALIVE_TIME;
+        this.maxPending = maxPending > 0 ? maxPending : DEFAULT_MAX_PENDING;
+        this.group = new NioEventLoopGroup(ioThreads, new DefaultThreadFactory("xxl-job, NettyHttpClient", true));
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT);
+    }
+
+    /**
+     * post request, never blocking
+     *
+     * @param url
+     * @param accessToken
+     * @param serializer    serializer of request body, null as JSON
+     * @param timeout       by second
+     * @param requestBody
+     * @return  future completed on io thread
+     */
+    public CompletableFuture<RemotingResponse> post(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) {
+        CompletableFuture<RemotingResponse> future = new CompletableFuture<RemotingResponse>();
+        final CompletableFuture<RemotingResponse> result = new CompletableFuture<RemotingResponse>();
+        try {
+            URL realUrl = new URL(url);
+            boolean useHttps = "https".equalsIgnoreCase(realUrl.getProtocol());
+            String host = realUrl.getHost();
+            int port = realUrl.getPort() != -1 ? realUrl.getPort() : realUrl.getDefaultPort();
+            String path = realUrl.getFile().length() > 0 ? realUrl.getFile() : "/";
+
+            FixedChannelPool channelPool = loadChannelPool(realUrl.getProtocol() + "://" + host + ":" + port, host, port, useHttps);
+            final PendingRequest request = new PendingRequest(future, channelPool, host + ":" + port, path, accessToken, serializer, timeout, requestBody);
+
+            // in-flight count decreased before result visible
+            inFlightCount.incrementAndGet();
+            future.whenComplete(new BiConsumer<RemotingResponse, Throwable>() {
+                @Override
+                public void accept(RemotingResponse response, Throwable throwable) {
+                    inFlightCount.decrementAndGet();
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(response);
+                    }
+                }
+            });
+
+            // timeout, include waiting for channel
+            request.timeoutFuture = group.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    Channel channel = request.channel;
+                    if (channel != null) {
+                        failRequest(channel, new TimeoutException("xxl-job remoting timeout(" + request.timeout + "s)."));
+                    }
+                    request.future.completeExceptionally(new TimeoutException("xxl-job remoting timeout(" + request.timeout + "s)."));
+                }
+            }, timeout, TimeUnit.SECONDS);
+
+            send(request, true);
+        } catch (Exception e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void send(final PendingRequest request, final boolean retryIfStale) {
+        request.channelPool.acquire().addListener(new FutureListener<Channel>() {
+            @Override
+            public void operationComplete(Future<Channel> acquireFuture) {
+                if (!acquireFuture.isSuccess()) {
+                    request.future.completeExceptionally(acquireFuture.cause());
+                    return;
+                }
+                final Channel channel = acquireFuture.getNow();
+                if (request.future.isDone()) {
+                    // timeout while waiting for channel
+                    request.channelPool.release(channel);
+                    return;
+                }
+                Integer useCount = channel.attr(USE_COUNT).get();
+                final boolean reused = useCount != null;
+                channel.attr(USE_COUNT).set(useCount != null ? useCount + 1 : 1);
+
+                // bind request to channel
+                request.retryIfStale = retryIfStale && reused;
+                request.writeDone = false;
+                request.channel = channel;
+                channel.attr(PENDING_REQUEST).set(request);
+
+                FullHttpRequest httpRequest = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, request.path,
+                        request.requestBody != null ? Unpooled.wrappedBuffer(request.requestBody) : Unpooled.EMPTY_BUFFER);
+                httpRequest.headers().set(HttpHeaderNames.HOST, request.hostHeader);
+                httpRequest.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+                httpRequest.headers().set(HttpHeaderNames.CONTENT_TYPE, (request.serializer!=null?request.serializer:SerializerEnum.JSON).getSerializer().getContentType());
+                httpRequest.headers().set(HttpHeaderNames.ACCEPT_CHARSET, "application/json;charset=UTF-8");
+                httpRequest.headers().set(HttpHeaderNames.CONTENT_LENGTH, httpRequest.content().readableBytes());
+                if (request.accessToken!=null && request.accessToken.trim().length()>0) {
+                    httpRequest.headers().set(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN, request.accessToken);
+                }
+                if (request.serializer!=null && request.serializer!=SerializerEnum.JSON) {
+                    httpRequest.headers().set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER, request.serializer.name());
+                }
+
+                channel.writeAndFlush(httpRequest).addListener(new ChannelFutureListener() {
+                    @Override
+                    public void operationComplete(ChannelFuture writeFuture) {
+                        request.writeDone = true;
+                        if (!writeFuture.isSuccess()) {
+                            failRequest(channel, writeFuture.cause(), request.retryIfStale);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * complete request bound to channel, only once
+     */
+    private void completeRequest(Channel channel, FullHttpResponse response) {
+        PendingRequest request = channel.attr(PENDING_REQUEST).getAndSet(null);
+        if (request == null) {
+            return;
+        }
+        request.channel = null;
+        request.timeoutFuture.cancel(false);
+
+        int statusCode = response.status().code();
+        byte[] body = ByteBufUtil.getBytes(response.content());
+        if (!HttpUtil.isKeepAlive(response)) {
+            channel.close();
+        }
+        request.channelPool.release(channel);
+        request.future.complete(new RemotingResponse(statusCode, body,
+                response.headers().get(XxlJobRemotingUtil.XXL_JOB_SERIALIZER),
+                response.headers().get(XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT)));
+    }
+
+    private void failRequest(Channel channel, Throwable cause) {
+        failRequest(channel, cause, false);
+    }
+
+    /**
+     * fail request bound to channel, only once
+     *
+     * @param retry     write failed on reused channel (request not sent), retry with new channel
+     */
+    private void failRequest(Channel channel, Throwable cause, boolean retry) {
+        PendingRequest request = channel.attr(PENDING_REQUEST).getAndSet(null);
+        if (request == null) {
+            return;
+        }
+        request.channel = null;
+
+        channel.close();
+        request.channelPool.release(channel);
+
+        // stale keep-alive channel, closed by server before request written
+        if (retry && !request.future.isDone()) {
+            logger.debug(">>>>>>>>>>> xxl-job remoting, stale keep-alive channel, retry with new channel, address:{}", request.hostHeader);
+            send(request, false);
+            return;
+        }
+        request.timeoutFuture.cancel(false);
+        request.future.completeExceptionally(cause);
+    }
+
+    /**
+     * channel closed or broken, request still writing will be failed by write future (may retry)
+     */
+    private boolean failByWrite(Channel channel) {
+        PendingRequest request = channel.attr(PENDING_REQUEST).get();
+        if (request != null && !request.writeDone) {
+            channel.close();
+            return true;
+        }
+        return false;
+    }
+
+    private FixedChannelPool loadChannelPool(String address, final String host, final int port, final boolean useHttps) throws SSLException {
+        FixedChannelPool channelPool = channelPoolMap.get(address);
+        if (channelPool != null) {
+            return channelPool;
+        }
+        final SslContext sslCtx = useHttps ? loadSslContext() : null;
+        channelPool = new FixedChannelPool(
+                bootstrap.clone().remoteAddress(host, port),
+                new ChannelPoolHandler() {
+                    @Override
+                    public void channelCreated(Channel channel) {
+                        ChannelPipeline pipeline = channel.pipeline();
+                        if (sslCtx != null) {
+                            pipeline.addLast(sslCtx.newHandler(channel.alloc(), host, port));
+                        }
+                        pipeline.addLast(new IdleStateHandler(0, 0, keepAliveTime, TimeUnit.MILLISECONDS))
+                                .addLast(new HttpClientCodec())
+                                .addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH))
+                                .addLast(new ResponseHandler());
+                    }
+                    @Override
+                    public void channelAcquired(Channel channel) {
+                    }
+                    @Override
+                    public void channelReleased(Channel channel) {
+                    }
+                },
+                ChannelHealthChecker.ACTIVE,
+                null,
+                -1,         // acquire timeout by request timeout
+                maxConnections,
+                maxPending);
+
+        FixedChannelPool exists = channelPoolMap.putIfAbsent(address, channelPool);
+        if (exists != null) {
+            channelPool.close();
+            return exists;
+        }
+        return channelPool;
+    }
+
+    private SslContext loadSslContext() throws SSLException {
+        if (sslContext == null) {
+            synchronized (this) {
+                if (sslContext == null) {
+                    // trust all certs, same as XxlJobRemotingUtil
+                    sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
+                }
+            }
+        }
+        return sslContext;
+    }
+
+    /**
+     * request in flight, waiting for channel or response
+     */
+    public long getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    public void close() {
+        for (Map.Entry<String, FixedChannelPool> item : channelPoolMap.entrySet()) {
+            item.getValue().close();
+        }
+        channelPoolMap.clear();
+        group.shutdownGracefully(0, 3, TimeUnit.SECONDS);
+        logger.info(">>>>>>>>>>> xxl-job remoting, NettyHttpClient closed.");
+    }
+
+
+    // ---------------------- handler ----------------------
+
+    private class ResponseHandler extends SimpleChannelInboundHandler<FullHttpResponse> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, FullHttpResponse response) {
+            completeRequest(ctx.channel(), response);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (!failByWrite(ctx.channel())) {
+                failRequest(ctx.channel(), new ClosedChannelException());
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.debug(">>>>>>>>>>> xxl-job remoting, NettyHttpClient caught exception", cause);
+            if (!failByWrite(ctx.channel())) {
+                failRequest(ctx.channel(), cause);
+            }
+        }
+
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                if (ctx.channel().attr(PENDING_REQUEST).get() == null) {
+                    ctx.channel().close();      // idle channel, close; health checker will drop it from pool
+                    logger.debug(">>>>>>>>>>> xxl-job remoting, close an idle channel.");
+                }
+            } else {
+                super.userEventTriggered(ctx, evt);
+            }
+        }
+    }
+
+    private static class PendingRequest {
+        private final CompletableFuture<RemotingResponse> future;
+        private final FixedChannelPool channelPool;
+        private final String hostHeader;
+        private final String path;
+        private final String accessToken;
+        private final SerializerEnum serializer;
+        private final int timeout;
+        private final byte[] requestBody;
+
+        private volatile ScheduledFuture<?> timeoutFuture;
+        private volatile Channel channel;
+        private volatile boolean retryIfStale;
+        private volatile boolean writeDone;
+
+        PendingRequest(CompletableFuture<RemotingResponse> future, FixedChannelPool channelPool, String hostHeader,
+                       String path, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) {
+            this.future = future;
+            this.channelPool = channelPool;
+            this.hostHeader = hostHeader;
+            this.path = path;
+            this.accessToken = accessToken;
+            this.serializer = serializer;
+            this.timeout = timeout;
+            this.requestBody = requestBody;
+        }
+    }
+
+}
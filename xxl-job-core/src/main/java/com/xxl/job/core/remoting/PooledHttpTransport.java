@@ -0,0 +1,413 @@
+package com.xxl.job.core.remoting;
+
+import com.xxl.job.core.serializer.SerializerEnum;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * keep-alive http transport, connection pooled by address (scheme://host:port)
+ *
+ *      a、bounded：at most "maxConnections" connection in use for each address, wait connect-timeout if exhausted;
+ *      b、keep-alive：connection return to pool after response fully read, close if idle longer than "keepAliveTime";
+ *      c、stale：idle connection probed before reuse; reused connection failed when writing request (not reached server), retry once with new connection;
+ *          failed after request written, only idempotent request (beat, idleBeat, log) retried, never replay "run";
+ *      d、https：SSLSocketFactory created once, shared by all connection;
+ *
+ * @author xuxueli 2023-06-16
+ */
+public class PooledHttpTransport implements RemotingTransport {
+    private static Logger logger = LoggerFactory.getLogger(PooledHttpTransport.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 64;
+    public static final int DEFAULT_KEEP_ALIVE_TIME = 30 * 1000;      // shared by NettyHttpClient and admin config; less than server idle close (executor 90s)
+    private static final int CONNECT_TIMEOUT = 3 * 1000;
+    private static final int STALE_CHECK_IDLE_TIME = 1000;
+    private static final Set<String> IDEMPOTENT_URIS = new HashSet<String>(Arrays.asList("beat", "idleBeat", "log"));
+
+    private final int maxConnections;
+    private final long keepAliveTime;
+    private final ConcurrentMap<String, AddressPool> addressPoolMap = new ConcurrentHashMap<String, AddressPool>();
+
+    private final AtomicLong connectCount = new AtomicLong(0);
+    private final AtomicLong reuseCount = new AtomicLong(0);
+
+    public PooledHttpTransport() {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_KEEP_ALIVE_TIME);
+    }
+
+    /**
+     * @param maxConnections    max connection for each address
+     * @param keepAliveTime     max idle time of pooled connection, by millisecond
+     */
+    public PooledHttpTransport(int maxConnections, long keepAliveTime) {
+        this.maxConnections = maxConnections > 0 ? maxConnections : DEFAULT_MAX_CONNECTIONS;
+        this.keepAliveTime = keepAliveTime > 0 ? keepAliveTime : DEFAULT_KEEP_ALIVE_TIME;
+    }
+
+    @Override
+    public RemotingResponse post(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws Exception {
+        URL realUrl = new URL(url);
+        boolean useHttps = "https".equalsIgnoreCase(realUrl.getProtocol());
+        String host = realUrl.getHost();
+        int port = realUrl.getPort() != -1 ? realUrl.getPort() : realUrl.getDefaultPort();
+        String path = realUrl.getFile().length() > 0 ? realUrl.getFile() : "/";
+
+        AddressPool addressPool = loadAddressPool(realUrl.getProtocol() + "://" + host + ":" + port);
+        if (!addressPool.permits.tryAcquire(CONNECT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            throw new IOException("xxl-job remoting connection pool exhausted, maxConnections:" + maxConnections + ", for url : " + url);
+        }
+        try {
+            // reuse idle connection
+            HttpConnection connection = addressPool.pollIdle();
+            if (connection != null) {
+                reuseCount.incrementAndGet();
+                try {
+                    return execute(addressPool, connection, path, accessToken, serializer, timeout, requestBody);
+                } catch (IOException e) {
+                    if (connection.responseStarted
+                            || e instanceof SocketTimeoutException
+                            || (connection.requestWritten && !isIdempotent(path))) {
+                        throw e;
+                    }
+                    // stale connection, closed by server
+                    logger.debug(">>>>>>>>>>> xxl-job remoting, stale keep-alive connection, retry with new connection, url:{}", url);
+                }
+            }
+
+            // new connection
+            connection = new HttpConnection(host, port, useHttps);
+            connectCount.incrementAndGet();
+            return execute(addressPool, connection, path, accessToken, serializer, timeout, requestBody);
+        } finally {
+            addressPool.permits.release();
+        }
+    }
+
+    private RemotingResponse execute(AddressPool addressPool,
+                                     HttpConnection connection,
+                                     String path,
+                                     String accessToken,
+                                     SerializerEnum serializer,
+                                     int timeout,
+                                     byte[] requestBody) throws IOException {
+        try {
+            RemotingResponse response = connection.execute(path, accessToken, serializer, timeout, requestBody);
+            if (connection.keepAlive) {
+                addressPool.release(connection);
+            } else {
+                connection.close();
+            }
+            return response;
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * request may be replayed after written to server
+     */
+    private static boolean isIdempotent(String path) {
+        int queryIndex = path.indexOf('?');
+        String uri = queryIndex > -1 ? path.substring(0, queryIndex) : path;
+        return IDEMPOTENT_URIS.contains(uri.substring(uri.lastIndexOf('/') + 1));
+    }
+
+    private AddressPool loadAddressPool(String address) {
+        AddressPool addressPool = addressPoolMap.get(address);
+        if (addressPool == null) {
+            addressPool = new AddressPool(maxConnections);
+            AddressPool exists = addressPoolMap.putIfAbsent(address, addressPool);
+            if (exists != null) {
+                addressPool = exists;
+            }
+        }
+        return addressPool;
+    }
+
+    @Override
+    public void close() {
+        for (Map.Entry<String, AddressPool> item : addressPoolMap.entrySet()) {
+            HttpConnection connection;
+            while ((connection = item.getValue().idleConnections.pollFirst()) != null) {
+                connection.close();
+            }
+        }
+    }
+
+    public long getConnectCount() {
+        return connectCount.get();
+    }
+
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+
+    // ---------------------- pool ----------------------
+
+    private class AddressPool {
+        private final Semaphore permits;
+        private final Deque<HttpConnection> idleConnections = new ConcurrentLinkedDeque<HttpConnection>();
+
+        AddressPool(int maxConnections) {
+            this.permits = new Semaphore(maxConnections);
+        }
+
+        /**
+         * most recently used first, skip expired, and closed by server
+         */
+        HttpConnection pollIdle() {
+            HttpConnection connection;
+            while ((connection = idleConnections.pollFirst()) != null) {
+                if (connection.isExpired(keepAliveTime) || connection.isStale()) {
+                    connection.close();
+                    continue;
+                }
+                return connection;
+            }
+            return null;
+        }
+
+        void release(HttpConnection connection) {
+            connection.lastUseTime = System.currentTimeMillis();
+            idleConnections.offerFirst(connection);
+
+            // least recently used at tail, clean expired
+            HttpConnection eldest = idleConnections.peekLast();
+            if (eldest != null && eldest.isExpired(keepAliveTime) && idleConnections.removeLastOccurrence(eldest)) {
+                eldest.close();
+            }
+        }
+    }
+
+
+    // ---------------------- connection ----------------------
+
+    private static class HttpConnection {
+        private final String hostHeader;
+        private final Socket socket;
+        private final InputStream inputStream;
+        private final OutputStream outputStream;
+
+        private volatile long lastUseTime;
+        private boolean requestWritten;
+        private boolean responseStarted;
+        private boolean keepAlive;
+
+        HttpConnection(String host, int port, boolean useHttps) throws IOException {
+            this.hostHeader = host + ":" + port;
+
+            Socket socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setKeepAlive(true);
+                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT);
+                if (useHttps) {
+                    SSLSocket sslSocket = (SSLSocket) XxlJobRemotingUtil.getTrustAllSocketFactory().createSocket(socket, host, port, true);
+                    sslSocket.startHandshake();
+                    socket = sslSocket;
+                }
+            } catch (GeneralSecurityException e) {
+                socket.close();
+                throw new IOException(e);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            this.socket = socket;
+            this.inputStream = new BufferedInputStream(socket.getInputStream(), 8192);
+            this.outputStream = new BufferedOutputStream(socket.getOutputStream(), 8192);
+        }
+
+        boolean isExpired(long keepAliveTime) {
+            return socket.isClosed() || System.currentTimeMillis() - lastUseTime > keepAliveTime;
+        }
+
+        /**
+         * idle for a while, probe if closed by server (eof, or unexpected data), cost at most 1ms
+         */
+        boolean isStale() {
+            if (System.currentTimeMillis() - lastUseTime < STALE_CHECK_IDLE_TIME) {
+                return false;
+            }
+            try {
+                socket.setSoTimeout(1);
+                inputStream.read();
+                return true;
+            } catch (SocketTimeoutException e) {
+                return false;
+            } catch (IOException e) {
+                return true;
+            }
+        }
+
+        RemotingResponse execute(String path, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws IOException {
+            requestWritten = false;
+            responseStarted = false;
+            keepAlive = false;
+            socket.setSoTimeout(timeout * 1000);
+
+            // write request
+            StringBuilder header = new StringBuilder(256);
+            header.append("POST ").append(path).append(" HTTP/1.1\r\n");
+            header.append("Host: ").append(hostHeader).append("\r\n");
+            header.append("Connection: keep-alive\r\n");
+            header.append("Content-Type: ").append((serializer!=null?serializer:SerializerEnum.JSON).getSerializer().getContentType()).append("\r\n");
+            header.append("Accept-Charset: application/json;charset=UTF-8\r\n");
+            if (serializer!=null && serializer!=SerializerEnum.JSON) {
+                header.append(XxlJobRemotingUtil.XXL_JOB_SERIALIZER).append(": ").append(serializer.name()).append("\r\n");
+            }
+            if (accessToken!=null && accessToken.trim().length()>0) {
+                header.append(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN).append(": ").append(accessToken).append("\r\n");
+            }
+            header.append("Content-Length: ").append(requestBody != null ? requestBody.length : 0).append("\r\n\r\n");
+            outputStream.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            if (requestBody != null) {
+                outputStream.write(requestBody);
+            }
+            outputStream.flush();
+            requestWritten = true;
+
+            // status line
+            int firstByte = inputStream.read();
+            if (firstByte == -1) {
+                throw new EOFException("xxl-job remoting connection closed by server.");
+            }
+            responseStarted = true;
+            String statusLine = ((char) firstByte) + readLine();
+            String[] statusArr = statusLine.split(" ");
+            if (statusArr.length < 2) {
+                throw new IOException("xxl-job remoting response status line invalid(" + statusLine + ").");
+            }
+            int statusCode = Integer.parseInt(statusArr[1]);
+            boolean keepAlive = statusArr[0].endsWith("1.1");
+
+            // header
+            long contentLength = -1;
+            boolean chunked = false;
+            String responseSerializer = null;
+            String serializerAccept = null;
+            String line;
+            while ((line = readLine()).length() > 0) {
+                int index = line.indexOf(':');
+                if (index <= 0) {
+                    continue;
+                }
+                String name = line.substring(0, index).trim();
+                String value = line.substring(index + 1).trim();
+                if ("Content-Length".equalsIgnoreCase(name)) {
+                    contentLength = Long.parseLong(value);
+                } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                    chunked = value.toLowerCase().contains("chunked");
+                } else if (XxlJobRemotingUtil.XXL_JOB_SERIALIZER.equalsIgnoreCase(name)) {
+                    responseSerializer = value;
+                } else if (XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT.equalsIgnoreCase(name)) {
+                    serializerAccept = value;
+                } else if ("Connection".equalsIgnoreCase(name)) {
+                    if ("close".equalsIgnoreCase(value)) {
+                        keepAlive = false;
+                    } else if ("keep-alive".equalsIgnoreCase(value)) {
+                        keepAlive = true;
+                    }
+                }
+            }
+
+            // body
+            ByteArrayOutputStream body = new ByteArrayOutputStream(contentLength > 0 ? (int) contentLength : 256);
+            if (chunked) {
+                while (true) {
+                    String sizeLine = readLine();
+                    int extIndex = sizeLine.indexOf(';');
+                    int chunkSize = Integer.parseInt((extIndex > -1 ? sizeLine.substring(0, extIndex) : sizeLine).trim(), 16);
+                    if (chunkSize == 0) {
+                        // trailer
+                        while (readLine().length() > 0) {
+                        }
+                        break;
+                    }
+                    readFully(body, chunkSize);
+                    readLine();
+                }
+            } else if (contentLength >= 0) {
+                readFully(body, contentLength);
+            } else {
+                // read until close
+                byte[] buffer = new byte[1024];
+                int len;
+                while ((len = inputStream.read(buffer)) != -1) {
+                    body.write(buffer, 0, len);
+                }
+                keepAlive = false;
+            }
+
+            this.keepAlive = keepAlive;
+            return new RemotingResponse(statusCode, body.toByteArray(), responseSerializer, serializerAccept);
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            int b;
+            while ((b = inputStream.read()) != -1) {
+                if (b == '\n') {
+                    int len = line.length();
+                    if (len > 0 && line.charAt(len - 1) == '\r') {
+                        line.setLength(len - 1);
+                    }
+                    return line.toString();
+                }
+                line.append((char) b);
+            }
+            throw new EOFException("xxl-job remoting connection closed by server.");
+        }
+
+        private void readFully(ByteArrayOutputStream body, long length) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(length, 8192)];
+            long remaining = length;
+            while (remaining > 0) {
+                int len = inputStream.read(buffer, 0, (int) Math.min(remaining, buffer.length));
+                if (len == -1) {
+                    throw new EOFException("xxl-job remoting connection closed by server.");
+                }
+                body.write(buffer, 0, len);
+                remaining -= len;
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug(e.getMessage(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.xxl.job.core.remoting;
+
+/**
+ * remoting response
+ *
+ * @author xuxueli 2023-06-16
+ */
+public class RemotingResponse {
+
+    private int statusCode;
+    private byte[] body;
+    private String serializer;          // header "XXL-JOB-SERIALIZER", serializer of body, null as JSON
+    private String serializerAccept;    // header "XXL-JOB-SERIALIZER-ACCEPT", serializer supported by server, null if old version
+
+    public RemotingResponse() {
+    }
+    public RemotingResponse(int statusCode, byte[] body, String serializer, String serializerAccept) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.serializer = serializer;
+        this.serializerAccept = serializerAccept;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    public String getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(String serializer) {
+        this.serializer = serializer;
+    }
+
+    public String getSerializerAccept() {
+        return serializerAccept;
+    }
+
+    public void setSerializerAccept(String serializerAccept) {
+        this.serializerAccept = serializerAccept;
+    }
+
+}
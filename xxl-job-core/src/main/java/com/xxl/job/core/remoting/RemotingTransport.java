@@ -0,0 +1,33 @@
+package com.xxl.job.core.remoting;
+
+import com.xxl.job.core.serializer.SerializerEnum;
+
+/**
+ * remoting transport, send http post request to admin or executor
+ *
+ *      a、UrlConnectionTransport：HttpURLConnection, one connection per request;
+ *      b、PooledHttpTransport：keep-alive connection, pooled by address (default);
+ *
+ * @author xuxueli 2023-06-16
+ */
+public interface RemotingTransport {
+
+    /**
+     * post request
+     *
+     * @param url
+     * @param accessToken
+     * @param serializer    serializer of request body, null as JSON
+     * @param timeout       read timeout, by second
+     * @param requestBody   serialized body, null if not exists
+     * @return
+     * @throws Exception
+     */
+    RemotingResponse post(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws Exception;
+
+    /**
+     * release resource, like idle connection
+     */
+    void close();
+
+}
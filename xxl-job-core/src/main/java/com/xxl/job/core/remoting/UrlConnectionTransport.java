@@ -0,0 +1,114 @@
+package com.xxl.job.core.remoting;
+
+import com.xxl.job.core.serializer.SerializerEnum;
+import com.xxl.job.core.util.XxlJobRemotingUtil;
+
+import javax.net.ssl.HttpsURLConnection;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * HttpURLConnection transport, open and disconnect connection for each request
+ *
+ * @author xuxueli 2023-06-16
+ */
+public class UrlConnectionTransport implements RemotingTransport {
+
+    @Override
+    public RemotingResponse post(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws Exception {
+        HttpURLConnection connection = null;
+        InputStream inputStream = null;
+        try {
+            connection = openConnection(url, accessToken, serializer, timeout, requestBody);
+
+            // valid StatusCode
+            int statusCode = connection.getResponseCode();
+            if (statusCode != 200) {
+                return new RemotingResponse(statusCode, null, null, null);
+            }
+
+            // result
+            inputStream = connection.getInputStream();
+            ByteArrayOutputStream result = new ByteArrayOutputStream(256);
+            byte[] buffer = new byte[1024];
+            int len;
+            while ((len = inputStream.read(buffer)) != -1) {
+                result.write(buffer, 0, len);
+            }
+            return new RemotingResponse(statusCode, result.toByteArray(),
+                    connection.getHeaderField(XxlJobRemotingUtil.XXL_JOB_SERIALIZER),
+                    connection.getHeaderField(XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT));
+        } finally {
+            if (inputStream != null) {
+                inputStream.close();
+            }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * open connection, and write requestBody
+     *
+     * @param url
+     * @param accessToken
+     * @param serializer    serializer of request body, null as JSON
+     * @param timeout       read timeout, by second
+     * @param requestBody   serialized body, null if not exists
+     * @return  connected, response not read yet
+     * @throws Exception
+     */
+    public static HttpURLConnection openConnection(String url, String accessToken, SerializerEnum serializer, int timeout, byte[] requestBody) throws Exception {
+        // connection
+        URL realUrl = new URL(url);
+        HttpURLConnection connection = (HttpURLConnection) realUrl.openConnection();
+
+        // trust-https
+        boolean useHttps = url.startsWith("https");
+        if (useHttps) {
+            HttpsURLConnection https = (HttpsURLConnection) connection;
+            https.setSSLSocketFactory(XxlJobRemotingUtil.getTrustAllSocketFactory());
+            https.setHostnameVerifier(XxlJobRemotingUtil.TRUST_ALL_HOSTNAME_VERIFIER);
+        }
+
+        // connection setting
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setDoInput(true);
+        connection.setUseCaches(false);
+        connection.setReadTimeout(timeout * 1000);
+        connection.setConnectTimeout(3 * 1000);
+        connection.setRequestProperty("connection", "Keep-Alive");
+        connection.setRequestProperty("Content-Type", (serializer!=null?serializer:SerializerEnum.JSON).getSerializer().getContentType());
+        connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
+        if (serializer!=null && serializer!=SerializerEnum.JSON) {
+            connection.setRequestProperty(XxlJobRemotingUtil.XXL_JOB_SERIALIZER, serializer.name());
+        }
+
+        if(accessToken!=null && accessToken.trim().length()>0){
+            connection.setRequestProperty(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN, accessToken);
+        }
+
+        // do connection
+        connection.connect();
+
+        // write requestBody
+        if (requestBody != null) {
+            DataOutputStream dataOutputStream = new DataOutputStream(connection.getOutputStream());
+            dataOutputStream.write(requestBody);
+            dataOutputStream.flush();
+            dataOutputStream.close();
+        }
+        return connection;
+    }
+
+    @Override
+    public void close() {
+        // do nothing
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.xxl.job.core.serializer;
+
+import java.lang.reflect.Type;
+
+/**
+ * remoting serializer, for request/response body between admin and executor
+ *
+ * @author xuxueli 2023-06-22
+ */
+public abstract class Serializer {
+
+    /**
+     * http content type of serialized body
+     */
+    public abstract String getContentType();
+
+    /**
+     * serialize
+     *
+     * @param obj
+     * @return
+     */
+    public abstract byte[] serialize(Object obj);
+
+    /**
+     * deserialize
+     *
+     * @param data
+     * @param type      class or parameterized type, like ReturnT&lt;String&gt;
+     * @return
+     */
+    public abstract <T> T deserialize(byte[] data, Type type);
+
+}
@@ -0,0 +1,62 @@
+package com.xxl.job.core.serializer;
+
+import com.xxl.job.core.serializer.impl.BinarySerializer;
+import com.xxl.job.core.serializer.impl.JsonSerializer;
+
+/**
+ * remoting serializer, negotiated by http header
+ *
+ *      a、request：body serializer in header "XXL-JOB-SERIALIZER", default JSON if absent;
+ *      b、response：same serializer as request, and serializer supported by server in header "XXL-JOB-SERIALIZER-ACCEPT";
+ *      c、client：use JSON until server accept the preferred serializer, compatible with old version;
+ *
+ * @author xuxueli 2023-06-22
+ */
+public enum SerializerEnum {
+
+    JSON(new JsonSerializer()),
+    BINARY(new BinarySerializer());
+
+    /**
+     * serializer supported, for header "XXL-JOB-SERIALIZER-ACCEPT"
+     */
+    public static final String ACCEPT = "JSON,BINARY";
+
+    private Serializer serializer;
+
+    private SerializerEnum(Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    public static SerializerEnum match(String name, SerializerEnum defaultItem) {
+        if (name != null) {
+            for (SerializerEnum item: SerializerEnum.values()) {
+                if (item.name().equalsIgnoreCase(name.trim())) {
+                    return item;
+                }
+            }
+        }
+        return defaultItem;
+    }
+
+    /**
+     * @param accept    value of header "XXL-JOB-SERIALIZER-ACCEPT", like "JSON,BINARY"
+     * @return  true if accept this serializer
+     */
+    public boolean isAccepted(String accept) {
+        if (accept == null) {
+            return this == JSON;
+        }
+        for (String item : accept.split(",")) {
+            if (name().equalsIgnoreCase(item.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
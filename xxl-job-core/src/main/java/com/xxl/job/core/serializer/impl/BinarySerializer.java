@@ -0,0 +1,468 @@
+package com.xxl.job.core.serializer.impl;
+
+import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.serializer.Serializer;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * compact binary serializer, hand-written varint format, for remoting model
+ *
+ *      a、value：type tag (1 byte) + data; int/long as zigzag varint; String as varint length (+1, 0 is null) + utf-8 bytes;
+ *      b、model：tag + varint length + fields in fixed order; new field appended to the end, old decoder skip it, new decoder default it;
+ *      c、type：ReturnT, List, String, Integer, Long, Boolean, and remoting param (TriggerParam, HandleCallbackParam, RegistryParam, LogResult...);
+ *
+ * @author xuxueli 2023-06-22
+ */
+public class BinarySerializer extends Serializer {
+
+    private static final byte VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_LONG = 3;
+    private static final byte TAG_BOOLEAN = 4;
+    private static final byte TAG_LIST = 5;
+
+    private static final byte TAG_RETURN_T = 10;
+    private static final byte TAG_TRIGGER_PARAM = 11;
+    private static final byte TAG_HANDLE_CALLBACK_PARAM = 12;
+    private static final byte TAG_REGISTRY_PARAM = 13;
+    private static final byte TAG_LOG_RESULT = 14;
+    private static final byte TAG_IDLE_BEAT_PARAM = 15;
+    private static final byte TAG_KILL_PARAM = 16;
+    private static final byte TAG_LOG_PARAM = 17;
+
+    @Override
+    public String getContentType() {
+        return "application/octet-stream";
+    }
+
+    @Override
+    public byte[] serialize(Object obj) {
+        Output out = new Output(256);
+        out.writeByte(VERSION);
+        writeValue(out, obj);
+        return out.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(byte[] data, Type type) {
+        Input in = new Input(data);
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("xxl-job binary serializer, version(" + version + ") not support.");
+        }
+        return (T) readValue(in);
+    }
+
+
+    // ---------------------- value ----------------------
+
+    private static void writeValue(Output out, Object obj) {
+        if (obj == null) {
+            out.writeByte(TAG_NULL);
+        } else if (obj instanceof String) {
+            out.writeByte(TAG_STRING);
+            out.writeString((String) obj);
+        } else if (obj instanceof Integer) {
+            out.writeByte(TAG_INT);
+            out.writeInt((Integer) obj);
+        } else if (obj instanceof Long) {
+            out.writeByte(TAG_LONG);
+            out.writeLong((Long) obj);
+        } else if (obj instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) obj);
+        } else if (obj instanceof List) {
+            List<?> list = (List<?>) obj;
+            out.writeByte(TAG_LIST);
+            out.writeVarLong(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else if (obj instanceof ReturnT) {
+            ReturnT<?> returnT = (ReturnT<?>) obj;
+            int start = out.beginModel(TAG_RETURN_T);
+            out.writeInt(returnT.getCode());
+            out.writeString(returnT.getMsg());
+            writeValue(out, returnT.getContent());
+            out.endModel(start);
+        } else if (obj instanceof TriggerParam) {
+            TriggerParam triggerParam = (TriggerParam) obj;
+            int start = out.beginModel(TAG_TRIGGER_PARAM);
+            out.writeInt(triggerParam.getJobId());
+            out.writeString(triggerParam.getExecutorHandler());
+            out.writeString(triggerParam.getExecutorParams());
+            out.writeString(triggerParam.getExecutorBlockStrategy());
+            out.writeInt(triggerParam.getExecutorTimeout());
+            out.writeLong(triggerParam.getLogId());
+            out.writeLong(triggerParam.getLogDateTime());
+            out.writeString(triggerParam.getGlueType());
+            out.writeString(triggerParam.getGlueSource());
+            out.writeLong(triggerParam.getGlueUpdatetime());
+            out.writeInt(triggerParam.getBroadcastIndex());
+            out.writeInt(triggerParam.getBroadcastTotal());
+            out.endModel(start);
+        } else if (obj instanceof HandleCallbackParam) {
+            HandleCallbackParam callbackParam = (HandleCallbackParam) obj;
+            int start = out.beginModel(TAG_HANDLE_CALLBACK_PARAM);
+            out.writeLong(callbackParam.getLogId());
+            out.writeLong(callbackParam.getLogDateTim());
+            out.writeInt(callbackParam.getHandleCode());
+            out.writeString(callbackParam.getHandleMsg());
+            out.endModel(start);
+        } else if (obj instanceof RegistryParam) {
+            RegistryParam registryParam = (RegistryParam) obj;
+            int start = out.beginModel(TAG_REGISTRY_PARAM);
+            out.writeString(registryParam.getRegistryGroup());
+            out.writeString(registryParam.getRegistryKey());
+            out.writeString(registryParam.getRegistryValue());
+            out.writeInt(registryParam.getQueueSize());
+            out.writeInt(registryParam.getRunningCount());
+            out.writeInt(registryParam.getCpuLoad());
+            out.writeLong(registryParam.getLatency());
+            out.endModel(start);
+        } else if (obj instanceof LogResult) {
+            LogResult logResult = (LogResult) obj;
+            int start = out.beginModel(TAG_LOG_RESULT);
+            out.writeInt(logResult.getFromLineNum());
+            out.writeInt(logResult.getToLineNum());
+            out.writeString(logResult.getLogContent());
+            out.writeBoolean(logResult.isEnd());
+            out.writeLong(logResult.getFromOffset());
+            out.writeLong(logResult.getToOffset());
+            out.endModel(start);
+        } else if (obj instanceof IdleBeatParam) {
+            int start = out.beginModel(TAG_IDLE_BEAT_PARAM);
+            out.writeInt(((IdleBeatParam) obj).getJobId());
+            out.endModel(start);
+        } else if (obj instanceof KillParam) {
+            int start = out.beginModel(TAG_KILL_PARAM);
+            out.writeInt(((KillParam) obj).getJobId());
+            out.endModel(start);
+        } else if (obj instanceof LogParam) {
+            LogParam logParam = (LogParam) obj;
+            int start = out.beginModel(TAG_LOG_PARAM);
+            out.writeLong(logParam.getLogDateTim());
+            out.writeLong(logParam.getLogId());
+            out.writeInt(logParam.getFromLineNum());
+            out.writeLong(logParam.getFromOffset());
+            out.endModel(start);
+        } else {
+            throw new IllegalArgumentException("xxl-job binary serializer, type(" + obj.getClass().getName() + ") not support.");
+        }
+    }
+
+    private static Object readValue(Input in) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_STRING:
+                return in.readString();
+            case TAG_INT:
+                return in.readInt();
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_LIST: {
+                int size = (int) in.readVarLong();
+                List<Object> list = new ArrayList<Object>(Math.min(size, 1024));
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            default:
+                return readModel(in, tag);
+        }
+    }
+
+    private static Object readModel(Input in, byte tag) {
+        int end = in.beginModel();
+        Object model;
+        switch (tag) {
+            case TAG_RETURN_T: {
+                ReturnT<Object> returnT = new ReturnT<Object>();
+                returnT.setCode(in.readInt(end));
+                returnT.setMsg(in.readString(end));
+                returnT.setContent(in.position() < end ? readValue(in) : null);
+                model = returnT;
+                break;
+            }
+            case TAG_TRIGGER_PARAM: {
+                TriggerParam triggerParam = new TriggerParam();
+                triggerParam.setJobId(in.readInt(end));
+                triggerParam.setExecutorHandler(in.readString(end));
+                triggerParam.setExecutorParams(in.readString(end));
+                triggerParam.setExecutorBlockStrategy(in.readString(end));
+                triggerParam.setExecutorTimeout(in.readInt(end));
+                triggerParam.setLogId(in.readLong(end));
+                triggerParam.setLogDateTime(in.readLong(end));
+                triggerParam.setGlueType(in.readString(end));
+                triggerParam.setGlueSource(in.readString(end));
+                triggerParam.setGlueUpdatetime(in.readLong(end));
+                triggerParam.setBroadcastIndex(in.readInt(end));
+                triggerParam.setBroadcastTotal(in.readInt(end));
+                model = triggerParam;
+                break;
+            }
+            case TAG_HANDLE_CALLBACK_PARAM: {
+                HandleCallbackParam callbackParam = new HandleCallbackParam();
+                callbackParam.setLogId(in.readLong(end));
+                callbackParam.setLogDateTim(in.readLong(end));
+                callbackParam.setHandleCode(in.readInt(end));
+                callbackParam.setHandleMsg(in.readString(end));
+                model = callbackParam;
+                break;
+            }
+            case TAG_REGISTRY_PARAM: {
+                RegistryParam registryParam = new RegistryParam();
+                registryParam.setRegistryGroup(in.readString(end));
+                registryParam.setRegistryKey(in.readString(end));
+                registryParam.setRegistryValue(in.readString(end));
+                registryParam.setQueueSize(in.readInt(end));
+                registryParam.setRunningCount(in.readInt(end));
+                registryParam.setCpuLoad(in.readInt(end));
+                registryParam.setLatency(in.readLong(end));
+                model = registryParam;
+                break;
+            }
+            case TAG_LOG_RESULT: {
+                LogResult logResult = new LogResult();
+                logResult.setFromLineNum(in.readInt(end));
+                logResult.setToLineNum(in.readInt(end));
+                logResult.setLogContent(in.readString(end));
+                logResult.setEnd(in.readBoolean(end));
+                logResult.setFromOffset(in.readLong(end));
+                logResult.setToOffset(in.readLong(end));
+                model = logResult;
+                break;
+            }
+            case TAG_IDLE_BEAT_PARAM:
+                model = new IdleBeatParam(in.readInt(end));
+                break;
+            case TAG_KILL_PARAM:
+                model = new KillParam(in.readInt(end));
+                break;
+            case TAG_LOG_PARAM: {
+                LogParam logParam = new LogParam();
+                logParam.setLogDateTim(in.readLong(end));
+                logParam.setLogId(in.readLong(end));
+                logParam.setFromLineNum(in.readInt(end));
+                logParam.setFromOffset(in.readLong(end));
+                model = logParam;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("xxl-job binary serializer, tag(" + tag + ") not support.");
+        }
+
+        // skip field unknown (appended by new version)
+        in.endModel(end);
+        return model;
+    }
+
+
+    // ---------------------- buffer ----------------------
+
+    private static class Output {
+        private byte[] buf;
+        private int pos;
+
+        Output(int capacity) {
+            this.buf = new byte[capacity];
+        }
+
+        private void ensure(int length) {
+            if (pos + length > buf.length) {
+                byte[] newBuf = new byte[Math.max(buf.length << 1, pos + length)];
+                System.arraycopy(buf, 0, newBuf, 0, pos);
+                buf = newBuf;
+            }
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);       // zigzag, small negative as small varint
+        }
+
+        void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeBoolean(boolean value) {
+            writeByte(value ? 1 : 0);
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        /**
+         * write tag, and reserve 1 byte for length
+         *
+         * @return  start position of length
+         */
+        int beginModel(byte tag) {
+            writeByte(tag);
+            ensure(1);
+            return pos++;
+        }
+
+        /**
+         * write length of model, move body if length need more than 1 byte
+         */
+        void endModel(int start) {
+            int length = pos - start - 1;
+            int lengthSize = varLongSize(length);
+            if (lengthSize > 1) {
+                ensure(lengthSize - 1);
+                System.arraycopy(buf, start + 1, buf, start + lengthSize, length);
+            }
+            int end = start + lengthSize + length;
+            pos = start;
+            writeVarLong(length);
+            pos = end;
+        }
+
+        private static int varLongSize(long value) {
+            int size = 1;
+            while ((value & ~0x7FL) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        byte[] toByteArray() {
+            byte[] result = new byte[pos];
+            System.arraycopy(buf, 0, result, 0, pos);
+            return result;
+        }
+    }
+
+    private static class Input {
+        private final byte[] buf;
+        private int pos;
+
+        Input(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        byte readByte() {
+            if (pos >= buf.length) {
+                throw new IllegalArgumentException("xxl-job binary serializer, data truncated.");
+            }
+            return buf[pos++];
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("xxl-job binary serializer, varint invalid.");
+        }
+
+        int readInt() {
+            int value = (int) readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        long readLong() {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        boolean readBoolean() {
+            return readByte() != 0;
+        }
+
+        String readString() {
+            long length = readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > buf.length - pos) {
+                throw new IllegalArgumentException("xxl-job binary serializer, data truncated.");
+            }
+            String value = new String(buf, pos, (int) length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        // field of model, default value if not exists (written by old version)
+
+        int readInt(int end) {
+            return pos < end ? readInt() : 0;
+        }
+
+        long readLong(int end) {
+            return pos < end ? readLong() : 0;
+        }
+
+        boolean readBoolean(int end) {
+            return pos < end && readBoolean();
+        }
+
+        String readString(int end) {
+            return pos < end ? readString() : null;
+        }
+
+        /**
+         * @return  end position of model
+         */
+        int beginModel() {
+            long length = readVarLong();
+            if (length > buf.length - pos) {
+                throw new IllegalArgumentException("xxl-job binary serializer, data truncated.");
+            }
+            return pos + (int) length;
+        }
+
+        void endModel(int end) {
+            if (pos > end) {
+                throw new IllegalArgumentException("xxl-job binary serializer, model length invalid.");
+            }
+            pos = end;
+        }
+    }
+
+}
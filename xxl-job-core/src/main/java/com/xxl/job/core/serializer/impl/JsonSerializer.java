@@ -0,0 +1,31 @@
+package com.xxl.job.core.serializer.impl;
+
+import com.xxl.job.core.serializer.Serializer;
+import com.xxl.job.core.util.GsonTool;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * json serializer, by gson (default, same as old version)
+ *
+ * @author xuxueli 2023-06-22
+ */
+public class JsonSerializer extends Serializer {
+
+    @Override
+    public String getContentType() {
+        return "application/json;charset=UTF-8";
+    }
+
+    @Override
+    public byte[] serialize(Object obj) {
+        return GsonTool.toJson(obj).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] data, Type type) {
+        return GsonTool.fromJson(new String(data, StandardCharsets.UTF_8), type);
+    }
+
+}
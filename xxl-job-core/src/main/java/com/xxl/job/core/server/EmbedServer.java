@@ -3,11 +3,16 @@ package com.xxl.job.core.server;
 import com.xxl.job.core.biz.ExecutorBiz;
 import com.xxl.job.core.biz.impl.ExecutorBizImpl;
 import com.xxl.job.core.biz.model.*;
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.log.XxlJobLogArchive;
+import com.xxl.job.core.serializer.SerializerEnum;
 import com.xxl.job.core.thread.ExecutorRegistryThread;
+import com.xxl.job.core.thread.ExecutorThreadFactory;
 import com.xxl.job.core.util.GsonTool;
 import com.xxl.job.core.util.ThrowableUtil;
 import com.xxl.job.core.util.XxlJobRemotingUtil;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
 import io.netty.channel.nio.NioEventLoopGroup;
@@ -16,10 +21,16 @@ import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.handler.timeout.IdleStateHandler;
-import io.netty.util.CharsetUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Date;
+import java.util.List;
 import java.util.concurrent.*;
 
 /**
@@ -41,24 +52,7 @@ public class EmbedServer {
                 // param
                 EventLoopGroup bossGroup = new NioEventLoopGroup();
                 EventLoopGroup workerGroup = new NioEventLoopGroup();
-                ThreadPoolExecutor bizThreadPool = new ThreadPoolExecutor(
-                        0,
-                        200,
-                        60L,
-                        TimeUnit.SECONDS,
-                        new LinkedBlockingQueue<Runnable>(2000),
-                        new ThreadFactory() {
-                            @Override
-                            public Thread newThread(Runnable r) {
-                                return new Thread(r, "xxl-job, EmbedServer bizThreadPool-" + r.hashCode());
-                            }
-                        },
-                        new RejectedExecutionHandler() {
-                            @Override
-                            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-                                throw new RuntimeException("xxl-job, EmbedServer bizThreadPool is EXHAUSTED!");
-                            }
-                        });
+                ExecutorService bizThreadPool = ExecutorThreadFactory.newBizExecutor();
                 try {
                     // start server
                     ServerBootstrap bootstrap = new ServerBootstrap();
@@ -129,12 +123,14 @@ public class EmbedServer {
      */
     public static class EmbedHttpServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
         private static final Logger logger = LoggerFactory.getLogger(EmbedHttpServerHandler.class);
+        private static final int LOG_STREAM_CHUNK_SIZE = 64 * 1024;
+        private static final Type TRIGGER_PARAM_LIST_TYPE = new GsonTool.ParameterizedType4ReturnT(List.class, new Type[]{TriggerParam.class});
 
         private ExecutorBiz executorBiz;
         private String accessToken;
-        private ThreadPoolExecutor bizThreadPool;
+        private ExecutorService bizThreadPool;
 
-        public EmbedHttpServerHandler(ExecutorBiz executorBiz, String accessToken, ThreadPoolExecutor bizThreadPool) {
+        public EmbedHttpServerHandler(ExecutorBiz executorBiz, String accessToken, ExecutorService bizThreadPool) {
             this.executorBiz = executorBiz;
             this.accessToken = accessToken;
             this.bizThreadPool = bizThreadPool;
@@ -143,31 +139,41 @@ public class EmbedServer {
         @Override
         protected void channelRead0(final ChannelHandlerContext ctx, FullHttpRequest msg) throws Exception {
             // request parse
-            //final byte[] requestBytes = ByteBufUtil.getBytes(msg.content());    // byteBuf.toString(io.netty.util.CharsetUtil.UTF_8);
-            String requestData = msg.content().toString(CharsetUtil.UTF_8);
+            final byte[] requestData = ByteBufUtil.getBytes(msg.content());
             String uri = msg.uri();
             HttpMethod httpMethod = msg.method();
             boolean keepAlive = HttpUtil.isKeepAlive(msg);
             String accessTokenReq = msg.headers().get(XxlJobRemotingUtil.XXL_JOB_ACCESS_TOKEN);
+            final SerializerEnum serializer = SerializerEnum.match(msg.headers().get(XxlJobRemotingUtil.XXL_JOB_SERIALIZER), SerializerEnum.JSON);
 
             // invoke
             bizThreadPool.execute(new Runnable() {
                 @Override
                 public void run() {
+                    // stream log, file region written without copy
+                    if ("/logStream".equals(uri)) {
+                        ReturnT<String> validResult = valid(httpMethod, uri, accessTokenReq);
+                        if (validResult == null && writeLogStream(ctx, keepAlive, requestData, serializer)) {
+                            return;
+                        }
+                    }
+
                     // do invoke
-                    Object responseObj = process(httpMethod, uri, requestData, accessTokenReq);
+                    Object responseObj = process(httpMethod, uri, requestData, serializer, accessTokenReq);
 
-                    // to json
-                    String responseJson = GsonTool.toJson(responseObj);
+                    // serialize, by serializer of request
+                    byte[] responseData = serializer.getSerializer().serialize(responseObj);
 
                     // write response
-                    writeResponse(ctx, keepAlive, responseJson);
+                    writeResponse(ctx, keepAlive, serializer, responseData);
                 }
             });
         }
 
-        private Object process(HttpMethod httpMethod, String uri, String requestData, String accessTokenReq) {
-            // valid
+        /**
+         * @return  fail ReturnT if invalid, null if valid
+         */
+        private ReturnT<String> valid(HttpMethod httpMethod, String uri, String accessTokenReq) {
             if (HttpMethod.POST != httpMethod) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE, "invalid request, HttpMethod not support.");
             }
@@ -179,6 +185,15 @@ public class EmbedServer {
                     && !accessToken.equals(accessTokenReq)) {
                 return new ReturnT<String>(ReturnT.FAIL_CODE, "The access token is wrong.");
             }
+            return null;
+        }
+
+        private Object process(HttpMethod httpMethod, String uri, byte[] requestData, SerializerEnum serializer, String accessTokenReq) {
+            // valid
+            ReturnT<String> validResult = valid(httpMethod, uri, accessTokenReq);
+            if (validResult != null) {
+                return validResult;
+            }
 
             // services mapping
             try {
@@ -186,17 +201,22 @@ public class EmbedServer {
                     case "/beat":
                         return executorBiz.beat();
                     case "/idleBeat":
-                        IdleBeatParam idleBeatParam = GsonTool.fromJson(requestData, IdleBeatParam.class);
+                        IdleBeatParam idleBeatParam = serializer.getSerializer().deserialize(requestData, IdleBeatParam.class);
                         return executorBiz.idleBeat(idleBeatParam);
                     case "/run":
-                        TriggerParam triggerParam = GsonTool.fromJson(requestData, TriggerParam.class);
+                        TriggerParam triggerParam = serializer.getSerializer().deserialize(requestData, TriggerParam.class);
                         return executorBiz.run(triggerParam);
+                    case "/runBatch":
+                        List<TriggerParam> triggerParamList = serializer.getSerializer().deserialize(requestData, TRIGGER_PARAM_LIST_TYPE);
+                        return executorBiz.runBatch(triggerParamList);
                     case "/kill":
-                        KillParam killParam = GsonTool.fromJson(requestData, KillParam.class);
+                        KillParam killParam = serializer.getSerializer().deserialize(requestData, KillParam.class);
                         return executorBiz.kill(killParam);
                     case "/log":
-                        LogParam logParam = GsonTool.fromJson(requestData, LogParam.class);
+                        LogParam logParam = serializer.getSerializer().deserialize(requestData, LogParam.class);
                         return executorBiz.log(logParam);
+                    case "/logStream":
+                        return new ReturnT<String>(ReturnT.FAIL_CODE, "readLog fail, logFile not exists");
                     default:
                         return new ReturnT<String>(ReturnT.FAIL_CODE, "invalid request, uri-mapping(" + uri + ") not found.");
                 }
@@ -209,17 +229,133 @@ public class EmbedServer {
         /**
          * write response
          */
-        private void writeResponse(ChannelHandlerContext ctx, boolean keepAlive, String responseJson) {
+        private void writeResponse(ChannelHandlerContext ctx, boolean keepAlive, SerializerEnum serializer, byte[] responseData) {
             // write response
-            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.copiedBuffer(responseJson, CharsetUtil.UTF_8));   //  Unpooled.wrappedBuffer(responseJson)
-            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=UTF-8");       // HttpHeaderValues.TEXT_PLAIN.toString()
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, Unpooled.wrappedBuffer(responseData));
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, serializer==SerializerEnum.JSON?"text/html;charset=UTF-8":serializer.getSerializer().getContentType());
             response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+            if (serializer != SerializerEnum.JSON) {
+                response.headers().set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER, serializer.name());
+            }
+            response.headers().set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT, SerializerEnum.ACCEPT);
             if (keepAlive) {
                 response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
             }
             ctx.writeAndFlush(response);
         }
 
+        /**
+         * write log file from "fromOffset" to end, by FileRegion (zero-copy, sendfile if supported), not loaded into heap
+         *
+         * @return  false if log file not exists, response not written
+         */
+        private boolean writeLogStream(ChannelHandlerContext ctx, boolean keepAlive, byte[] requestData, SerializerEnum serializer) {
+            LogParam logParam;
+            try {
+                logParam = serializer.getSerializer().deserialize(requestData, LogParam.class);
+            } catch (Exception e) {
+                logger.error(e.getMessage(), e);
+                return false;
+            }
+            String logFileName = XxlJobFileAppender.makeLogFileName(new Date(logParam.getLogDateTim()), logParam.getLogId());
+            File logFile = new File(logFileName);
+
+            // archived (and log file appended after archived), decompressed by chunk
+            XxlJobLogArchive.ArchiveEntry entry = XxlJobLogArchive.find(logFileName);
+            if (entry != null) {
+                writeArchivedLogStream(ctx, keepAlive, logFileName, entry, logFile.isFile()?logFile.length():0, logParam.getFromOffset());
+                return true;
+            }
+            if (!logFile.isFile()) {
+                return false;
+            }
+
+            // region, [fromOffset, length of file now)
+            long fileSize = logFile.length();
+            long fromOffset = Math.min(Math.max(logParam.getFromOffset(), 0), fileSize);
+            long count = fileSize - fromOffset;
+
+            ctx.write(buildLogStreamResponse(keepAlive, count));
+            if (count > 0) {
+                ctx.write(new DefaultFileRegion(logFile, fromOffset, count));     // file opened lazily, closed when released
+            }
+            ChannelFuture future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+            return true;
+        }
+
+        /**
+         * write archived log by chunk, wait if channel not writable; heap bounded by chunk, not whole log
+         */
+        private void writeArchivedLogStream(ChannelHandlerContext ctx, boolean keepAlive, String logFileName, XxlJobLogArchive.ArchiveEntry entry, long tailSize, long fromOffset) {
+            long fileSize = entry.getOriginalSize() + tailSize;
+            fromOffset = Math.min(Math.max(fromOffset, 0), fileSize);
+            long count = fileSize - fromOffset;
+
+            ctx.write(buildLogStreamResponse(keepAlive, count));
+            InputStream inputStream = null;
+            try {
+                inputStream = XxlJobLogArchive.open(logFileName, entry, tailSize);
+                long skipped = 0;
+                while (skipped < fromOffset) {
+                    long n = inputStream.skip(fromOffset - skipped);
+                    if (n <= 0) {
+                        throw new EOFException();
+                    }
+                    skipped += n;
+                }
+
+                long written = 0;
+                while (written < count) {
+                    byte[] chunk = new byte[(int) Math.min(LOG_STREAM_CHUNK_SIZE, count - written)];
+                    int len = inputStream.read(chunk);
+                    if (len < 0) {
+                        throw new EOFException();
+                    }
+                    ChannelFuture future = ctx.writeAndFlush(new DefaultHttpContent(Unpooled.wrappedBuffer(chunk, 0, len)));
+                    written += len;
+                    if (!ctx.channel().isWritable()) {
+                        future.awaitUninterruptibly();
+                    }
+                    if (!ctx.channel().isActive()) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                // length promised, can not recover
+                logger.error(">>>>>>>>>>> xxl-job, archived log stream error, logFileName:{}", logFileName, e);
+                ctx.close();
+                return;
+            } finally {
+                if (inputStream != null) {
+                    try {
+                        inputStream.close();
+                    } catch (IOException e) {
+                        logger.error(e.getMessage(), e);
+                    }
+                }
+            }
+
+            ChannelFuture future = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+            if (!keepAlive) {
+                future.addListener(ChannelFutureListener.CLOSE);
+            }
+        }
+
+        private HttpResponse buildLogStreamResponse(boolean keepAlive, long count) {
+            HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain;charset=UTF-8");
+            response.headers().set(HttpHeaderNames.CONTENT_LENGTH, count);
+            response.headers().set(XxlJobRemotingUtil.XXL_JOB_STREAM, "true");
+            response.headers().set(XxlJobRemotingUtil.XXL_JOB_SERIALIZER_ACCEPT, SerializerEnum.ACCEPT);
+            if (keepAlive) {
+                response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
+            }
+            return response;
+        }
+
         @Override
         public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
             ctx.flush();
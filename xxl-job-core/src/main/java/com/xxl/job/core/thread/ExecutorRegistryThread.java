@@ -8,6 +8,8 @@ import com.xxl.job.core.executor.XxlJobExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -43,6 +45,7 @@ public class ExecutorRegistryThread {
                 while (!toStop) {
                     try {
                         RegistryParam registryParam = new RegistryParam(RegistryConfig.RegistType.EXECUTOR.name(), appname, address);
+                        fillLoad(registryParam);
                         for (AdminBiz adminBiz: XxlJobExecutor.getAdminBizList()) {
                             try {
                                 ReturnT<String> registryResult = adminBiz.registry(registryParam);
@@ -111,6 +114,29 @@ public class ExecutorRegistryThread {
         registryThread.start();
     }
 
+    /**
+     * executor load, for admin load-aware route
+     */
+    private static void fillLoad(RegistryParam registryParam) {
+        int queueSize = 0;
+        int runningCount = 0;
+        for (JobThread jobThread: XxlJobExecutor.loadJobThreads()) {
+            queueSize += jobThread.getTriggerQueueSize();
+            if (jobThread.isRunning()) {
+                runningCount++;
+            }
+        }
+
+        OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+        double loadAverage = osBean.getSystemLoadAverage();
+        int cpuLoad = loadAverage>=0 ? (int) (loadAverage * 100 / osBean.getAvailableProcessors()) : -1;
+
+        registryParam.setQueueSize(queueSize);
+        registryParam.setRunningCount(runningCount);
+        registryParam.setCpuLoad(cpuLoad);
+        registryParam.setLatency(JobThread.getExecuteTimeAvg());
+    }
+
     public void toStop() {
         toStop = true;
 
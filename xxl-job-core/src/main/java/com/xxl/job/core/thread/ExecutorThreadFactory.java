@@ -0,0 +1,158 @@
+package com.xxl.job.core.thread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * executor thread factory, used by JobThread, job execute thread (with timeout) and EmbedServer biz dispatch
+ *
+ *      a、PLATFORM：platform thread, default;
+ *      b、VIRTUAL：virtual thread, JDK 21+ (loaded by reflection), fallback to PLATFORM if not supported;
+ *      c、custom：any ThreadFactory, set by "XxlJobExecutor.setThreadFactory", prior to thread mode;
+ *
+ * @author xuxueli 2023-06-24
+ */
+public class ExecutorThreadFactory {
+    private static Logger logger = LoggerFactory.getLogger(ExecutorThreadFactory.class);
+
+    public static final String PLATFORM = "PLATFORM";
+    public static final String VIRTUAL = "VIRTUAL";
+
+    private static final ThreadFactory PLATFORM_THREAD_FACTORY = new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            return new Thread(r);
+        }
+    };
+
+    private static volatile ThreadFactory threadFactory = PLATFORM_THREAD_FACTORY;
+    private static volatile boolean virtual = false;
+
+    /**
+     * init thread factory
+     *
+     * @param threadMode        PLATFORM / VIRTUAL, null as PLATFORM
+     * @param customFactory     custom thread factory, prior to threadMode
+     */
+    public static void init(String threadMode, ThreadFactory customFactory) {
+        if (customFactory != null) {
+            threadFactory = customFactory;
+            virtual = false;
+            logger.info(">>>>>>>>>>> xxl-job, executor thread factory init, custom:{}", customFactory);
+            return;
+        }
+
+        if (threadMode != null && VIRTUAL.equalsIgnoreCase(threadMode.trim())) {
+            ThreadFactory virtualThreadFactory = loadVirtualThreadFactory();
+            if (virtualThreadFactory != null) {
+                threadFactory = virtualThreadFactory;
+                virtual = true;
+                logger.info(">>>>>>>>>>> xxl-job, executor thread factory init, threadMode:{}", VIRTUAL);
+                return;
+            }
+            logger.warn(">>>>>>>>>>> xxl-job, virtual thread not supported (require JDK 21+), fallback to platform thread, java.version:{}",
+                    System.getProperty("java.version"));
+        }
+
+        threadFactory = PLATFORM_THREAD_FACTORY;
+        virtual = false;
+        logger.info(">>>>>>>>>>> xxl-job, executor thread factory init, threadMode:{}", PLATFORM);
+    }
+
+    /**
+     * new thread, not started
+     *
+     * @param runnable
+     * @param name
+     * @return
+     */
+    public static Thread newThread(Runnable runnable, String name) {
+        Thread thread = threadFactory.newThread(runnable);
+        thread.setName(name);
+        return thread;
+    }
+
+    /**
+     * new biz executor of EmbedServer
+     *
+     *      a、virtual thread：one thread per task, no pool;
+     *      b、other：bounded thread pool, with thread factory;
+     *
+     * @return
+     */
+    public static ExecutorService newBizExecutor() {
+        if (virtual) {
+            ExecutorService threadPerTaskExecutor = loadThreadPerTaskExecutor(threadFactory);
+            if (threadPerTaskExecutor != null) {
+                return threadPerTaskExecutor;
+            }
+        }
+
+        return new ThreadPoolExecutor(
+                0,
+                200,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(2000),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        return ExecutorThreadFactory.newThread(r, "xxl-job, EmbedServer bizThreadPool-" + r.hashCode());
+                    }
+                },
+                new RejectedExecutionHandler() {
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        throw new RuntimeException("xxl-job, EmbedServer bizThreadPool is EXHAUSTED!");
+                    }
+                });
+    }
+
+    public static boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * is virtual thread supported by current jvm
+     */
+    public static boolean isVirtualThreadSupported() {
+        return loadVirtualThreadFactory() != null;
+    }
+
+
+    // ---------------------- reflection, for JDK 21+ ----------------------
+
+    /**
+     * Thread.ofVirtual().factory()
+     *
+     * @return  null if not supported
+     */
+    private static ThreadFactory loadVirtualThreadFactory() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Method factoryMethod = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factoryMethod.invoke(builder);
+        } catch (Throwable e) {
+            // JDK < 21, or preview not enabled
+            return null;
+        }
+    }
+
+    /**
+     * Executors.newThreadPerTaskExecutor(threadFactory)
+     *
+     * @return  null if not supported
+     */
+    private static ExecutorService loadThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) method.invoke(null, threadFactory);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+}
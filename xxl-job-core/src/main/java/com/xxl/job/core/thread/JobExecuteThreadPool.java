@@ -0,0 +1,145 @@
+package com.xxl.job.core.thread;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job execute thread pool, for job with timeout ("executorTimeout > 0")
+ *
+ *      a、worker：execute thread reused from pool (by "ExecutorThreadFactory"), instead of new thread for each trigger;
+ *      b、watchdog：one shared timing wheel, cancel and interrupt overdue execution;
+ *      c、metrics：execute count, timeout count, worker thread created; logged on each timeout and thread creation, total on stop;
+ *
+ * @author xuxueli 2023-06-25
+ */
+public class JobExecuteThreadPool {
+    private static Logger logger = LoggerFactory.getLogger(JobExecuteThreadPool.class);
+
+    private static JobExecuteThreadPool instance = new JobExecuteThreadPool();
+    public static JobExecuteThreadPool getInstance(){
+        return instance;
+    }
+
+    private volatile ThreadPoolExecutor workerPool;
+    private volatile HashedWheelTimer watchdog;
+
+    private final AtomicLong executeCount = new AtomicLong(0);
+    private final AtomicLong timeoutCount = new AtomicLong(0);
+    private final AtomicLong threadCreateCount = new AtomicLong(0);
+
+    public synchronized void start() {
+        if (workerPool != null) {
+            return;
+        }
+        final AtomicInteger workerIndex = new AtomicInteger(0);
+        workerPool = new ThreadPoolExecutor(
+                0,
+                Integer.MAX_VALUE,      // each running job hold one worker, same as thread per trigger before
+                60L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        logger.debug(">>>>>>>>>>> xxl-job, JobExecuteThreadPool worker thread create, thread created:{}, execute:{}",
+                                threadCreateCount.incrementAndGet(), executeCount.get());
+                        return ExecutorThreadFactory.newThread(r, "xxl-job, JobExecuteThreadPool-worker-" + workerIndex.incrementAndGet());
+                    }
+                });
+        watchdog = new HashedWheelTimer(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "xxl-job, JobExecuteThreadPool-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            }
+        }, 100, TimeUnit.MILLISECONDS);
+        logger.info(">>>>>>>>>>> xxl-job, JobExecuteThreadPool start.");
+    }
+
+    public synchronized void toStop() {
+        if (workerPool == null) {
+            return;
+        }
+        workerPool.shutdownNow();
+        watchdog.stop();
+        workerPool = null;
+        watchdog = null;
+        logger.info(">>>>>>>>>>> xxl-job, JobExecuteThreadPool stop, execute:{}, timeout:{}, thread created:{}",
+                executeCount.get(), timeoutCount.get(), threadCreateCount.get());
+    }
+
+    /**
+     * execute in worker thread, wait for result
+     *
+     * @param callable
+     * @param timeout       second
+     * @return
+     * @throws TimeoutException         execute timeout, worker interrupted
+     * @throws ExecutionException       execute fail
+     * @throws InterruptedException     caller interrupted (job thread killed), worker interrupted
+     */
+    public <T> T execute(Callable<T> callable, final int timeout) throws TimeoutException, ExecutionException, InterruptedException {
+        if (workerPool == null) {
+            start();    // lazy, for job thread not started by executor
+        }
+        ThreadPoolExecutor workerPoolTmp = workerPool;
+        HashedWheelTimer watchdogTmp = watchdog;
+        if (workerPoolTmp == null || watchdogTmp == null) {
+            throw new RejectedExecutionException("xxl-job, JobExecuteThreadPool is stopped.");
+        }
+        executeCount.incrementAndGet();
+
+        final FutureTask<T> futureTask = new FutureTask<T>(callable);
+        final AtomicBoolean timeoutFired = new AtomicBoolean(false);
+        workerPoolTmp.execute(futureTask);
+
+        // watchdog
+        Timeout watchdogTimeout = watchdogTmp.newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout watchdogTimeout) throws Exception {
+                if (!futureTask.isDone()) {
+                    timeoutFired.set(true);
+                    logger.warn(">>>>>>>>>>> xxl-job, JobExecuteThreadPool execute timeout({}s), worker interrupted, timeout:{}, execute:{}",
+                            timeout, timeoutCount.incrementAndGet(), executeCount.get());
+                    futureTask.cancel(true);
+                }
+            }
+        }, timeout, TimeUnit.SECONDS);
+
+        try {
+            return futureTask.get();
+        } catch (CancellationException e) {
+            if (timeoutFired.get()) {
+                throw new TimeoutException("job execute timeout(" + timeout + "s).");
+            }
+            throw e;
+        } finally {
+            watchdogTimeout.cancel();
+            futureTask.cancel(true);    // caller interrupted, not wait worker any more
+        }
+    }
+
+    /**
+     * timeout fired by watchdog
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * worker thread created, much less than execute count when worker reused
+     */
+    public long getThreadCreateCount() {
+        return threadCreateCount.get();
+    }
+
+}
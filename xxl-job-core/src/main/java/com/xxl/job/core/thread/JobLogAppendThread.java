@@ -0,0 +1,265 @@
+package com.xxl.job.core.thread;
+
+import com.xxl.job.core.util.MpscArrayQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * job log append thread, async write job log file
+ *
+ *      a、buffer：log line queued in ring buffer (MpscArrayQueue), producer (job thread) wait if full;
+ *      b、file：FileChannel of each log file kept open while job running, closed when run complete, or idle / too many open;
+ *      c、flush：write to file each "FLUSH_INTERVAL", or buffer of file over "FILE_BUFFER_SIZE"; force flush when run complete, before callback;
+ *
+ * @author xuxueli 2023-06-27
+ */
+public class JobLogAppendThread {
+    private static Logger logger = LoggerFactory.getLogger(JobLogAppendThread.class);
+
+    private static JobLogAppendThread instance = new JobLogAppendThread();
+    public static JobLogAppendThread getInstance(){
+        return instance;
+    }
+
+    private static final int QUEUE_CAPACITY = 64 * 1024;
+    private static final int FILE_BUFFER_SIZE = 32 * 1024;      // byte
+    private static final long FLUSH_INTERVAL = 100;             // ms
+    private static final long FLUSH_WAIT_TIMEOUT = 3000;        // ms
+    private static final long IDLE_CLOSE_TIME = 30 * 1000;      // ms
+    private static final int MAX_OPEN_FILE = 256;
+
+    private volatile MpscArrayQueue<LogEvent> logQueue;
+    private volatile boolean running = false;
+    private volatile boolean toStop = false;
+    private Thread appendThread;
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        toStop = false;
+        logQueue = new MpscArrayQueue<LogEvent>(QUEUE_CAPACITY);
+        appendThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Map<String, LogFile> openFileMap = new LinkedHashMap<String, LogFile>(16, 0.75f, true);     // access order, eldest first
+                long lastFlushTime = System.currentTimeMillis();
+
+                while (!toStop || !logQueue.isEmpty()) {
+                    try {
+                        LogEvent logEvent = logQueue.poll(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+                        if (logEvent != null) {
+                            process(openFileMap, logEvent);
+                        }
+
+                        // periodic flush
+                        long now = System.currentTimeMillis();
+                        if (now - lastFlushTime >= FLUSH_INTERVAL) {
+                            Iterator<LogFile> iterator = openFileMap.values().iterator();
+                            while (iterator.hasNext()) {
+                                LogFile logFile = iterator.next();
+                                write(logFile);
+                                if (now - logFile.lastAccessTime > IDLE_CLOSE_TIME) {
+                                    close(logFile);
+                                    iterator.remove();
+                                }
+                            }
+                            lastFlushTime = now;
+                        }
+                    } catch (Throwable e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+
+                // flush and close all
+                for (LogFile logFile : openFileMap.values()) {
+                    write(logFile);
+                    close(logFile);
+                }
+                openFileMap.clear();
+                logger.info(">>>>>>>>>>> xxl-job, executor JobLogAppendThread destroy.");
+            }
+        });
+        appendThread.setDaemon(true);
+        appendThread.setName("xxl-job, executor JobLogAppendThread");
+        appendThread.start();
+        running = true;
+    }
+
+    public synchronized void toStop() {
+        if (!running) {
+            return;
+        }
+        running = false;        // new log, write directly
+        toStop = true;
+        try {
+            appendThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * append log, async
+     *
+     * @param logFileName
+     * @param data
+     * @return  false if not running, should write directly
+     */
+    public boolean append(String logFileName, byte[] data) {
+        return offer(new LogEvent(logFileName, data, null));
+    }
+
+    /**
+     * flush log to file and close it, wait until written
+     *
+     * @param logFileName
+     */
+    public void flush(String logFileName) {
+        CountDownLatch flushLatch = new CountDownLatch(1);
+        if (!offer(new LogEvent(logFileName, null, flushLatch))) {
+            return;
+        }
+        try {
+            if (!flushLatch.await(FLUSH_WAIT_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                logger.warn(">>>>>>>>>>> xxl-job, job log flush timeout, logFileName:{}", logFileName);
+            }
+        } catch (InterruptedException e) {
+            // job thread killed, not wait
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean offer(LogEvent logEvent) {
+        MpscArrayQueue<LogEvent> logQueueTmp = logQueue;
+        if (!running || logQueueTmp == null) {
+            return false;
+        }
+        // full, wait for append thread
+        while (!logQueueTmp.offer(logEvent)) {
+            if (!running) {
+                return false;
+            }
+            LockSupport.parkNanos(100 * 1000);
+        }
+        return true;
+    }
+
+
+    // ---------------------- append thread ----------------------
+
+    private void process(Map<String, LogFile> openFileMap, LogEvent logEvent) {
+        LogFile logFile = openFileMap.get(logEvent.logFileName);
+
+        // flush and close, run complete
+        if (logEvent.flushLatch != null) {
+            if (logFile != null) {
+                write(logFile);
+                close(logFile);
+                openFileMap.remove(logEvent.logFileName);
+            }
+            logEvent.flushLatch.countDown();
+            return;
+        }
+
+        // append
+        if (logFile == null) {
+            logFile = new LogFile(logEvent.logFileName);
+            openFileMap.put(logEvent.logFileName, logFile);
+
+            // too many open, close eldest
+            if (openFileMap.size() > MAX_OPEN_FILE) {
+                Iterator<LogFile> iterator = openFileMap.values().iterator();
+                LogFile eldest = iterator.next();
+                write(eldest);
+                close(eldest);
+                iterator.remove();
+            }
+        }
+        logFile.append(logEvent.data);
+        if (logFile.length >= FILE_BUFFER_SIZE) {
+            write(logFile);
+        }
+    }
+
+    private void write(LogFile logFile) {
+        if (logFile.length == 0) {
+            return;
+        }
+        try {
+            if (logFile.channel == null) {
+                logFile.channel = FileChannel.open(new File(logFile.logFileName).toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+            ByteBuffer byteBuffer = ByteBuffer.wrap(logFile.buffer, 0, logFile.length);
+            while (byteBuffer.hasRemaining()) {
+                logFile.channel.write(byteBuffer);
+            }
+        } catch (IOException e) {
+            logger.error(">>>>>>>>>>> xxl-job, job log write error, logFileName:{}", logFile.logFileName, e);
+        } finally {
+            logFile.length = 0;
+        }
+    }
+
+    private void close(LogFile logFile) {
+        if (logFile.channel != null) {
+            try {
+                logFile.channel.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+            logFile.channel = null;
+        }
+    }
+
+    private static class LogEvent {
+        private final String logFileName;
+        private final byte[] data;
+        private final CountDownLatch flushLatch;      // not null, flush event
+
+        LogEvent(String logFileName, byte[] data, CountDownLatch flushLatch) {
+            this.logFileName = logFileName;
+            this.data = data;
+            this.flushLatch = flushLatch;
+        }
+    }
+
+    private static class LogFile {
+        private final String logFileName;
+        private FileChannel channel;
+        private byte[] buffer = new byte[1024];
+        private int length = 0;
+        private long lastAccessTime = System.currentTimeMillis();
+
+        LogFile(String logFileName) {
+            this.logFileName = logFileName;
+        }
+
+        void append(byte[] data) {
+            if (length + data.length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + data.length));
+            }
+            System.arraycopy(data, 0, buffer, length, data.length);
+            length += data.length;
+            lastAccessTime = System.currentTimeMillis();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.xxl.job.core.thread;
+
+import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.log.XxlJobLogArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * job log archive thread, compress log files of finished day directory into one archive, read transparently by XxlJobFileAppender
+ *
+ *      a、finished：day directory over "logArchiveDays", and log file not modified in "ARCHIVE_IDLE_TIME";
+ *      b、clean：archive kept in day directory, cleaned with it by JobLogFileCleanThread;
+ *
+ * @author xuxueli 2023-06-29
+ */
+public class JobLogArchiveThread {
+    private static Logger logger = LoggerFactory.getLogger(JobLogArchiveThread.class);
+
+    private static JobLogArchiveThread instance = new JobLogArchiveThread();
+    public static JobLogArchiveThread getInstance(){
+        return instance;
+    }
+
+    private static final long ARCHIVE_IDLE_TIME = 60 * 60 * 1000;      // ms
+
+    private final AtomicLong archivedFileCount = new AtomicLong();
+    private final AtomicLong originalSize = new AtomicLong();
+    private final AtomicLong archivedSize = new AtomicLong();
+
+    private Thread localThread;
+    private volatile boolean toStop = false;
+    public void start(final long logArchiveDays){
+
+        // disabled
+        if (logArchiveDays <= 0) {
+            return;
+        }
+
+        toStop = false;
+        localThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!toStop) {
+                    try {
+                        archive(logArchiveDays);
+                    } catch (Exception e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+
+                    try {
+                        TimeUnit.HOURS.sleep(1);
+                    } catch (InterruptedException e) {
+                        if (!toStop) {
+                            logger.error(e.getMessage(), e);
+                        }
+                    }
+                }
+                logger.info(">>>>>>>>>>> xxl-job, executor JobLogArchiveThread thread destroy.");
+            }
+        });
+        localThread.setDaemon(true);
+        localThread.setName("xxl-job, executor JobLogArchiveThread");
+        localThread.start();
+    }
+
+    public void toStop() {
+        toStop = true;
+
+        if (localThread == null) {
+            return;
+        }
+
+        // interrupt and wait
+        localThread.interrupt();
+        try {
+            localThread.join();
+        } catch (InterruptedException e) {
+            logger.error(e.getMessage(), e);
+        }
+        localThread = null;
+    }
+
+    private void archive(long logArchiveDays) {
+        File[] childDirs = new File(XxlJobFileAppender.getLogPath()).listFiles();
+        if (childDirs == null || childDirs.length == 0) {
+            return;
+        }
+
+        // today
+        Calendar todayCal = Calendar.getInstance();
+        todayCal.set(Calendar.HOUR_OF_DAY,0);
+        todayCal.set(Calendar.MINUTE,0);
+        todayCal.set(Calendar.SECOND,0);
+        todayCal.set(Calendar.MILLISECOND,0);
+        Date todayDate = todayCal.getTime();
+
+        for (File childFile: childDirs) {
+            if (toStop) {
+                return;
+            }
+
+            // valid, day directory
+            if (!childFile.isDirectory() || childFile.getName().indexOf("-") == -1) {
+                continue;
+            }
+            Date logFileCreateDate = null;
+            try {
+                SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd");
+                logFileCreateDate = simpleDateFormat.parse(childFile.getName());
+            } catch (ParseException e) {
+                logger.error(e.getMessage(), e);
+            }
+            if (logFileCreateDate == null
+                    || (todayDate.getTime()-logFileCreateDate.getTime()) < logArchiveDays * (24 * 60 * 60 * 1000)) {
+                continue;
+            }
+
+            // archive
+            try {
+                XxlJobLogArchive.ArchiveResult result = XxlJobLogArchive.archive(childFile, ARCHIVE_IDLE_TIME);
+                if (result != null) {
+                    archivedFileCount.addAndGet(result.getFileCount());
+                    originalSize.addAndGet(result.getOriginalSize());
+                    archivedSize.addAndGet(result.getArchivedSize());
+                    logger.info(">>>>>>>>>>> xxl-job, job log archived, dir:{}, file:{}, size:{} -> {}, saved:{} byte",
+                            childFile.getName(), result.getFileCount(), result.getOriginalSize(), result.getArchivedSize(), result.getSavedSize());
+                }
+            } catch (Exception e) {
+                logger.error(">>>>>>>>>>> xxl-job, job log archive error, dir:{}", childFile.getPath(), e);
+            }
+        }
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    public long getArchivedFileCount() {
+        return archivedFileCount.get();
+    }
+
+    public long getOriginalSize() {
+        return originalSize.get();
+    }
+
+    public long getArchivedSize() {
+        return archivedSize.get();
+    }
+
+    /**
+     * bytes saved by archive, since started
+     */
+    public long getSavedSize() {
+        return originalSize.get() - archivedSize.get();
+    }
+
+}
@@ -8,45 +8,64 @@ import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.executor.XxlJobExecutor;
 import com.xxl.job.core.handler.IJobHandler;
 import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.LongHashSet;
+import com.xxl.job.core.util.MpscArrayQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * handler thread
+ * handler thread, thread created by "ExecutorThreadFactory" (platform or virtual thread)
  * @author xuxueli 2016-1-16 19:52:47
  */
-public class JobThread extends Thread{
+public class JobThread implements Runnable{
 	private static Logger logger = LoggerFactory.getLogger(JobThread.class);
 
+	public static final int DEFAULT_TRIGGER_QUEUE_CAPACITY = 1024;
+
 	private int jobId;
 	private IJobHandler handler;
-	private LinkedBlockingQueue<TriggerParam> triggerQueue;
-	private Set<Long> triggerLogIdSet;		// avoid repeat trigger for the same TRIGGER_LOG_ID
+	private Thread thread;
+	private MpscArrayQueue<TriggerParam> triggerQueue;		// bounded, multi biz thread push + this thread poll
+	private LongHashSet triggerLogIdSet;		// avoid repeat trigger for the same TRIGGER_LOG_ID
 
 	private volatile boolean toStop = false;
 	private String stopReason;
 
-    private boolean running = false;    // if running job
+    private volatile boolean running = false;    // if running job
 	private int idleTimes = 0;			// idel times
 
 
 	public JobThread(int jobId, IJobHandler handler) {
+		this(jobId, handler, DEFAULT_TRIGGER_QUEUE_CAPACITY);
+	}
+	public JobThread(int jobId, IJobHandler handler, int triggerQueueCapacity) {
 		this.jobId = jobId;
 		this.handler = handler;
-		this.triggerQueue = new LinkedBlockingQueue<TriggerParam>();
-		this.triggerLogIdSet = Collections.synchronizedSet(new HashSet<Long>());
+		this.triggerQueue = new MpscArrayQueue<TriggerParam>(triggerQueueCapacity>0?triggerQueueCapacity:DEFAULT_TRIGGER_QUEUE_CAPACITY);
+		this.triggerLogIdSet = new LongHashSet(16);		// grow on burst, small for idle job
 
 		// assign job thread name
-		this.setName("xxl-job, JobThread-"+jobId+"-"+System.currentTimeMillis());
+		this.thread = ExecutorThreadFactory.newThread(this, "xxl-job, JobThread-"+jobId+"-"+System.currentTimeMillis());
+	}
+
+	public void start() {
+		thread.start();
+	}
+	public void interrupt() {
+		thread.interrupt();
+	}
+	public void join() throws InterruptedException {
+		thread.join();
+	}
+	public Thread getThread() {
+		return thread;
 	}
 	public IJobHandler getHandler() {
 		return handler;
@@ -59,14 +78,18 @@ public class JobThread extends Thread{
      * @return
      */
 	public ReturnT<String> pushTriggerQueue(TriggerParam triggerParam) {
-		// avoid repeat
-		if (triggerLogIdSet.contains(triggerParam.getLogId())) {
+		// avoid repeat, check and add in one step
+		if (!triggerLogIdSet.add(triggerParam.getLogId())) {
 			logger.info(">>>>>>>>>>> repeate trigger job, logId:{}", triggerParam.getLogId());
 			return new ReturnT<String>(ReturnT.FAIL_CODE, "repeate trigger job, logId:" + triggerParam.getLogId());
 		}
 
-		triggerLogIdSet.add(triggerParam.getLogId());
-		triggerQueue.add(triggerParam);
+		// back-pressure, queue full
+		if (!triggerQueue.offer(triggerParam)) {
+			triggerLogIdSet.remove(triggerParam.getLogId());
+			logger.warn(">>>>>>>>>>> xxl-job trigger queue full, jobId:{}, capacity:{}, logId:{}", jobId, triggerQueue.capacity(), triggerParam.getLogId());
+			return new ReturnT<String>(ReturnT.FAIL_CODE, "job trigger queue is full, capacity:" + triggerQueue.capacity() + ", logId:" + triggerParam.getLogId());
+		}
         return ReturnT.SUCCESS;
 	}
 
@@ -93,6 +116,14 @@ public class JobThread extends Thread{
         return running || triggerQueue.size()>0;
     }
 
+	public boolean isRunning() {
+		return running;
+	}
+
+	public int getTriggerQueueSize() {
+		return triggerQueue.size();
+	}
+
     @Override
 	public void run() {
 
@@ -109,12 +140,14 @@ public class JobThread extends Thread{
 			idleTimes++;
 
             TriggerParam triggerParam = null;
+            long executeStartTime = 0;
             try {
-				// to check toStop signal, we need cycle, so wo cannot use queue.take(), instand of poll(timeout)
+				// to check toStop signal, we need cycle, so wo cannot use queue.take(), instand of poll(timeout); wake up once trigger pushed
 				triggerParam = triggerQueue.poll(3L, TimeUnit.SECONDS);
 				if (triggerParam!=null) {
 					running = true;
 					idleTimes = 0;
+					executeStartTime = System.currentTimeMillis();
 					triggerLogIdSet.remove(triggerParam.getLogId());
 
 					// log filename, like "logPath/yyyy-MM-dd/9999.log"
@@ -133,24 +166,23 @@ public class JobThread extends Thread{
 					XxlJobHelper.log("<br>----------- xxl-job job execute start -----------<br>----------- Param:" + xxlJobContext.getJobParam());
 
 					if (triggerParam.getExecutorTimeout() > 0) {
-						// limit timeout
-						Thread futureThread = null;
+						// limit timeout, execute in shared worker pool, interrupted by watchdog when overdue
 						try {
-							FutureTask<Boolean> futureTask = new FutureTask<Boolean>(new Callable<Boolean>() {
+							JobExecuteThreadPool.getInstance().execute(new Callable<Boolean>() {
 								@Override
 								public Boolean call() throws Exception {
 
 									// init job context
 									XxlJobContext.setXxlJobContext(xxlJobContext);
-
-									handler.execute();
+									try {
+										handler.execute();
+									} finally {
+										// worker reused, clear context
+										XxlJobContext.setXxlJobContext(null);
+									}
 									return true;
 								}
-							});
-							futureThread = new Thread(futureTask);
-							futureThread.start();
-
-							Boolean tempResult = futureTask.get(triggerParam.getExecutorTimeout(), TimeUnit.SECONDS);
+							}, triggerParam.getExecutorTimeout());
 						} catch (TimeoutException e) {
 
 							XxlJobHelper.log("<br>----------- xxl-job job execute timeout");
@@ -158,8 +190,6 @@ public class JobThread extends Thread{
 
 							// handle result
 							XxlJobHelper.handleTimeout("job execute timeout ");
-						} finally {
-							futureThread.interrupt();
 						}
 					} else {
 						// just execute
@@ -204,6 +234,13 @@ public class JobThread extends Thread{
 				XxlJobHelper.log("<br>----------- JobThread Exception:" + errorMsg + "<br>----------- xxl-job job execute end(error) -----------");
 			} finally {
                 if(triggerParam != null) {
+                    recordExecuteTime(System.currentTimeMillis() - executeStartTime);
+
+                    // flush job log, before callback
+                    if (XxlJobContext.getXxlJobContext() != null) {
+                        XxlJobFileAppender.flushLog(XxlJobContext.getXxlJobContext().getJobLogFileName());
+                    }
+
                     // callback handler info
                     if (!toStop) {
                         // commonm
@@ -249,4 +286,25 @@ public class JobThread extends Thread{
 
 		logger.info(">>>>>>>>>>> xxl-job JobThread stoped, hashCode:{}", Thread.currentThread());
 	}
+
+	// ---------------------- execute time ----------------------
+
+	private static final AtomicLong executeTimeAvg = new AtomicLong(0);		// ms, ewma (1/8) of all job thread
+
+	private static void recordExecuteTime(long executeTime) {
+		long oldAvg;
+		long newAvg;
+		do {
+			oldAvg = executeTimeAvg.get();
+			newAvg = oldAvg + (executeTime - oldAvg) / 8;
+		} while (!executeTimeAvg.compareAndSet(oldAvg, newAvg));
+	}
+
+	/**
+	 * recent job execute time, ms
+	 */
+	public static long getExecuteTimeAvg() {
+		return executeTimeAvg.get();
+	}
+
 }
@@ -3,24 +3,36 @@ package com.xxl.job.core.thread;
 import com.xxl.job.core.biz.AdminBiz;
 import com.xxl.job.core.biz.model.HandleCallbackParam;
 import com.xxl.job.core.biz.model.ReturnT;
-import com.xxl.job.core.context.XxlJobContext;
-import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.enums.RegistryConfig;
 import com.xxl.job.core.executor.XxlJobExecutor;
 import com.xxl.job.core.log.XxlJobFileAppender;
+import com.xxl.job.core.util.CallbackJournal;
+import com.xxl.job.core.util.DateUtil;
 import com.xxl.job.core.util.FileUtil;
 import com.xxl.job.core.util.JdkSerializeTool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * job result callback thread
+ *
+ *      a、batch：drain up to "batchSize" callback each batch; linger up to "linger" ms to fill batch when busy (last batch not single), no delay when idle;
+ *      b、pipeline：up to "inflight" batch sending to admin concurrently, callback thread wait for free slot, batch grows meanwhile;
+ *      c、admin：FAILOVER (in order, default), ROUND (round-robin first admin), LEAST_LATENCY (lowest EWMA latency first); try others if fail;
+ *      d、log：callback result written to job log by async appender (JobLogAppendThread), formatted once per batch;
+ *
  * Created by xuxueli on 16/7/22.
  */
 public class TriggerCallbackThread {
@@ -31,6 +43,16 @@ public class TriggerCallbackThread {
         return instance;
     }
 
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final long DEFAULT_LINGER = 5;            // ms
+    public static final int DEFAULT_INFLIGHT = 4;
+
+    public static final String ADMIN_FAILOVER = "FAILOVER";
+    public static final String ADMIN_ROUND = "ROUND";
+    public static final String ADMIN_LEAST_LATENCY = "LEAST_LATENCY";
+
+    private static final long FAIL_LATENCY_PENALTY = TimeUnit.SECONDS.toNanos(3);
+
     /**
      * job results callback queue
      */
@@ -46,14 +68,71 @@ public class TriggerCallbackThread {
     private Thread triggerCallbackThread;
     private Thread triggerRetryCallbackThread;
     private volatile boolean toStop = false;
+
+    private List<AdminBiz> adminBizList;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long linger = DEFAULT_LINGER;
+    private int inflight = DEFAULT_INFLIGHT;
+    private String adminStrategy = ADMIN_FAILOVER;
+
+    private ThreadPoolExecutor callbackSendPool;
+    private Semaphore inflightSemaphore;
+    private final AtomicInteger adminRoundIndex = new AtomicInteger();
+    private final ConcurrentMap<AdminBiz, AtomicLong> adminLatencyMap = new ConcurrentHashMap<AdminBiz, AtomicLong>();      // EWMA, ns
+
+    private final AtomicLong callbackCount = new AtomicLong();
+    private final AtomicLong callbackBatchCount = new AtomicLong();
+
     public void start() {
+        start(XxlJobExecutor.getAdminBizList(), DEFAULT_BATCH_SIZE, DEFAULT_LINGER, DEFAULT_INFLIGHT, ADMIN_FAILOVER);
+    }
+
+    /**
+     * start
+     *
+     * @param adminBizList
+     * @param batchSize         max callback each batch, less than or equal to 0 as default
+     * @param linger            max ms wait to fill batch, 0 to disable
+     * @param inflight          max batch sending concurrently, less than or equal to 0 as default
+     * @param adminStrategy     FAILOVER / ROUND / LEAST_LATENCY, null as FAILOVER
+     */
+    public void start(List<AdminBiz> adminBizList, int batchSize, long linger, int inflight, String adminStrategy) {
 
         // valid
-        if (XxlJobExecutor.getAdminBizList() == null) {
+        if (adminBizList == null || adminBizList.isEmpty()) {
             logger.warn(">>>>>>>>>>> xxl-job, executor callback config fail, adminAddresses is null.");
             return;
         }
 
+        // param
+        this.adminBizList = adminBizList;
+        this.batchSize = batchSize>0?batchSize:DEFAULT_BATCH_SIZE;
+        this.linger = linger>0?linger:0;
+        this.inflight = inflight>0?inflight:DEFAULT_INFLIGHT;
+        this.adminStrategy = parseAdminStrategy(adminStrategy);
+        toStop = false;
+
+        // fail-callback journal
+        openFailCallbackJournal();
+
+        // send pool, bounded by inflight semaphore
+        inflightSemaphore = new Semaphore(this.inflight);
+        callbackSendPool = new ThreadPoolExecutor(
+                this.inflight,
+                this.inflight,
+                60L,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadIndex = new AtomicInteger();
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "xxl-job, executor TriggerCallbackThread send-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+
         // callback
         triggerCallbackThread = new Thread(new Runnable() {
 
@@ -61,21 +140,19 @@ public class TriggerCallbackThread {
             public void run() {
 
                 // normal callback
+                int lastBatchSize = 0;
                 while(!toStop){
                     try {
                         HandleCallbackParam callback = getInstance().callBackQueue.take();
-                        if (callback != null) {
 
-                            // callback list param
-                            List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
-                            int drainToNum = getInstance().callBackQueue.drainTo(callbackParamList);
-                            callbackParamList.add(callback);
+                        // callback list param
+                        List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
+                        callbackParamList.add(callback);
+                        fillBatch(callbackParamList, lastBatchSize > 1);
+                        lastBatchSize = callbackParamList.size();
 
-                            // callback, will retry if error
-                            if (callbackParamList!=null && callbackParamList.size()>0) {
-                                doCallback(callbackParamList);
-                            }
-                        }
+                        // callback, async, will retry if error
+                        sendCallback(callbackParamList);
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(e.getMessage(), e);
@@ -86,14 +163,12 @@ public class TriggerCallbackThread {
                 // last callback
                 try {
                     List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
-                    int drainToNum = getInstance().callBackQueue.drainTo(callbackParamList);
-                    if (callbackParamList!=null && callbackParamList.size()>0) {
-                        doCallback(callbackParamList);
+                    while (getInstance().callBackQueue.drainTo(callbackParamList, TriggerCallbackThread.this.batchSize) > 0) {
+                        sendCallback(callbackParamList);
+                        callbackParamList = new ArrayList<HandleCallbackParam>();
                     }
                 } catch (Exception e) {
-                    if (!toStop) {
-                        logger.error(e.getMessage(), e);
-                    }
+                    logger.error(e.getMessage(), e);
                 }
                 logger.info(">>>>>>>>>>> xxl-job, executor callback thread destroy.");
 
@@ -110,7 +185,7 @@ public class TriggerCallbackThread {
             public void run() {
                 while(!toStop){
                     try {
-                        retryFailCallbackFile();
+                        retryFailCallbackJournal();
                     } catch (Exception e) {
                         if (!toStop) {
                             logger.error(e.getMessage(), e);
@@ -142,6 +217,20 @@ public class TriggerCallbackThread {
             } catch (InterruptedException e) {
                 logger.error(e.getMessage(), e);
             }
+            triggerCallbackThread = null;
+        }
+
+        // stop send, wait for inflight callback
+        if (callbackSendPool != null) {
+            callbackSendPool.shutdown();
+            try {
+                if (!callbackSendPool.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warn(">>>>>>>>>>> xxl-job, executor callback send timeout, inflight:{}", getInflightCount());
+                }
+            } catch (InterruptedException e) {
+                logger.error(e.getMessage(), e);
+            }
+            callbackSendPool = null;
         }
 
         // stop retry, interrupt and wait
@@ -152,109 +241,327 @@ public class TriggerCallbackThread {
             } catch (InterruptedException e) {
                 logger.error(e.getMessage(), e);
             }
+            triggerRetryCallbackThread = null;
+        }
+
+        // close journal, after last callback
+        if (failCallbackJournal != null) {
+            failCallbackJournal.close();
+            failCallbackJournal = null;
         }
 
     }
 
+    /**
+     * fill batch up to "batchSize", linger if busy
+     */
+    private void fillBatch(List<HandleCallbackParam> callbackParamList, boolean busy) {
+        callBackQueue.drainTo(callbackParamList, batchSize - callbackParamList.size());
+        if (!busy || linger <= 0) {
+            return;
+        }
+
+        long lingerDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(linger);
+        while (callbackParamList.size() < batchSize && !toStop) {
+            long lingerRemain = lingerDeadline - System.nanoTime();
+            if (lingerRemain <= 0) {
+                break;
+            }
+            HandleCallbackParam callback;
+            try {
+                callback = callBackQueue.poll(lingerRemain, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                // stop, send collected
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (callback == null) {
+                break;
+            }
+            callbackParamList.add(callback);
+            callBackQueue.drainTo(callbackParamList, batchSize - callbackParamList.size());
+        }
+    }
+
+    /**
+     * send batch by send pool, wait if "inflight" batch sending
+     */
+    private void sendCallback(final List<HandleCallbackParam> callbackParamList) {
+        boolean acquired = false;
+        try {
+            inflightSemaphore.acquire();
+            acquired = true;
+            callbackSendPool.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        doCallback(callbackParamList);
+                    } finally {
+                        inflightSemaphore.release();
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // interrupted when stop, or pool shutdown; send directly
+            if (acquired) {
+                inflightSemaphore.release();
+            }
+            doCallback(callbackParamList);
+        }
+    }
+
     /**
      * do callback, will retry if error
      * @param callbackParamList
      */
     private void doCallback(List<HandleCallbackParam> callbackParamList){
+        if (!callback(callbackParamList)) {
+            appendFailCallbackJournal(callbackParamList);
+        }
+    }
+
+    /**
+     * callback to admin, try each until success
+     *
+     * @return  true if success
+     */
+    private boolean callback(List<HandleCallbackParam> callbackParamList){
         boolean callbackRet = false;
         // callback, will retry if error
-        for (AdminBiz adminBiz: XxlJobExecutor.getAdminBizList()) {
+        for (AdminBiz adminBiz: selectAdminBizList()) {
+            long start = System.nanoTime();
             try {
                 ReturnT<String> callbackResult = adminBiz.callback(callbackParamList);
                 if (callbackResult!=null && ReturnT.SUCCESS_CODE == callbackResult.getCode()) {
+                    updateLatency(adminBiz, System.nanoTime() - start);
                     callbackLog(callbackParamList, "<br>----------- xxl-job job callback finish.");
                     callbackRet = true;
                     break;
                 } else {
+                    updateLatency(adminBiz, Math.max(System.nanoTime() - start, FAIL_LATENCY_PENALTY));
                     callbackLog(callbackParamList, "<br>----------- xxl-job job callback fail, callbackResult:" + callbackResult);
                 }
             } catch (Exception e) {
+                updateLatency(adminBiz, Math.max(System.nanoTime() - start, FAIL_LATENCY_PENALTY));
                 callbackLog(callbackParamList, "<br>----------- xxl-job job callback error, errorMsg:" + e.getMessage());
             }
         }
-        if (!callbackRet) {
-            appendFailCallbackFile(callbackParamList);
+        if (callbackRet) {
+            callbackCount.addAndGet(callbackParamList.size());
+            callbackBatchCount.incrementAndGet();
         }
+        return callbackRet;
     }
 
     /**
-     * callback log
+     * callback log, async appended to job log
      */
     private void callbackLog(List<HandleCallbackParam> callbackParamList, String logContent){
+        String formatAppendLog = DateUtil.formatDateTime(new Date()) + " "
+                + "[" + TriggerCallbackThread.class.getName() + "#callbackLog]-"
+                + "[" + Thread.currentThread().getName() + "] "
+                + logContent;
         for (HandleCallbackParam callbackParam: callbackParamList) {
             String logFileName = XxlJobFileAppender.makeLogFileName(new Date(callbackParam.getLogDateTim()), callbackParam.getLogId());
-            XxlJobContext.setXxlJobContext(new XxlJobContext(
-                    -1,
-                    null,
-                    logFileName,
-                    -1,
-                    -1));
-            XxlJobHelper.log(logContent);
+            XxlJobFileAppender.appendLog(logFileName, formatAppendLog);
         }
     }
 
 
-    // ---------------------- fail-callback file ----------------------
+    // ---------------------- admin select ----------------------
 
-    private static String failCallbackFilePath = XxlJobFileAppender.getLogPath().concat(File.separator).concat("callbacklog").concat(File.separator);
-    private static String failCallbackFileName = failCallbackFilePath.concat("xxl-job-callback-{x}").concat(".log");
+    private static String parseAdminStrategy(String adminStrategy) {
+        if (adminStrategy != null) {
+            for (String item : new String[]{ADMIN_FAILOVER, ADMIN_ROUND, ADMIN_LEAST_LATENCY}) {
+                if (item.equalsIgnoreCase(adminStrategy.trim())) {
+                    return item;
+                }
+            }
+        }
+        return ADMIN_FAILOVER;
+    }
 
-    private void appendFailCallbackFile(List<HandleCallbackParam> callbackParamList){
-        // valid
-        if (callbackParamList==null || callbackParamList.size()==0) {
+    /**
+     * admin in order of try
+     */
+    private List<AdminBiz> selectAdminBizList() {
+        if (adminBizList.size() <= 1 || ADMIN_FAILOVER.equals(adminStrategy)) {
+            return adminBizList;
+        }
+
+        List<AdminBiz> selectList = new ArrayList<AdminBiz>(adminBizList);
+        if (ADMIN_ROUND.equals(adminStrategy)) {
+            Collections.rotate(selectList, -((adminRoundIndex.getAndIncrement() & Integer.MAX_VALUE) % selectList.size()));
+        } else {
+            Collections.sort(selectList, new Comparator<AdminBiz>() {
+                @Override
+                public int compare(AdminBiz o1, AdminBiz o2) {
+                    return Long.compare(getLatency(o1), getLatency(o2));
+                }
+            });
+        }
+        return selectList;
+    }
+
+    private long getLatency(AdminBiz adminBiz) {
+        AtomicLong latency = adminLatencyMap.get(adminBiz);
+        return latency != null ? latency.get() : 0;         // not called yet, try first
+    }
+
+    /**
+     * EWMA latency, weight 1/4 of new sample
+     */
+    private void updateLatency(AdminBiz adminBiz, long latencyNanos) {
+        if (!ADMIN_LEAST_LATENCY.equals(adminStrategy)) {
+            return;
+        }
+        AtomicLong latency = adminLatencyMap.get(adminBiz);
+        if (latency == null) {
+            adminLatencyMap.putIfAbsent(adminBiz, new AtomicLong(latencyNanos));
             return;
         }
+        long oldLatency;
+        long newLatency;
+        do {
+            oldLatency = latency.get();
+            newLatency = oldLatency - (oldLatency >> 2) + (latencyNanos >> 2);
+        } while (!latency.compareAndSet(oldLatency, newLatency));
+    }
 
-        // append file
-        byte[] callbackParamList_bytes = JdkSerializeTool.serialize(callbackParamList);
 
-        File callbackLogFile = new File(failCallbackFileName.replace("{x}", String.valueOf(System.currentTimeMillis())));
-        if (callbackLogFile.exists()) {
-            for (int i = 0; i < 100; i++) {
-                callbackLogFile = new File(failCallbackFileName.replace("{x}", String.valueOf(System.currentTimeMillis()).concat("-").concat(String.valueOf(i)) ));
-                if (!callbackLogFile.exists()) {
-                    break;
+    // ---------------------- metrics ----------------------
+
+    /**
+     * callback success, include replayed
+     */
+    public long getCallbackCount() {
+        return callbackCount.get();
+    }
+
+    public long getCallbackBatchCount() {
+        return callbackBatchCount.get();
+    }
+
+    /**
+     * batch sending to admin now
+     */
+    public int getInflightCount() {
+        Semaphore semaphore = inflightSemaphore;
+        return semaphore != null ? inflight - semaphore.availablePermits() : 0;
+    }
+
+    /**
+     * callback waiting in queue, not batched yet
+     */
+    public int getQueueSize() {
+        return callBackQueue.size();
+    }
+
+
+    // ---------------------- fail-callback journal ----------------------
+
+    private static final long FAIL_CALLBACK_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final long FAIL_CALLBACK_MAX_SIZE = 256 * 1024 * 1024;
+    private static final int FAIL_CALLBACK_REPLAY_BATCH = 1000;
+
+    private volatile CallbackJournal failCallbackJournal;
+
+    private void openFailCallbackJournal(){
+        File failCallbackPath = new File(XxlJobFileAppender.getLogPath(), "callbacklog");
+        if (failCallbackPath.isFile()) {
+            failCallbackPath.delete();
+        }
+        CallbackJournal callbackJournal = new CallbackJournal(failCallbackPath, FAIL_CALLBACK_SEGMENT_SIZE, FAIL_CALLBACK_MAX_SIZE);
+        try {
+            callbackJournal.open();
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, fail-callback journal open error, path:{}", failCallbackPath.getPath(), e);
+            return;
+        }
+        failCallbackJournal = callbackJournal;
+
+        // old version fail-callback file, moved to journal
+        File[] oldFailCallbackFiles = failCallbackPath.listFiles();
+        if (oldFailCallbackFiles != null) {
+            Arrays.sort(oldFailCallbackFiles);
+            for (File oldFailCallbackFile : oldFailCallbackFiles) {
+                if (!(oldFailCallbackFile.getName().startsWith("xxl-job-callback-") && oldFailCallbackFile.getName().endsWith(".log"))) {
+                    continue;
+                }
+                byte[] callbackParamList_bytes = FileUtil.readFileContent(oldFailCallbackFile);
+                if (callbackParamList_bytes != null && callbackParamList_bytes.length > 0) {
+                    List<HandleCallbackParam> callbackParamList = (List<HandleCallbackParam>) JdkSerializeTool.deserialize(callbackParamList_bytes, List.class);
+                    if (callbackParamList != null && !appendFailCallbackJournal(callbackParamList)) {
+                        continue;
+                    }
                 }
+                oldFailCallbackFile.delete();
             }
         }
-        FileUtil.writeFileContent(callbackLogFile, callbackParamList_bytes);
-    }
 
-    private void retryFailCallbackFile(){
+        logger.info(">>>>>>>>>>> xxl-job, fail-callback journal open, pending callback:{}", callbackJournal.getPendingCount());
+    }
 
+    /**
+     * @return  true if appended
+     */
+    private boolean appendFailCallbackJournal(List<HandleCallbackParam> callbackParamList){
         // valid
-        File callbackLogPath = new File(failCallbackFilePath);
-        if (!callbackLogPath.exists()) {
-            return;
+        if (callbackParamList==null || callbackParamList.size()==0) {
+            return true;
         }
-        if (callbackLogPath.isFile()) {
-            callbackLogPath.delete();
+        CallbackJournal callbackJournal = failCallbackJournal;
+        if (callbackJournal == null) {
+            logger.error(">>>>>>>>>>> xxl-job, fail-callback journal not open, callback lost, size:{}", callbackParamList.size());
+            return false;
         }
-        if (!(callbackLogPath.isDirectory() && callbackLogPath.list()!=null && callbackLogPath.list().length>0)) {
-            return;
+
+        try {
+            callbackJournal.append(callbackParamList);
+            return true;
+        } catch (Exception e) {
+            logger.error(">>>>>>>>>>> xxl-job, fail-callback journal append error, callback lost, size:{}", callbackParamList.size(), e);
+            return false;
         }
+    }
 
-        // load and clear file, retry
-        for (File callbaclLogFile: callbackLogPath.listFiles()) {
-            byte[] callbackParamList_bytes = FileUtil.readFileContent(callbaclLogFile);
+    /**
+     * replay in order, by batch; stop at first fail, retry next round
+     */
+    private void retryFailCallbackJournal() throws IOException {
+        CallbackJournal callbackJournal = failCallbackJournal;
+        if (callbackJournal == null) {
+            return;
+        }
 
-            // avoid empty file
-            if(callbackParamList_bytes == null || callbackParamList_bytes.length < 1){
-                callbaclLogFile.delete();
-                continue;
+        while (!toStop) {
+            CallbackJournal.Batch batch = callbackJournal.read(FAIL_CALLBACK_REPLAY_BATCH);
+            if (batch.isEmpty()) {
+                return;
             }
+            if (!callback(batch.getCallbackParamList())) {
+                return;
+            }
+            callbackJournal.commit(batch);
+        }
+    }
 
-            List<HandleCallbackParam> callbackParamList = (List<HandleCallbackParam>) JdkSerializeTool.deserialize(callbackParamList_bytes, List.class);
+    /**
+     * backlog of fail-callback, not callback success yet
+     */
+    public long getFailCallbackPendingCount() {
+        CallbackJournal callbackJournal = failCallbackJournal;
+        return callbackJournal != null ? callbackJournal.getPendingCount() : 0;
+    }
 
-            callbaclLogFile.delete();
-            doCallback(callbackParamList);
-        }
+    public long getFailCallbackPendingSize() {
+        CallbackJournal callbackJournal = failCallbackJournal;
+        return callbackJournal != null ? callbackJournal.getPendingSize() : 0;
+    }
 
+    public long getFailCallbackDropCount() {
+        CallbackJournal callbackJournal = failCallbackJournal;
+        return callbackJournal != null ? callbackJournal.getDropCount() : 0;
     }
 
 }
@@ -0,0 +1,516 @@
+package com.xxl.job.core.util;
+
+import com.xxl.job.core.biz.model.HandleCallbackParam;
+import com.xxl.job.core.serializer.SerializerEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * callback journal, append-only segment files of failed callback, replayed in order
+ *
+ *      a、record：[length][crc32][HandleCallbackParam by BINARY serializer], torn or corrupt record dropped by crc;
+ *      b、segment：append to last segment, roll over "segmentSize"; deleted once replayed;
+ *      c、checkpoint：position of next record to replay (segment + offset), replaced atomically after each replayed batch;
+ *      d、bounded：total size over "maxSize", oldest segment dropped (records lost, counted as dropped);
+ *
+ * @author xuxueli 2023-06-30
+ */
+public class CallbackJournal {
+    private static Logger logger = LoggerFactory.getLogger(CallbackJournal.class);
+
+    private static final String SEGMENT_PREFIX = "callback-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int RECORD_HEADER_SIZE = 8;        // length + crc32
+
+    private final File journalDir;
+    private final long segmentSize;
+    private final long maxSize;
+
+    private final TreeMap<Long, Segment> segmentMap = new TreeMap<Long, Segment>();
+    private FileChannel appendChannel;                      // channel of last segment
+    private long nextSegmentId = 1;
+
+    private long checkpointSegmentId = 0;
+    private long checkpointOffset = 0;
+    private long checkpointRecordCount = 0;                 // records replayed, of checkpoint segment
+
+    private long pendingCount = 0;
+    private long pendingSize = 0;
+    private long appendCount = 0;
+    private long replayCount = 0;
+    private long dropCount = 0;
+
+    public CallbackJournal(File journalDir, long segmentSize, long maxSize) {
+        this.journalDir = journalDir;
+        this.segmentSize = segmentSize;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * load segments and checkpoint, torn record at tail truncated
+     *
+     * @throws IOException
+     */
+    public synchronized void open() throws IOException {
+        if (!journalDir.exists()) {
+            journalDir.mkdirs();
+        }
+
+        // segment
+        File[] files = journalDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                long segmentId = parseSegmentId(file.getName());
+                if (segmentId > 0) {
+                    segmentMap.put(segmentId, new Segment(segmentId, file));
+                }
+            }
+        }
+        for (Segment segment : segmentMap.values()) {
+            long[] scanResult = scan(segment.file, segment.file.length());
+            segment.size = scanResult[0];
+            segment.recordCount = scanResult[1];
+            if (segment.size < segment.file.length()) {
+                logger.warn(">>>>>>>>>>> xxl-job, callback journal segment torn, file:{}, valid size:{}, file size:{}",
+                        segment.file.getPath(), segment.size, segment.file.length());
+                if (segment.id == segmentMap.lastKey()) {
+                    truncate(segment);
+                }
+            }
+            nextSegmentId = segment.id + 1;
+        }
+
+        // checkpoint
+        loadCheckpoint();
+        nextSegmentId = Math.max(nextSegmentId, checkpointSegmentId + 1);
+        while (!segmentMap.isEmpty() && segmentMap.firstKey() < checkpointSegmentId) {
+            deleteSegment(segmentMap.firstEntry().getValue());         // replayed, delete fail last time
+        }
+        Segment checkpointSegment = segmentMap.get(checkpointSegmentId);
+        if (checkpointSegment != null) {
+            checkpointOffset = Math.min(checkpointOffset, checkpointSegment.size);
+            long[] scanResult = scan(checkpointSegment.file, checkpointOffset);
+            checkpointOffset = scanResult[0];
+            checkpointRecordCount = scanResult[1];
+        } else {
+            checkpointOffset = 0;
+            checkpointRecordCount = 0;
+        }
+
+        // pending
+        for (Segment segment : segmentMap.values()) {
+            pendingCount += segment.recordCount;
+            pendingSize += segment.size;
+        }
+        pendingCount -= checkpointRecordCount;
+        pendingSize -= checkpointOffset;
+    }
+
+    public synchronized void close() {
+        closeAppendChannel();
+    }
+
+    /**
+     * append, flushed to disk before return
+     *
+     * @param callbackParamList
+     * @throws IOException
+     */
+    public synchronized void append(List<HandleCallbackParam> callbackParamList) throws IOException {
+        if (callbackParamList == null || callbackParamList.isEmpty()) {
+            return;
+        }
+        for (HandleCallbackParam callbackParam : callbackParamList) {
+            byte[] payload = SerializerEnum.BINARY.getSerializer().serialize(callbackParam);
+            CRC32 crc32 = new CRC32();
+            crc32.update(payload, 0, payload.length);
+
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+            buffer.putInt(payload.length);
+            buffer.putInt((int) crc32.getValue());
+            buffer.put(payload);
+            buffer.flip();
+
+            // roll, new segment
+            Segment segment = segmentMap.isEmpty() ? null : segmentMap.lastEntry().getValue();
+            if (segment == null || (segment.size > 0 && segment.size + buffer.remaining() > segmentSize)) {
+                segment = rollSegment();
+            }
+            if (appendChannel == null) {
+                appendChannel = FileChannel.open(segment.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            }
+
+            int recordSize = buffer.remaining();
+            while (buffer.hasRemaining()) {
+                appendChannel.write(buffer);
+            }
+            segment.size += recordSize;
+            segment.recordCount++;
+            pendingCount++;
+            pendingSize += recordSize;
+            appendCount++;
+        }
+        appendChannel.force(false);
+
+        // bounded, drop oldest
+        long totalSize = 0;
+        for (Segment segment : segmentMap.values()) {
+            totalSize += segment.size;
+        }
+        while (totalSize > maxSize && segmentMap.size() > 1) {
+            Segment oldest = segmentMap.firstEntry().getValue();
+            long dropped = oldest.recordCount - (oldest.id == checkpointSegmentId ? checkpointRecordCount : 0);
+            long droppedSize = oldest.size - (oldest.id == checkpointSegmentId ? checkpointOffset : 0);
+            totalSize -= oldest.size;
+            deleteSegment(oldest);
+            if (oldest.id >= checkpointSegmentId) {
+                moveCheckpoint(segmentMap.firstKey());
+            }
+            pendingCount -= dropped;
+            pendingSize -= droppedSize;
+            dropCount += dropped;
+            logger.warn(">>>>>>>>>>> xxl-job, callback journal over max size:{}, oldest segment dropped, file:{}, dropped callback:{}",
+                    maxSize, oldest.file.getPath(), dropped);
+        }
+    }
+
+    /**
+     * read from checkpoint, in order; not replayed until commit
+     *
+     * @param maxCount
+     * @return  batch, empty if nothing to replay
+     * @throws IOException
+     */
+    public synchronized Batch read(int maxCount) throws IOException {
+        while (true) {
+            Map.Entry<Long, Segment> entry = segmentMap.ceilingEntry(checkpointSegmentId);
+            if (entry == null) {
+                return new Batch(checkpointSegmentId, checkpointOffset);
+            }
+            if (entry.getKey() != checkpointSegmentId) {
+                moveCheckpoint(entry.getKey());
+            }
+            Segment segment = entry.getValue();
+
+            // segment replayed, move to next
+            if (checkpointOffset >= segment.size) {
+                if (segment.id == segmentMap.lastKey()) {
+                    return new Batch(checkpointSegmentId, checkpointOffset);
+                }
+                deleteSegment(segment);
+                moveCheckpoint(segmentMap.firstKey());
+                continue;
+            }
+
+            // read record
+            Batch batch = new Batch(checkpointSegmentId, checkpointOffset);
+            FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.READ);
+            try {
+                channel.position(checkpointOffset);
+                DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 64 * 1024));
+                long offset = checkpointOffset;
+                while (batch.callbackParamList.size() < maxCount && offset < segment.size) {
+                    long recordStart = offset;
+                    int length = inputStream.readInt();
+                    int crc = inputStream.readInt();
+                    byte[] payload = null;
+                    if (length >= 0 && recordStart + RECORD_HEADER_SIZE + length <= segment.size) {
+                        payload = new byte[length];
+                        inputStream.readFully(payload);
+                        offset += RECORD_HEADER_SIZE + length;
+                    }
+
+                    CRC32 crc32 = new CRC32();
+                    if (payload != null) {
+                        crc32.update(payload, 0, payload.length);
+                    }
+                    if (payload == null || (int) crc32.getValue() != crc) {
+                        // corrupt, rest of segment dropped
+                        long dropped = segment.recordCount - checkpointRecordCount - batch.callbackParamList.size();
+                        pendingCount -= dropped;
+                        pendingSize -= segment.size - recordStart;
+                        dropCount += dropped;
+                        segment.recordCount -= dropped;
+                        segment.size = recordStart;
+                        if (segment.id == segmentMap.lastKey()) {
+                            closeAppendChannel();
+                            truncate(segment);      // append after valid record
+                        }
+                        logger.error(">>>>>>>>>>> xxl-job, callback journal record corrupt, rest of segment dropped, file:{}, offset:{}, dropped callback:{}",
+                                segment.file.getPath(), recordStart, dropped);
+                        break;
+                    }
+                    batch.callbackParamList.add(SerializerEnum.BINARY.getSerializer().<HandleCallbackParam>deserialize(payload, HandleCallbackParam.class));
+                    batch.toOffset = offset;
+                }
+            } finally {
+                channel.close();
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * commit batch replayed, checkpoint moved after it
+     *
+     * @param batch
+     * @throws IOException
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        if (batch.callbackParamList.isEmpty()
+                || batch.segmentId != checkpointSegmentId
+                || batch.fromOffset != checkpointOffset) {
+            return;     // dropped when read, or committed
+        }
+        int count = batch.callbackParamList.size();
+        checkpointOffset = batch.toOffset;
+        checkpointRecordCount += count;
+        pendingCount -= count;
+        pendingSize -= batch.toOffset - batch.fromOffset;
+        replayCount += count;
+
+        // segment replayed, delete
+        Segment segment = segmentMap.get(checkpointSegmentId);
+        if (segment != null && checkpointOffset >= segment.size && segment.id != segmentMap.lastKey()) {
+            deleteSegment(segment);
+            checkpointSegmentId = segmentMap.firstKey();
+            checkpointOffset = 0;
+            checkpointRecordCount = 0;
+        }
+        writeCheckpoint();
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    /**
+     * backlog, callback not replayed yet
+     */
+    public synchronized long getPendingCount() {
+        return pendingCount;
+    }
+
+    public synchronized long getPendingSize() {
+        return pendingSize;
+    }
+
+    public synchronized long getAppendCount() {
+        return appendCount;
+    }
+
+    public synchronized long getReplayCount() {
+        return replayCount;
+    }
+
+    public synchronized long getDropCount() {
+        return dropCount;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segmentMap.size();
+    }
+
+
+    // ---------------------- segment ----------------------
+
+    private Segment rollSegment() throws IOException {
+        closeAppendChannel();
+        Segment segment = new Segment(nextSegmentId, new File(journalDir, SEGMENT_PREFIX + String.format("%020d", nextSegmentId) + SEGMENT_SUFFIX));
+        nextSegmentId++;
+        segmentMap.put(segment.id, segment);
+        if (segmentMap.size() == 1) {
+            moveCheckpoint(segment.id);
+        }
+        return segment;
+    }
+
+    private void deleteSegment(Segment segment) {
+        if (!segmentMap.isEmpty() && segment.id == segmentMap.lastKey()) {
+            closeAppendChannel();
+        }
+        segmentMap.remove(segment.id);
+        if (segment.file.exists() && !segment.file.delete()) {
+            logger.warn(">>>>>>>>>>> xxl-job, callback journal segment delete fail, file:{}", segment.file.getPath());
+        }
+    }
+
+    private void truncate(Segment segment) throws IOException {
+        FileChannel channel = FileChannel.open(segment.file.toPath(), StandardOpenOption.WRITE);
+        try {
+            channel.truncate(segment.size);
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void closeAppendChannel() {
+        if (appendChannel != null) {
+            try {
+                appendChannel.close();
+            } catch (IOException e) {
+                logger.error(e.getMessage(), e);
+            }
+            appendChannel = null;
+        }
+    }
+
+    /**
+     * scan valid record
+     *
+     * @return  [offset of valid end, record count], record before "limitOffset"
+     */
+    private static long[] scan(File file, long limitOffset) throws IOException {
+        long offset = 0;
+        long recordCount = 0;
+        DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+        try {
+            while (offset + RECORD_HEADER_SIZE <= limitOffset) {
+                int length = inputStream.readInt();
+                int crc = inputStream.readInt();
+                if (length < 0 || offset + RECORD_HEADER_SIZE + length > limitOffset) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                inputStream.readFully(payload);
+
+                CRC32 crc32 = new CRC32();
+                crc32.update(payload, 0, payload.length);
+                if ((int) crc32.getValue() != crc) {
+                    break;
+                }
+                offset += RECORD_HEADER_SIZE + length;
+                recordCount++;
+            }
+        } catch (EOFException e) {
+            // torn
+        } finally {
+            inputStream.close();
+        }
+        return new long[]{offset, recordCount};
+    }
+
+    private static long parseSegmentId(String fileName) {
+        if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+
+    // ---------------------- checkpoint ----------------------
+
+    private void moveCheckpoint(long segmentId) throws IOException {
+        checkpointSegmentId = segmentId;
+        checkpointOffset = 0;
+        checkpointRecordCount = 0;
+        writeCheckpoint();
+    }
+
+    private void loadCheckpoint() {
+        File checkpointFile = new File(journalDir, CHECKPOINT_FILE);
+        if (!checkpointFile.isFile()) {
+            checkpointSegmentId = segmentMap.isEmpty() ? 0 : segmentMap.firstKey();
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(checkpointFile.toPath()));
+            long segmentId = buffer.getLong();
+            long offset = buffer.getLong();
+            int crc = buffer.getInt();
+
+            CRC32 crc32 = new CRC32();
+            crc32.update(buffer.array(), 0, 16);
+            if ((int) crc32.getValue() != crc) {
+                throw new IOException("checkpoint crc invalid");
+            }
+            checkpointSegmentId = segmentId;
+            checkpointOffset = offset;
+        } catch (Exception e) {
+            // replay from oldest, callback of same log is idempotent at admin
+            logger.warn(">>>>>>>>>>> xxl-job, callback journal checkpoint invalid, replay from oldest segment, file:{}", checkpointFile.getPath(), e);
+            checkpointSegmentId = segmentMap.isEmpty() ? 0 : segmentMap.firstKey();
+            checkpointOffset = 0;
+        }
+    }
+
+    private void writeCheckpoint() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        buffer.putLong(checkpointSegmentId);
+        buffer.putLong(checkpointOffset);
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.array(), 0, 16);
+        buffer.putInt((int) crc32.getValue());
+        buffer.flip();
+
+        File tmpFile = new File(journalDir, CHECKPOINT_FILE + ".tmp");
+        FileChannel channel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+        Files.move(tmpFile.toPath(), new File(journalDir, CHECKPOINT_FILE).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    // ---------------------- model ----------------------
+
+    private static class Segment {
+        private final long id;
+        private final File file;
+        private long size;              // valid size
+        private long recordCount;
+
+        Segment(long id, File file) {
+            this.id = id;
+            this.file = file;
+        }
+    }
+
+    /**
+     * records read from checkpoint, in one segment
+     */
+    public static class Batch {
+        private final long segmentId;
+        private final long fromOffset;
+        private long toOffset;
+        private final List<HandleCallbackParam> callbackParamList = new ArrayList<HandleCallbackParam>();
+
+        Batch(long segmentId, long fromOffset) {
+            this.segmentId = segmentId;
+            this.fromOffset = fromOffset;
+            this.toOffset = fromOffset;
+        }
+
+        public List<HandleCallbackParam> getCallbackParamList() {
+            return callbackParamList;
+        }
+
+        public boolean isEmpty() {
+            return callbackParamList.isEmpty();
+        }
+    }
+
+}
@@ -39,16 +39,27 @@ public class GsonTool {
         return gson.fromJson(json, classOfT);
     }
 
+    /**
+     * json 转成 特定的 type 的Object
+     *
+     * @param json
+     * @param typeOfT
+     * @return
+     */
+    public static <T> T fromJson(String json, Type typeOfT) {
+        return gson.fromJson(json, typeOfT);
+    }
+
     /**
      * json 转成 特定的 rawClass<classOfT> 的Object
      *
      * @param json
      * @param classOfT
-     * @param argClassOfT
+     * @param argClassOfT     class or parameterized type, like ReturnT&lt;List&lt;ReturnT&lt;String&gt;&gt;&gt;
      * @return
      */
-    public static <T> T fromJson(String json, Class<T> classOfT, Class argClassOfT) {
-        Type type = new ParameterizedType4ReturnT(classOfT, new Class[]{argClassOfT});
+    public static <T> T fromJson(String json, Class<T> classOfT, Type argClassOfT) {
+        Type type = new ParameterizedType4ReturnT(classOfT, new Type[]{argClassOfT});
         return gson.fromJson(json, type);
     }
     public static class ParameterizedType4ReturnT implements ParameterizedType {
@@ -80,8 +91,7 @@ public class GsonTool {
     public static <T> List<T> fromJsonList(String json, Class<T> classOfT) {
         return gson.fromJson(
                 json,
-                new TypeToken<List<T>>() {
-                }.getType()
+                TypeToken.getParameterized(List.class, classOfT).getType()
         );
     }
 
@@ -0,0 +1,137 @@
+package com.xxl.job.core.util;
+
+/**
+ * primitive long hash set, open addressing (linear probing), no boxing
+ *
+ *      a、atomic：methods synchronized, "add" is check-then-act in one step, return false if exists;
+ *      b、remove：backward shift delete, no tombstone left by frequent add/remove;
+ *
+ * @author xuxueli 2023-06-26
+ */
+public class LongHashSet {
+
+    private static final long EMPTY = 0;        // key 0, stored by "containsZero"
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = 8;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.table = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return  true if added, false if exists
+     */
+    public synchronized boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == key) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = key;
+        size++;
+
+        // load factor 0.5
+        if (size * 2 > table.length) {
+            resize(table.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * @return  true if removed, false if not exists
+     */
+    public synchronized boolean remove(long key) {
+        if (key == EMPTY) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int index = hash(key) & mask;
+        while (table[index] != key) {
+            if (table[index] == EMPTY) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = EMPTY;
+        size--;
+
+        // backward shift, keep probe chain continuous
+        int gap = index;
+        int next = (gap + 1) & mask;
+        while (table[next] != EMPTY) {
+            int home = hash(table[next]) & mask;
+            // move if home not in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                table[gap] = table[next];
+                table[next] = EMPTY;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return true;
+    }
+
+    public synchronized boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        int index = hash(key) & mask;
+        while (table[index] != EMPTY) {
+            if (table[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void resize(int newCapacity) {
+        long[] oldTable = table;
+        table = new long[newCapacity];
+        mask = newCapacity - 1;
+        for (long key : oldTable) {
+            if (key != EMPTY) {
+                int index = hash(key) & mask;
+                while (table[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                table[index] = key;
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        // mix, logId is sequential
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
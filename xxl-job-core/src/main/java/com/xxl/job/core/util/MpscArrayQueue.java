@@ -0,0 +1,141 @@
+package com.xxl.job.core.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * bounded queue, multi producer + single consumer, lock free
+ *
+ *      a、producer：claim slot by CAS on producer index, fail fast (return false) if full;
+ *      b、consumer：only one thread (like JobThread), park when empty, unpark by producer;
+ *      c、capacity：round up to power of 2;
+ *
+ * @author xuxueli 2023-06-26
+ */
+public class MpscArrayQueue<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLong producerIndex = new AtomicLong(0);
+    private volatile long consumerIndex = 0;        // write by consumer only
+    private volatile Thread waiter;                 // consumer parked
+
+    public MpscArrayQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("xxl-job, MpscArrayQueue capacity invalid:" + capacity);
+        }
+        int actualCapacity = 1;
+        while (actualCapacity < capacity) {
+            actualCapacity <<= 1;
+        }
+        this.capacity = actualCapacity;
+        this.mask = actualCapacity - 1;
+        this.buffer = new AtomicReferenceArray<E>(actualCapacity);
+    }
+
+    /**
+     * offer, by any thread
+     *
+     * @param e     not null
+     * @return      false if full
+     */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+
+        // claim slot
+        long pIndex;
+        do {
+            pIndex = producerIndex.get();
+            if (pIndex - consumerIndex >= capacity) {
+                return false;
+            }
+        } while (!producerIndex.compareAndSet(pIndex, pIndex + 1));
+
+        // publish, then wake up consumer
+        buffer.set((int) (pIndex & mask), e);
+        Thread waiterTmp = waiter;
+        if (waiterTmp != null) {
+            LockSupport.unpark(waiterTmp);
+        }
+        return true;
+    }
+
+    /**
+     * poll, by consumer thread only
+     *
+     * @return  null if empty
+     */
+    public E poll() {
+        long cIndex = consumerIndex;
+        int offset = (int) (cIndex & mask);
+        E e = buffer.get(offset);
+        if (e == null) {
+            if (cIndex == producerIndex.get()) {
+                return null;
+            }
+            // slot claimed by producer, not published yet
+            do {
+                Thread.yield();
+                e = buffer.get(offset);
+            } while (e == null);
+        }
+        buffer.lazySet(offset, null);
+        consumerIndex = cIndex + 1;
+        return e;
+    }
+
+    /**
+     * poll with timeout, by consumer thread only
+     *
+     * @return  null if timeout
+     */
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        waiter = Thread.currentThread();
+        try {
+            while (true) {
+                e = poll();
+                if (e != null) {
+                    return e;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    public int size() {
+        // read consumer index first, avoid negative size
+        long cIndex = consumerIndex;
+        long size = producerIndex.get() - cIndex;
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.xxl.job.core.util;
 
 import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.log.XxlJobFileAppender;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -58,6 +59,9 @@ public class ScriptUtil {
         Thread inputThread = null;
         Thread errThread = null;
         try {
+            // log appended async, write before script output
+            XxlJobFileAppender.flushLog(logFile);
+
             // file
             fileOutputStream = new FileOutputStream(logFile, true);
 
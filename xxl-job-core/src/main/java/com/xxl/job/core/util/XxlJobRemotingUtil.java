@@ -1,18 +1,29 @@
 package com.xxl.job.core.util;
 
 import com.xxl.job.core.biz.model.ReturnT;
+import com.xxl.job.core.remoting.NettyHttpClient;
+import com.xxl.job.core.remoting.PooledHttpTransport;
+import com.xxl.job.core.remoting.RemotingResponse;
+import com.xxl.job.core.remoting.RemotingTransport;
+import com.xxl.job.core.remoting.UrlConnectionTransport;
+import com.xxl.job.core.serializer.SerializerEnum;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.net.ssl.*;
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.InputStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiFunction;
 
 /**
  * @author xuxueli 2018-11-25 00:55:31
@@ -20,26 +31,118 @@ import java.util.Map;
 public class XxlJobRemotingUtil {
     private static Logger logger = LoggerFactory.getLogger(XxlJobRemotingUtil.class);
     public static final String XXL_JOB_ACCESS_TOKEN = "XXL-JOB-ACCESS-TOKEN";
+    public static final String XXL_JOB_SERIALIZER = "XXL-JOB-SERIALIZER";
+    public static final String XXL_JOB_SERIALIZER_ACCEPT = "XXL-JOB-SERIALIZER-ACCEPT";
+    public static final String XXL_JOB_STREAM = "XXL-JOB-STREAM";
 
 
-    // trust-https start
-    private static void trustAllHosts(HttpsURLConnection connection) {
-        try {
-            SSLContext sc = SSLContext.getInstance("TLS");
-            sc.init(null, trustAllCerts, new java.security.SecureRandom());
-            SSLSocketFactory newFactory = sc.getSocketFactory();
+    // ---------------------- transport ----------------------
 
-            connection.setSSLSocketFactory(newFactory);
-        } catch (Exception e) {
-            logger.error(e.getMessage(), e);
+    private static volatile RemotingTransport transport = new PooledHttpTransport();
+
+    /**
+     * replace default transport (PooledHttpTransport), old transport will be closed
+     *
+     * @param remotingTransport
+     */
+    public static void setTransport(RemotingTransport remotingTransport) {
+        if (remotingTransport == null) {
+            return;
         }
-        connection.setHostnameVerifier(new HostnameVerifier() {
-            @Override
-            public boolean verify(String hostname, SSLSession session) {
-                return true;
+        RemotingTransport oldTransport = transport;
+        transport = remotingTransport;
+        if (oldTransport != remotingTransport) {
+            oldTransport.close();
+        }
+    }
+
+    public static RemotingTransport getTransport() {
+        return transport;
+    }
+
+
+    // ---------------------- serializer ----------------------
+
+    private static volatile SerializerEnum serializer = SerializerEnum.JSON;     // BINARY only when opted in
+    private static ConcurrentMap<String, String> serializerAcceptMap = new ConcurrentHashMap<String, String>();
+
+    /**
+     * preferred serializer, used once accepted by server (header "XXL-JOB-SERIALIZER-ACCEPT" of last response), else JSON
+     *
+     * @param preferSerializer
+     */
+    public static void setSerializer(SerializerEnum preferSerializer) {
+        if (preferSerializer != null) {
+            serializer = preferSerializer;
+        }
+    }
+
+    public static SerializerEnum getSerializer() {
+        return serializer;
+    }
+
+    private static SerializerEnum selectSerializer(String url) {
+        SerializerEnum preferSerializer = serializer;
+        if (preferSerializer == SerializerEnum.JSON) {
+            return SerializerEnum.JSON;
+        }
+        String accept = serializerAcceptMap.get(parseAddress(url));
+        return (accept != null && preferSerializer.isAccepted(accept)) ? preferSerializer : SerializerEnum.JSON;
+    }
+
+    private static void refreshSerializerAccept(String url, String accept) {
+        String address = parseAddress(url);
+        if (accept == null) {
+            // old version, or downgraded
+            if (serializerAcceptMap.containsKey(address)) {
+                serializerAcceptMap.remove(address);
             }
-        });
+        } else if (!accept.equals(serializerAcceptMap.get(address))) {
+            serializerAcceptMap.put(address, accept);
+        }
+    }
+
+    /**
+     * server address of url, like "http://127.0.0.1:9999"
+     */
+    private static String parseAddress(String url) {
+        int schemeIndex = url.indexOf("://");
+        int pathIndex = url.indexOf('/', schemeIndex > -1 ? schemeIndex + 3 : 0);
+        return pathIndex > -1 ? url.substring(0, pathIndex) : url;
+    }
+
+    private static byte[] serializeRequest(SerializerEnum requestSerializer, Object requestObj) {
+        if (requestObj == null) {
+            return null;
+        }
+        return requestSerializer.getSerializer().serialize(requestObj);
+    }
+
+
+    // trust-https start
+    private static volatile SSLSocketFactory trustAllSocketFactory;
+
+    /**
+     * trust all certs, created once and shared by all https connection
+     */
+    public static SSLSocketFactory getTrustAllSocketFactory() throws GeneralSecurityException {
+        if (trustAllSocketFactory == null) {
+            synchronized (XxlJobRemotingUtil.class) {
+                if (trustAllSocketFactory == null) {
+                    SSLContext sc = SSLContext.getInstance("TLS");
+                    sc.init(null, trustAllCerts, new java.security.SecureRandom());
+                    trustAllSocketFactory = sc.getSocketFactory();
+                }
+            }
+        }
+        return trustAllSocketFactory;
     }
+    public static final HostnameVerifier TRUST_ALL_HOSTNAME_VERIFIER = new HostnameVerifier() {
+        @Override
+        public boolean verify(String hostname, SSLSession session) {
+            return true;
+        }
+    };
     private static final TrustManager[] trustAllCerts = new TrustManager[]{new X509TrustManager() {
         @Override
         public java.security.cert.X509Certificate[] getAcceptedIssuers() {
@@ -56,7 +159,7 @@ public class XxlJobRemotingUtil {
 
 
     /**
-     * post
+     * post, by default transport
      *
      * @param url
      * @param accessToken
@@ -66,93 +169,157 @@ public class XxlJobRemotingUtil {
      * @return
      */
     public static ReturnT postBody(String url, String accessToken, int timeout, Object requestObj, Class returnTargClassOfT) {
-        HttpURLConnection connection = null;
-        BufferedReader bufferedReader = null;
-        try {
-            // connection
-            URL realUrl = new URL(url);
-            connection = (HttpURLConnection) realUrl.openConnection();
-
-            // trust-https
-            boolean useHttps = url.startsWith("https");
-            if (useHttps) {
-                HttpsURLConnection https = (HttpsURLConnection) connection;
-                trustAllHosts(https);
-            }
+        return postBody(transport, url, accessToken, timeout, requestObj, returnTargClassOfT);
+    }
 
-            // connection setting
-            connection.setRequestMethod("POST");
-            connection.setDoOutput(true);
-            connection.setDoInput(true);
-            connection.setUseCaches(false);
-            connection.setReadTimeout(timeout * 1000);
-            connection.setConnectTimeout(3 * 1000);
-            connection.setRequestProperty("connection", "Keep-Alive");
-            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
-            connection.setRequestProperty("Accept-Charset", "application/json;charset=UTF-8");
-
-            if(accessToken!=null && accessToken.trim().length()>0){
-                connection.setRequestProperty(XXL_JOB_ACCESS_TOKEN, accessToken);
-            }
+    /**
+     * post
+     *
+     * @param remotingTransport
+     * @param url
+     * @param accessToken
+     * @param timeout
+     * @param requestObj
+     * @param returnTargClassOfT
+     * @return
+     */
+    public static ReturnT postBody(RemotingTransport remotingTransport, String url, String accessToken, int timeout, Object requestObj, Type returnTargClassOfT) {
+        try {
+            // write requestBody
+            SerializerEnum requestSerializer = selectSerializer(url);
+            byte[] requestBody = serializeRequest(requestSerializer, requestObj);
 
-            // do connection
-            connection.connect();
+            RemotingResponse response = remotingTransport.post(url, accessToken, requestSerializer, timeout, requestBody);
+            return parseResponse(url, response, returnTargClassOfT);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ e.getMessage() +"), for url : " + url);
+        }
+    }
 
-            // write requestBody
-            if (requestObj != null) {
-                String requestBody = GsonTool.toJson(requestObj);
+    /**
+     * post, non-blocking
+     *
+     * @param nettyHttpClient
+     * @param url
+     * @param accessToken
+     * @param timeout
+     * @param requestObj
+     * @param returnTargClassOfT
+     * @return  future completed on io thread, never completed exceptionally (error as fail ReturnT)
+     */
+    public static CompletableFuture<ReturnT> postBodyAsync(NettyHttpClient nettyHttpClient, final String url, String accessToken, int timeout, Object requestObj, final Type returnTargClassOfT) {
+        SerializerEnum requestSerializer = selectSerializer(url);
+        byte[] requestBody;
+        try {
+            requestBody = serializeRequest(requestSerializer, requestObj);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            return CompletableFuture.completedFuture((ReturnT) new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ e.getMessage() +"), for url : " + url));
+        }
 
-                DataOutputStream dataOutputStream = new DataOutputStream(connection.getOutputStream());
-                dataOutputStream.write(requestBody.getBytes("UTF-8"));
-                dataOutputStream.flush();
-                dataOutputStream.close();
+        return nettyHttpClient.post(url, accessToken, requestSerializer, timeout, requestBody).handle(new BiFunction<RemotingResponse, Throwable, ReturnT>() {
+            @Override
+            public ReturnT apply(RemotingResponse response, Throwable throwable) {
+                if (throwable != null) {
+                    logger.error(throwable.getMessage(), throwable);
+                    return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ throwable.getMessage() +"), for url : " + url);
+                }
+                return parseResponse(url, response, returnTargClassOfT);
             }
+        });
+    }
 
-            /*byte[] requestBodyBytes = requestBody.getBytes("UTF-8");
-            connection.setRequestProperty("Content-Length", String.valueOf(requestBodyBytes.length));
-            OutputStream outwritestream = connection.getOutputStream();
-            outwritestream.write(requestBodyBytes);
-            outwritestream.flush();
-            outwritestream.close();*/
+    /**
+     * post, stream response (header "XXL-JOB-STREAM") copied to outputStream directly, not buffered in heap; for large body like log file
+     *
+     * @param url
+     * @param accessToken
+     * @param timeout       read timeout, by second
+     * @param requestObj
+     * @param outputStream
+     * @return  length of streamed body; fail ReturnT if response not stream (like request invalid, or old version server)
+     */
+    public static ReturnT<Long> postStream(String url, String accessToken, int timeout, Object requestObj, OutputStream outputStream) {
+        HttpURLConnection connection = null;
+        InputStream inputStream = null;
+        try {
+            SerializerEnum requestSerializer = selectSerializer(url);
+            byte[] requestBody = serializeRequest(requestSerializer, requestObj);
+            connection = UrlConnectionTransport.openConnection(url, accessToken, requestSerializer, timeout, requestBody);
 
             // valid StatusCode
             int statusCode = connection.getResponseCode();
             if (statusCode != 200) {
-                return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting fail, StatusCode("+ statusCode +") invalid. for url : " + url);
+                return new ReturnT<Long>(ReturnT.FAIL_CODE, "xxl-job remoting fail, StatusCode("+ statusCode +") invalid. for url : " + url);
             }
 
-            // result
-            bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"));
-            StringBuilder result = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                result.append(line);
-            }
-            String resultJson = result.toString();
-
-            // parse returnT
-            try {
-                ReturnT returnT = GsonTool.fromJson(resultJson, ReturnT.class, returnTargClassOfT);
-                return returnT;
-            } catch (Exception e) {
-                logger.error("xxl-job remoting (url="+url+") response content invalid("+ resultJson +").", e);
-                return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting (url="+url+") response content invalid("+ resultJson +").");
+            // stream, copy by buffer
+            inputStream = connection.getInputStream();
+            byte[] buffer = new byte[8 * 1024];
+            int len;
+            if (connection.getHeaderField(XXL_JOB_STREAM) != null) {
+                long length = 0;
+                while ((len = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, len);
+                    length += len;
+                }
+                outputStream.flush();
+                return new ReturnT<Long>(length);
             }
 
+            // not stream, small body of ReturnT
+            ByteArrayOutputStream result = new ByteArrayOutputStream(256);
+            while ((len = inputStream.read(buffer)) != -1) {
+                result.write(buffer, 0, len);
+            }
+            RemotingResponse response = new RemotingResponse(statusCode, result.toByteArray(),
+                    connection.getHeaderField(XXL_JOB_SERIALIZER),
+                    connection.getHeaderField(XXL_JOB_SERIALIZER_ACCEPT));
+            ReturnT returnT = parseResponse(url, response, String.class);
+            if (returnT.getCode() == ReturnT.SUCCESS_CODE) {
+                return new ReturnT<Long>(ReturnT.FAIL_CODE, "xxl-job remoting fail, response not stream. for url : " + url);
+            }
+            return new ReturnT<Long>(returnT.getCode(), returnT.getMsg());
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
-            return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ e.getMessage() +"), for url : " + url);
+            return new ReturnT<Long>(ReturnT.FAIL_CODE, "xxl-job remoting error("+ e.getMessage() +"), for url : " + url);
         } finally {
-            try {
-                if (bufferedReader != null) {
-                    bufferedReader.close();
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (Exception e) {
+                    logger.error(e.getMessage(), e);
                 }
-                if (connection != null) {
-                    connection.disconnect();
-                }
-            } catch (Exception e2) {
-                logger.error(e2.getMessage(), e2);
             }
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static ReturnT parseResponse(String url, RemotingResponse response, Type returnTargClassOfT) {
+        // valid StatusCode
+        int statusCode = response.getStatusCode();
+        if (statusCode != 200) {
+            return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting fail, StatusCode("+ statusCode +") invalid. for url : " + url);
+        }
+
+        // serializer negotiation
+        refreshSerializerAccept(url, response.getSerializerAccept());
+
+        // parse returnT
+        SerializerEnum responseSerializer = SerializerEnum.match(response.getSerializer(), SerializerEnum.JSON);
+        try {
+            ReturnT returnT = responseSerializer.getSerializer().deserialize(response.getBody(),
+                    new GsonTool.ParameterizedType4ReturnT(ReturnT.class, new Type[]{returnTargClassOfT}));
+            return returnT;
+        } catch (Exception e) {
+            String resultContent = (responseSerializer == SerializerEnum.JSON && response.getBody() != null)
+                    ? new String(response.getBody(), StandardCharsets.UTF_8)
+                    : responseSerializer + " body, length:" + (response.getBody() != null ? response.getBody().length : 0);
+            logger.error("xxl-job remoting (url="+url+") response content invalid("+ resultContent +").", e);
+            return new ReturnT<String>(ReturnT.FAIL_CODE, "xxl-job remoting (url="+url+") response content invalid("+ resultContent +").");
         }
     }
 
@@ -43,6 +43,13 @@ public class FrameLessXxlJobConfig {
         xxlJobExecutor.setPort(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.port")));
         xxlJobExecutor.setLogPath(xxlJobProp.getProperty("xxl.job.executor.logpath"));
         xxlJobExecutor.setLogRetentionDays(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.logretentiondays")));
+        xxlJobExecutor.setLogArchiveDays(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.logarchivedays")));
+        xxlJobExecutor.setThreadMode(xxlJobProp.getProperty("xxl.job.executor.threadmode"));
+        xxlJobExecutor.setTriggerQueueCapacity(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.triggerqueuecapacity")));
+        xxlJobExecutor.setCallbackBatchSize(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.callbackbatchsize")));
+        xxlJobExecutor.setCallbackLinger(Long.valueOf(xxlJobProp.getProperty("xxl.job.executor.callbacklinger")));
+        xxlJobExecutor.setCallbackInflight(Integer.valueOf(xxlJobProp.getProperty("xxl.job.executor.callbackinflight")));
+        xxlJobExecutor.setCallbackAdminStrategy(xxlJobProp.getProperty("xxl.job.executor.callbackadminstrategy"));
 
         // registry job bean
         xxlJobExecutor.setXxlJobBeanList(Arrays.asList(new SampleXxlJob()));
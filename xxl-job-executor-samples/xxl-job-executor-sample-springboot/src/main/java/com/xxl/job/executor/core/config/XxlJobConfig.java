@@ -40,6 +40,27 @@ public class XxlJobConfig {
     @Value("${xxl.job.executor.logretentiondays}")
     private int logRetentionDays;
 
+    @Value("${xxl.job.executor.logarchivedays}")
+    private int logArchiveDays;
+
+    @Value("${xxl.job.executor.threadmode}")
+    private String threadMode;
+
+    @Value("${xxl.job.executor.triggerqueuecapacity}")
+    private int triggerQueueCapacity;
+
+    @Value("${xxl.job.executor.callbackbatchsize}")
+    private int callbackBatchSize;
+
+    @Value("${xxl.job.executor.callbacklinger}")
+    private long callbackLinger;
+
+    @Value("${xxl.job.executor.callbackinflight}")
+    private int callbackInflight;
+
+    @Value("${xxl.job.executor.callbackadminstrategy}")
+    private String callbackAdminStrategy;
+
 
     @Bean
     public XxlJobSpringExecutor xxlJobExecutor() {
@@ -53,6 +74,13 @@ public class XxlJobConfig {
         xxlJobSpringExecutor.setAccessToken(accessToken);
         xxlJobSpringExecutor.setLogPath(logPath);
         xxlJobSpringExecutor.setLogRetentionDays(logRetentionDays);
+        xxlJobSpringExecutor.setLogArchiveDays(logArchiveDays);
+        xxlJobSpringExecutor.setThreadMode(threadMode);
+        xxlJobSpringExecutor.setTriggerQueueCapacity(triggerQueueCapacity);
+        xxlJobSpringExecutor.setCallbackBatchSize(callbackBatchSize);
+        xxlJobSpringExecutor.setCallbackLinger(callbackLinger);
+        xxlJobSpringExecutor.setCallbackInflight(callbackInflight);
+        xxlJobSpringExecutor.setCallbackAdminStrategy(callbackAdminStrategy);
 
         return xxlJobSpringExecutor;
     }